@@ -11,6 +11,7 @@ public class AppData {
     public String activityName;
     public String versionName;
     public String versionCode;
+    public long lastUpdateTime;
     public boolean isSystemApp;
     public boolean enabled;
 }
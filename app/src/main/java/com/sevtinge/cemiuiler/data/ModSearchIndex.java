@@ -0,0 +1,193 @@
+package com.sevtinge.cemiuiler.data;
+
+import android.util.SparseArray;
+
+import com.github.promeg.pinyinhelper.Pinyin;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 设置项搜索索引
+ * <p>
+ * 预先计算小写标题、拼音全拼与首字母，并按单个字符和相邻两个字符建立倒排表；
+ * 查询只校验倒排表中最短的候选列表，输入在上一次查询后追加字符时只在上次结果中继续筛选。
+ * 结果按匹配方式排序：完全匹配、前缀、包含、拼音首字母、拼音全拼
+ */
+public class ModSearchIndex {
+
+    private static final int RANK_EXACT = 0;
+    private static final int RANK_PREFIX = 1;
+    private static final int RANK_CONTAINS = 2;
+    private static final int RANK_INITIALS = 3;
+    private static final int RANK_PINYIN = 4;
+    private static final int NO_MATCH = -1;
+
+    private final ModData[] mMods;
+    private final String[] mTitles;
+    // 标题不含中文时为 null
+    private final String[] mPinyin;
+    private final String[] mInitials;
+    private final SparseArray<int[]> mPostings = new SparseArray<>();
+
+    private String mLastQuery = null;
+    private int[] mLastResult = new int[0];
+    private int mLastCount = 0;
+    private int[] mRanks;
+
+    public ModSearchIndex(List<ModData> mods) {
+        int size = mods.size();
+        mMods = mods.toArray(new ModData[0]);
+        mTitles = new String[size];
+        mPinyin = new String[size];
+        mInitials = new String[size];
+        mRanks = new int[size];
+
+        SparseArray<int[]> postings = new SparseArray<>();
+        for (int doc = 0; doc < size; doc++) {
+            String title = mMods[doc].title == null ? "" : mMods[doc].title.toLowerCase(Locale.ROOT);
+            mTitles[doc] = title;
+            addPostings(postings, doc, title);
+
+            if (!hasChinese(title)) continue;
+            StringBuilder pinyin = new StringBuilder();
+            StringBuilder initials = new StringBuilder();
+            for (int i = 0; i < title.length(); i++) {
+                char c = title.charAt(i);
+                if (Pinyin.isChinese(c)) {
+                    String py = Pinyin.toPinyin(c).toLowerCase(Locale.ROOT);
+                    pinyin.append(py);
+                    initials.append(py.charAt(0));
+                } else {
+                    pinyin.append(c);
+                    initials.append(c);
+                }
+            }
+            mPinyin[doc] = pinyin.toString();
+            mInitials[doc] = initials.toString();
+            addPostings(postings, doc, mPinyin[doc]);
+            addPostings(postings, doc, mInitials[doc]);
+        }
+
+        // 倒排表第一个元素为长度，构建完成后裁剪
+        for (int i = 0; i < postings.size(); i++) {
+            int[] list = postings.valueAt(i);
+            mPostings.put(postings.keyAt(i), Arrays.copyOfRange(list, 1, list[0] + 1));
+        }
+    }
+
+    public int size() {
+        return mMods.length;
+    }
+
+    /**
+     * 在 Filter 的工作线程中调用，不能并发使用
+     */
+    public ArrayList<ModData> search(String query) {
+        String q = query.toLowerCase(Locale.ROOT);
+        if (q.isEmpty()) {
+            mLastQuery = null;
+            return new ArrayList<>();
+        }
+
+        int[] candidates;
+        int count;
+        if (mLastQuery != null && q.startsWith(mLastQuery)) {
+            candidates = mLastResult;
+            count = mLastCount;
+        } else {
+            candidates = getCandidates(q);
+            count = candidates.length;
+        }
+
+        int[] result = new int[count];
+        int matched = 0;
+        for (int i = 0; i < count; i++) {
+            int doc = candidates[i];
+            int rank = match(doc, q);
+            if (rank == NO_MATCH) continue;
+            mRanks[doc] = rank;
+            result[matched++] = doc;
+        }
+        mLastQuery = q;
+        mLastResult = result;
+        mLastCount = matched;
+
+        ArrayList<ModData> list = new ArrayList<>(matched);
+        Integer[] sorted = new Integer[matched];
+        for (int i = 0; i < matched; i++) sorted[i] = result[i];
+        Arrays.sort(sorted, (doc1, doc2) -> {
+            int rank = Integer.compare(mRanks[doc1], mRanks[doc2]);
+            if (rank != 0) return rank;
+            int breadcrumbs = mMods[doc1].breadcrumbs.compareToIgnoreCase(mMods[doc2].breadcrumbs);
+            if (breadcrumbs != 0) return breadcrumbs;
+            return mMods[doc1].title.compareToIgnoreCase(mMods[doc2].title);
+        });
+        for (Integer doc : sorted) list.add(mMods[doc]);
+        return list;
+    }
+
+    private int[] getCandidates(String q) {
+        if (q.length() == 1) return getPosting(key(q.charAt(0), (char) 0));
+        int[] best = null;
+        for (int i = 0; i + 1 < q.length(); i++) {
+            int[] posting = getPosting(key(q.charAt(i), q.charAt(i + 1)));
+            if (best == null || posting.length < best.length) best = posting;
+            if (best.length == 0) break;
+        }
+        return best;
+    }
+
+    private int[] getPosting(int key) {
+        int[] posting = mPostings.get(key);
+        return posting == null ? new int[0] : posting;
+    }
+
+    private int match(int doc, String q) {
+        String title = mTitles[doc];
+        int index = title.indexOf(q);
+        if (index == 0) return title.length() == q.length() ? RANK_EXACT : RANK_PREFIX;
+        if (index > 0) return RANK_CONTAINS;
+        if (mPinyin[doc] == null) return NO_MATCH;
+        if (mInitials[doc].contains(q)) return RANK_INITIALS;
+        if (mPinyin[doc].contains(q)) return RANK_PINYIN;
+        return NO_MATCH;
+    }
+
+    private static void addPostings(SparseArray<int[]> postings, int doc, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            addPosting(postings, key(text.charAt(i), (char) 0), doc);
+            if (i + 1 < text.length()) addPosting(postings, key(text.charAt(i), text.charAt(i + 1)), doc);
+        }
+    }
+
+    private static void addPosting(SparseArray<int[]> postings, int key, int doc) {
+        int[] list = postings.get(key);
+        if (list == null) {
+            list = new int[8];
+            postings.put(key, list);
+        }
+        int length = list[0];
+        // 同一条目按顺序加入，只需与最后一个比较即可去重
+        if (length > 0 && list[length] == doc) return;
+        if (length + 1 == list.length) {
+            list = Arrays.copyOf(list, list.length * 2);
+            postings.put(key, list);
+        }
+        list[length + 1] = doc;
+        list[0] = length + 1;
+    }
+
+    private static int key(char c1, char c2) {
+        return (c1 << 16) | c2;
+    }
+
+    private static boolean hasChinese(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (Pinyin.isChinese(text.charAt(i))) return true;
+        }
+        return false;
+    }
+}
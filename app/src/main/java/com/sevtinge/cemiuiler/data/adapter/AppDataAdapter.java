@@ -13,6 +13,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.sevtinge.cemiuiler.R;
 import com.sevtinge.cemiuiler.data.AppData;
+import com.sevtinge.cemiuiler.utils.AppInfoCache;
 import com.sevtinge.cemiuiler.utils.PrefsUtils;
 
 import java.util.ArrayList;
@@ -28,6 +29,7 @@ public class AppDataAdapter extends RecyclerView.Adapter<AppDataAdapter.ViewHold
     private final Context mContext;
     private final String mKey;
     private final int mType;
+    private AppInfoCache mAppInfoCache;
 
 
     @SuppressLint("NotifyDataSetChanged")
@@ -36,6 +38,10 @@ public class AppDataAdapter extends RecyclerView.Adapter<AppDataAdapter.ViewHold
         notifyDataSetChanged();
     }
 
+    public void setAppInfoCache(AppInfoCache appInfoCache) {
+        mAppInfoCache = appInfoCache;
+    }
+
     public AppDataAdapter(Context context, String key, int type) {
         mContext = context;
         mKey = key;
@@ -66,7 +72,7 @@ public class AppDataAdapter extends RecyclerView.Adapter<AppDataAdapter.ViewHold
         AppData appInfo = appInfoList.get(position);
         selectedApps = PrefsUtils.mSharedPreferences.getStringSet(mKey, new LinkedHashSet<>());
 
-        holder.mAppListIcon.setImageBitmap(appInfo.icon);
+        bindIcon(holder, appInfo);
         holder.mAppName.setText(appInfo.label);
         holder.mAppPackageName.setText(appInfo.packageName);
         holder.mSelecte.setChecked(shouldSelect(appInfo.packageName));
@@ -76,6 +82,20 @@ public class AppDataAdapter extends RecyclerView.Adapter<AppDataAdapter.ViewHold
     }
 
 
+    private void bindIcon(ViewHolder holder, AppData appInfo) {
+        holder.mAppListIcon.setTag(appInfo);
+        if (appInfo.icon == null && mAppInfoCache != null) {
+            appInfo.icon = mAppInfoCache.getCachedIcon(appInfo);
+            if (appInfo.icon == null) {
+                mAppInfoCache.loadIcon(appInfo, appData -> {
+                    // ViewHolder 已被复用到其他条目时不再设置
+                    if (holder.mAppListIcon.getTag() == appData) holder.mAppListIcon.setImageBitmap(appData.icon);
+                });
+            }
+        }
+        holder.mAppListIcon.setImageBitmap(appInfo.icon);
+    }
+
     public boolean shouldSelect(String pkgName) {
         return (selectedApps.contains(pkgName));
     }
@@ -17,6 +17,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.sevtinge.cemiuiler.R;
 import com.sevtinge.cemiuiler.data.ModData;
+import com.sevtinge.cemiuiler.data.ModSearchIndex;
 import com.sevtinge.cemiuiler.utils.Helpers;
 import com.sevtinge.cemiuiler.utils.SearchHelper;
 
@@ -31,6 +32,17 @@ public class ModSearchAdapter extends RecyclerView.Adapter<ModSearchAdapter.View
     private ItemFilter mFilter;
     private onItemClickListener mItemClickListener;//item点击监听
     private final CopyOnWriteArrayList<ModData> modsList = new CopyOnWriteArrayList<ModData>();
+    // 仅在 Filter 的工作线程中使用
+    private ModSearchIndex mSearchIndex;
+    private int mSearchIndexVersion;
+
+    private static final Comparator<ModData> BREADCRUMBS_COMPARATOR = (app1, app2) -> {
+        int breadcrumbs = app1.breadcrumbs.compareToIgnoreCase(app2.breadcrumbs);
+        if (breadcrumbs == 0)
+            return app1.title.compareToIgnoreCase(app2.title);
+        else
+            return breadcrumbs;
+    };
 
     public void setOnItemClickListener(onItemClickListener onItemClick) {
         mItemClickListener = onItemClick;
@@ -104,16 +116,24 @@ public class ModSearchAdapter extends RecyclerView.Adapter<ModSearchAdapter.View
         @Override
         protected FilterResults performFiltering(CharSequence constraint) {
             filterString = constraint.toString().toLowerCase();
-            final ArrayList<ModData> nlist = new ArrayList<ModData>();
+            final ArrayList<ModData> nlist;
 
-            for (ModData filterableData: SearchHelper.allModsList) {
-                if (constraint.toString().equals(SearchHelper.NEW_MODS_SEARCH_QUERY)) {
+            // SearchHelper 重建列表时版本号变化，此时重新建立索引
+            int version = SearchHelper.allModsVersion;
+            if (mSearchIndex == null || mSearchIndexVersion != version) {
+                mSearchIndex = new ModSearchIndex(new ArrayList<>(SearchHelper.allModsList));
+                mSearchIndexVersion = version;
+            }
+            if (constraint.toString().equals(SearchHelper.NEW_MODS_SEARCH_QUERY)) {
+                nlist = new ArrayList<>();
+                for (ModData filterableData : SearchHelper.allModsList) {
                     if (SearchHelper.NEW_MODS.contains(filterableData.key)) {
                         nlist.add(filterableData);
                     }
-                } else if (filterableData.title.toLowerCase().contains(filterString)) {
-                    nlist.add(filterableData);
                 }
+                nlist.sort(BREADCRUMBS_COMPARATOR);
+            } else {
+                nlist = mSearchIndex.search(constraint.toString());
             }
 
             FilterResults results = new FilterResults();
@@ -129,20 +149,7 @@ public class ModSearchAdapter extends RecyclerView.Adapter<ModSearchAdapter.View
             if (results.count > 0 && results.values != null) {
                 modsList.addAll((ArrayList<ModData>)results.values);
             }
-            sortList();
             notifyDataSetChanged();
         }
     }
-
-    private void sortList() {
-        modsList.sort(new Comparator<ModData>() {
-            public int compare(ModData app1, ModData app2) {
-                int breadcrumbs = app1.breadcrumbs.compareToIgnoreCase(app2.breadcrumbs);
-                if (breadcrumbs == 0)
-                    return app1.title.compareToIgnoreCase(app2.title);
-                else
-                    return breadcrumbs;
-            }
-        });
-    }
 }
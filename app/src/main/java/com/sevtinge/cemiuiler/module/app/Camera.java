@@ -1,111 +1,147 @@
 package com.sevtinge.cemiuiler.module.app;
 
 import com.sevtinge.cemiuiler.module.base.BaseModule;
+import com.sevtinge.cemiuiler.module.base.ConstantHookTable;
 import com.sevtinge.cemiuiler.module.hook.camera.EnableLabOptions;
-import com.sevtinge.cemiuiler.module.hook.camera.Unlock120Fps;
-import com.sevtinge.cemiuiler.module.hook.camera.Unlock60Fps;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockAiEnhance;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockAiShutter;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockAiWatermark;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockAmbilight;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockAudioZoom;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockClone;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockColorEnhance;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockCosmeticMirror;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockCvlens;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockCyberFocusVersion2;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockDoc;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockDualcam;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockDuration;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockFilm;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockFilmDelay;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockFilmDollyZoom;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockFilmDream;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockFilmSlowShutter;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockFilmTimeBackflow;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockFilmTimeFreeze;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockHandGesture;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockHdr;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockHeic;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockIdcard;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockLog;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockMakeup;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockMenMakeup;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockMilive;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockMoon;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockNevus;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockNewBeauty;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockPano;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockPixel;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockPortrait;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockRaw;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockSlow;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockTrackEyes;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockTrackFeature;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockTrackFocus;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockVideosky;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockVlog;
-import com.sevtinge.cemiuiler.module.hook.camera.UnlockVlogPro;
 
 public class Camera extends BaseModule {
 
+    private static final String CAMERA_CAPABILITIES = "com.android.camera2.CameraCapabilities";
+    private static final String CAMERA_CAPABILITIES_UTIL = "com.android.camera2.CameraCapabilitiesUtil";
+    private static final String CAMERA_SETTINGS = "com.android.camera.CameraSettings";
+
     @Override
     public void handleLoadPackage() {
+        ConstantHookTable table = new ConstantHookTable("Camera");
+
         // 功能
-        initHook(new UnlockAiWatermark(), mPrefsMap.getBoolean("camera_features_unlock_aiwatermark"));
-        initHook(new UnlockAmbilight(), mPrefsMap.getBoolean("camera_features_unlock_ambilight"));
-        initHook(new UnlockClone(), mPrefsMap.getBoolean("camera_features_unlock_clone"));
-        initHook(new UnlockCosmeticMirror(), mPrefsMap.getBoolean("camera_features_unlock_cosmetic_mirror"));
-        initHook(new UnlockDoc(), mPrefsMap.getBoolean("camera_features_unlock_doc"));
-        initHook(new UnlockDualcam(), mPrefsMap.getBoolean("camera_features_unlock_dualcam"));
-        initHook(new UnlockDuration(), mPrefsMap.getBoolean("camera_features_unlock_duration"));
-        initHook(new UnlockIdcard(), mPrefsMap.getBoolean("camera_features_unlock_idcard"));
-        initHook(new UnlockMilive(), mPrefsMap.getBoolean("camera_features_unlock_milive"));
-        initHook(new UnlockMoon(), mPrefsMap.getBoolean("camera_features_unlock_moon"));
-        initHook(new UnlockPano(), mPrefsMap.getBoolean("camera_features_unlock_pano"));
-        initHook(new UnlockPixel(), mPrefsMap.getBoolean("camera_features_unlock_pixel"));
-        initHook(new UnlockPortrait(), mPrefsMap.getBoolean("camera_features_unlock_portrait"));
-        initHook(new UnlockSlow(), mPrefsMap.getBoolean("camera_features_unlock_slow"));
-        initHook(new UnlockVideosky(), mPrefsMap.getBoolean("camera_features_unlock_videosky"));
-        initHook(new UnlockVlog(), mPrefsMap.getBoolean("camera_features_unlock_vlog"));
-        initHook(new UnlockVlogPro(), mPrefsMap.getBoolean("camera_features_unlock_vlog_pro"));
-        initHook(new UnlockFilm(), mPrefsMap.getBoolean("camera_features_unlock_film"));
-        initHook(new UnlockFilmDelay(), mPrefsMap.getBoolean("camera_features_unlock_film_delay"));
-        initHook(new UnlockFilmDollyZoom(), mPrefsMap.getBoolean("camera_features_unlock_film_dollyzoom"));
-        initHook(new UnlockFilmDream(), mPrefsMap.getBoolean("camera_features_unlock_film_dream"));
-        initHook(new UnlockFilmSlowShutter(), mPrefsMap.getBoolean("camera_features_unlock_film_slowshutter"));
-        initHook(new UnlockFilmTimeBackflow(), mPrefsMap.getBoolean("camera_features_unlock_film_timebackflow"));
-        initHook(new UnlockFilmTimeFreeze(), mPrefsMap.getBoolean("camera_features_unlock_film_timefreeze"));
+        table.feature("camera_features_unlock_aiwatermark")
+            .returns("com.android.camera.features.mode.aiwatermark.AIWaterModuleEntry", "support", true);
+        table.feature("camera_features_unlock_ambilight")
+            .returns("com.android.camera.features.mode.ambilight.AmbilightModuleEntry", "support", true);
+        table.feature("camera_features_unlock_clone")
+            .returns("com.android.camera.features.mode.clone.CloneModuleEntry", "support", true)
+            .returns("com.android.camera.features.mode.more.clone.MoreCloneModuleEntry", "support", true);
+        table.feature("camera_features_unlock_cosmetic_mirror")
+            .returns("com.android.camera.features.mode.cosmeticmirror.CosmeticMirrorModuleEntry", "support", true);
+        table.feature("camera_features_unlock_doc")
+            .returns("com.android.camera.features.mode.doc.DocModuleEntry", "support", true);
+        table.feature("camera_features_unlock_dualcam")
+            .returns("com.android.camera.features.mode.dualcam.DualCamModuleEntry", "support", true);
+        table.feature("camera_features_unlock_duration")
+            .returns("com.android.camera.features.mode.fast.FastMotionModuleEntry", "support", true);
+        table.feature("camera_features_unlock_idcard")
+            .returns("com.android.camera.features.mode.idcard.IDCardModuleEntry", "support", true);
+        table.feature("camera_features_unlock_milive")
+            .returns("com.android.camera.features.mode.milive.MiLiveModuleEntry", "support", true);
+        table.feature("camera_features_unlock_moon")
+            .returns("com.android.camera.features.mode.moon.MoonModuleEntry", "support", true);
+        table.feature("camera_features_unlock_pano")
+            .returns("com.android.camera.features.mode.pano.pano3.PanoModuleEntry", "support", true);
+        table.feature("camera_features_unlock_pixel")
+            .returns("com.android.camera.features.mode.pixel.PixelModuleEntry", "support", true);
+        table.feature("camera_features_unlock_portrait")
+            .returns("com.android.camera.features.mode.portrait.PortraitModuleEntry", "support", true);
+        table.feature("camera_features_unlock_slow")
+            .returns("com.android.camera.features.mode.slow.SlowMotionModuleEntry", "support", true);
+        table.feature("camera_features_unlock_videosky")
+            .returns("com.android.camera.features.mode.videosky.VideoSkyModuleEntry", "support", true);
+        table.feature("camera_features_unlock_vlog")
+            .returns("com.android.camera.features.mode.vlog.VlogModuleEntry", "support", true)
+            .returns("com.android.camera.features.mode.more.vlog.MoreVVModuleEntry", "support", true);
+        table.feature("camera_features_unlock_vlog_pro")
+            .returns("com.android.camera.features.mode.vlogpro.VlogProModuleEntry", "support", true)
+            .returns("com.android.camera.features.mode.more.vlogpro.MoreVlogProModuleEntry", "support", true);
+        table.feature("camera_features_unlock_film")
+            .returns("com.android.camera.features.mode.more.film.MoreFilmModuleEntry", "support", true);
+        table.feature("camera_features_unlock_film_delay")
+            .returns("com.android.camera.features.mode.film.delay.LongExpModuleEntry", "support", true);
+        table.feature("camera_features_unlock_film_dollyzoom")
+            .returns("com.android.camera.features.mode.film.dollyzoom.DollyZoomModuleEntry", "support", true);
+        table.feature("camera_features_unlock_film_dream")
+            .returns("com.android.camera.features.mode.film.dream.DreamModuleEntry", "support", true);
+        table.feature("camera_features_unlock_film_slowshutter")
+            .returns("com.android.camera.features.mode.film.slowshutter.SlowShutterModuleEntry", "support", true);
+        table.feature("camera_features_unlock_film_timebackflow")
+            .returns("com.android.camera.features.mode.film.timebackflow.TimeBackflowModuleEntry", "support", true);
+        table.feature("camera_features_unlock_film_timefreeze")
+            .returns("com.android.camera.features.mode.film.timefreeze.TimeFreezeModuleEntry", "support", true);
 
         // 拍照
-        initHook(new UnlockMakeup(), mPrefsMap.getBoolean("camera_shot_makeup"));
-        initHook(new UnlockColorEnhance(), mPrefsMap.getBoolean("camera_shot_color_enhance"));
-        initHook(new UnlockHandGesture(), mPrefsMap.getBoolean("camera_shot_hand_gesture"));
+        table.feature("camera_shot_makeup")
+            .returns(CAMERA_CAPABILITIES, "isSupportMakeups", true)
+            .returns(CAMERA_CAPABILITIES, "isSupportMakeups2", true)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "isSupportMakeups", true)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "isSupportMakeups2", true);
+        table.feature("camera_shot_color_enhance")
+            .returns(CAMERA_CAPABILITIES, "isSupportedColorEnhance", true)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "isSupportedColorEnhance", true);
+        table.feature("camera_shot_hand_gesture")
+            .returns("com.android.camera.data.data.runing.DataItemRunning", "supportHandGesture", true);
 
         // 录像
-        initHook(new Unlock60Fps(), mPrefsMap.getBoolean("camera_record_60fps"));
-        initHook(new Unlock120Fps(), mPrefsMap.getBoolean("camera_record_120fps"));
-        initHook(new UnlockHdr(), mPrefsMap.getBoolean("camera_record_hdr"));
-        initHook(new UnlockAiEnhance(), mPrefsMap.getBoolean("camera_record_ai"));
-        initHook(new UnlockAudioZoom(), mPrefsMap.getBoolean("camera_record_audio_zoom"));
+        table.feature("camera_record_60fps")
+            .returnsAll("com.android.camera.data.data.config.ComponentConfigVideoQuality", "isSupport60FPS", true);
+        table.feature("camera_record_120fps")
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "isSupported4K120Fps", true);
+        table.feature("camera_record_hdr")
+            .returns(CAMERA_CAPABILITIES, "isSupportVideoHdr", true)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "isSupportVideoHdr", true)
+            .returns(CAMERA_CAPABILITIES, "isSupportQcomVideoHdr", true)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "isSupportQcomVideoHdr", true);
+        table.feature("camera_record_ai")
+            .returns(CAMERA_CAPABILITIES, "supportAiEnhancedVideo", true)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "supportAiEnhancedVideo", true);
+        table.feature("camera_record_audio_zoom")
+            .returnsAll("com.android.camera.aiaudio.AiAudioParameterManager", "isSupportAiAudioNew", true);
 
         // 人像
-        initHook(new UnlockCvlens(), mPrefsMap.getBoolean("camera_portrait_cvlens"));
-        initHook(new UnlockNewBeauty(), mPrefsMap.getBoolean("camera_portrait_new_beauty"));
+        table.feature("camera_portrait_cvlens")
+            .returns(CAMERA_SETTINGS, "isSupportCvLensDevice", true)
+            .returns(CAMERA_SETTINGS, "getCvLensVersion", 2)
+            .returns(CAMERA_CAPABILITIES, "getCvLensVersion", 2)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "getCvLensVersion", 2);
+        table.feature("camera_portrait_new_beauty")
+            .returns(CAMERA_CAPABILITIES, "isSupportPortraitBeautyItem", true)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "isSupportPortraitBeautyItem", true);
 
         // 专业
-        initHook(new UnlockRaw(), mPrefsMap.getBoolean("camera_pro_raw"));
-        initHook(new UnlockLog(), mPrefsMap.getBoolean("camera_pro_log"));
+        table.feature("camera_pro_raw")
+            .returns(CAMERA_CAPABILITIES, "isSupportRaw", true)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "isSupportRaw", true);
+        table.feature("camera_pro_log")
+            .returns(CAMERA_CAPABILITIES, "isSupportedVideoLogFormat", true)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "isSupportedVideoLogFormat", true);
 
         // 设置
-        initHook(new UnlockTrackFeature(), (mPrefsMap.getBoolean("camera_settings_track_eyes") || mPrefsMap.getBoolean("camera_settings_track_focus")));
-        initHook(new UnlockHeic(), mPrefsMap.getBoolean("camera_settings_heic"));
-        initHook(new UnlockTrackFocus(), mPrefsMap.getBoolean("camera_settings_track_focus"));
-        initHook(new UnlockAiShutter(), mPrefsMap.getBoolean("camera_settings_predictive"));
-        initHook(new UnlockCyberFocusVersion2(), mPrefsMap.getBoolean("camera_settings_track_focus"));
-        initHook(new UnlockNevus(), mPrefsMap.getBoolean("camera_settings_nevus"));
-        initHook(new UnlockMenMakeup(), mPrefsMap.getBoolean("camera_settings_men_makeup"));
+        table.feature("camera_settings_track_eyes", "camera_settings_track_focus")
+            .returns(CAMERA_CAPABILITIES, "isSupportTrackFeatureEnable", true)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "isSupportTrackFeatureEnable", true);
+        table.feature("camera_settings_heic")
+            .returns(CAMERA_CAPABILITIES, "isHeicSupported", true)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "isHeicSupported", true);
+        table.feature("camera_settings_track_focus")
+            .returns(CAMERA_CAPABILITIES, "isSupportTrackFocus", true)
+            .returns(CAMERA_CAPABILITIES, "isTrackFocusDefined", true)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "isSupportTrackFocus", true);
+        table.feature("camera_settings_predictive")
+            .returns(CAMERA_CAPABILITIES, "isSupportAiShutter", true)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "isSupportAiShutter", true)
+            .returnsAll(CAMERA_SETTINGS, "isSupportAiShutter", true);
+        table.feature("camera_settings_track_focus")
+            .returns(CAMERA_CAPABILITIES, "isCyberFocusVersion2", true)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "isCyberFocusVersion2", true);
+        table.feature("camera_settings_nevus")
+            .returns(CAMERA_CAPABILITIES, "isSupportNevusWipeSwitch", true)
+            .returns(CAMERA_CAPABILITIES, "isSupportNevusSupported", true)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "isSupportNevusWipeSwitch", true);
+        table.feature("camera_settings_men_makeup")
+            .returns(CAMERA_CAPABILITIES, "isSupportMaleMakeupSwitch", true)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "isSupportMaleMakeupSwitch", true);
         initHook(EnableLabOptions.INSTANCE, mPrefsMap.getBoolean("camera_settings_lab_options"));
-        initHook(new UnlockTrackEyes(), mPrefsMap.getBoolean("camera_settings_track_eyes"));
+        table.feature("camera_settings_track_eyes")
+            .returns(CAMERA_CAPABILITIES, "isSupportTrackEye", true)
+            .returnsAll(CAMERA_CAPABILITIES_UTIL, "isSupportTrackEye", true);
+        initHook(table, !table.isEmpty());
     }
 }
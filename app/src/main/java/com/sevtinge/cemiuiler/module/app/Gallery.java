@@ -1,37 +1,48 @@
 package com.sevtinge.cemiuiler.module.app;
 
 import com.sevtinge.cemiuiler.module.base.BaseModule;
-import com.sevtinge.cemiuiler.module.hook.gallery.EnableHdrEnhance;
-import com.sevtinge.cemiuiler.module.hook.gallery.EnableIdPhoto;
-import com.sevtinge.cemiuiler.module.hook.gallery.EnableMagicSky;
-import com.sevtinge.cemiuiler.module.hook.gallery.EnableOcr;
-import com.sevtinge.cemiuiler.module.hook.gallery.EnableOcrForm;
-import com.sevtinge.cemiuiler.module.hook.gallery.EnablePdf;
-import com.sevtinge.cemiuiler.module.hook.gallery.EnablePhotoMovie;
-import com.sevtinge.cemiuiler.module.hook.gallery.EnableRemover2;
-import com.sevtinge.cemiuiler.module.hook.gallery.EnableTextYanhua;
-import com.sevtinge.cemiuiler.module.hook.gallery.EnableVideoPost;
+import com.sevtinge.cemiuiler.module.base.ConstantHookTable;
 import com.sevtinge.cemiuiler.module.hook.various.UnlockSuperClipboard;
 
 public class Gallery extends BaseModule {
 
+    private static final String DEVICE_FEATURE = "com.miui.gallery.domain.DeviceFeature";
+    private static final String MEDIA_EDITOR_API_HELPER = "com.miui.mediaeditor.api.MediaEditorApiHelper";
+
     @Override
     public void handleLoadPackage() {
-        initHook(new EnableHdrEnhance(), mPrefsMap.getBoolean("gallery_enable_hdr_enhanced"));
-        initHook(new EnableMagicSky(), mPrefsMap.getBoolean("gallery_enable_magic_sky"));
-        initHook(new EnablePdf(), mPrefsMap.getBoolean("gallery_enable_pdf"));
-        initHook(new EnablePhotoMovie(), mPrefsMap.getBoolean("gallery_enable_photo_movie"));
-        initHook(new EnableRemover2(), mPrefsMap.getBoolean("gallery_enable_remover_2"));
-        initHook(new EnableTextYanhua(), mPrefsMap.getBoolean("gallery_enable_text_yanhua"));
-        initHook(new EnableIdPhoto(), mPrefsMap.getBoolean("gallery_enable_id_photo"));
-        initHook(new EnableIdPhoto(), mPrefsMap.getBoolean("gallery_enable_magic_matting"));
-        initHook(new EnableVideoPost(), mPrefsMap.getBoolean("gallery_enable_video_post"));
-        initHook(new EnableVideoPost(), mPrefsMap.getBoolean("gallery_enable_video_editor"));
-        initHook(new EnableOcr(), mPrefsMap.getBoolean("gallery_enable_ocr"));
-        initHook(new EnableOcrForm(), mPrefsMap.getBoolean("gallery_enable_ocr_form"));
+        ConstantHookTable table = new ConstantHookTable("Gallery");
+
+        table.feature("gallery_enable_hdr_enhanced")
+            .returns(DEVICE_FEATURE, "isSupportHDREnhance", true);
+        table.feature("gallery_enable_magic_sky")
+            .returns("com.miui.gallery.util.FilterSkyEntranceUtils", "showSingleFilterSky", true);
+        table.feature("gallery_enable_pdf")
+            .returns("com.miui.gallery.request.PicToPdfHelper", "isPicToPdfSupport", true);
+        table.feature("gallery_enable_photo_movie")
+            .returns(MEDIA_EDITOR_API_HELPER, "isPhotoMovieAvailable", true)
+            .returns(DEVICE_FEATURE, "isDeviceSupportPhotoMovie", true);
+        table.feature("gallery_enable_remover_2")
+            .returns("com.miui.gallery.editor.photo.app.remover2.sdk.Remover2CheckHelper", "isRemover2Support", true);
+        table.feature("gallery_enable_text_yanhua")
+            .returns("com.miui.gallery.domain.SkyCheckHelper", "isSupportTextYanhua", true);
+        table.feature("gallery_enable_id_photo")
+            .returns(MEDIA_EDITOR_API_HELPER, "isIDPhotoAvailable", true)
+            .returns("com.miui.gallery.domain.IDPhotoEntranceUtils", "isDeviceSupportIDPhoto", true)
+            .returns("com.miui.gallery.domain.IDPhotoEntranceUtils", "getIdType", 2);
+        table.feature("gallery_enable_magic_matting")
+            .returns(MEDIA_EDITOR_API_HELPER, "isMagicMattingAvailable", true);
+        table.feature("gallery_enable_video_post")
+            .returns(MEDIA_EDITOR_API_HELPER, "isVideoPostAvailable", true);
+        table.feature("gallery_enable_video_editor")
+            .returns(MEDIA_EDITOR_API_HELPER, "isVideoEditorAvailable", true)
+            .returns(MEDIA_EDITOR_API_HELPER, "isVlogAvailable", true);
+        table.feature("gallery_enable_ocr")
+            .returns("com.miui.gallery.ui.photoPage.ocr.OCRHelper", "isSupportLocalOCR", true)
+            .returns("com.miui.gallery.ui.photoPage.ocr.OCRHelper", "isSupportOCR", true);
+        table.feature("gallery_enable_ocr_form")
+            .returns("com.miui.gallery.util.RecognizeFormUtil", "isAvailable", true);
+        initHook(table, !table.isEmpty());
         initHook(UnlockSuperClipboard.INSTANCE, mPrefsMap.getBoolean("various_super_clipboard_enable"));
     }
 }
-
-
-
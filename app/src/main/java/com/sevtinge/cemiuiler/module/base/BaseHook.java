@@ -4,6 +4,7 @@ import static com.sevtinge.cemiuiler.utils.log.AndroidLogUtils.LogD;
 
 import com.sevtinge.cemiuiler.BuildConfig;
 import com.sevtinge.cemiuiler.XposedInit;
+import com.sevtinge.cemiuiler.utils.HostClassIndex;
 import com.sevtinge.cemiuiler.utils.PrefsMap;
 import com.sevtinge.cemiuiler.utils.ResourcesHook;
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils;
@@ -31,16 +32,57 @@ public abstract class BaseHook {
 
     public abstract void init();
 
+    /**
+     * 在 LoadHostDir 与 CloseHostDir 之间初始化的 Hook 可以在这里登记 DexKit 查询，
+     * 所有查询会在 init() 之前统一批量执行
+     */
+    public void prepareDexKitQuery() {
+    }
+
+    /**
+     * 依赖的宿主类，HostClassIndex 确定其中任意一个不存在时跳过此 Hook，不再调用 init()
+     */
+    public String[] getRequiredClasses() {
+        return null;
+    }
+
+    public boolean hasRequiredClasses() {
+        String[] classes = getRequiredClasses();
+        if (classes == null) return true;
+        for (String className : classes) {
+            if (HostClassIndex.INSTANCE.isAbsent(className, lpparam.classLoader)) {
+                if (detailLog && isNotReleaseVersion) {
+                    XposedLogUtils.logI(TAG, "Skip, " + className + " not found");
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
     public void onCreate(LoadPackageParam lpparam) {
+        long start = HookProfiler.begin();
+        int hookCount = HookProfiler.getHookCount();
+        long classLookupNanos = HookProfiler.getClassLookupNanos();
+        long hookNanos = HookProfiler.getHookNanos();
+        boolean isSuccess = false;
         try {
             setLoadPackageParam(lpparam);
             init();
+            isSuccess = true;
             if (detailLog && isNotReleaseVersion) {
                 XposedLogUtils.logI(TAG, "Hook Success.");
             }
         } catch (Throwable t) {
             XposedLogUtils.logE(TAG, "Hook Failed", t);
         }
+        if (start != 0) {
+            HookProfiler.end(TAG, HookProfiler.CAT_HOOK, start,
+                "{\"hooks\":" + (HookProfiler.getHookCount() - hookCount) +
+                    ",\"class_lookup_us\":" + (HookProfiler.getClassLookupNanos() - classLookupNanos) / 1000 +
+                    ",\"hook_us\":" + (HookProfiler.getHookNanos() - hookNanos) / 1000 +
+                    ",\"success\":" + isSuccess + "}");
+        }
     }
 
     public void setLoadPackageParam(LoadPackageParam param) {
@@ -52,10 +94,16 @@ public abstract class BaseHook {
     }
 
     public Class<?> findClass(String className, ClassLoader classLoader) {
-        return XposedHelpers.findClass(className, classLoader);
+        long start = HookProfiler.begin();
+        try {
+            return XposedHelpers.findClass(className, classLoader);
+        } finally {
+            HookProfiler.onClassLookup(start);
+        }
     }
 
     public Class<?> findClassIfExists(String className) {
+        if (HostClassIndex.INSTANCE.isAbsent(className, lpparam.classLoader)) return null;
         try {
             return findClass(className);
         } catch (XposedHelpers.ClassNotFoundError e) {
@@ -65,6 +113,8 @@ public abstract class BaseHook {
     }
 
     public Class<?> findClassIfExists(String newClassName, String oldClassName) {
+        if (HostClassIndex.INSTANCE.isAbsent(newClassName, lpparam.classLoader)
+            && HostClassIndex.INSTANCE.isAbsent(oldClassName, lpparam.classLoader)) return null;
         try {
             return findClass(findClassIfExists(newClassName) != null ? newClassName : oldClassName);
         } catch (XposedHelpers.ClassNotFoundError e) {
@@ -74,6 +124,7 @@ public abstract class BaseHook {
     }
 
     public Class<?> findClassIfExists(String className, ClassLoader classLoader) {
+        if (HostClassIndex.INSTANCE.isAbsent(className, classLoader)) return null;
         try {
             return findClass(className, classLoader);
         } catch (XposedHelpers.ClassNotFoundError e) {
@@ -84,6 +135,11 @@ public abstract class BaseHook {
 
     public static class MethodHook extends XC_MethodHook {
 
+        private static final int UNREGISTERED = -2;
+        // CallbackStats 的统计编号，第一次采样时分配；同时注册时 register 返回相同编号
+        private volatile int mBeforeSlot = UNREGISTERED;
+        private volatile int mAfterSlot = UNREGISTERED;
+
         protected void before(MethodHookParam param) throws Throwable {
         }
 
@@ -101,26 +157,40 @@ public abstract class BaseHook {
 
         @Override
         public void beforeHookedMethod(MethodHookParam param) throws Throwable {
+            long start = CallbackStats.begin();
             try {
                 this.before(param);
             } catch (Throwable t) {
                 LogD("BeforeHook", t);
             }
+            if (start != 0) {
+                int slot = mBeforeSlot;
+                if (slot == UNREGISTERED) mBeforeSlot = slot = CallbackStats.register(getClass().getName() + "#before");
+                CallbackStats.end(slot, start);
+            }
         }
 
         @Override
         public void afterHookedMethod(MethodHookParam param) throws Throwable {
+            long start = CallbackStats.begin();
             try {
                 this.after(param);
             } catch (Throwable t) {
                 LogD("AfterHook", t);
             }
+            if (start != 0) {
+                int slot = mAfterSlot;
+                if (slot == UNREGISTERED) mAfterSlot = slot = CallbackStats.register(getClass().getName() + "#after");
+                CallbackStats.end(slot, start);
+            }
         }
     }
 
 
     public void findAndHookMethod(Class<?> clazz, String methodName, Object... parameterTypesAndCallback) {
+        long start = HookProfiler.begin();
         XposedHelpers.findAndHookMethod(clazz, methodName, parameterTypesAndCallback);
+        HookProfiler.onHooked(1, start);
     }
 
     public void findAndHookMethod(String className, String methodName, Object... parameterTypesAndCallback) {
@@ -152,18 +222,23 @@ public abstract class BaseHook {
     }
 
     public void findAndHookConstructor(Class<?> hookClass, Object... parameterTypesAndCallback) {
+        long start = HookProfiler.begin();
         XposedHelpers.findAndHookConstructor(hookClass, parameterTypesAndCallback);
+        HookProfiler.onHooked(1, start);
     }
 
     public void hookMethod(Method method, MethodHook callback) {
+        long start = HookProfiler.begin();
         XposedBridge.hookMethod(method, callback);
+        HookProfiler.onHooked(1, start);
     }
 
     public void hookAllMethods(String className, String methodName, XC_MethodHook callback) {
         try {
             Class<?> hookClass = findClassIfExists(className);
             if (hookClass != null) {
-                XposedBridge.hookAllMethods(hookClass, methodName, callback).size();
+                long start = HookProfiler.begin();
+                HookProfiler.onHooked(XposedBridge.hookAllMethods(hookClass, methodName, callback).size(), start);
             }
 
         } catch (Throwable t) {
@@ -173,7 +248,8 @@ public abstract class BaseHook {
 
     public void hookAllMethods(Class<?> hookClass, String methodName, XC_MethodHook callback) {
         try {
-            XposedBridge.hookAllMethods(hookClass, methodName, callback).size();
+            long start = HookProfiler.begin();
+            HookProfiler.onHooked(XposedBridge.hookAllMethods(hookClass, methodName, callback).size(), start);
         } catch (Throwable t) {
             LogD("HookAllMethods", hookClass + " is " + methodName + " abnormal", t);
         }
@@ -183,7 +259,8 @@ public abstract class BaseHook {
         try {
             Class<?> hookClass = findClassIfExists(className);
             if (hookClass != null) {
-                XposedBridge.hookAllMethods(hookClass, methodName, callback).size();
+                long start = HookProfiler.begin();
+                HookProfiler.onHooked(XposedBridge.hookAllMethods(hookClass, methodName, callback).size(), start);
             }
         } catch (Throwable ignored) {
         }
@@ -192,7 +269,8 @@ public abstract class BaseHook {
     public boolean hookAllMethodsSilently(Class<?> hookClass, String methodName, XC_MethodHook callback) {
         try {
             if (hookClass != null) {
-                XposedBridge.hookAllMethods(hookClass, methodName, callback).size();
+                long start = HookProfiler.begin();
+                HookProfiler.onHooked(XposedBridge.hookAllMethods(hookClass, methodName, callback).size(), start);
             }
             return false;
         } catch (Throwable t) {
@@ -204,7 +282,8 @@ public abstract class BaseHook {
         try {
             Class<?> hookClass = findClassIfExists(className);
             if (hookClass != null) {
-                XposedBridge.hookAllConstructors(hookClass, callback).size();
+                long start = HookProfiler.begin();
+                HookProfiler.onHooked(XposedBridge.hookAllConstructors(hookClass, callback).size(), start);
             }
         } catch (Throwable t) {
             LogD("hookAllConstructors", className + " is  abnormal", t);
@@ -213,7 +292,8 @@ public abstract class BaseHook {
 
     public void hookAllConstructors(Class<?> hookClass, MethodHook callback) {
         try {
-            XposedBridge.hookAllConstructors(hookClass, callback).size();
+            long start = HookProfiler.begin();
+            HookProfiler.onHooked(XposedBridge.hookAllConstructors(hookClass, callback).size(), start);
         } catch (Throwable t) {
             LogD("hookAllConstructors", hookClass + " is  abnormal", t);
         }
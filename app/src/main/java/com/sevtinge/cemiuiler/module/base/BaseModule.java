@@ -1,7 +1,12 @@
 package com.sevtinge.cemiuiler.module.base;
 
 import com.sevtinge.cemiuiler.XposedInit;
+import com.sevtinge.cemiuiler.utils.DexKit;
 import com.sevtinge.cemiuiler.utils.PrefsMap;
+import com.sevtinge.cemiuiler.utils.log.XposedLogUtils;
+
+import java.util.ArrayList;
+import java.util.List;
 
 import de.robv.android.xposed.callbacks.XC_LoadPackage.LoadPackageParam;
 
@@ -10,10 +15,15 @@ public abstract class BaseModule implements IXposedHook {
     public LoadPackageParam mLoadPackageParam = null;
     public final PrefsMap<String, Object> mPrefsMap = XposedInit.mPrefsMap;
 
+    private boolean isDexKitLoaded = false;
+    private final List<BaseHook> mDexKitHooks = new ArrayList<>();
+
     public void init(LoadPackageParam lpparam) {
+        long start = HookProfiler.begin();
         mLoadPackageParam = lpparam;
         initZygote();
         handleLoadPackage();
+        HookProfiler.end(getClass().getSimpleName(), HookProfiler.CAT_MODULE, start);
     }
 
     @Override
@@ -25,8 +35,42 @@ public abstract class BaseModule implements IXposedHook {
     }
 
     public void initHook(BaseHook baseHook, boolean isInit) {
-        if (isInit) {
+        if (!isInit) return;
+        baseHook.setLoadPackageParam(mLoadPackageParam);
+        if (!baseHook.hasRequiredClasses()) return;
+        if (baseHook == LoadHostDir.INSTANCE) {
+            baseHook.onCreate(mLoadPackageParam);
+            isDexKitLoaded = true;
+        } else if (baseHook == CloseHostDir.INSTANCE) {
+            initDexKitHooks();
+            long start = HookProfiler.begin();
+            baseHook.onCreate(mLoadPackageParam);
+            HookProfiler.end("closeDexKit", HookProfiler.CAT_DEXKIT, start);
+        } else if (isDexKitLoaded) {
+            // 先收集查询，等到 CloseHostDir 时一次扫描后再初始化
+            try {
+                baseHook.prepareDexKitQuery();
+            } catch (Throwable t) {
+                XposedLogUtils.logE(baseHook.TAG, "Prepare DexKit query failed", t);
+            }
+            mDexKitHooks.add(baseHook);
+        } else {
+            baseHook.onCreate(mLoadPackageParam);
+        }
+    }
+
+    private void initDexKitHooks() {
+        isDexKitLoaded = false;
+        long start = HookProfiler.begin();
+        try {
+            DexKit.INSTANCE.runBatchQueries();
+        } catch (Throwable t) {
+            XposedLogUtils.logE("DexKit", "Batch query failed", t);
+        }
+        HookProfiler.end("runBatchQueries", HookProfiler.CAT_DEXKIT, start);
+        for (BaseHook baseHook : mDexKitHooks) {
             baseHook.onCreate(mLoadPackageParam);
         }
+        mDexKitHooks.clear();
     }
 }
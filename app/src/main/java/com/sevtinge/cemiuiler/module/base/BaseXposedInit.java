@@ -52,6 +52,7 @@ import com.sevtinge.cemiuiler.module.app.VoiceAssist;
 import com.sevtinge.cemiuiler.module.app.Weather;
 import com.sevtinge.cemiuiler.module.hook.thememanager.ThemeCrackNew;
 import com.sevtinge.cemiuiler.utils.Helpers;
+import com.sevtinge.cemiuiler.utils.HostClassIndex;
 import com.sevtinge.cemiuiler.utils.PrefsMap;
 import com.sevtinge.cemiuiler.utils.PrefsUtils;
 import com.sevtinge.cemiuiler.utils.ResourcesHook;
@@ -124,7 +125,10 @@ public abstract class BaseXposedInit implements IXposedHookLoadPackage, IXposedH
 
     @Override
     public void initZygote(StartupParam startupParam) throws Throwable {
+        // 设置读入之前还不知道是否需要记录，先计时，读入后再决定是否保留
+        long start = System.nanoTime();
         setXSharedPrefs();
+        HookProfiler.end("setXSharedPrefs", HookProfiler.CAT_PREFS, HookProfiler.isEnabled() ? start : 0);
         mResHook = new ResourcesHook();
         mModulePath = startupParam.modulePath;
     }
@@ -160,6 +164,9 @@ public abstract class BaseXposedInit implements IXposedHookLoadPackage, IXposedH
 
     public void init(LoadPackageParam lpparam) {
         String packageName = lpparam.packageName;
+        if (!"android".equals(packageName)) HookProfiler.publishOnApplicationCreate(packageName);
+        CallbackStats.installDumpReceiver(lpparam);
+        HostClassIndex.INSTANCE.init(lpparam);
         switch (packageName) {
             case "android" -> {
                 mSystemFramework.init(lpparam);
@@ -325,6 +332,7 @@ public abstract class BaseXposedInit implements IXposedHookLoadPackage, IXposedH
             case BuildConfig.APPLICATION_ID -> ModuleActiveHook(lpparam);
             default -> mVarious.init(lpparam);
         }
+        if ("android".equals(packageName)) HookProfiler.publishOnApplicationCreate(packageName);
     }
 
     public void ModuleActiveHook(LoadPackageParam lpparam) {
@@ -0,0 +1,258 @@
+package com.sevtinge.cemiuiler.module.base;
+
+import android.app.Application;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Build;
+
+import com.sevtinge.cemiuiler.BuildConfig;
+import com.sevtinge.cemiuiler.utils.log.XposedLogUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import de.robv.android.xposed.XC_MethodHook;
+import de.robv.android.xposed.XposedBridge;
+import de.robv.android.xposed.XposedHelpers;
+import de.robv.android.xposed.callbacks.XC_LoadPackage.LoadPackageParam;
+
+/**
+ * Hook 回调运行耗时统计
+ * <p>
+ * 开启 "settings_callback_stats" 后，MethodHook 的 before / after 以 1 / SAMPLE_RATE 的概率随机采样耗时，
+ * 次数与耗时按线程分条累加，分布记录在对数分桶的直方图中（每个 2 的幂再细分 4 档）用于估算 p99。
+ * 累计耗时超过 "settings_callback_stats_budget" 毫秒时输出一次警告；
+ * 收到 ACTION_DUMP 广播后把本进程的统计通过 ACTION_RESULT 广播发给模块
+ */
+public final class CallbackStats {
+
+    private static final String TAG = "CallbackStats";
+
+    public static final String ACTION_DUMP = BaseHook.ACTION_PREFIX + "DumpCallbackStats";
+    public static final String ACTION_RESULT = BaseHook.ACTION_PREFIX + "CallbackStatsResult";
+    public static final String EXTRA_PACKAGE = "package";
+    public static final String EXTRA_NAMES = "names";
+    public static final String EXTRA_INVOCATIONS = "invocations";
+    public static final String EXTRA_NANOS = "nanos";
+    public static final String EXTRA_P99 = "p99";
+    public static final String EXTRA_OVER_BUDGET = "over_budget";
+
+    public static final int NO_SLOT = -1;
+
+    private static final int SAMPLE_SHIFT = 3;
+    private static final int SAMPLE_RATE = 1 << SAMPLE_SHIFT;
+    private static final int STRIPES = 4;
+    private static final int MAX_SLOTS = 1024;
+    // 64ns 到约 1s，之外的值计入两端的桶
+    private static final int MIN_EXPONENT = 6;
+    private static final int MAX_EXPONENT = 29;
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS;
+
+    private static final class Stat {
+        final String name;
+        // [stripe * 2] 采样次数，[stripe * 2 + 1] 采样耗时
+        final AtomicLongArray counters = new AtomicLongArray(STRIPES * 2);
+        final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+        volatile boolean isOverBudget = false;
+
+        Stat(String name) {
+            this.name = name;
+        }
+
+        long getSamples() {
+            long sum = 0;
+            for (int i = 0; i < STRIPES; i++) sum += counters.get(i * 2);
+            return sum;
+        }
+
+        long getNanos() {
+            long sum = 0;
+            for (int i = 0; i < STRIPES; i++) sum += counters.get(i * 2 + 1);
+            return sum;
+        }
+
+        long getP99() {
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) total += histogram.get(i);
+            if (total == 0) return 0;
+            long remaining = Math.max(1, total / 100);
+            for (int i = BUCKETS - 1; i >= 0; i--) {
+                remaining -= histogram.get(i);
+                if (remaining <= 0) return bucketUpperBound(i);
+            }
+            return bucketUpperBound(0);
+        }
+    }
+
+    // 0 未读取，1 开启，2 关闭
+    private static int sState = 0;
+    private static long sBudgetNanos;
+    // 每个线程各自的 xorshift 状态，不在线程之间共享缓存行；
+    // 按固定间隔计数会让同一线程上交替执行的回调总是落在同一相位，随机采样不会偏向某个回调
+    private static final ThreadLocal<int[]> sRandom = ThreadLocal.withInitial(() ->
+        new int[]{(int) (Thread.currentThread().getId() * 0x9E3779B9L ^ System.nanoTime()) | 1});
+    // 通过 AtomicReferenceArray 发布，其他线程拿到编号时一定能读到对应的 Stat
+    private static final AtomicReferenceArray<Stat> sStats = new AtomicReferenceArray<>(MAX_SLOTS);
+    private static final HashMap<String, Integer> sSlots = new HashMap<>();
+    private static int sSlotCount = 0;
+    private static boolean isReceiverRegistered = false;
+
+    private CallbackStats() {
+    }
+
+    public static boolean isEnabled() {
+        if (sState == 0) {
+            sBudgetNanos = BaseHook.mPrefsMap.getInt("settings_callback_stats_budget", 500) * 1000000L;
+            sState = BaseHook.mPrefsMap.getBoolean("settings_callback_stats") ? 1 : 2;
+        }
+        return sState == 1;
+    }
+
+    /**
+     * @return 本次需要采样时为开始时间，否则为 0
+     */
+    public static long begin() {
+        if (!isEnabled()) return 0;
+        int[] random = sRandom.get();
+        int x = random[0];
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        random[0] = x;
+        if ((x >>> (32 - SAMPLE_SHIFT)) != 0) return 0;
+        return System.nanoTime();
+    }
+
+    /**
+     * 同名的回调共用一个编号，多个线程同时注册时得到相同的结果
+     *
+     * @return 分配的编号，超出上限时为 NO_SLOT
+     */
+    public static synchronized int register(String name) {
+        Integer slot = sSlots.get(name);
+        if (slot != null) return slot;
+        if (sSlotCount == MAX_SLOTS) return NO_SLOT;
+        sStats.set(sSlotCount, new Stat(name));
+        sSlots.put(name, sSlotCount);
+        return sSlotCount++;
+    }
+
+    public static void end(int slot, long start) {
+        if (slot == NO_SLOT) return;
+        long nanos = System.nanoTime() - start;
+        Stat stat = sStats.get(slot);
+        if (stat == null) return;
+        int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        long samples = stat.counters.getAndIncrement(stripe * 2);
+        stat.counters.getAndAdd(stripe * 2 + 1, nanos);
+        stat.histogram.getAndIncrement(bucketOf(nanos));
+        if ((samples & 63) == 0 && !stat.isOverBudget) checkBudget(stat);
+    }
+
+    private static void checkBudget(Stat stat) {
+        long nanos = stat.getNanos() * SAMPLE_RATE;
+        if (nanos <= sBudgetNanos) return;
+        stat.isOverBudget = true;
+        XposedLogUtils.logW(TAG, stat.name + " exceeded budget: " + nanos / 1000000 + " ms in ~"
+            + stat.getSamples() * SAMPLE_RATE + " calls, p99 " + stat.getP99() / 1000 + " us");
+    }
+
+    private static int bucketOf(long nanos) {
+        if (nanos < (1L << MIN_EXPONENT)) return 0;
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) return BUCKETS - 1;
+        int sub = (int) (nanos >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+        return (exponent - MIN_EXPONENT) * SUB_BUCKETS + sub;
+    }
+
+    private static long bucketUpperBound(int bucket) {
+        int exponent = bucket / SUB_BUCKETS + MIN_EXPONENT;
+        int sub = bucket % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub + 1) << (exponent - 2);
+    }
+
+    /**
+     * 在宿主进程中注册 ACTION_DUMP 接收器：system_server 在 PhoneWindowManager.init 之后，
+     * 其他进程在 Application.onCreate 之后，同一进程只注册一次
+     */
+    public static synchronized void installDumpReceiver(LoadPackageParam lpparam) {
+        if (isReceiverRegistered || !isEnabled()) return;
+        isReceiverRegistered = true;
+        String packageName = lpparam.packageName;
+        if ("android".equals(packageName)) {
+            XposedBridge.hookAllMethods(XposedHelpers.findClass("com.android.server.policy.PhoneWindowManager", lpparam.classLoader),
+                "init", new XC_MethodHook() {
+                    @Override
+                    protected void afterHookedMethod(MethodHookParam param) {
+                        registerDumpReceiver((Context) XposedHelpers.getObjectField(param.thisObject, "mContext"), packageName);
+                    }
+                });
+        } else {
+            XposedHelpers.findAndHookMethod(Application.class, "onCreate", new XC_MethodHook() {
+                private boolean isRegistered = false;
+
+                @Override
+                protected void afterHookedMethod(MethodHookParam param) {
+                    if (isRegistered) return;
+                    isRegistered = true;
+                    registerDumpReceiver((Application) param.thisObject, packageName);
+                }
+            });
+        }
+    }
+
+    private static void registerDumpReceiver(Context context, String packageName) {
+        BroadcastReceiver receiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                sendResult(context, packageName);
+            }
+        };
+        IntentFilter filter = new IntentFilter(ACTION_DUMP);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            context.registerReceiver(receiver, filter, Context.RECEIVER_EXPORTED);
+        } else {
+            context.registerReceiver(receiver, filter);
+        }
+    }
+
+    private static void sendResult(Context context, String packageName) {
+        List<Stat> stats = new ArrayList<>();
+        synchronized (CallbackStats.class) {
+            for (int i = 0; i < sSlotCount; i++) {
+                Stat stat = sStats.get(i);
+                if (stat.getSamples() > 0) stats.add(stat);
+            }
+        }
+        int size = stats.size();
+        String[] names = new String[size];
+        long[] invocations = new long[size];
+        long[] nanos = new long[size];
+        long[] p99 = new long[size];
+        boolean[] overBudget = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            Stat stat = stats.get(i);
+            names[i] = stat.name;
+            invocations[i] = stat.getSamples() * SAMPLE_RATE;
+            nanos[i] = stat.getNanos() * SAMPLE_RATE;
+            p99[i] = stat.getP99();
+            overBudget[i] = nanos[i] > sBudgetNanos;
+        }
+
+        Intent intent = new Intent(ACTION_RESULT);
+        intent.setPackage(BuildConfig.APPLICATION_ID);
+        intent.putExtra(EXTRA_PACKAGE, packageName);
+        intent.putExtra(EXTRA_NAMES, names);
+        intent.putExtra(EXTRA_INVOCATIONS, invocations);
+        intent.putExtra(EXTRA_NANOS, nanos);
+        intent.putExtra(EXTRA_P99, p99);
+        intent.putExtra(EXTRA_OVER_BUDGET, overBudget);
+        context.sendBroadcast(intent);
+    }
+}
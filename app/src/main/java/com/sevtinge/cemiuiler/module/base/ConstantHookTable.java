@@ -0,0 +1,156 @@
+package com.sevtinge.cemiuiler.module.base;
+
+import com.sevtinge.cemiuiler.utils.log.XposedLogUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.robv.android.xposed.XC_MethodHook;
+import de.robv.android.xposed.XC_MethodReplacement;
+import de.robv.android.xposed.XposedBridge;
+
+/**
+ * 固定返回值 Hook 的声明表
+ * <p>
+ * 用于大量 "强制返回 true" 一类的功能开关：按类分组，每个类只查找一次并只扫描一次方法，
+ * 相同的返回值共用同一个回调，最后统一输出失败的条目
+ * <pre>
+ * ConstantHookTable table = new ConstantHookTable("Camera");
+ * table.feature("camera_record_hdr")
+ *     .returns("com.android.camera2.CameraCapabilities", "isSupportVideoHdr", true)
+ *     .returnsAll("com.android.camera2.CameraCapabilitiesUtil", "isSupportVideoHdr", true);
+ * initHook(table, !table.isEmpty());
+ * </pre>
+ */
+public class ConstantHookTable extends BaseHook {
+
+    private static final class Entry {
+        final String feature;
+        final String methodName;
+        final Object value;
+        // false 时只 Hook 无参方法，与 findAndHookMethod(className, methodName, callback) 一致
+        final boolean allOverloads;
+
+        Entry(String feature, String methodName, Object value, boolean allOverloads) {
+            this.feature = feature;
+            this.methodName = methodName;
+            this.value = value;
+            this.allOverloads = allOverloads;
+        }
+    }
+
+    public final class Feature {
+        private final String mName;
+
+        private Feature(String name) {
+            mName = name;
+        }
+
+        /**
+         * 无参方法 methodName 固定返回 value
+         */
+        public Feature returns(String className, String methodName, Object value) {
+            add(className, new Entry(mName, methodName, value, false));
+            return this;
+        }
+
+        /**
+         * 所有名为 methodName 的重载固定返回 value
+         */
+        public Feature returnsAll(String className, String methodName, Object value) {
+            add(className, new Entry(mName, methodName, value, true));
+            return this;
+        }
+    }
+
+    private final Feature mDisabledFeature = new Feature(null);
+    private final Map<String, List<Entry>> mEntries = new LinkedHashMap<>();
+
+    public ConstantHookTable(String name) {
+        TAG = name + "ConstantHookTable";
+    }
+
+    /**
+     * 任意一个设置项开启时，该功能下的条目才会生效
+     */
+    public Feature feature(String... prefKeys) {
+        for (String key : prefKeys) {
+            if (mPrefsMap.getBoolean(key)) return new Feature(key);
+        }
+        return mDisabledFeature;
+    }
+
+    public boolean isEmpty() {
+        return mEntries.isEmpty();
+    }
+
+    private void add(String className, Entry entry) {
+        if (entry.feature == null) return;
+        List<Entry> entries = mEntries.get(className);
+        if (entries == null) {
+            entries = new ArrayList<>();
+            mEntries.put(className, entries);
+        }
+        entries.add(entry);
+    }
+
+    @Override
+    public void init() {
+        Map<Object, XC_MethodHook> callbacks = new HashMap<>();
+        Set<Method> hooked = new HashSet<>();
+        List<String> failed = new ArrayList<>();
+
+        for (Map.Entry<String, List<Entry>> group : mEntries.entrySet()) {
+            Class<?> clazz = findClassIfExists(group.getKey());
+            if (clazz == null) {
+                for (Entry entry : group.getValue()) failed.add(entry.feature + ": " + group.getKey());
+                continue;
+            }
+
+            Map<String, List<Method>> methods = new HashMap<>();
+            for (Method method : clazz.getDeclaredMethods()) {
+                List<Method> overloads = methods.get(method.getName());
+                if (overloads == null) {
+                    overloads = new ArrayList<>(1);
+                    methods.put(method.getName(), overloads);
+                }
+                overloads.add(method);
+            }
+
+            for (Entry entry : group.getValue()) {
+                XC_MethodHook callback = callbacks.get(entry.value);
+                if (callback == null) {
+                    callback = XC_MethodReplacement.returnConstant(entry.value);
+                    callbacks.put(entry.value, callback);
+                }
+                int count = 0;
+                List<Method> overloads = methods.get(entry.methodName);
+                if (overloads != null) {
+                    for (Method method : overloads) {
+                        if (!entry.allOverloads && method.getParameterTypes().length != 0) continue;
+                        count++;
+                        if (!hooked.add(method)) continue;
+                        try {
+                            long start = HookProfiler.begin();
+                            XposedBridge.hookMethod(method, callback);
+                            HookProfiler.onHooked(1, start);
+                        } catch (Throwable t) {
+                            XposedLogUtils.logE(TAG, "hook " + method + " failed", t);
+                        }
+                    }
+                }
+                if (count == 0) failed.add(entry.feature + ": " + group.getKey() + "#" + entry.methodName);
+            }
+        }
+
+        if (!failed.isEmpty()) {
+            XposedLogUtils.logW(TAG, "Not found: " + failed);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.sevtinge.cemiuiler.module.base;
+
+import android.app.Application;
+import android.net.Uri;
+import android.os.Bundle;
+import android.os.Process;
+
+import com.sevtinge.cemiuiler.provider.SharedPrefsProvider;
+import com.sevtinge.cemiuiler.utils.log.XposedLogUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.robv.android.xposed.XC_MethodHook;
+import de.robv.android.xposed.XposedHelpers;
+
+/**
+ * Hook 初始化耗时记录
+ * <p>
+ * 开启 "settings_hook_profiler" 后，记录本进程内设置读取、DexKit 扫描、每个模块与每个 Hook 的初始化耗时，
+ * 以及通过 BaseHook 辅助方法安装的 Hook 数量。宿主 Application 创建后以 Chrome Trace JSON
+ * 格式发送给模块，可在设置中查看汇总并导出，之后用 Perfetto 打开
+ */
+public final class HookProfiler {
+
+    private static final String TAG = "HookProfiler";
+
+    public static final String CAT_PREFS = "prefs";
+    public static final String CAT_DEXKIT = "dexkit";
+    public static final String CAT_MODULE = "module";
+    public static final String CAT_HOOK = "hook";
+
+    private static final class Event {
+        final String name;
+        final String category;
+        final long start;
+        final long duration;
+        final int tid;
+        final String args;
+
+        Event(String name, String category, long start, long duration, int tid, String args) {
+            this.name = name;
+            this.category = category;
+            this.start = start;
+            this.duration = duration;
+            this.tid = tid;
+            this.args = args;
+        }
+    }
+
+    // 0 未读取，1 开启，2 关闭；设置在 initZygote 中才读入，不能在类加载时判断
+    private static int sState = 0;
+    private static final List<Event> sEvents = new ArrayList<>();
+    private static int sHookCount = 0;
+    private static long sClassLookupNanos = 0;
+    private static long sHookNanos = 0;
+    private static boolean isPublishHooked = false;
+
+    private HookProfiler() {
+    }
+
+    public static boolean isEnabled() {
+        if (sState == 0) sState = BaseHook.mPrefsMap.getBoolean("settings_hook_profiler") ? 1 : 2;
+        return sState == 1;
+    }
+
+    /**
+     * @return 开始时间，未开启时为 0
+     */
+    public static long begin() {
+        return isEnabled() ? System.nanoTime() : 0;
+    }
+
+    public static void end(String name, String category, long start) {
+        end(name, category, start, null);
+    }
+
+    public static void end(String name, String category, long start, String args) {
+        if (start == 0) return;
+        long now = System.nanoTime();
+        synchronized (sEvents) {
+            sEvents.add(new Event(name, category, start, now - start, Process.myTid(), args));
+        }
+    }
+
+    /**
+     * 由 BaseHook 的辅助方法调用，记录安装的 Hook 数量与耗时
+     */
+    static void onHooked(int count, long start) {
+        if (start == 0) return;
+        sHookCount += count;
+        sHookNanos += System.nanoTime() - start;
+    }
+
+    static void onClassLookup(long start) {
+        if (start == 0) return;
+        sClassLookupNanos += System.nanoTime() - start;
+    }
+
+    static int getHookCount() {
+        return sHookCount;
+    }
+
+    static long getClassLookupNanos() {
+        return sClassLookupNanos;
+    }
+
+    static long getHookNanos() {
+        return sHookNanos;
+    }
+
+    /**
+     * 在宿主 Application.onCreate 之后把记录发送给模块，此时 ContentResolver 已可用
+     */
+    public static void publishOnApplicationCreate(String packageName) {
+        if (!isEnabled()) return;
+        // system_server 中没有 Application，只输出汇总日志
+        if ("android".equals(packageName)) {
+            logSummary(packageName);
+            return;
+        }
+        // 同一进程可能加载多个包，只发送第一个
+        if (isPublishHooked) return;
+        isPublishHooked = true;
+        XposedHelpers.findAndHookMethod(Application.class, "onCreate", new XC_MethodHook() {
+            private boolean isPublished = false;
+
+            @Override
+            protected void afterHookedMethod(MethodHookParam param) {
+                if (isPublished) return;
+                isPublished = true;
+                publish((Application) param.thisObject, packageName);
+            }
+        });
+    }
+
+    private static void publish(Application application, String packageName) {
+        try {
+            Bundle extras = new Bundle();
+            extras.putString(SharedPrefsProvider.EXTRA_TRACE, toJson(packageName));
+            application.getContentResolver().call(
+                Uri.parse("content://" + SharedPrefsProvider.AUTHORITY),
+                SharedPrefsProvider.METHOD_PUT_TRACE, null, extras);
+        } catch (Throwable t) {
+            XposedLogUtils.logW(TAG, "publish trace failed", t);
+        }
+    }
+
+    private static void logSummary(String packageName) {
+        long total = 0;
+        synchronized (sEvents) {
+            for (Event event : sEvents) {
+                if (CAT_MODULE.equals(event.category) || CAT_PREFS.equals(event.category)) total += event.duration;
+            }
+        }
+        XposedLogUtils.logI(TAG, packageName + ": " + sHookCount + " hooks, total " + total / 1000000
+            + " ms, class lookup " + sClassLookupNanos / 1000000 + " ms, hook " + sHookNanos / 1000000 + " ms");
+    }
+
+    private static String toJson(String packageName) {
+        StringBuilder builder = new StringBuilder();
+        int pid = Process.myPid();
+        builder.append("{\"otherData\":{\"package\":\"").append(packageName).append("\"},\"traceEvents\":[");
+        synchronized (sEvents) {
+            for (int i = 0; i < sEvents.size(); i++) {
+                Event event = sEvents.get(i);
+                if (i > 0) builder.append(',');
+                builder.append("{\"name\":\"").append(event.name)
+                    .append("\",\"cat\":\"").append(event.category)
+                    .append("\",\"ph\":\"X\",\"ts\":").append(event.start / 1000)
+                    .append(",\"dur\":").append(event.duration / 1000)
+                    .append(",\"pid\":").append(pid)
+                    .append(",\"tid\":").append(event.tid);
+                if (event.args != null) builder.append(",\"args\":").append(event.args);
+                builder.append('}');
+            }
+        }
+        return builder.append("]}").toString();
+    }
+}
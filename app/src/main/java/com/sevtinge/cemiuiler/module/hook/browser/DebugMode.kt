@@ -1,10 +1,9 @@
 package com.sevtinge.cemiuiler.module.hook.browser
 
-import com.github.kyuubiran.ezxhelper.EzXHelper.safeClassLoader
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
 import com.sevtinge.cemiuiler.utils.DexKit.closeDexKit
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 import com.sevtinge.cemiuiler.utils.DexKit.initDexKit
 import com.sevtinge.cemiuiler.utils.Helpers.getPackageVersionCode
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils
@@ -61,13 +60,12 @@ object DebugMode : BaseHook() {
              }
          }*/
         initDexKit(lpparam)
-        dexKitBridge.findMethod {
+        findMethodsCached("DebugMode", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals("pref_key_debug_mode_new")
                 returnType = "boolean"
             }
-        }.forEach {
-            val debugMode = it.getMethodInstance(lpparam.classLoader)
+        }.forEach { debugMode ->
             if (debugMode.toString().contains("getDebugMode")) {
                 XposedLogUtils.logI("DebugMode method is $debugMode")
                 found = true
@@ -79,13 +77,12 @@ object DebugMode : BaseHook() {
         }
 
         if (!found) {
-            dexKitBridge.findMethod {
+            findMethodsCached("DebugMode1", lpparam.classLoader) {
                 matcher {
                     addUsingStringsEquals("pref_key_debug_mode")
                     returnType = "boolean"
                 }
-            }.forEach {
-                val debugMode1 = it.getMethodInstance(safeClassLoader)
+            }.forEach { debugMode1 ->
                 if (debugMode1.toString().contains("getDebugMode")) {
                     XposedLogUtils.logI("DebugMode1 method is $debugMode1")
                     found = true
@@ -98,13 +95,12 @@ object DebugMode : BaseHook() {
         }
 
         if (!found) {
-            dexKitBridge.findMethod {
+            findMethodsCached("DebugMode2", lpparam.classLoader) {
                 matcher {
                     addUsingStringsEquals("pref_key_debug_mode_" + getPackageVersionCode(lpparam))
                     returnType = "boolean"
                 }
-            }.forEach {
-                val debugMode2 = it.getMethodInstance(lpparam.classLoader)
+            }.forEach { debugMode2 ->
                 if (debugMode2.toString().contains("getDebugMode")) {
                     XposedLogUtils.logI("DebugMode2 method is $debugMode2")
                     found = true
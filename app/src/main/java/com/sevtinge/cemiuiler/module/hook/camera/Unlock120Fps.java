@@ -1,15 +0,0 @@
-package com.sevtinge.cemiuiler.module.hook.camera;
-
-import com.sevtinge.cemiuiler.module.base.BaseHook;
-
-public class Unlock120Fps extends BaseHook {
-    @Override
-    public void init() {
-        hookAllMethods("com.android.camera2.CameraCapabilitiesUtil", "isSupported4K120Fps", new BaseHook.MethodHook() {
-            @Override
-            protected void before(MethodHookParam param) throws Throwable {
-                param.setResult(true);
-            }
-        });
-    }
-}
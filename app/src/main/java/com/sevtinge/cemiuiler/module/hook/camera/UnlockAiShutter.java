@@ -1,27 +0,0 @@
-package com.sevtinge.cemiuiler.module.hook.camera;
-
-import com.sevtinge.cemiuiler.module.base.BaseHook;
-
-public class UnlockAiShutter extends BaseHook {
-    @Override
-    public void init() {
-        findAndHookMethod("com.android.camera2.CameraCapabilities", "isSupportAiShutter", new BaseHook.MethodHook() {
-            @Override
-            protected void before(MethodHookParam param) throws Throwable {
-                param.setResult(true);
-            }
-        });
-        hookAllMethods("com.android.camera2.CameraCapabilitiesUtil", "isSupportAiShutter", new BaseHook.MethodHook() {
-            @Override
-            protected void before(MethodHookParam param) throws Throwable {
-                param.setResult(true);
-            }
-        });
-        hookAllMethods("com.android.camera.CameraSettings", "isSupportAiShutter", new BaseHook.MethodHook() {
-            @Override
-            protected void before(MethodHookParam param) throws Throwable {
-                param.setResult(true);
-            }
-        });
-    }
-}
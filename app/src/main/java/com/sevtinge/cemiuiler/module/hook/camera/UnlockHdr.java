@@ -1,33 +0,0 @@
-package com.sevtinge.cemiuiler.module.hook.camera;
-
-import com.sevtinge.cemiuiler.module.base.BaseHook;
-
-public class UnlockHdr extends BaseHook {
-    @Override
-    public void init() {
-        findAndHookMethod("com.android.camera2.CameraCapabilities", "isSupportVideoHdr", new BaseHook.MethodHook() {
-            @Override
-            protected void before(MethodHookParam param) throws Throwable {
-                param.setResult(true);
-            }
-        });
-        hookAllMethods("com.android.camera2.CameraCapabilitiesUtil", "isSupportVideoHdr", new BaseHook.MethodHook() {
-            @Override
-            protected void before(MethodHookParam param) throws Throwable {
-                param.setResult(true);
-            }
-        });
-        findAndHookMethod("com.android.camera2.CameraCapabilities", "isSupportQcomVideoHdr", new BaseHook.MethodHook() {
-            @Override
-            protected void before(MethodHookParam param) throws Throwable {
-                param.setResult(true);
-            }
-        });
-        hookAllMethods("com.android.camera2.CameraCapabilitiesUtil", "isSupportQcomVideoHdr", new BaseHook.MethodHook() {
-            @Override
-            protected void before(MethodHookParam param) throws Throwable {
-                param.setResult(true);
-            }
-        });
-    }
-}
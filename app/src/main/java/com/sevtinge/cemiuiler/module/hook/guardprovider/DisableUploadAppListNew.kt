@@ -2,7 +2,7 @@ package com.sevtinge.cemiuiler.module.hook.guardprovider
 
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 import com.sevtinge.cemiuiler.utils.replaceMethod
 
 object DisableUploadAppListNew : BaseHook() {
@@ -16,12 +16,12 @@ object DisableUploadAppListNew : BaseHook() {
         antiDefraudAppManagerMethod.replaceMethod {
             return@replaceMethod null
         }*/
-        dexKitBridge.findMethod {
+        findMethodsCached("AntiDefraudAppManager", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals("AntiDefraudAppManager", "https://flash.sec.miui.com/detect/app")
             }
         }.forEach {
-            it.getMethodInstance(lpparam.classLoader).replaceMethod {
+            it.replaceMethod {
                 return@replaceMethod null
             }
         }
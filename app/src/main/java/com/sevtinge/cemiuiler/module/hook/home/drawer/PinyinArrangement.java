@@ -1,10 +1,14 @@
 package com.sevtinge.cemiuiler.module.hook.home.drawer;
 
 import android.app.Activity;
+import android.content.res.Configuration;
+import android.util.LruCache;
 
 import com.github.promeg.pinyinhelper.Pinyin;
 import com.sevtinge.cemiuiler.module.base.BaseHook;
+import com.sevtinge.cemiuiler.utils.FieldAccessor;
 
+import java.lang.reflect.Method;
 import java.util.Locale;
 
 import de.robv.android.xposed.XposedHelpers;
@@ -13,30 +17,35 @@ public class PinyinArrangement extends BaseHook {
     Locale locale;
     Activity activity;
 
+    // 应用名 -> 分组名，分组规则随 AlphabeticIndexCompat 实例（语言）变化，实例改变时清空
+    private final LruCache<String, String> mSectionCache = new LruCache<>(512);
+    private Object mSectionIndex;
+    private Method mTrim;
+    private final FieldAccessor mBaseIndex = new FieldAccessor("mBaseIndex");
+    private final FieldAccessor mDefaultMiscLabel = new FieldAccessor("mDefaultMiscLabel");
+
     @Override
     public void init() {
+        mTrim = XposedHelpers.findMethodBestMatch(findClass("com.miui.home.launcher.common.Utilities"), "trim", CharSequence.class);
+
         findAndHookMethod("com.miui.home.launcher.compat.AlphabeticIndexCompat",
             "computeSectionName", CharSequence.class, new MethodHook() {
                 @Override
-                protected void before(MethodHookParam param) {
+                protected void before(MethodHookParam param) throws Throwable {
                     CharSequence charSequence = (CharSequence) param.args[0];
-                    String bucketLabel;
-                    String trim = (String) XposedHelpers.callStaticMethod(findClass("com.miui.home.launcher.common.Utilities"), "trim", charSequence);
-                    if (charSequence.length() > 0 && Pinyin.isChinese(charSequence.charAt(0))) {
-                        bucketLabel = String.valueOf(Pinyin.toPinyin(charSequence.toString(), "").charAt(0));
-                    } else {
-                        Object o = XposedHelpers.getObjectField(param.thisObject, "mBaseIndex");
-                        bucketLabel = (String) XposedHelpers.callMethod(o, "getBucketLabel", XposedHelpers.callMethod(o, "getBucketIndex", trim));
+                    String label = charSequence.toString();
+                    if (mSectionIndex != param.thisObject) {
+                        mSectionCache.evictAll();
+                        mSectionIndex = param.thisObject;
                     }
-                    // logE("bucketLabel: " + bucketLabel + " trim1: " + trim);
-                    String trim2 = (String) XposedHelpers.callStaticMethod(findClass("com.miui.home.launcher.common.Utilities"), "trim", bucketLabel);
-                    // logE("trim2: " + trim2);
-                    if (!trim2.isEmpty() || trim.length() <= 0) {
-                        param.setResult(bucketLabel);
-                        return;
+                    String section = mSectionCache.get(label);
+                    if (section == null) {
+                        section = computeSectionName(param.thisObject, charSequence);
+                        // LruCache 不接受 null，算不出分组时交给原方法处理
+                        if (section == null) return;
+                        mSectionCache.put(label, section);
                     }
-                    int codePointAt = trim.codePointAt(0);
-                    param.setResult(Character.isDigit(codePointAt) ? "…" : Character.isLetter(codePointAt) ? (String) XposedHelpers.getObjectField(param.thisObject, "mDefaultMiscLabel") : "∙");
+                    param.setResult(section);
                 }
             }
         );
@@ -46,16 +55,36 @@ public class PinyinArrangement extends BaseHook {
                 @Override
                 protected void before(MethodHookParam param) {
                     activity = (Activity) XposedHelpers.getObjectField(param.thisObject, "mLauncher");
-                    locale = activity.getResources().getConfiguration().locale;
-                    activity.getResources().getConfiguration().setLocale(Locale.SIMPLIFIED_CHINESE);
+                    Configuration configuration = activity.getResources().getConfiguration();
+                    locale = configuration.locale;
+                    if (!Locale.SIMPLIFIED_CHINESE.equals(locale)) configuration.setLocale(Locale.SIMPLIFIED_CHINESE);
                 }
 
                 @Override
                 protected void after(MethodHookParam param) {
-                    activity.getResources().getConfiguration().setLocale(locale);
+                    Configuration configuration = activity.getResources().getConfiguration();
+                    if (!locale.equals(configuration.locale)) configuration.setLocale(locale);
                 }
             }
         );
 
     }
+
+    private String computeSectionName(Object alphabeticIndex, CharSequence charSequence) throws Throwable {
+        String bucketLabel;
+        String trim = (String) mTrim.invoke(null, charSequence);
+        if (charSequence.length() > 0 && Pinyin.isChinese(charSequence.charAt(0))) {
+            // 只需要第一个字的拼音首字母
+            bucketLabel = String.valueOf(Pinyin.toPinyin(charSequence.charAt(0)).charAt(0));
+        } else {
+            Object o = mBaseIndex.get(alphabeticIndex);
+            bucketLabel = (String) XposedHelpers.callMethod(o, "getBucketLabel", XposedHelpers.callMethod(o, "getBucketIndex", trim));
+        }
+        // logE("bucketLabel: " + bucketLabel + " trim1: " + trim);
+        String trim2 = (String) mTrim.invoke(null, bucketLabel);
+        // logE("trim2: " + trim2);
+        if (!trim2.isEmpty() || trim.length() <= 0) return bucketLabel;
+        int codePointAt = trim.codePointAt(0);
+        return Character.isDigit(codePointAt) ? "…" : Character.isLetter(codePointAt) ? (String) mDefaultMiscLabel.get(alphabeticIndex) : "∙";
+    }
 }
@@ -9,73 +9,75 @@ import android.graphics.drawable.PaintDrawable;
 import android.graphics.drawable.ShapeDrawable;
 import android.graphics.drawable.shapes.RectShape;
 import android.os.Handler;
+import android.util.Pair;
+import android.util.SparseArray;
 import android.view.View;
 
 import androidx.annotation.NonNull;
 
-import com.sevtinge.cemiuiler.XposedInit;
 import com.sevtinge.cemiuiler.module.base.BaseHook;
+import com.sevtinge.cemiuiler.utils.PrefKey;
 import com.sevtinge.cemiuiler.utils.PrefsUtils;
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils;
 
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
 import de.robv.android.xposed.XposedHelpers;
 
 public class FolderShade extends BaseHook {
 
+    private static final PrefKey SHADE = PrefKey.stringAsInt("home_folder_shade", 0);
+    private static final PrefKey SHADE_LEVEL = PrefKey.integer("home_folder_shade_level", 40);
+
     private Class<?> mWallpaperUtilsCls = null;
     private boolean isLight = false;
+    private boolean isLightDirty = true;
+    private PrefsUtils.SharedPrefsDeltaObserver mPrefsObserver = null;
+
+    private static final int NO_BACKGROUND = -1;
+
+    // 以 (模式, 强度, 是否浅色壁纸) 为 key 缓存背景的 ConstantState，每个 View 使用各自的 Drawable，
+    // Folder.setBackgroundAlpha 修改透明度时不会影响其他 View
+    private final SparseArray<Drawable.ConstantState> mBackgrounds = new SparseArray<>();
+    // FolderCling -> 当前背景对应的 key 与 Drawable，未变化时布局不再重新设置
+    private final Map<View, Pair<Integer, Drawable>> mFolderClings = new WeakHashMap<>();
 
     @Override
     public void init() {
         mWallpaperUtilsCls = XposedHelpers.findClassIfExists("com.miui.home.launcher.WallpaperUtils", lpparam.classLoader);
 
-        MethodHook hook = new MethodHook() {
+        hookAllConstructors("com.miui.home.launcher.FolderCling", new MethodHook() {
             @Override
             protected void after(MethodHookParam param) {
                 View folder = (View) param.thisObject;
-                new Thread(() -> {
-                    try {
-                        Context context = folder.getContext();
-                        int opt = Integer.parseInt(PrefsUtils.getSharedStringPrefs(context, "prefs_key_home_folder_shade", "0"));
-                        int level = PrefsUtils.getSharedIntPrefs(context, "prefs_key_home_folder_shade_level", 40);
-
-                        if (mWallpaperUtilsCls != null) {
-                            try {
-                                isLight = (boolean) XposedHelpers.callStaticMethod(mWallpaperUtilsCls, "hasAppliedLightWallpaper");
-                            } catch (Throwable tr) {
-                                XposedLogUtils.logW(TAG, "isLight is abnormal", tr);
-                            }
-                        }
-
-                        Drawable bkg;
-                        if (opt == 1) {
-                            int bgColor = (isLight ? 0x00ffffff : 0x00000000) | (Math.round(255 * level / 100f) * 0x1000000);
-                            bkg = new ColorDrawable(bgColor);
-                        } else if (opt == 2) {
-                            bkg = getPaintDrawable(level);
-                        } else {
-                            bkg = null;
-                        }
-                        new Handler(context.getMainLooper()).post(() -> {
-                            XposedInit.mPrefsMap.put("prefs_key_home_folder_shade", String.valueOf(opt));
-                            XposedInit.mPrefsMap.put("prefs_key_home_folder_shade_level", level);
-                            folder.setBackground(bkg);
-                        });
-                    } catch (Throwable t) {
-                        XposedLogUtils.logW(TAG, "", t);
-                    }
-                }).start();
+                registerObserver(folder.getContext());
+                isLightDirty = true;
+                applyBackground(folder);
             }
-        };
+        });
 
-        hookAllConstructors("com.miui.home.launcher.FolderCling", hook);
-        findAndHookMethod("com.miui.home.launcher.FolderCling", "onWallpaperColorChanged", hook);
-        findAndHookMethod("com.miui.home.launcher.FolderCling", "updateLayout", boolean.class, hook);
+        findAndHookMethod("com.miui.home.launcher.FolderCling", "onWallpaperColorChanged", new MethodHook() {
+            @Override
+            protected void after(MethodHookParam param) {
+                isLightDirty = true;
+                applyBackground((View) param.thisObject);
+            }
+        });
+
+        findAndHookMethod("com.miui.home.launcher.FolderCling", "updateLayout", boolean.class, new MethodHook() {
+            @Override
+            protected void after(MethodHookParam param) {
+                applyBackground((View) param.thisObject);
+            }
+        });
 
         findAndHookMethod("com.miui.home.launcher.Folder", "setBackgroundAlpha", float.class, new MethodHook() {
             @Override
             protected void after(MethodHookParam param) {
-                int opt = mPrefsMap.getStringAsInt("home_folder_shade", 0);
+                int opt = mPrefsMap.getInt(SHADE);
                 Object mLauncher = XposedHelpers.getObjectField(param.thisObject, "mLauncher");
                 View folderCling = (View) XposedHelpers.callMethod(mLauncher, "getFolderCling");
                 if (opt == 1 || mLauncher == null || folderCling == null) return;
@@ -85,8 +87,65 @@ public class FolderShade extends BaseHook {
         });
     }
 
+    private void registerObserver(Context context) {
+        if (mPrefsObserver != null) return;
+        mPrefsObserver = new PrefsUtils.SharedPrefsDeltaObserver(context, new Handler(context.getMainLooper())) {
+            @Override
+            public void onChange(Set<String> keys) {
+                if (!keys.contains("prefs_key_home_folder_shade") && !keys.contains("prefs_key_home_folder_shade_level")) return;
+                for (View folder : new ArrayList<>(mFolderClings.keySet())) applyBackground(folder);
+            }
+        };
+    }
+
+    private void applyBackground(View folder) {
+        int key = getBackgroundKey();
+        Pair<Integer, Drawable> applied = mFolderClings.get(folder);
+        if (applied != null && applied.first == key && folder.getBackground() == applied.second) return;
+        Drawable bkg = null;
+        if (key != NO_BACKGROUND) {
+            Drawable.ConstantState state = mBackgrounds.get(key);
+            if (state == null) {
+                state = createBackground(key).getConstantState();
+                mBackgrounds.put(key, state);
+            }
+            bkg = state.newDrawable().mutate();
+        }
+        folder.setBackground(bkg);
+        mFolderClings.put(folder, new Pair<>(key, bkg));
+    }
+
+    private int getBackgroundKey() {
+        if (isLightDirty) {
+            isLightDirty = false;
+            if (mWallpaperUtilsCls != null) {
+                try {
+                    isLight = (boolean) XposedHelpers.callStaticMethod(mWallpaperUtilsCls, "hasAppliedLightWallpaper");
+                } catch (Throwable tr) {
+                    XposedLogUtils.logW(TAG, "isLight is abnormal", tr);
+                }
+            }
+        }
+
+        int opt = mPrefsMap.getInt(SHADE);
+        int level = mPrefsMap.getInt(SHADE_LEVEL);
+        if (opt != 1 && opt != 2) return NO_BACKGROUND;
+        return (opt << 16) | (level << 1) | (isLight ? 1 : 0);
+    }
+
+    private Drawable createBackground(int key) {
+        int opt = key >> 16;
+        int level = (key & 0xffff) >> 1;
+        boolean isLight = (key & 1) == 1;
+        if (opt == 1) {
+            int bgColor = (isLight ? 0x00ffffff : 0x00000000) | (Math.round(255 * level / 100f) * 0x1000000);
+            return new ColorDrawable(bgColor);
+        }
+        return getPaintDrawable(level, isLight);
+    }
+
     @NonNull
-    private PaintDrawable getPaintDrawable(int level) {
+    private PaintDrawable getPaintDrawable(int level, boolean isLight) {
         PaintDrawable pd = new PaintDrawable();
         pd.setShape(new RectShape());
         pd.setShaderFactory(new ShapeDrawable.ShaderFactory() {
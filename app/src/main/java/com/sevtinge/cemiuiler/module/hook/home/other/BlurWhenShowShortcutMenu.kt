@@ -11,11 +11,13 @@ import android.graphics.drawable.ShapeDrawable
 import android.os.Build
 import android.view.View
 import android.view.ViewGroup
+import android.view.Window
 import android.widget.FrameLayout
 import androidx.annotation.RequiresApi
 import androidx.core.view.ViewCompat.animate
 import com.sevtinge.cemiuiler.module.base.BaseHook
-import com.sevtinge.cemiuiler.utils.HookUtils
+import com.sevtinge.cemiuiler.utils.FieldAccessor
+import com.sevtinge.cemiuiler.utils.MethodAccessor
 import com.sevtinge.cemiuiler.utils.getObjectField
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils
 import de.robv.android.xposed.XC_MethodHook
@@ -37,6 +39,13 @@ object BlurWhenShowShortcutMenu : BaseHook() {
 
         val allBluredDrawable: MutableList<Drawable> = ArrayList()
 
+        // 动画每一帧都会调用，提前解析
+        val fastBlurDirectly = MethodAccessor.of(
+            blurUtilsClass, "fastBlurDirectly", Float::class.javaPrimitiveType, Window::class.java
+        )
+        val windowField = FieldAccessor("mWindow")
+        val arrowField = FieldAccessor("mArrow")
+
         val singleLayerAlpha =
             ((1.0 - sqrt(1.0 - (shortcutMenuBackgroundAlpha / 255.0))) * 255.0).toInt()
 
@@ -47,13 +56,13 @@ object BlurWhenShowShortcutMenu : BaseHook() {
 
         fun showBlurDrawable() {
             allBluredDrawable.forEach { drawable ->
-                XposedHelpers.callMethod(drawable, "setVisible", true, false)
+                drawable.setVisible(true, false)
             }
         }
 
         fun hideBlurDrawable() {
             allBluredDrawable.forEach { drawable ->
-                XposedHelpers.callMethod(drawable, "setVisible", false, false)
+                drawable.setVisible(false, false)
             }
         }
 
@@ -71,7 +80,7 @@ object BlurWhenShowShortcutMenu : BaseHook() {
                     val mLauncher = XposedHelpers.callStaticMethod(applicationClass, "getLauncher")
                     val systemUiController =
                         XposedHelpers.callMethod(mLauncher, "getSystemUiController")
-                    val mWindow = HookUtils.getValueByField(systemUiController, "mWindow")
+                    val mWindow = windowField.getOrNull(systemUiController)
                     val targetBlurView = XposedHelpers.callMethod(mLauncher, "getScreen") as View
                     // 修复文件夹内各种模糊冲突异常
                     blurBackground = if (iconIsInFolder) !mPrefsMap.getBoolean("home_folder_blur") else true
@@ -84,18 +93,14 @@ object BlurWhenShowShortcutMenu : BaseHook() {
                         )
                     }
 
+                    val alwaysBlurWallpaper = mPrefsMap.getBoolean("home_other_always_blur_launcher_wallpaper")
                     val valueAnimator = ValueAnimator.ofInt(0, 50)
                     valueAnimator.addUpdateListener { animator ->
                         val value = animator.animatedValue as Int
                         targetBlurView.setRenderEffect(renderEffectArray[value])
                         // 修复始终模糊壁纸冲突导致的各种模糊异常
-                        if (blurBackground && !mPrefsMap.getBoolean("home_other_always_blur_launcher_wallpaper")) {
-                            XposedHelpers.callStaticMethod(
-                                blurUtilsClass,
-                                "fastBlurDirectly",
-                                value / 50f,
-                                mWindow
-                            )
+                        if (blurBackground && !alwaysBlurWallpaper) {
+                            fastBlurDirectly.invoke(null, value / 50f, mWindow)
                         }
                     }
                     dragView =
@@ -160,12 +165,10 @@ object BlurWhenShowShortcutMenu : BaseHook() {
                             XposedHelpers.callStaticMethod(applicationClass, "getLauncher")
                         val systemUiController =
                             XposedHelpers.callMethod(mLauncher, "getSystemUiController")
-                        val mWindow = HookUtils.getValueByField(systemUiController, "mWindow")
+                        val mWindow = windowField.getOrNull(systemUiController)
 
                         if (blurBackground) {
-                            XposedHelpers.callStaticMethod(
-                                blurUtilsClass, "fastBlurDirectly", 0f, mWindow
-                            )
+                            fastBlurDirectly.invoke(null, 0f, mWindow)
                         }
                     }
                 }
@@ -184,11 +187,12 @@ object BlurWhenShowShortcutMenu : BaseHook() {
                             XposedHelpers.callStaticMethod(applicationClass, "getLauncher")
                         val systemUiController =
                             XposedHelpers.callMethod(mLauncher, "getSystemUiController")
-                        val mWindow = HookUtils.getValueByField(systemUiController, "mWindow")
+                        val mWindow = windowField.getOrNull(systemUiController)
 
                         val targetBlurView =
                             XposedHelpers.callMethod(mLauncher, "getScreen") as View
 
+                        val alwaysBlurWallpaper = mPrefsMap.getBoolean("home_other_always_blur_launcher_wallpaper")
                         val valueAnimator = ValueAnimator.ofInt(50, 0)
                         val renderEffectArray = arrayOfNulls<RenderEffect>(51)
                         for (index in 0..50) {
@@ -202,10 +206,8 @@ object BlurWhenShowShortcutMenu : BaseHook() {
                             val value = animator.animatedValue as Int
                             targetBlurView.setRenderEffect(renderEffectArray[value])
                             // 修复始终模糊壁纸模糊丢失
-                            if (blurBackground && !mPrefsMap.getBoolean("home_other_always_blur_launcher_wallpaper")) {
-                                XposedHelpers.callStaticMethod(
-                                    blurUtilsClass, "fastBlurDirectly", value / 50f, mWindow
-                                )
+                            if (blurBackground && !alwaysBlurWallpaper) {
+                                fastBlurDirectly.invoke(null, value / 50f, mWindow)
                             }
                         }
                         valueAnimator.addListener(object : AnimatorListenerAdapter() {
@@ -367,9 +369,7 @@ object BlurWhenShowShortcutMenu : BaseHook() {
                         if (!isShortcutMenuLayerBlurred) {
                             return
                         }
-                        val mArrow = HookUtils.getValueByField(
-                            param.thisObject, "mArrow"
-                        ) as View
+                        val mArrow = arrowField.getOrNull(param.thisObject) as View
                         val mArrowBackground = mArrow.background as ShapeDrawable
                         mArrowBackground.alpha = shortcutMenuBackgroundAlpha
                     }
@@ -5,16 +5,16 @@ import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.github.kyuubiran.ezxhelper.finders.MethodFinder.`-Static`.methodFinder
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findClassesCached
 
 object ShowAllHideApp : BaseHook() {
     override fun init() {
-        dexKitBridge.findClass {
+        findClassesCached("ShowAllHideApp", EzXHelper.classLoader) {
             matcher {
                 addUsingStringsEquals("appInfo.packageName", "activityInfo")
             }
         }.forEach {
-            it.getInstance(EzXHelper.classLoader).methodFinder().first {
+            it.methodFinder().first {
                 name == "isHideAppValid"
             }.createHook {
                 returnConstant(true)
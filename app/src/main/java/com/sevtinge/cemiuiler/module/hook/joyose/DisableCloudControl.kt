@@ -3,16 +3,16 @@ package com.sevtinge.cemiuiler.module.hook.joyose
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodCached
 
 object DisableCloudControl : BaseHook() {
     override fun init() {
-        dexKitBridge.findMethod {
+        findMethodCached("DisableCloudControl", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals("job exist, sync local...")
                 returnType = "void"
             }
-        }.firstOrNull()?.getMethodInstance(lpparam.classLoader)?.createHook {
+        }?.createHook {
             returnConstant(null)
         }
     }
@@ -7,7 +7,7 @@ import com.github.kyuubiran.ezxhelper.ClassUtils.setStaticObject
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodCached
 import com.sevtinge.cemiuiler.utils.api.LazyClass.AndroidBuildCls
 import org.luckypray.dexkit.query.enums.StringMatchType
 
@@ -15,11 +15,11 @@ import org.luckypray.dexkit.query.enums.StringMatchType
 object FilterManagerAll : BaseHook() {
     private lateinit var device: String
     private val methodResult by lazy {
-        dexKitBridge.findMethod {
+        findMethodCached("FilterManager", safeClassLoader, { it.isMethod }) {
             matcher {
                 addUsingStringsEquals("wayne")
             }
-        }.filter { it.isMethod }.map { it.getMethodInstance(safeClassLoader) }.toTypedArray().firstOrNull()
+        }
     }
 
     override fun init() {
@@ -5,12 +5,13 @@ import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHooks
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodCached
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 import java.lang.reflect.Modifier
 
 object UnlockMinimumCropLimitNew : BaseHook() {
     private val mScreenCropViewMethodToNew by lazy {
-        dexKitBridge.findMethod {
+        findMethodsCached("UnlockMinimumCropLimitNew", EzXHelper.classLoader) {
             matcher {
                 declaredClass {
                     addUsingStringsEquals("not in bound")
@@ -19,11 +20,11 @@ object UnlockMinimumCropLimitNew : BaseHook() {
                 returnType = "int"
                 modifiers = Modifier.FINAL
             }
-        }.map { it.getMethodInstance(EzXHelper.classLoader) }.toList()
+        }
     }
 
     private val mScreenCropViewMethodToOld by lazy {
-        dexKitBridge.findMethod {
+        findMethodCached("UnlockMinimumCropLimitNew_2", EzXHelper.safeClassLoader) {
             matcher {
                 declaredClass {
                     addUsingStringsEquals("fixImageBounds %f,%f")
@@ -32,7 +33,7 @@ object UnlockMinimumCropLimitNew : BaseHook() {
                 returnType = "int"
                 modifiers = Modifier.FINAL
             }
-        }.firstOrNull()?.getMethodInstance(EzXHelper.safeClassLoader)
+        }
     }
 
     override fun init() {
@@ -8,12 +8,12 @@ import com.github.kyuubiran.ezxhelper.MemberExtensions.isStatic
 import com.github.kyuubiran.ezxhelper.finders.FieldFinder.`-Static`.fieldFinder
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 import org.luckypray.dexkit.query.enums.StringMatchType
 
 object CustomRefreshRate : BaseHook() {
     private val resultMethod by lazy {
-        dexKitBridge.findMethod {
+        findMethodsCached("CustomRefreshRate_category", EzXHelper.classLoader) {
            matcher {
                addUsingStringsEquals("btn_preferce_category")
            }
@@ -24,7 +24,7 @@ object CustomRefreshRate : BaseHook() {
         val result2 = MiSettingsDexKit.mMiSettingsResultClassMap!!["refresh"]*/
         val resultClass = loadClass("com.xiaomi.misettings.display.RefreshRate.RefreshRateActivity")
 
-        resultMethod.first().getMethodInstance(EzXHelper.classLoader).createHook {
+        resultMethod.first().createHook {
             before {
                 it.args[0] = true
             }
@@ -4,7 +4,9 @@ import com.github.kyuubiran.ezxhelper.EzXHelper.classLoader
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHooks
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findClassCached
+import com.sevtinge.cemiuiler.utils.DexKit.findFieldCached
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 import com.sevtinge.cemiuiler.utils.api.BlurDraw.getValueByFields
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils
 import de.robv.android.xposed.XposedHelpers
@@ -12,15 +14,15 @@ import java.lang.reflect.Modifier
 
 object NoAutoTurnOff : BaseHook() {
     private val nullMethod by lazy {
-        dexKitBridge.findMethod {
+        findMethodsCached("NoAutoTurnOff", classLoader) {
             matcher {
                 addUsingStringsEquals("EnabledState", "mishare_enabled")
             }
-        }.map { it.getMethodInstance(classLoader) }.toList()
+        }
     }
 
     private val null2Method by lazy {
-        dexKitBridge.findMethod {
+        findMethodsCached("NoAutoTurnOff_2", classLoader) {
             matcher {
                 declaredClass {
                     addUsingStringsEquals("mishare:advertise_lock", "power")
@@ -28,21 +30,21 @@ object NoAutoTurnOff : BaseHook() {
                 paramCount = 2
                 modifiers = Modifier.STATIC
             }
-        }.map { it.getMethodInstance(classLoader) }.toList()
+        }
     }
 
     private val null3Method by lazy {
-        dexKitBridge.findMethod {
+        findMethodsCached("NoAutoTurnOff_3", classLoader) {
             matcher {
                 addUsingStringsEquals("com.miui.mishare.action.GRANT_NFC_TOUCH_PERMISSION")
                 usingNumbers(600000L)
                 modifiers = Modifier.PRIVATE
             }
-        }.map { it.getMethodInstance(classLoader) }.toList()
+        }
     }
 
     private val toastMethod by lazy {
-        dexKitBridge.findMethod {
+        findMethodsCached("NoAutoTurnOff_4", classLoader) {
             matcher {
                 declaredClass {
                     addUsingStringsEquals("null context", "cta_agree")
@@ -51,22 +53,22 @@ object NoAutoTurnOff : BaseHook() {
                 paramTypes = listOf("android.content.Context", "java.lang.String")
                 paramCount = 2
             }
-        }.map { it.getMethodInstance(classLoader) }.toList()
+        }
     }
 
     override fun init() {
-        val nullClass = dexKitBridge.findClass {
+        val nullClass = findClassCached("NoAutoTurnOff_class", classLoader) {
             matcher {
                 addUsingStringsEquals("NfcShareTaskManager", "task out of limit type ")
             }
-        }.map { it.getInstance(classLoader) }.first()
+        }!!
 
-        val nullField = dexKitBridge.findField {
+        val nullField = findFieldCached("NoAutoTurnOff_field", classLoader) {
             matcher {
                 declaredClass(nullClass)
                 modifiers = Modifier.STATIC
             }
-        }.map { it.getFieldInstance(classLoader) }.first()
+        }!!
 
         // 禁用小米互传功能自动关闭部分
         nullMethod.createHooks {
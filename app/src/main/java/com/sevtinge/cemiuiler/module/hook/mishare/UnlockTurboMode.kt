@@ -4,15 +4,15 @@ import com.github.kyuubiran.ezxhelper.EzXHelper
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 
 object UnlockTurboMode : BaseHook() {
     private val turboModeMethod by lazy {
-        dexKitBridge.findMethod {
+        findMethodsCached("UnlockTurboMode", EzXHelper.classLoader) {
             matcher {
                 addUsingStringsEquals("DeviceUtil", "xiaomi.hardware.p2p_160m")
             }
-        }.map { it.getMethodInstance(EzXHelper.classLoader) }.first()
+        }.first()
     }
 
     override fun init() {
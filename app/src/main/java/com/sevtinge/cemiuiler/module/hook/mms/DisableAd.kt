@@ -6,17 +6,17 @@ import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.github.kyuubiran.ezxhelper.finders.MethodFinder.`-Static`.methodFinder
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findClassesCached
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils
 
 object DisableAd : BaseHook() {
     override fun init() {
         try {
-            dexKitBridge.findClass {
+            findClassesCached("DisableAd_class", EzXHelper.classLoader) {
                 matcher {
                     addUsingStringsEquals("Unknown type of the message: ")
                 }
-            }.firstOrNull()?.getInstance(EzXHelper.classLoader)?.methodFinder()?.first {
+            }.firstOrNull()?.methodFinder()?.first {
                 name == "j"
             }?.createHook {
                 returnConstant(false)
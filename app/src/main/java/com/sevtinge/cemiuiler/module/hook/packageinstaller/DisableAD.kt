@@ -3,34 +3,34 @@ package com.sevtinge.cemiuiler.module.hook.packageinstaller
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodCached
 
 object DisableAD : BaseHook() {
     override fun init() {
-        dexKitBridge.findMethod {
+        findMethodCached("DisableAD", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals("ads_enable")
                 returnType = "boolean"
             }
-        }.firstOrNull()?.getMethodInstance(lpparam.classLoader)?.createHook {
+        }?.createHook {
             returnConstant(false)
         }
 
-        dexKitBridge.findMethod {
+        findMethodCached("DisableAD_2", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals("app_store_recommend")
                 returnType = "boolean"
             }
-        }.firstOrNull()?.getMethodInstance(lpparam.classLoader)?.createHook {
+        }?.createHook {
             returnConstant(false)
         }
 
-        dexKitBridge.findMethod {
+        findMethodCached("DisableAD_3", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals("virus_scan_install")
                 returnType = "boolean"
             }
-        }.firstOrNull()?.getMethodInstance(lpparam.classLoader)?.createHook {
+        }?.createHook {
             returnConstant(false)
         }
     }
@@ -4,7 +4,7 @@ import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.github.kyuubiran.ezxhelper.finders.MethodFinder.`-Static`.methodFinder
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodCached
 import com.sevtinge.cemiuiler.utils.findClassOrNull
 import com.sevtinge.cemiuiler.utils.setBooleanField
 
@@ -21,11 +21,11 @@ object DisableSafeModelTip : BaseHook() {
 
         }*/
 
-        dexKitBridge.findMethod {
+        findMethodCached("DisableSafeModelTip", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals("android.provider.MiuiSettings\$Ad")
             }
-        }.firstOrNull()?.getMethodInstance(lpparam.classLoader)?.createHook {
+        }?.createHook {
             returnConstant(false)
         }
 
@@ -3,7 +3,7 @@ package com.sevtinge.cemiuiler.module.hook.packageinstaller
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodCached
 
 object InstallRiskDisable : BaseHook() {
     override fun init() {
@@ -37,27 +37,27 @@ object InstallRiskDisable : BaseHook() {
             }
         }*/
 
-        dexKitBridge.findMethod {
+        findMethodCached("InstallRiskDisable", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals("secure_verify_enable")
             }
-        }.firstOrNull()?.getMethodInstance(lpparam.classLoader)?.createHook {
+        }?.createHook {
             returnConstant(false)
         }
 
-        dexKitBridge.findMethod {
+        findMethodCached("InstallRiskDisable_2", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals("installerOpenSafetyModel")
             }
-        }.firstOrNull()?.getMethodInstance(lpparam.classLoader)?.createHook {
+        }?.createHook {
             returnConstant(false)
         }
 
-        dexKitBridge.findMethod {
+        findMethodCached("InstallRiskDisable_3", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals("android.provider.MiuiSettings\$Ad")
             }
-        }.firstOrNull()?.getMethodInstance(lpparam.classLoader)?.createHook {
+        }?.createHook {
             returnConstant(false)
         }
     }
@@ -7,7 +7,7 @@ import androidx.annotation.RequiresApi
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 import com.sevtinge.cemiuiler.utils.api.BlurDraw
 import kotlin.math.abs
 
@@ -59,12 +59,12 @@ object BlurPersonalAssistant : BaseHook() {
             }
         }*/
 
-        dexKitBridge.findMethod {
+        findMethodsCached("ScrollStateManager", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals("ScrollStateManager")
             }
-        }.forEach { methodData ->
-            methodData.getMethodInstance(lpparam.classLoader).createHook {
+        }.forEach { method ->
+            method.createHook {
                 after {
                 val scrollX = it.args[0] as Float
                     val fieldNames = ('a'..'z').map { name -> name.toString() }
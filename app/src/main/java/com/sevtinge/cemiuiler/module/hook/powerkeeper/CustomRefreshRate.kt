@@ -4,7 +4,7 @@ import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.github.kyuubiran.ezxhelper.ObjectUtils
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodCached
 
 object CustomRefreshRate : BaseHook() {
     override fun init() {
@@ -20,11 +20,11 @@ object CustomRefreshRate : BaseHook() {
                 }
             }*/
 
-        dexKitBridge.findMethod {
+        findMethodCached("CustomRefreshRate_fucSwitch", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals("custom_mode_switch", "fucSwitch")
             }
-        }.firstOrNull()?.getMethodInstance(lpparam.classLoader)?.createHook {
+        }?.createHook {
             before {
                 ObjectUtils.setObject(it.thisObject, "mIsCustomFpsSwitch", "true")
             }
@@ -3,16 +3,16 @@ package com.sevtinge.cemiuiler.module.hook.screenrecorder
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodCached
 import com.sevtinge.cemiuiler.utils.isFinal
 
 object ScreenRecorderConfig : BaseHook() {
     override fun init() {
-        dexKitBridge.findMethod {
+        findMethodCached("ScreenRecorderConfig", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals("Error when set frame value, maxValue = ")
             }
-        }.firstOrNull()?.getMethodInstance(lpparam.classLoader)?.createHook {
+        }?.createHook {
             before { param ->
                 param.args[0] = 1200
                 param.args[1] = 1
@@ -33,11 +33,11 @@ object ScreenRecorderConfig : BaseHook() {
             }
         }
 
-        dexKitBridge.findMethod {
+        findMethodCached("ScreenRecorderConfig_2", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals("defaultBitRate = ")
             }
-        }.firstOrNull()?.getMethodInstance(lpparam.classLoader)?.createHook {
+        }?.createHook {
             before { param ->
                 param.args[0] = 1200
                 param.args[1] = 1
@@ -4,12 +4,12 @@ import com.github.kyuubiran.ezxhelper.EzXHelper
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 import java.lang.reflect.Modifier
 
 object UnlockMinimumCropLimit : BaseHook() {
     private val mScreenCropViewMethod by lazy {
-        dexKitBridge.findMethod {
+        findMethodsCached("UnlockMinimumCropLimit", EzXHelper.classLoader) {
             matcher {
                 declaredClass {
                     addUsingStringsEquals("fixImageBounds %f,%f")
@@ -18,7 +18,7 @@ object UnlockMinimumCropLimit : BaseHook() {
                 returnType = "int"
                 modifiers = Modifier.PRIVATE
             }
-        }.map { it.getMethodInstance(EzXHelper.classLoader) }.first()
+        }.first()
     }
 
     override fun init() {
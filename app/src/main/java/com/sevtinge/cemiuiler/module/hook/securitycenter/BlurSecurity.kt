@@ -1,6 +1,7 @@
 package com.sevtinge.cemiuiler.module.hook.securitycenter
 
 import android.content.Context
+import android.content.res.Resources
 import android.graphics.Color
 import android.graphics.ColorMatrixColorFilter
 import android.graphics.RenderEffect
@@ -17,7 +18,7 @@ import androidx.annotation.RequiresApi
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.ColorUtils
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodCached
 import com.sevtinge.cemiuiler.utils.HookUtils
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils.logW
@@ -48,10 +49,14 @@ object BlurSecurity : BaseHook() {
 
     // 不反转颜色的名单ID或类名
     // whiteList 不在列表内子元素也会反色
-    private val invertColorWhiteList = arrayOf("lv_main", "second_view")
-
     // keepList 列表内元素及其子元素不会反色
-    private val keepColorList = arrayOf("rv_information")
+    private val defaultInvertRules = InvertRules(arrayOf("lv_main", "second_view"), arrayOf("rv_information"))
+
+    private const val FLAG_WHITE = 1
+    private const val FLAG_KEEP = 2
+
+    private var cleanStack = BooleanArray(64)
+    private var cleanTop = 0
 
     override fun init() {
         // if (getPackageVersionCode(lpparam) >= 40000790) return //暂时屏蔽高版本启用模糊，待修复后移除  //我觉得更像是傻逼miui的反色炸了
@@ -164,14 +169,14 @@ object BlurSecurity : BaseHook() {
         })
 
         // if (getPackageVersionCode(lpparam) >= 40000754) {
-        dexKitBridge.findMethod {
+        findMethodCached("BlurSecurity_gameBoxView", lpparam.classLoader) {
             matcher {
                 returnType = "android.view.View"
                 paramTypes = listOf("android.content.Context", "boolean", "boolean")
             }
            /* methodReturnType = "Landroid/view/View;"
             methodParamTypes = arrayOf("Landroid/content/Context;", "Z", "Z")*/
-        }.firstOrNull()?.getMethodInstance(lpparam.classLoader)?.createHook {
+        }?.createHook {
             after { param ->
                 val mainContent = HookUtils.getValueByField(param.thisObject, "b") as ViewGroup
                 mainContent.addOnAttachStateChangeListener(object :
@@ -284,7 +289,7 @@ object BlurSecurity : BaseHook() {
                     "b8.c"
                 ) ?: return
             }
-            val videoBoxWhiteList = arrayOf(
+            val videoBoxRules = InvertRules(arrayOf(
                 "miuix.slidingwidget.widget.SlidingButton",
                 "android.widget.ImageView",
                 "android.widget.CompoundButton",
@@ -296,19 +301,19 @@ object BlurSecurity : BaseHook() {
                 "com.miui.gamebooster.videobox.view.c",
                 "b8.c",
                 "com.miui.gamebooster.videobox.view.VBIndicatorView"
-            )
-
-            val gameBoxWhiteList = arrayOf(
-                "audition_view",
-                "miuix.slidingwidget.widget.SlidingButton"
-            )
-
-            val videoBoxKeepList = arrayOf("img_wrapper2")
-            val gameBoxKeepList = arrayOf(
-                "rl_header",
-                "tv_barrage_color_pick",
-                "seekbar_text_size",
-                "seekbar_text_speed"
+            ), arrayOf("img_wrapper2"))
+
+            val gameBoxRules = InvertRules(
+                arrayOf(
+                    "audition_view",
+                    "miuix.slidingwidget.widget.SlidingButton"
+                ),
+                arrayOf(
+                    "rl_header",
+                    "tv_barrage_color_pick",
+                    "seekbar_text_size",
+                    "seekbar_text_speed"
+                )
             )
 
             var secondViewClass =
@@ -371,11 +376,7 @@ object BlurSecurity : BaseHook() {
                                                 }
                                             }
                                             if (currentObject is View) {
-                                                invertViewColor(
-                                                    currentObject,
-                                                    videoBoxWhiteList,
-                                                    videoBoxKeepList
-                                                )
+                                                invertViewColor(currentObject, videoBoxRules)
                                             }
                                         }
                                     }
@@ -439,7 +440,7 @@ object BlurSecurity : BaseHook() {
                     @RequiresApi(Build.VERSION_CODES.S)
                     override fun afterHookedMethod(param: MethodHookParam) {
                         val view = param.args[0] as View
-                        invertViewColor(view, gameBoxWhiteList, gameBoxKeepList)
+                        invertViewColor(view, gameBoxRules)
                     }
                 })
 
@@ -470,7 +471,7 @@ object BlurSecurity : BaseHook() {
                                 lastChild.setImageDrawable(newDrawable)
                             }
                         }
-                        invertViewColor(view, gameBoxWhiteList, gameBoxKeepList)
+                        invertViewColor(view, gameBoxRules)
                     }
                 })
         }
@@ -478,76 +479,84 @@ object BlurSecurity : BaseHook() {
         XposedLogUtils.logI("4")
     }
 
+    /**
+     * 反色名单，同时包含 id 名与类名
+     *
+     * id 名在第一次使用时解析为资源 id，类名按 Class 缓存匹配结果，遍历时不再查询资源名
+     */
+    class InvertRules(private val whiteList: Array<String>, private val keepList: Array<String>) {
+        private var whiteIds = IntArray(0)
+        private var keepIds = IntArray(0)
+        private var isResolved = false
+        private val classFlags = HashMap<Class<*>, Int>()
+
+        fun resolve(resources: Resources) {
+            if (isResolved) return
+            isResolved = true
+            whiteIds = resolveIds(resources, whiteList)
+            keepIds = resolveIds(resources, keepList)
+        }
+
+        private fun resolveIds(resources: Resources, names: Array<String>): IntArray {
+            return names.filter { !it.contains('.') }
+                .map { resources.getIdentifier(it, "id", "com.miui.securitycenter") }
+                .filter { it != 0 }
+                .toIntArray()
+        }
+
+        fun flags(view: View): Int {
+            var flags = classFlags.getOrPut(view.javaClass) {
+                val name = view.javaClass.name
+                (if (whiteList.contains(name)) FLAG_WHITE else 0) or (if (keepList.contains(name)) FLAG_KEEP else 0)
+            }
+            val id = view.id
+            if (id != View.NO_ID) {
+                if (whiteIds.contains(id)) flags = flags or FLAG_WHITE
+                if (keepIds.contains(id)) flags = flags or FLAG_KEEP
+            }
+            return flags
+        }
+    }
+
     // 尽量给最外层加 RenderEffect 而不是 最内层
     // whiteList 不在名单内的子视图依旧反转
     // keepList 本身及子视图均不反转
     @RequiresApi(Build.VERSION_CODES.S)
-    fun invertViewColor(
-        view: View,
-        whiteList: Array<String> = invertColorWhiteList,
-        keepList: Array<String>? = keepColorList,
-    ) {
-        if (keepList != null) {
-            if (keepList.contains(getId(view))) {
-                return
-            }
-            if (keepList.contains(view.javaClass.name)) {
-                return
-            }
-        }
+    fun invertViewColor(view: View, rules: InvertRules = defaultInvertRules) {
         try {
-            if (isChildNeedInvertColor(view, whiteList, keepList)) {
-                view.setRenderEffect(invertColorRenderEffect)
-            } else {
-                if (view is ViewGroup) {
-                    for (index in 0 until view.childCount) {
-                        val childView = view.getChildAt(index)
-                        if (childView != null) {
-                            invertViewColor(childView, whiteList, keepList)
-                        }
-                    }
-                }
-            }
+            rules.resolve(view.resources)
+            cleanTop = 0
+            if (planInvert(view, rules)) view.setRenderEffect(invertColorRenderEffect)
         } catch (e: Throwable) {
             logW("$TAG => invertViewColor", e)
         }
     }
 
-    private fun isChildNeedInvertColor(
-        view: View,
-        whiteList: Array<String>,
-        keepList: Array<String>?,
-    ): Boolean {
-        val viewId = getId(view)
-        if (whiteList.contains(viewId)) {
-            return false
-        }
-        if (whiteList.contains(view.javaClass.name)) {
-            return false
-        }
-        if (keepList != null) {
-            if (keepList.contains(getId(view))) {
-                return false
-            }
-            if (keepList.contains(view.javaClass.name)) {
-                return false
+    // 后序遍历一次，返回整棵子树是否都可以反色；
+    // 不能整体反色时，把 RenderEffect 加在可以整体反色的子视图上
+    @RequiresApi(Build.VERSION_CODES.S)
+    private fun planInvert(view: View, rules: InvertRules): Boolean {
+        val flags = rules.flags(view)
+        if (flags and FLAG_KEEP != 0) return false
+        var isClean = flags and FLAG_WHITE == 0
+        if (view is ViewGroup) {
+            val base = cleanTop
+            val childCount = view.childCount
+            for (index in 0 until childCount) {
+                val childView = view.getChildAt(index)
+                val isChildClean = childView != null && planInvert(childView, rules)
+                if (childView != null && !isChildClean) isClean = false
+                if (cleanTop == cleanStack.size) cleanStack = cleanStack.copyOf(cleanStack.size * 2)
+                cleanStack[cleanTop++] = isChildClean
             }
-        }
-        try {
-            if (view is ViewGroup) {
-                for (index in 0 until view.childCount) {
-                    val childView = view.getChildAt(index)
-                    if (childView != null) {
-                        if (!isChildNeedInvertColor(childView, whiteList, keepList)) {
-                            return false
-                        }
-                    }
+            if (!isClean) {
+                for (index in 0 until childCount) {
+                    if (cleanStack[base + index]) view.getChildAt(index).setRenderEffect(invertColorRenderEffect)
                 }
             }
-        } catch (e: Throwable) {
-            logW("$TAG => isChildNeedInvertColor", e)
+            cleanTop = base
         }
-        return true
+        return isClean
     }
 
     private fun getId(view: View): String {
@@ -2,17 +2,18 @@ package com.sevtinge.cemiuiler.module.hook.securitycenter
 
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
-import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsUsingStrings
+import com.sevtinge.cemiuiler.utils.DexKit.registerMethodUsingStrings
 
 object DisableReport : BaseHook() {
+    override fun prepareDexKitQuery() {
+        registerMethodUsingStrings("DisableReport", "android.intent.action.VIEW", "com.xiaomi.market")
+    }
+
     override fun init() {
-        dexKitBridge.findMethod {
-            matcher {
-                addUsingStringsEquals("android.intent.action.VIEW", "com.xiaomi.market")
-                returnType = "boolean"
-            }
-        }.firstOrNull()?.getMethodInstance(lpparam.classLoader)?.createHook {
+        findMethodsUsingStrings("DisableReport", lpparam.classLoader).firstOrNull {
+            it.returnType == Boolean::class.javaPrimitiveType
+        }?.createHook {
             returnConstant(false)
         }
 
@@ -5,32 +5,33 @@ import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.github.kyuubiran.ezxhelper.Log
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findClassesCached
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 
 object ScreenUsedTime : BaseHook() {
     private val cls by lazy {
-        dexKitBridge.findClass {
+        findClassesCached("ScreenUsedTime_class", EzXHelper.classLoader) {
             matcher {
                 addUsingStringsEquals("not support screenPowerSplit", "PowerRankHelperHolder")
             }
-        }.first().getInstance(EzXHelper.classLoader)
+        }.first()
     }
     private val method1 by lazy {
-        dexKitBridge.findMethod {
+        findMethodsCached("ScreenUsedTime", EzXHelper.classLoader) {
             matcher {
                 addUsingStringsEquals("ishtar", "nuwa", "fuxi")
             }
-        }.first().getMethodInstance(EzXHelper.classLoader)
+        }.first()
     }
     private val method2 by lazy {
-        dexKitBridge.findMethod {
+        findMethodsCached("ScreenUsedTime_2", EzXHelper.classLoader) {
             matcher {
                 declaredClass = cls.name
                 returnType = "boolean"
                 // paramTypes = listOf() 2.0.0-rc3 已经修复此错误，可以使用
                 paramCount = 0
             }
-        }.map { it.getMethodInstance(EzXHelper.classLoader) }.toList()
+        }
     }
 
     override fun init() {
@@ -3,27 +3,26 @@ package com.sevtinge.cemiuiler.module.hook.securitycenter.battery
 import com.github.kyuubiran.ezxhelper.EzXHelper
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
-import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsUsingStrings
+import com.sevtinge.cemiuiler.utils.DexKit.registerMethodUsingStrings
 
 object UnlockSuperWirelessCharge : BaseHook() {
 
     private val superWirelessCharge by lazy {
-        dexKitBridge.findMethod {
-            matcher {
-                addUsingStringsEquals("persist.vendor.tx.speed.control")
-                returnType = "boolean"
-            }
-        }.firstOrNull()?.getMethodInstance(EzXHelper.classLoader)
+        findMethodsUsingStrings("UnlockSuperWirelessCharge", EzXHelper.classLoader).firstOrNull {
+            it.returnType == Boolean::class.javaPrimitiveType
+        }
     }
 
     private val superWirelessChargeTip by lazy {
-        dexKitBridge.findMethod {
-            matcher {
-                addUsingStringsEquals("key_is_connected_super_wls_tx")
-                returnType = "boolean"
-            }
-        }.firstOrNull()?.getMethodInstance(EzXHelper.classLoader)
+        findMethodsUsingStrings("UnlockSuperWirelessCharge_2", EzXHelper.classLoader).firstOrNull {
+            it.returnType == Boolean::class.javaPrimitiveType
+        }
+    }
+
+    override fun prepareDexKitQuery() {
+        registerMethodUsingStrings("UnlockSuperWirelessCharge", "persist.vendor.tx.speed.control")
+        registerMethodUsingStrings("UnlockSuperWirelessCharge_2", "key_is_connected_super_wls_tx")
     }
 
     override fun init() {
@@ -3,20 +3,18 @@ package com.sevtinge.cemiuiler.module.hook.securitycenter.beauty
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 import java.lang.reflect.Method
 
 object BeautyFace : BaseHook() {
     var beautyFace: Method? = null
     override fun init() {
-        dexKitBridge.findMethod {
+        beautyFace = findMethodsCached("BeautyFace", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals("taoyao", "IN", "persist.vendor.vcb.ability")
                 returnType = "boolean"
             }
-        }.forEach {
-            beautyFace = it.getMethodInstance(lpparam.classLoader)
-        }
+        }.lastOrNull()
 
         beautyFace!!.createHook {
             returnConstant(true)
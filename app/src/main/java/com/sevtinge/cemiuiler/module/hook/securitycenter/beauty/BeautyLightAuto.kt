@@ -2,29 +2,26 @@ package com.sevtinge.cemiuiler.module.hook.securitycenter.beauty
 
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils
 import de.robv.android.xposed.XC_MethodReplacement
 import de.robv.android.xposed.XposedBridge
 
 object BeautyLightAuto : BaseHook() {
     override fun init() {
-        dexKitBridge.findMethod {
+        // 返回值限定为 boolean，不会匹配到 <clinit>
+        findMethodsCached("BeautyLightAuto", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals("taoyao")
                 returnType = "boolean"
             }
-        }.forEach {
-            if (!java.lang.String.valueOf(it).contains("<clinit>")) {
-                val beautyLightAuto: java.lang.reflect.Method =
-                    it.getMethodInstance(lpparam.classLoader)
-                if (!java.lang.String.valueOf(it).contains(BeautyFace.beautyFace.toString())) {
-                    XposedLogUtils.logI("beautyLightAuto method is $beautyLightAuto")
-                    XposedBridge.hookMethod(
-                        beautyLightAuto,
-                        XC_MethodReplacement.returnConstant(true)
-                    )
-                }
+        }.forEach { beautyLightAuto ->
+            if (beautyLightAuto != BeautyFace.beautyFace) {
+                XposedLogUtils.logI("beautyLightAuto method is $beautyLightAuto")
+                XposedBridge.hookMethod(
+                    beautyLightAuto,
+                    XC_MethodReplacement.returnConstant(true)
+                )
             }
         }
 
@@ -2,18 +2,19 @@ package com.sevtinge.cemiuiler.module.hook.securitycenter.beauty
 
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
-import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsUsingStrings
+import com.sevtinge.cemiuiler.utils.DexKit.registerMethodUsingStrings
 
 
 object BeautyPc : BaseHook() {
+    override fun prepareDexKitQuery() {
+        registerMethodUsingStrings("BeautyPc", "persist.vendor.camera.facetracker.support")
+    }
+
     override fun init() {
-       dexKitBridge.findMethod {
-          matcher {
-              addUsingStringsEquals("persist.vendor.camera.facetracker.support")
-              returnType = "boolean"
-          }
-       }.firstOrNull()?.getMethodInstance(lpparam.classLoader)?.createHook {
+       findMethodsUsingStrings("BeautyPc", lpparam.classLoader).firstOrNull {
+           it.returnType == Boolean::class.javaPrimitiveType
+       }?.createHook {
            returnConstant(true)
        }
 
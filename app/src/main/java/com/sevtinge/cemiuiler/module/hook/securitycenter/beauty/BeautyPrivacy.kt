@@ -5,26 +5,27 @@ import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHooks
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findClassesCached
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 object BeautyPrivacy : BaseHook() {
     private val privateCls by lazy {
-        dexKitBridge.findClass {
+        findClassesCached("BeautyPrivacy_class", EzXHelper.classLoader) {
             matcher {
                 usingStrings = listOf("persist.sys.privacy_camera")
             }
-        }.first().getInstance(EzXHelper.classLoader)
+        }.first()
     }
 
     private val R0 by lazy {
-        dexKitBridge.findMethod {
+        findMethodsCached("BeautyPrivacy", EzXHelper.classLoader) {
             matcher {
                 addUsingStringsEquals("persist.sys.privacy_camera")
             }
-        }.first().getMethodInstance(EzXHelper.classLoader)
+        }.first()
     }
 
     private val invokeMethod by lazy {
-        dexKitBridge.findMethod {
+        findMethodsCached("BeautyPrivacy_2", EzXHelper.classLoader) {
             matcher {
                 declaredClass = privateCls.name
                 paramTypes = emptyList()
@@ -35,7 +36,7 @@ object BeautyPrivacy : BaseHook() {
                     declaredClass = privateCls.name
                 }
             }
-        }.map { it.getMethodInstance(EzXHelper.classLoader) }.toList()
+        }
     }
 
     override fun init() {
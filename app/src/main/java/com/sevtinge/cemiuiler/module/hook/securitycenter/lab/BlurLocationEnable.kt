@@ -1,6 +1,5 @@
 package com.sevtinge.cemiuiler.module.hook.securitycenter.lab
 
-import com.github.kyuubiran.ezxhelper.EzXHelper
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.module.hook.securitycenter.lab.LabUtilsClass.labUtilClass
 import com.sevtinge.cemiuiler.utils.Helpers
@@ -11,7 +10,7 @@ object BlurLocationEnable : BaseHook() {
 
     override fun init() {
         labUtilClass.forEach {
-            labUtils = it.getInstance(EzXHelper.classLoader)
+            labUtils = it
             XposedLogUtils.logI("labUtils class is $labUtils")
             findAndHookMethod(
                 "com.miui.permcenter.settings.PrivacyLabActivity",
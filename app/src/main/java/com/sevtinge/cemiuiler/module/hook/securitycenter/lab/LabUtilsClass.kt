@@ -1,11 +1,12 @@
 package com.sevtinge.cemiuiler.module.hook.securitycenter.lab
 
+import com.github.kyuubiran.ezxhelper.EzXHelper
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findClassesCached
 
 object LabUtilsClass {
     val labUtilClass by lazy {
-        dexKitBridge.findClass {
+        findClassesCached("LabUtils", EzXHelper.classLoader) {
             matcher {
                 addUsingStringsEquals("mi_lab_ai_clipboard_enable", "mi_lab_blur_location_enable")
             }
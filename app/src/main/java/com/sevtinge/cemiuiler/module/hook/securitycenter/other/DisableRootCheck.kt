@@ -2,17 +2,18 @@ package com.sevtinge.cemiuiler.module.hook.securitycenter.other
 
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
-import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsUsingStrings
+import com.sevtinge.cemiuiler.utils.DexKit.registerMethodUsingStrings
 
 object DisableRootCheck : BaseHook() {
+    override fun prepareDexKitQuery() {
+        registerMethodUsingStrings("DisableRootCheck", "key_check_item_root")
+    }
+
     override fun init() {
-        dexKitBridge.findMethod {
-            matcher {
-                addUsingStringsEquals("key_check_item_root")
-                returnType = "boolean"
-            }
-        }.firstOrNull()?.getMethodInstance(lpparam.classLoader)?.createHook {
+        findMethodsUsingStrings("DisableRootCheck", lpparam.classLoader).firstOrNull {
+            it.returnType == Boolean::class.javaPrimitiveType
+        }?.createHook {
             returnConstant(false)
         }
 
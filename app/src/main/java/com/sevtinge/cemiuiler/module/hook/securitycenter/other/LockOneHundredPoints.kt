@@ -6,7 +6,7 @@ import com.github.kyuubiran.ezxhelper.ClassUtils.loadClass
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.github.kyuubiran.ezxhelper.finders.MethodFinder.`-Static`.methodFinder
 import com.sevtinge.cemiuiler.module.base.BaseHook
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodCached
 import org.luckypray.dexkit.query.enums.StringMatchType
 
 object LockOneHundredPoints : BaseHook() {
@@ -55,11 +55,11 @@ object LockOneHundredPoints : BaseHook() {
             })
     }*/
     private val score by lazy {
-        dexKitBridge.findMethod {
+        findMethodCached("LockOneHundredPoints", classLoader) {
             matcher {
                 addUsingString("getMinusPredictScore", StringMatchType.Contains)
             }
-        }.firstOrNull()?.getMethodInstance(classLoader)
+        }
     }
 
     override fun init() {
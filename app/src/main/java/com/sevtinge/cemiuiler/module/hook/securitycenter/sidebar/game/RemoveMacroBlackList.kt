@@ -4,39 +4,40 @@ import com.github.kyuubiran.ezxhelper.EzXHelper
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.github.kyuubiran.ezxhelper.finders.MethodFinder.`-Static`.methodFinder
 import com.sevtinge.cemiuiler.module.base.BaseHook
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
+import com.sevtinge.cemiuiler.utils.DexKit.findClassesCached
 
 class RemoveMacroBlackList : BaseHook() {
     override fun init() {
-        dexKitBridge.findMethod {
+        findMethodsCached("RemoveMacroBlackList", EzXHelper.classLoader) {
             matcher {
                 usingStrings = listOf("pref_gb_unsupport_macro_apps")
                 paramTypes = listOf("java.util.ArrayList")
                 returnType = "void"
             }
-        }.first().getMethodInstance(EzXHelper.classLoader).createHook {
+        }.first().createHook {
             before {
                 it.result = ArrayList<String>()
             }
         }
 
-        dexKitBridge.findClass {
+        findClassesCached("RemoveMacroBlackList_class", EzXHelper.classLoader) {
             matcher {
                 usingStrings = listOf("com.netease.sky.mi")
             }
-        }.first().getInstance(EzXHelper.classLoader).methodFinder()
+        }.first().methodFinder()
             .filterByReturnType(Boolean::class.java)
             .filterByParamCount(1)
             .first().createHook {
                 returnConstant(false)
             }
 
-        dexKitBridge.findClass {
+        findClassesCached("RemoveMacroBlackList_class_2", EzXHelper.classLoader) {
             matcher {
                 usingStrings =
                     listOf("content://com.xiaomi.macro.MacroStatusProvider/game_macro_change")
             }
-        }.first().getInstance(EzXHelper.classLoader).methodFinder()
+        }.first().methodFinder()
             .filterByReturnType(Boolean::class.java)
             .filterByParamCount(2)
             .first().createHook {
@@ -3,23 +3,23 @@ package com.sevtinge.cemiuiler.module.hook.securitycenter.sidebar.game
 import com.github.kyuubiran.ezxhelper.EzXHelper
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findClassesCached
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 
 object UnlockGunService : BaseHook() {
     override fun init() {
-        dexKitBridge.findClass {
+        findClassesCached("UnlockGunService_class", EzXHelper.classLoader) {
             matcher {
                 usingStrings = listOf("gb_game_collimator_status")
             }
-        }.map {
-            val gbGameCollimatorClass = it.getInstance(EzXHelper.classLoader)
-            dexKitBridge.findMethod {
+        }.map { gbGameCollimatorClass ->
+            findMethodsCached("UnlockGunService_${gbGameCollimatorClass.name}", EzXHelper.classLoader) {
                 matcher {
                     declaredClass = gbGameCollimatorClass.name
                     returnType = "boolean"
                     paramTypes = listOf("java.lang.String")
                 }
-            }.single().getMethodInstance(EzXHelper.classLoader).createHook {
+            }.single().createHook {
                 returnConstant(true)
             }
         }
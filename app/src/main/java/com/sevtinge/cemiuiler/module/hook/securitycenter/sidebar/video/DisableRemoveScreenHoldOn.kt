@@ -3,7 +3,7 @@ package com.sevtinge.cemiuiler.module.hook.securitycenter.sidebar.video
 import com.github.kyuubiran.ezxhelper.EzXHelper
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodCached
 
 object DisableRemoveScreenHoldOn : BaseHook() {
     /*override fun init() {
@@ -26,12 +26,12 @@ object DisableRemoveScreenHoldOn : BaseHook() {
     }*/
 
     private val screen by lazy {
-        dexKitBridge.findMethod {
+        findMethodCached("DisableRemoveScreenHoldOn", EzXHelper.classLoader) {
             matcher {
                 usingStrings = listOf("remove_screen_off_hold_on")
                 returnType = "boolean"
             }
-        }.firstOrNull()?.getMethodInstance(EzXHelper.classLoader)
+        }
     }
 
     override fun init() {
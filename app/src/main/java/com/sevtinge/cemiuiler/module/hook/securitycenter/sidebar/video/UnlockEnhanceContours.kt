@@ -4,18 +4,18 @@ import com.github.kyuubiran.ezxhelper.EzXHelper
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.github.kyuubiran.ezxhelper.finders.MethodFinder.`-Static`.methodFinder
 import com.sevtinge.cemiuiler.module.base.BaseHook
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 
 object UnlockEnhanceContours : BaseHook() {
     override fun init() {
-        dexKitBridge.findMethod {
+        findMethodsCached("UnlockEnhanceContours", EzXHelper.classLoader) {
             matcher {
                 usingStrings = listOf("ro.vendor.media.video.frc.support")
             }
         }.forEach {
-            val qaq = it.getClassInstance(EzXHelper.classLoader)
+            val qaq = it.declaringClass
             var counter = 0
-            dexKitBridge.findMethod {
+            findMethodsCached("UnlockEnhanceContours_${qaq.name}", EzXHelper.classLoader) {
                 matcher {
                     declaredClass = qaq.name
                     returnType = "boolean"
@@ -24,17 +24,17 @@ object UnlockEnhanceContours : BaseHook() {
             }.forEach { methods ->
                 counter++
                 if (counter == 3) {
-                    methods.getMethodInstance(EzXHelper.classLoader).createHook {
+                    methods.createHook {
                         returnConstant(true)
                     }
                 }
             }
-            val tat = dexKitBridge.findMethod {
+            val tat = findMethodsCached("UnlockEnhanceContours_ais_${qaq.name}", EzXHelper.classLoader) {
                 matcher {
                     usingStrings = listOf("debug.config.media.video.ais.support")
                     declaredClass = qaq.name
                 }
-            }.first().getMethodInstance(EzXHelper.classLoader)
+            }.first()
             val newChar = tat.name.toCharArray()
             for (i in newChar.indices) {
                 newChar[i]++
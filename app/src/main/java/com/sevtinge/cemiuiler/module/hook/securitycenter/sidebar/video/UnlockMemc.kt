@@ -3,18 +3,18 @@ package com.sevtinge.cemiuiler.module.hook.securitycenter.sidebar.video
 import com.github.kyuubiran.ezxhelper.EzXHelper.classLoader
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findClassesCached
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 
 object UnlockMemc : BaseHook() {
     override fun init() {
-        dexKitBridge.findClass {
+        findClassesCached("UnlockMemc_class", classLoader) {
             matcher {
                 usingStrings = listOf("ro.vendor.media.video.frc.support")
             }
-        }.map {
-            val frcSupport = it.getInstance(classLoader)
+        }.map { frcSupport ->
             var counter = 0
-            dexKitBridge.findMethod {
+            findMethodsCached("UnlockMemc_${frcSupport.name}", classLoader) {
                 matcher {
                     declaredClass = frcSupport.name
                     returnType = "boolean"
@@ -23,7 +23,7 @@ object UnlockMemc : BaseHook() {
             }.forEach { methods ->
                 counter++
                 if (counter == 5) {
-                    methods.getMethodInstance(classLoader).createHook {
+                    methods.createHook {
                         returnConstant(true)
                     }
                 }
@@ -3,18 +3,18 @@ package com.sevtinge.cemiuiler.module.hook.securitycenter.sidebar.video
 import com.github.kyuubiran.ezxhelper.EzXHelper
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findClassesCached
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 
 object UnlockSuperResolution : BaseHook() {
     override fun init() {
-        dexKitBridge.findClass {
+        findClassesCached("UnlockSuperResolution_class", EzXHelper.classLoader) {
             matcher {
                 usingStrings = listOf("ro.vendor.media.video.frc.support")
             }
-        }.map {
-            val qaq = it.getInstance(EzXHelper.classLoader)
+        }.map { qaq ->
             var counter = 0
-            dexKitBridge.findMethod {
+            findMethodsCached("UnlockSuperResolution_${qaq.name}", EzXHelper.classLoader) {
                 matcher {
                     declaredClass = qaq.name
                     returnType = "boolean"
@@ -23,17 +23,17 @@ object UnlockSuperResolution : BaseHook() {
             }.forEach { methods ->
                 counter++
                 if (counter == 1) {
-                    methods.getMethodInstance(EzXHelper.classLoader).createHook {
+                    methods.createHook {
                         returnConstant(true)
                     }
                 }
             }
-            dexKitBridge.findMethod {
+            findMethodsCached("UnlockSuperResolution_ais_${qaq.name}", EzXHelper.classLoader) {
                 matcher {
                     declaredClass = qaq.name
                     usingStrings = listOf("debug.config.media.video.ais.support")
                 }
-            }.first().getMethodInstance(EzXHelper.classLoader).createHook {
+            }.first().createHook {
                 returnConstant(true)
             }
         }
@@ -4,9 +4,7 @@ import static com.sevtinge.cemiuiler.utils.devicesdk.SystemSDKKt.isMoreAndroidVe
 
 import android.content.Context;
 import android.content.Intent;
-import android.content.pm.PackageManager;
 import android.content.pm.ResolveInfo;
-import android.net.Uri;
 import android.os.BadParcelableException;
 import android.os.Handler;
 import android.util.Pair;
@@ -14,10 +12,8 @@ import android.view.View;
 
 import com.sevtinge.cemiuiler.module.base.BaseHook;
 import com.sevtinge.cemiuiler.utils.Helpers;
-import com.sevtinge.cemiuiler.utils.PrefsUtils;
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -27,9 +23,11 @@ import de.robv.android.xposed.XposedHelpers;
 public class CleanOpenMenu extends BaseHook {
 
     Class<?> mPackageManagerService;
+    ResolverFilter mFilter;
 
     @Override
     public void init() {
+        mFilter = new ResolverFilter("system_framework_clean_open_apps", true);
 
         mPackageManagerService = findClassIfExists("com.android.server.pm.PackageManagerService");
 
@@ -39,26 +37,7 @@ public class CleanOpenMenu extends BaseHook {
                 Context mContext = (Context) XposedHelpers.getObjectField(param.thisObject, "mContext");
                 Handler mHandler = (Handler) XposedHelpers.getObjectField(param.thisObject, "mHandler");
 
-                new PrefsUtils.SharedPrefsObserver(mContext, mHandler) {
-                    @Override
-                    public void onChange(Uri uri) {
-                        try {
-                            String type = uri.getPathSegments().get(1);
-                            String key = uri.getPathSegments().get(2);
-                            if (!key.contains("pref_key_system_framework_clean_open_apps")) return;
-
-                            switch (type) {
-                                case "stringset" ->
-                                    mPrefsMap.put(key, Helpers.getSharedStringSetPref(mContext, key));
-
-                                case "integer" ->
-                                    mPrefsMap.put(key, Helpers.getSharedIntPref(mContext, key, 0));
-                            }
-                        } catch (Throwable t) {
-                            XposedLogUtils.logE(TAG, t);
-                        }
-                    }
-                };
+                mFilter.onSystemReady(mContext, mHandler);
             }
         });
 
@@ -69,7 +48,9 @@ public class CleanOpenMenu extends BaseHook {
                 try {
                     if (param.args[0] == null) return;
                     if (param.args.length < 6) return;
+                    if (mFilter.isEmpty()) return;
                     Intent origIntent = (Intent) param.args[0];
+                    // 读取 extras 会在原处解包调用方的 Bundle，只在副本上读取
                     Intent intent = (Intent) origIntent.clone();
                     String action = intent.getAction();
                     // XposedBridge.log(action + ": " + intent.getType() + " | " + intent.getDataString());
@@ -83,22 +64,8 @@ public class CleanOpenMenu extends BaseHook {
                     String mimeType = getContentType(mContext, intent);
                     // XposedBridge.log("mimeType: " + mimeType);
 
-                    String key = "system_framework_clean_open_apps";
-                    Set<String> selectedApps = mPrefsMap.getStringSet(key);
                     List<ResolveInfo> resolved = (List<ResolveInfo>) param.getResult();
-                    ResolveInfo resolveInfo;
-                    PackageManager pm = mContext.getPackageManager();
-                    Iterator<ResolveInfo> itr = resolved.iterator();
-                    while (itr.hasNext()) {
-                        resolveInfo = itr.next();
-                        Pair<Boolean, Boolean> isRemove = isRemoveApp(false, mContext, resolveInfo.activityInfo.packageName, selectedApps, mimeType);
-                        boolean hasDual = false;
-                        try {
-                            hasDual = XposedHelpers.callMethod(pm, "getPackageInfoAsUser", resolveInfo.activityInfo.packageName, 0, 999) != null;
-                        } catch (Throwable ignore) {
-                        }
-                        if ((isRemove.first && !hasDual) || isRemove.first && hasDual && isRemove.second) itr.remove();
-                    }
+                    mFilter.filter(resolved, getDataType(mimeType), mContext);
 
                     param.setResult(resolved);
                 } catch (Throwable t) {
@@ -119,17 +86,10 @@ public class CleanOpenMenu extends BaseHook {
 
 
     // 存在问题
-    private static Pair<Boolean, Boolean> isRemoveApp(boolean dynamic, Context context, String pkgName, Set<String> selectedApps, String mimeType) {
+    private static Pair<Boolean, Boolean> isRemoveApp(Context context, String pkgName, Set<String> selectedApps, String mimeType) {
         String key = "system_framework_clean_open_apps";
-        int mimeFlags0;
-        int mimeFlags999;
-        if (dynamic) {
-            mimeFlags0 = Helpers.getSharedIntPref(context, "pref_key_" + key + "_" + pkgName + "|0", Helpers.MimeType.ALL);
-            mimeFlags999 = Helpers.getSharedIntPref(context, "pref_key_" + key + "_" + pkgName + "|999", Helpers.MimeType.ALL);
-        } else {
-            mimeFlags0 = mPrefsMap.getInt(key + "_" + pkgName + "|0", Helpers.MimeType.ALL);
-            mimeFlags999 = mPrefsMap.getInt(key + "_" + pkgName + "|999", Helpers.MimeType.ALL);
-        }
+        int mimeFlags0 = Helpers.getSharedIntPref(context, "pref_key_" + key + "_" + pkgName + "|0", Helpers.MimeType.ALL);
+        int mimeFlags999 = Helpers.getSharedIntPref(context, "pref_key_" + key + "_" + pkgName + "|999", Helpers.MimeType.ALL);
         boolean removeOriginal = (selectedApps.contains(pkgName) || selectedApps.contains(pkgName + "|0")) && hideMimeType(mimeFlags0, mimeType);
         boolean removeDual = selectedApps.contains(pkgName + "|999") && hideMimeType(mimeFlags999, mimeType);
         return new Pair<Boolean, Boolean>(removeOriginal, removeDual);
@@ -148,6 +108,11 @@ public class CleanOpenMenu extends BaseHook {
     }
 
     private static boolean hideMimeType(int mimeFlags, String mimeType) {
+        int dataType = getDataType(mimeType);
+        return (mimeFlags & dataType) == dataType;
+    }
+
+    private static int getDataType(String mimeType) {
         int dataType = Helpers.MimeType.OTHERS;
         if (mimeType != null)
             if (mimeType.startsWith("image/")) dataType = Helpers.MimeType.IMAGE;
@@ -172,7 +137,7 @@ public class CleanOpenMenu extends BaseHook {
                 mimeType.startsWith("application/x-7z") ||
                 mimeType.startsWith("application/java-archive")) dataType = Helpers.MimeType.ARCHIVE;
             else if (mimeType.startsWith("link/")) dataType = Helpers.MimeType.LINK;
-        return (mimeFlags & dataType) == dataType;
+        return dataType;
     }
 
     public static void initRes() {
@@ -190,7 +155,7 @@ public class CleanOpenMenu extends BaseHook {
                 if (mContext == null || mAimPackageName == null) return;
                 Set<String> selectedApps = Helpers.getSharedStringSetPref(mContext, "system_framework_clean_open_apps");
                 String mimeType = getContentType(mContext, mOriginalIntent);
-                Pair<Boolean, Boolean> isRemove = isRemoveApp(true, mContext, mAimPackageName, selectedApps, mimeType);
+                Pair<Boolean, Boolean> isRemove = isRemoveApp(mContext, mAimPackageName, selectedApps, mimeType);
 
                 View mRootView = (View) XposedHelpers.getObjectField(param.thisObject, "mRootView");
                 int appResId1 = mContext.getResources().getIdentifier("app1", "id", "android.miui");
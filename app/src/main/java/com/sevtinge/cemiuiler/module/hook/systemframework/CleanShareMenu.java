@@ -4,7 +4,6 @@ import static com.sevtinge.cemiuiler.utils.devicesdk.SystemSDKKt.isMoreAndroidVe
 
 import android.content.Context;
 import android.content.Intent;
-import android.content.pm.PackageManager;
 import android.content.pm.ResolveInfo;
 import android.os.BadParcelableException;
 import android.os.Handler;
@@ -15,7 +14,6 @@ import com.sevtinge.cemiuiler.utils.Helpers;
 import com.sevtinge.cemiuiler.utils.PrefsUtils;
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils;
 
-import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -24,9 +22,11 @@ import de.robv.android.xposed.XposedHelpers;
 public class CleanShareMenu extends BaseHook {
 
     Class<?> mPackageManagerService;
+    ResolverFilter mFilter;
 
     @Override
     public void init() {
+        mFilter = new ResolverFilter("system_framework_clean_share_apps", false);
 
         mPackageManagerService = findClassIfExists("com.android.server.pm.PackageManagerService");
 
@@ -36,12 +36,7 @@ public class CleanShareMenu extends BaseHook {
                 Context mContext = (Context) XposedHelpers.getObjectField(param.thisObject, "mContext");
                 Handler mHandler = (Handler) XposedHelpers.getObjectField(param.thisObject, "mHandler");
 
-                new PrefsUtils.SharedPrefsObserver(mContext, mHandler, "prefs_key_system_framework_clean_share_apps") {
-                    @Override
-                    public void onChange(String name) {
-                        mPrefsMap.put(name, PrefsUtils.getSharedStringSetPrefs(mContext, name));
-                    }
-                };
+                mFilter.onSystemReady(mContext, mHandler);
             }
         });
 
@@ -51,31 +46,20 @@ public class CleanShareMenu extends BaseHook {
             protected void after(MethodHookParam param) throws Throwable {
                 try {
                     if (param.args[0] == null) return;
+                    if (mFilter.isEmpty()) return;
                     Intent origIntent = (Intent) param.args[0];
                     String action = origIntent.getAction();
                     if (action == null) return;
                     if (!action.equals(Intent.ACTION_SEND) && !action.equals(Intent.ACTION_SENDTO) && !action.equals(Intent.ACTION_SEND_MULTIPLE))
                         return;
+                    // 读取 extras 会在原处解包调用方的 Bundle，只在副本上读取
                     Intent intent = (Intent) origIntent.clone();
                     if (intent.getDataString() != null && intent.getDataString().contains(":")) return;
                     if (intent.hasExtra("Cemiuiler") && intent.getBooleanExtra("Cemiuiler", false)) return;
-                    Set<String> selectedApps = mPrefsMap.getStringSet("system_framework_clean_share_apps");
                     List<ResolveInfo> resolved = (List<ResolveInfo>) param.getResult();
-                    ResolveInfo resolveInfo;
                     Context mContext = (Context) XposedHelpers.getObjectField(param.thisObject, "mContext");
-                    PackageManager pm = mContext.getPackageManager();
-                    Iterator<ResolveInfo> itr = resolved.iterator();
-                    while (itr.hasNext()) {
-                        resolveInfo = itr.next();
-                        boolean removeOriginal = selectedApps.contains(resolveInfo.activityInfo.packageName) || selectedApps.contains(resolveInfo.activityInfo.packageName + "|0");
-                        boolean removeDual = selectedApps.contains(resolveInfo.activityInfo.packageName + "|999");
-                        boolean hasDual = false;
-                        try {
-                            hasDual = XposedHelpers.callMethod(pm, "getPackageInfoAsUser", resolveInfo.activityInfo.packageName, 0, 999) != null;
-                        } catch (Throwable ignore) {
-                        }
-                        if ((removeOriginal && !hasDual) || removeOriginal && hasDual && removeDual) itr.remove();
-                    }
+                    // 分享菜单不区分文件类型
+                    mFilter.filter(resolved, Helpers.MimeType.ALL, mContext);
                     param.setResult(resolved);
                 } catch (Throwable t) {
                     if (!(t instanceof BadParcelableException)) XposedLogUtils.logE(TAG, t);
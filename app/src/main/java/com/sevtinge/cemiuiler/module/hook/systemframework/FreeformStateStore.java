@@ -0,0 +1,173 @@
+package com.sevtinge.cemiuiler.module.hook.systemframework;
+
+import android.content.Context;
+import android.graphics.Rect;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.provider.Settings;
+import android.util.Base64;
+import android.util.Pair;
+
+import com.sevtinge.cemiuiler.utils.Helpers;
+import com.sevtinge.cemiuiler.utils.log.XposedLogUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 小窗应用的位置与缩放记录
+ * <p>
+ * 内存中的 map 为准，启动路径上只修改 map 并调用 scheduleSave；写入 Settings.Global 在后台线程进行，
+ * SAVE_DELAY 内的多次修改合并为一次，内容未变化时不写入。关机时由 flush 同步写入尚未保存的修改
+ */
+public final class FreeformStateStore {
+
+    private static final String TAG = "FreeformStateStore";
+    private static final String SETTING_KEY = Helpers.mAppModulePkg + ".fw.apps";
+    // 旧版本为 "包名:缩放:Rect|..." 的文本，新版本以此开头，后接 Base64 编码的二进制数据
+    private static final String ENCODING_PREFIX = "#";
+    private static final int FORMAT_VERSION = 2;
+    private static final long SAVE_DELAY = 500;
+
+    private final Map<String, Pair<Float, Rect>> mApps = new ConcurrentHashMap<>();
+    private final Handler mHandler;
+    private final Runnable mSave = this::save;
+    private Context mContext;
+    private boolean isSavePending = false;
+    private String mLastSaved = null;
+
+    public FreeformStateStore() {
+        HandlerThread thread = new HandlerThread(TAG);
+        thread.start();
+        mHandler = new Handler(thread.getLooper());
+    }
+
+    public boolean contains(String pkgName) {
+        return pkgName != null && mApps.containsKey(pkgName);
+    }
+
+    public Pair<Float, Rect> get(String pkgName) {
+        return mApps.get(pkgName);
+    }
+
+    public void put(Context context, String pkgName, Pair<Float, Rect> value) {
+        mApps.put(pkgName, value);
+        scheduleSave(context);
+    }
+
+    public void remove(Context context, String pkgName) {
+        if (pkgName != null && mApps.remove(pkgName) != null) scheduleSave(context);
+    }
+
+    private synchronized void scheduleSave(Context context) {
+        if (mContext == null) mContext = context;
+        if (isSavePending) return;
+        isSavePending = true;
+        mHandler.postDelayed(mSave, SAVE_DELAY);
+    }
+
+    /**
+     * 立即写入尚未保存的修改，可在任意线程调用
+     */
+    public void flush() {
+        synchronized (this) {
+            if (!isSavePending) return;
+            mHandler.removeCallbacks(mSave);
+        }
+        save();
+    }
+
+    private void save() {
+        Context context;
+        synchronized (this) {
+            isSavePending = false;
+            context = mContext;
+        }
+        if (context == null) return;
+        // 与 flush 同时进入时只写一次
+        synchronized (mSave) {
+            String data = encode();
+            if (data.equals(mLastSaved)) return;
+            try {
+                Settings.Global.putString(context.getContentResolver(), SETTING_KEY, data);
+                mLastSaved = data;
+            } catch (Throwable t) {
+                XposedLogUtils.logW(TAG, "save failed", t);
+            }
+        }
+    }
+
+    public void restore(Context context) {
+        synchronized (this) {
+            if (mContext == null) mContext = context;
+        }
+        String data = Settings.Global.getString(context.getContentResolver(), SETTING_KEY);
+        mApps.clear();
+        if (data == null || data.isEmpty()) return;
+        try {
+            if (data.startsWith(ENCODING_PREFIX)) decode(data);
+            else decodeLegacy(data);
+        } catch (Throwable t) {
+            XposedLogUtils.logW(TAG, "restore failed", t);
+            mApps.clear();
+        }
+        synchronized (mSave) {
+            mLastSaved = data;
+        }
+    }
+
+    private String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            output.writeByte(FORMAT_VERSION);
+            // ConcurrentHashMap 的遍历不会抛出并发修改异常，数量以实际写入为准
+            Object[] entries = mApps.entrySet().toArray();
+            output.writeInt(entries.length);
+            for (Object object : entries) {
+                @SuppressWarnings("unchecked")
+                Map.Entry<String, Pair<Float, Rect>> entry = (Map.Entry<String, Pair<Float, Rect>>) object;
+                Pair<Float, Rect> value = entry.getValue();
+                output.writeUTF(entry.getKey());
+                output.writeFloat(value.first);
+                Rect rect = value.second;
+                output.writeBoolean(rect != null);
+                if (rect != null) {
+                    output.writeInt(rect.left);
+                    output.writeInt(rect.top);
+                    output.writeInt(rect.right);
+                    output.writeInt(rect.bottom);
+                }
+            }
+        } catch (IOException ignored) {
+        }
+        return ENCODING_PREFIX + Base64.encodeToString(bytes.toByteArray(), Base64.NO_WRAP);
+    }
+
+    private void decode(String data) throws IOException {
+        byte[] bytes = Base64.decode(data.substring(ENCODING_PREFIX.length()), Base64.NO_WRAP);
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int version = input.readByte();
+            if (version != FORMAT_VERSION) throw new IOException("unknown version " + version);
+            int size = input.readInt();
+            for (int i = 0; i < size; i++) {
+                String pkgName = input.readUTF();
+                float scale = input.readFloat();
+                Rect rect = input.readBoolean() ? new Rect(input.readInt(), input.readInt(), input.readInt(), input.readInt()) : null;
+                mApps.put(pkgName, new Pair<>(scale, rect));
+            }
+        }
+    }
+
+    private void decodeLegacy(String data) {
+        for (String appData : data.split("\\|")) {
+            if ("".equals(appData)) continue;
+            String[] appDataArr = appData.split(":");
+            mApps.put(appDataArr[0], new Pair<>(Float.parseFloat(appDataArr[1]), "-".equals(appDataArr[2]) ? null : Rect.unflattenFromString(appDataArr[2])));
+        }
+    }
+}
@@ -17,11 +17,15 @@ import java.util.List;
 import de.robv.android.xposed.XposedHelpers;
 
 public class PackagePermissions extends BaseHook {
-    private final ArrayList<String> systemPackages = new ArrayList<>();
+    // 目前只有模块自身，直接比较字符串，不经过集合查找
+    private static final String SYSTEM_PACKAGE = Helpers.mAppModulePkg;
+
+    private static boolean isSystemPackage(String pkgName) {
+        return SYSTEM_PACKAGE.equals(pkgName);
+    }
 
     @Override
     public void init() {
-        systemPackages.add(Helpers.mAppModulePkg);
 
         // Allow signature level permissions for module
         String PMSCls = isMoreAndroidVersion(Build.VERSION_CODES.TIRAMISU) ? "com.android.server.pm.permission.PermissionManagerServiceImpl" : "com.android.server.pm.permission.PermissionManagerService";
@@ -31,7 +35,7 @@ public class PackagePermissions extends BaseHook {
             @Override
             protected void before(MethodHookParam param) {
                 String pkgName = (String) XposedHelpers.callMethod(param.args[0], "getPackageName");
-                if (systemPackages.contains(pkgName)) param.setResult(true);
+                if (isSystemPackage(pkgName)) param.setResult(true);
             }
         });
 
@@ -40,7 +44,7 @@ public class PackagePermissions extends BaseHook {
             @Override
             protected void before(MethodHookParam param) {
                 String pkgName = (String) XposedHelpers.callMethod(param.args[0], "getName");
-                if (systemPackages.contains(pkgName)) param.setResult(true);
+                if (isSystemPackage(pkgName)) param.setResult(true);
             }
         });
 
@@ -53,11 +57,10 @@ public class PackagePermissions extends BaseHook {
             protected void after(MethodHookParam param) {
                 if (param.args.length < 6) return;
                 List<ResolveInfo> infos = (List<ResolveInfo>) param.getResult();
-                if (infos != null) {
-                    for (ResolveInfo info : infos) {
-                        if (info != null && info.activityInfo != null && systemPackages.contains(info.activityInfo.packageName)) {
-                            XposedHelpers.setObjectField(info, "system", true);
-                        }
+                if (infos == null) return;
+                for (ResolveInfo info : infos) {
+                    if (info != null && info.activityInfo != null && isSystemPackage(info.activityInfo.packageName)) {
+                        info.system = true;
                     }
                 }
             }
@@ -65,9 +68,9 @@ public class PackagePermissions extends BaseHook {
 
         findAndHookMethod("android.content.pm.ApplicationInfo", "isSystemApp", new MethodHook() {
             @Override
-            protected void after(MethodHookParam param) {
-                ApplicationInfo ai = (ApplicationInfo) param.thisObject;
-                if (ai != null && systemPackages.contains(ai.packageName)) {
+            protected void before(MethodHookParam param) {
+                // 命中时不再调用原方法
+                if (isSystemPackage(((ApplicationInfo) param.thisObject).packageName)) {
                     param.setResult(true);
                 }
             }
@@ -75,9 +78,8 @@ public class PackagePermissions extends BaseHook {
 
         findAndHookMethodSilently("android.content.pm.ApplicationInfo", "isSignedWithPlatformKey", new MethodHook() {
             @Override
-            protected void after(MethodHookParam param) {
-                ApplicationInfo ai = (ApplicationInfo) param.thisObject;
-                if (ai != null && systemPackages.contains(ai.packageName)) {
+            protected void before(MethodHookParam param) {
+                if (isSystemPackage(((ApplicationInfo) param.thisObject).packageName)) {
                     param.setResult(true);
                 }
             }
@@ -87,7 +89,7 @@ public class PackagePermissions extends BaseHook {
             Class<?> dpgpiClass = findClass("com.android.server.pm.MiuiDefaultPermissionGrantPolicy");
             String[] MIUI_SYSTEM_APPS = (String[]) XposedHelpers.getStaticObjectField(dpgpiClass, "MIUI_SYSTEM_APPS");
             ArrayList<String> mySystemApps = new ArrayList<>(Arrays.asList(MIUI_SYSTEM_APPS));
-            mySystemApps.addAll(systemPackages);
+            mySystemApps.add(SYSTEM_PACKAGE);
             XposedHelpers.setStaticObjectField(dpgpiClass, "MIUI_SYSTEM_APPS", mySystemApps.toArray(new String[0]));
         } catch (Throwable t) {
             XposedLogUtils.logW(TAG, t);
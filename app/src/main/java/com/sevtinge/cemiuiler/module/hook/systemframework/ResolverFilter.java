@@ -0,0 +1,159 @@
+package com.sevtinge.cemiuiler.module.hook.systemframework;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.UserHandle;
+
+import com.sevtinge.cemiuiler.XposedInit;
+import com.sevtinge.cemiuiler.utils.Helpers;
+import com.sevtinge.cemiuiler.utils.PrefsUtils;
+import com.sevtinge.cemiuiler.utils.log.XposedLogUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.robv.android.xposed.XposedHelpers;
+
+/**
+ * 分享 / 打开方式菜单的过滤表
+ * <p>
+ * 选中的应用及其文件类型设置在相关设置项变化时整理为 包名 -> (主应用类型, 分身类型)，
+ * 每次查询只需对每个结果查一次表；分身是否安装按包名缓存，收到任意用户的安装 / 卸载广播时失效
+ */
+final class ResolverFilter {
+
+    private static final String TAG = "ResolverFilter";
+    private static final int DUAL_USER_ID = 999;
+
+    private final String mKey;
+    private final boolean hasMimeFlags;
+    // [0] 主应用需要隐藏的类型，[1] 分身需要隐藏的类型
+    private volatile Map<String, int[]> mRules = Collections.emptyMap();
+    private final Map<String, Boolean> mDualApps = new ConcurrentHashMap<>();
+    // 查询期间收到广播时不写入缓存
+    private final AtomicInteger mDualAppsGeneration = new AtomicInteger();
+    private volatile PackageManager mPackageManager;
+    private PrefsUtils.SharedPrefsDeltaObserver mPrefsObserver;
+
+    /**
+     * @param key          选中应用列表的设置项
+     * @param hasMimeFlags 是否按 key_包名|用户 读取文件类型设置，否则隐藏所有类型
+     */
+    ResolverFilter(String key, boolean hasMimeFlags) {
+        mKey = key;
+        this.hasMimeFlags = hasMimeFlags;
+        rebuild();
+    }
+
+    /**
+     * 在 PackageManagerService.systemReady 之后调用，监听设置项与应用安装变化
+     */
+    void onSystemReady(Context context, Handler handler) {
+        mPackageManager = context.getPackageManager();
+        String prefix = "prefs_key_" + mKey;
+        if (mPrefsObserver != null) mPrefsObserver.unregister();
+        mPrefsObserver = new PrefsUtils.SharedPrefsDeltaObserver(context, handler) {
+            @Override
+            public void onChange(Set<String> keys) {
+                for (String key : keys) {
+                    if (key.startsWith(prefix)) {
+                        rebuild();
+                        return;
+                    }
+                }
+            }
+        };
+
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addDataScheme("package");
+        BroadcastReceiver receiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                Uri data = intent.getData();
+                if (data == null) return;
+                mDualAppsGeneration.incrementAndGet();
+                mDualApps.remove(data.getSchemeSpecificPart());
+            }
+        };
+        try {
+            XposedHelpers.callMethod(context, "registerReceiverAsUser", receiver, XposedHelpers.getStaticObjectField(UserHandle.class, "ALL"), filter, null, handler);
+        } catch (Throwable t) {
+            // 无法监听时不缓存，每次照常查询
+            mDualApps.clear();
+            mPackageManager = null;
+            XposedLogUtils.logW(TAG, "register package receiver failed", t);
+        }
+    }
+
+    private void rebuild() {
+        Map<String, int[]> rules = new HashMap<>();
+        for (String item : XposedInit.mPrefsMap.getStringSet(mKey)) {
+            String pkgName = item;
+            int user = 0;
+            int index = item.lastIndexOf('|');
+            if (index >= 0) {
+                pkgName = item.substring(0, index);
+                String suffix = item.substring(index + 1);
+                if ("999".equals(suffix)) user = 1;
+                else if (!"0".equals(suffix)) continue;
+            }
+            int[] rule = rules.get(pkgName);
+            if (rule == null) {
+                rule = new int[2];
+                rules.put(pkgName, rule);
+            }
+            rule[user] = hasMimeFlags ?
+                XposedInit.mPrefsMap.getInt(mKey + "_" + pkgName + (user == 0 ? "|0" : "|999"), Helpers.MimeType.ALL) :
+                Helpers.MimeType.ALL;
+        }
+        mRules = rules;
+    }
+
+    boolean isEmpty() {
+        return mRules.isEmpty();
+    }
+
+    /**
+     * 移除主应用需要隐藏的结果；存在分身且分身不需要隐藏时保留
+     *
+     * @param dataType Helpers.MimeType 中的一种
+     */
+    void filter(List<ResolveInfo> resolved, int dataType, Context context) {
+        Map<String, int[]> rules = mRules;
+        Iterator<ResolveInfo> itr = resolved.iterator();
+        while (itr.hasNext()) {
+            String pkgName = itr.next().activityInfo.packageName;
+            int[] rule = rules.get(pkgName);
+            if (rule == null || (rule[0] & dataType) != dataType) continue;
+            if ((rule[1] & dataType) == dataType || !hasDualApp(context, pkgName)) itr.remove();
+        }
+    }
+
+    private boolean hasDualApp(Context context, String pkgName) {
+        Boolean cached = mDualApps.get(pkgName);
+        if (cached != null) return cached;
+        PackageManager pm = mPackageManager;
+        int generation = mDualAppsGeneration.get();
+        boolean hasDual = false;
+        try {
+            hasDual = XposedHelpers.callMethod(pm == null ? context.getPackageManager() : pm, "getPackageInfoAsUser", pkgName, 0, DUAL_USER_ID) != null;
+        } catch (Throwable ignore) {
+        }
+        if (pm != null && generation == mDualAppsGeneration.get()) mDualApps.put(pkgName, hasDual);
+        return hasDual;
+    }
+}
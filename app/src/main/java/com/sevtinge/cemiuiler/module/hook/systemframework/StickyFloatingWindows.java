@@ -7,26 +7,23 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.graphics.Rect;
-import android.provider.Settings;
 import android.util.Pair;
 
 import com.sevtinge.cemiuiler.module.base.BaseHook;
-import com.sevtinge.cemiuiler.utils.Helpers;
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 import de.robv.android.xposed.XposedHelpers;
 
 public class StickyFloatingWindows extends BaseHook {
 
-    public static ConcurrentHashMap<String, Pair<Float, Rect>> fwApps = new ConcurrentHashMap<>();
+    private FreeformStateStore mStore;
 
     @Override
     public void init() {
+        mStore = new FreeformStateStore();
 
         final List<String> fwBlackList = new ArrayList<>();
         fwBlackList.add("com.miui.securitycenter");
@@ -48,7 +45,7 @@ public class StickyFloatingWindows extends BaseHook {
                 } catch (Throwable ignore) {
                     mContext = (Context) XposedHelpers.getObjectField(XposedHelpers.getObjectField(param.args[0], "mService"), "mContext");
                 }
-                if (windowingMode != 5 && fwApps.containsKey(pkgName)) {
+                if (windowingMode != 5 && mStore.contains(pkgName)) {
                     try {
                         if (MiuiMultiWindowUtils == null) {
                             XposedLogUtils.logI(TAG, "Cannot find MiuiMultiWindowUtils class");
@@ -59,9 +56,8 @@ public class StickyFloatingWindows extends BaseHook {
                     } catch (Throwable t) {
                         XposedLogUtils.logW(TAG, "", t);
                     }
-                } else if (windowingMode == 5 && !fwApps.containsKey(pkgName)) {
-                    fwApps.put(pkgName, new Pair<>(0f, null));
-                    storeFwAppsInSetting(mContext);
+                } else if (windowingMode == 5 && !mStore.contains(pkgName)) {
+                    mStore.put(mContext, pkgName, new Pair<>(0f, null));
                 }
             }
         });
@@ -75,9 +71,8 @@ public class StickyFloatingWindows extends BaseHook {
                 String pkgName = getTaskPackageName(param.thisObject, (int) param.args[2], options);
                 if (fwBlackList.contains(pkgName)) return;
                 if (windowingMode == 5 && pkgName != null) {
-                    fwApps.put(pkgName, new Pair<>(0f, null));
                     Context mContext = (Context) XposedHelpers.getObjectField(XposedHelpers.getObjectField(param.thisObject, "mService"), "mContext");
-                    storeFwAppsInSetting(mContext);
+                    mStore.put(mContext, pkgName, new Pair<>(0f, null));
                 }
             }
 
@@ -88,7 +83,7 @@ public class StickyFloatingWindows extends BaseHook {
                 int windowingMode = options == null ? -1 : (int) XposedHelpers.callMethod(options, "getLaunchWindowingMode");
                 String pkgName = getTaskPackageName(param.thisObject, (int) param.args[2], options);
                 if (fwBlackList.contains(pkgName)) return;
-                if (windowingMode != 5 && fwApps.containsKey(pkgName)) {
+                if (windowingMode != 5 && mStore.contains(pkgName)) {
                     Context mContext = (Context) XposedHelpers.getObjectField(XposedHelpers.getObjectField(param.thisObject, "mService"), "mContext");
                     options = patchActivityOptions(mContext, options, pkgName, MiuiMultiWindowUtils);
                     XposedHelpers.setObjectField(safeOptions, "mOriginalOptions", options);
@@ -124,9 +119,7 @@ public class StickyFloatingWindows extends BaseHook {
                 }
                 if (!skipFreeFormStateClear) {
                     if (fwBlackList.contains(pkgName)) return;
-                    if (fwApps.remove(pkgName) != null) {
-                        storeFwAppsInSetting((Context) XposedHelpers.getObjectField(XposedHelpers.getObjectField(param.thisObject, "mService"), "mContext"));
-                    }
+                    mStore.remove((Context) XposedHelpers.getObjectField(XposedHelpers.getObjectField(param.thisObject, "mService"), "mContext"), pkgName);
                 } else {
                     XposedHelpers.setAdditionalInstanceField(param.thisObject, "skipFreeFormStateClear", false);
                 }
@@ -141,10 +134,9 @@ public class StickyFloatingWindows extends BaseHook {
                 Object miuiFreeFormActivityStack = XposedHelpers.callMethod(mMiuiFreeFormManagerService, "getMiuiFreeFormActivityStack", taskId);
                 String pkgName = (String) XposedHelpers.callMethod(miuiFreeFormActivityStack, "getStackPackageName");
                 if (fwBlackList.contains(pkgName)) return;
-                if (!fwApps.containsKey(pkgName)) {
-                    fwApps.put(pkgName, new Pair<>(0f, null));
+                if (!mStore.contains(pkgName)) {
                     Context mContext = (Context) XposedHelpers.getObjectField(param.thisObject, "mContext");
-                    storeFwAppsInSetting(mContext);
+                    mStore.put(mContext, pkgName, new Pair<>(0f, null));
                 }
             }
         });
@@ -154,7 +146,7 @@ public class StickyFloatingWindows extends BaseHook {
             @Override
             protected void after(MethodHookParam param) {
                 Context mContext = (Context) XposedHelpers.getObjectField(param.thisObject, "mContext");
-                restoreFwAppsInSetting(mContext);
+                mStore.restore(mContext);
                 Class<?> MiuiMultiWindowAdapter = findClass("android.util.MiuiMultiWindowAdapter", lpparam.classLoader);
                 List<String> blackList = (List<String>) XposedHelpers.getStaticObjectField(MiuiMultiWindowAdapter, "FREEFORM_BLACK_LIST");
                 blackList.clear();
@@ -167,6 +159,12 @@ public class StickyFloatingWindows extends BaseHook {
                         }
                     }
                 }, new IntentFilter("miui.intent.action_launch_fullscreen_from_freeform"));
+                mContext.registerReceiver(new BroadcastReceiver() {
+                    @Override
+                    public void onReceive(Context context, Intent intent) {
+                        mStore.flush();
+                    }
+                }, new IntentFilter(Intent.ACTION_SHUTDOWN));
             }
         });
 
@@ -186,11 +184,10 @@ public class StickyFloatingWindows extends BaseHook {
                         if (fwBlackList.contains(pkgName)) return;
                         Object mMiuiFreeFormManagerService = XposedHelpers.getObjectField(param.thisObject, "mMiuiFreeFormManagerService");
                         Object miuiFreeFormActivityStack = XposedHelpers.callMethod(mMiuiFreeFormManagerService, "getMiuiFreeFormActivityStack", param.args[0]);
-                        if (fwApps.containsKey(pkgName)) {
+                        if (mStore.contains(pkgName)) {
                             Context mContext = (Context) XposedHelpers.getObjectField(param.thisObject, "mContext");
                             float sScale = (float) XposedHelpers.callMethod(miuiFreeFormActivityStack, "getFreeFormScale");
-                            fwApps.put(pkgName, new Pair<>(sScale, new Rect((Rect) param.args[1])));
-                            storeFwAppsInSetting(mContext);
+                            mStore.put(mContext, pkgName, new Pair<>(sScale, new Rect((Rect) param.args[1])));
                         }
                     }
                 }
@@ -218,47 +215,14 @@ public class StickyFloatingWindows extends BaseHook {
         return intent == null ? null : intent.getComponent().getPackageName();
     }
 
-    public static String serializeFwApps() {
-        StringBuilder data = new StringBuilder();
-        for (Map.Entry<String, Pair<Float, Rect>> entry : fwApps.entrySet()) {
-            Pair<Float, Rect> val = entry.getValue();
-            data.append(entry.getKey());
-            data.append(":");
-            data.append(val.first);
-            data.append(":");
-            data.append(val.second == null ? "-" : val.second.flattenToString());
-            data.append("|");
-        }
-        return data.toString().replaceFirst("\\|$", "");
-    }
-
-    public static void unserializeFwApps(String data) {
-        fwApps.clear();
-        if (data == null || data.isEmpty()) return;
-        String[] dataArr = data.split("\\|");
-        for (String appData : dataArr) {
-            if ("".equals(appData)) continue;
-            String[] appDataArr = appData.split(":");
-            fwApps.put(appDataArr[0], new Pair<>(Float.parseFloat(appDataArr[1]), "-".equals(appDataArr[2]) ? null : Rect.unflattenFromString(appDataArr[2])));
-        }
-    }
-
-    public static void storeFwAppsInSetting(Context context) {
-        Settings.Global.putString(context.getContentResolver(), Helpers.mAppModulePkg + ".fw.apps", serializeFwApps());
-    }
-
-    public static void restoreFwAppsInSetting(Context context) {
-        unserializeFwApps(Settings.Global.getString(context.getContentResolver(), Helpers.mAppModulePkg + ".fw.apps"));
-    }
-
-    private static ActivityOptions patchActivityOptions(Context mContext, ActivityOptions options, String pkgName, Class<?> MiuiMultiWindowUtils) {
+    private ActivityOptions patchActivityOptions(Context mContext, ActivityOptions options, String pkgName, Class<?> MiuiMultiWindowUtils) {
         if (options == null) options = ActivityOptions.makeBasic();
         XposedHelpers.callMethod(options, "setLaunchWindowingMode", 5);
         XposedHelpers.callMethod(options, "setMiuiConfigFlag", 2);
 
         Float scale;
         Rect rect;
-        Pair<Float, Rect> values = fwApps.get(pkgName);
+        Pair<Float, Rect> values = mStore.get(pkgName);
         if (values == null || values.first == 0f || values.second == null) {
             scale = 0.7f;
             rect = (Rect) XposedHelpers.callStaticMethod(MiuiMultiWindowUtils, "getFreeformRect", mContext);
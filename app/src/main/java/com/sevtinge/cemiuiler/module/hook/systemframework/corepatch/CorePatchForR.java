@@ -12,8 +12,6 @@ import android.content.pm.Signature;
 import android.util.Log;
 
 import com.sevtinge.cemiuiler.BuildConfig;
-import com.sevtinge.cemiuiler.utils.Helpers;
-import com.sevtinge.cemiuiler.utils.PrefsUtils;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
@@ -31,7 +29,6 @@ import de.robv.android.xposed.IXposedHookLoadPackage;
 import de.robv.android.xposed.IXposedHookZygoteInit;
 import de.robv.android.xposed.XC_MethodHook;
 import de.robv.android.xposed.XC_MethodReplacement;
-import de.robv.android.xposed.XSharedPreferences;
 import de.robv.android.xposed.XposedBridge;
 import de.robv.android.xposed.XposedHelpers;
 import de.robv.android.xposed.callbacks.XC_LoadPackage;
@@ -60,16 +57,16 @@ public class CorePatchForR extends XposedHelper implements IXposedHookLoadPackag
         }
     }
 
-    final XSharedPreferences prefs = new XSharedPreferences(Helpers.mAppModulePkg, PrefsUtils.mPrefsName);
+    final CorePatchPrefs prefs = CorePatchPrefs.getInstance();
 
     @Override
     public void handleLoadPackage(XC_LoadPackage.LoadPackageParam loadPackageParam) throws IllegalAccessException, InvocationTargetException, InstantiationException {
         if (isNotReleaseVersion) {
-            XposedBridge.log("[D" + TAG + ": downgrade=" + prefs.getBoolean("prefs_key_system_framework_core_patch_downgr", true));
-            XposedBridge.log("[D" + TAG + ": authcreak=" + prefs.getBoolean("prefs_key_system_framework_core_patch_auth_creak", true));
-            XposedBridge.log("[D" + TAG + ": digestCreak=" + prefs.getBoolean("prefs_key_system_framework_core_patch_digest_creak", true));
-            XposedBridge.log("[D" + TAG + ": UsePreSig=" + prefs.getBoolean("prefs_key_system_framework_core_patch_use_pre_signature", false));
-            XposedBridge.log("[D" + TAG + ": enhancedMode=" + prefs.getBoolean("prefs_key_system_framework_core_patch_enhanced_mode", false));
+            XposedBridge.log("[D" + TAG + ": downgrade=" + prefs.isDowngrade());
+            XposedBridge.log("[D" + TAG + ": authcreak=" + prefs.isAuthCreak());
+            XposedBridge.log("[D" + TAG + ": digestCreak=" + prefs.isDigestCreak());
+            XposedBridge.log("[D" + TAG + ": UsePreSig=" + prefs.isUsePreSignature());
+            XposedBridge.log("[D" + TAG + ": enhancedMode=" + prefs.isEnhancedMode());
         }
 
         var pmService = findClassIfExists("com.android.server.pm.PackageManagerService",
@@ -80,34 +77,34 @@ public class CorePatchForR extends XposedHelper implements IXposedHookLoadPackag
                 "android.content.pm.PackageInfoLite");
             if (checkDowngrade != null) {
                 // 允许降级
-                XposedBridge.hookMethod(checkDowngrade, new ReturnConstant(prefs, "prefs_key_system_framework_core_patch_downgr", null));
+                XposedBridge.hookMethod(checkDowngrade, new ReturnConstant(prefs, CorePatchPrefs.KEY_DOWNGRADE, null));
             }
         }
 
         // apk内文件修改后 digest校验会失败
         hookAllMethods("android.util.jar.StrictJarVerifier", loadPackageParam.classLoader, "verifyMessageDigest",
-            new ReturnConstant(prefs, "prefs_key_system_framework_core_patch_auth_creak", true));
+            new ReturnConstant(prefs, CorePatchPrefs.KEY_AUTH_CREAK, true));
         hookAllMethods("android.util.jar.StrictJarVerifier", loadPackageParam.classLoader, "verify",
-            new ReturnConstant(prefs, "prefs_key_system_framework_core_patch_auth_creak", true));
+            new ReturnConstant(prefs, CorePatchPrefs.KEY_AUTH_CREAK, true));
         hookAllMethods("java.security.MessageDigest", loadPackageParam.classLoader, "isEqual",
-            new ReturnConstant(prefs, "prefs_key_system_framework_core_patch_auth_creak", true));
+            new ReturnConstant(prefs, CorePatchPrefs.KEY_AUTH_CREAK, true));
 
         // Targeting R+ (version " + Build.VERSION_CODES.R + " and above) requires"
         // + " the resources.arsc of installed APKs to be stored uncompressed"
         // + " and aligned on a 4-byte boundary
         // target >=30 的情况下 resources.arsc 必须是未压缩的且4K对齐
         hookAllMethods("android.content.res.AssetManager", loadPackageParam.classLoader, "containsAllocatedTable",
-            new ReturnConstant(prefs, "prefs_key_system_framework_core_patch_auth_creak", false));
+            new ReturnConstant(prefs, CorePatchPrefs.KEY_AUTH_CREAK, false));
 
         // No signature found in package of version " + minSignatureSchemeVersion
         // + " or newer for package " + apkPath
         findAndHookMethod("android.util.apk.ApkSignatureVerifier", loadPackageParam.classLoader, "getMinimumSignatureSchemeVersionForTargetSdk", int.class,
-            new ReturnConstant(prefs, "prefs_key_system_framework_core_patch_auth_creak", 0));
+            new ReturnConstant(prefs, CorePatchPrefs.KEY_AUTH_CREAK, 0));
         var apkVerifierClass = XposedHelpers.findClassIfExists("com.android.apksig.ApkVerifier",
             loadPackageParam.classLoader);
         if (apkVerifierClass != null) {
             findAndHookMethod(apkVerifierClass, "getMinimumSignatureSchemeVersionForTargetSdk", loadPackageParam.classLoader, int.class,
-                new ReturnConstant(prefs, "prefs_key_system_framework_core_patch_auth_creak", 0));
+                new ReturnConstant(prefs, CorePatchPrefs.KEY_AUTH_CREAK, 0));
         }
 
         // Package " + packageName + " signatures do not match previously installed version; ignoring!"
@@ -119,7 +116,7 @@ public class CorePatchForR extends XposedHelper implements IXposedHookLoadPackag
                 // Don't handle PERMISSION (grant SIGNATURE permissions to pkgs with this cert)
                 // Or applications will have all privileged permissions
                 // https://cs.android.com/android/platform/superproject/+/master:frameworks/base/core/java/android/content/pm/PackageParser.java;l=5947?q=CertCapabilities
-                if (prefs.getBoolean("prefs_key_system_framework_core_patch_auth_creak", true)) {
+                if (prefs.isAuthCreak()) {
                     if ((Integer) param.args[1] != 4) {
                         param.setResult(true);
                     }
@@ -148,8 +145,8 @@ public class CorePatchForR extends XposedHelper implements IXposedHookLoadPackag
         hookAllMethods("android.util.jar.StrictJarVerifier", loadPackageParam.classLoader, "verifyBytes", new XC_MethodHook() {
             public void afterHookedMethod(MethodHookParam param) throws Throwable {
                 super.afterHookedMethod(param);
-                if (prefs.getBoolean("prefs_key_system_framework_core_patch_digest_creak", true)) {
-                    if (!prefs.getBoolean("prefs_key_system_framework_core_patch_use_pre_signature", false)) {
+                if (prefs.isDigestCreak()) {
+                    if (!prefs.isUsePreSignature()) {
                         final Object block = constructor.newInstance(param.args[0]);
                         Object[] infos = (Object[]) XposedHelpers.callMethod(block, "getSignerInfos");
                         Object info = infos[0];
@@ -162,7 +159,7 @@ public class CorePatchForR extends XposedHelper implements IXposedHookLoadPackag
         });
         hookAllMethods("android.util.apk.ApkSignatureVerifier", loadPackageParam.classLoader, "verifyV1Signature", new XC_MethodHook() {
             public void afterHookedMethod(MethodHookParam methodHookParam) throws Throwable {
-                if (prefs.getBoolean("prefs_key_system_framework_core_patch_auth_creak", true)) {
+                if (prefs.isAuthCreak()) {
                     Throwable throwable = methodHookParam.getThrowable();
                     Integer parseErr = null;
                     if (parseResult != null && ((Method) methodHookParam.method).getReturnType() == parseResult) {
@@ -174,7 +171,7 @@ public class CorePatchForR extends XposedHelper implements IXposedHookLoadPackag
                     if (throwable != null || parseErr != null) {
                         Signature[] lastSigs = null;
                         try {
-                            if (prefs.getBoolean("prefs_key_system_framework_core_patch_use_pre_signature", false)) {
+                            if (prefs.isUsePreSignature()) {
                                 PackageManager PM = AndroidAppHelper.currentApplication().getPackageManager();
                                 if (PM == null) {
                                     XposedBridge.log("[E" + TAG +"[" + BuildConfig.APPLICATION_ID + "] Cannot get the Package Manager... Are you using MiUI?");
@@ -192,7 +189,7 @@ public class CorePatchForR extends XposedHelper implements IXposedHookLoadPackag
                         } catch (Throwable ignored) {
                         }
                         try {
-                            if (lastSigs == null && prefs.getBoolean("prefs_key_system_framework_core_patch_digest_creak", true)) {
+                            if (lastSigs == null && prefs.isDigestCreak()) {
                                 final Object origJarFile = constructorExact.newInstance(methodHookParam.args[parseErr == null ? 0 : 1], true, false);
                                 final ZipEntry manifestEntry = (ZipEntry) XposedHelpers.callMethod(origJarFile, "findEntry", "AndroidManifest.xml");
                                 final Certificate[][] lastCerts;
@@ -251,7 +248,7 @@ public class CorePatchForR extends XposedHelper implements IXposedHookLoadPackag
                 // Don't handle PERMISSION (grant SIGNATURE permissions to pkgs with this cert)
                 // Or applications will have all privileged permissions
                 // https://cs.android.com/android/platform/superproject/+/master:frameworks/base/core/java/android/content/pm/PackageParser.java;l=5947?q=CertCapabilities
-                if (((Integer) param.args[1] != 4) && prefs.getBoolean("prefs_key_system_framework_core_patch_digest_creak", true)) {
+                if (((Integer) param.args[1] != 4) && prefs.isDigestCreak()) {
                     param.setResult(true);
                 }
             }
@@ -261,7 +258,7 @@ public class CorePatchForR extends XposedHelper implements IXposedHookLoadPackag
             @Override
             protected void beforeHookedMethod(MethodHookParam param) throws Throwable {
                 super.beforeHookedMethod(param);
-                if (prefs.getBoolean("prefs_key_system_framework_core_patch_digest_creak", true)) {
+                if (prefs.isDigestCreak()) {
                     ApplicationInfo info = (ApplicationInfo) param.thisObject;
                     if ((info.flags & ApplicationInfo.FLAG_SYSTEM) != 0
                         || (info.flags & ApplicationInfo.FLAG_UPDATED_SYSTEM_APP) != 0) {
@@ -286,7 +283,7 @@ public class CorePatchForR extends XposedHelper implements IXposedHookLoadPackag
             hookAllMethods(keySetManagerClass, "shouldCheckUpgradeKeySetLocked", new XC_MethodHook() {
                 @Override
                 protected void afterHookedMethod(MethodHookParam param) {
-                    if (prefs.getBoolean("prefs_key_system_framework_core_patch_digest_creak", true) && Arrays.stream(Thread.currentThread().getStackTrace()).anyMatch((o) -> "preparePackageLI".equals(o.getMethodName()))) {
+                    if (prefs.isDigestCreak() && Arrays.stream(Thread.currentThread().getStackTrace()).anyMatch((o) -> "preparePackageLI".equals(o.getMethodName()))) {
                         shouldBypass.set(true);
                         param.setResult(true);
                     } else {
@@ -297,7 +294,7 @@ public class CorePatchForR extends XposedHelper implements IXposedHookLoadPackag
             hookAllMethods(keySetManagerClass, "checkUpgradeKeySetLocked", new XC_MethodHook() {
                 @Override
                 protected void afterHookedMethod(MethodHookParam param) {
-                    if (prefs.getBoolean("digestCreak", true) && shouldBypass.get()) {
+                    if (prefs.isDigestCreak() && shouldBypass.get()) {
                         param.setResult(true);
                     }
                 }
@@ -316,7 +313,7 @@ public class CorePatchForR extends XposedHelper implements IXposedHookLoadPackag
         hookAllConstructors("android.util.jar.StrictJarVerifier", new XC_MethodHook() {
             @Override
             protected void beforeHookedMethod(MethodHookParam param) throws Throwable {
-                if (prefs.getBoolean("prefs_key_system_framework_core_patch_enhanced_mode", false)) {
+                if (prefs.isEnhancedMode()) {
                     super.beforeHookedMethod(param);
                     param.args[3] = Boolean.FALSE;
                 }
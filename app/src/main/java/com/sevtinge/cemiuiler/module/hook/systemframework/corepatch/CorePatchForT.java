@@ -17,7 +17,7 @@ public class CorePatchForT extends CorePatchForS {
             "com.android.server.pm.parsing.pkg.AndroidPackage",
             "android.content.pm.PackageInfoLite");
         if (checkDowngrade != null) {
-            XposedBridge.hookMethod(checkDowngrade, new ReturnConstant(prefs, "prefs_key_system_framework_core_patch_downgr", null));
+            XposedBridge.hookMethod(checkDowngrade, new ReturnConstant(prefs, CorePatchPrefs.KEY_DOWNGRADE, null));
         }
 
         Class<?> signingDetails = getSigningDetails(loadPackageParam.classLoader);
@@ -29,7 +29,7 @@ public class CorePatchForT extends CorePatchForS {
                 // Don't handle PERMISSION (grant SIGNATURE permissions to pkgs with this cert)
                 // Or applications will have all privileged permissions
                 // https://cs.android.com/android/platform/superproject/+/master:frameworks/base/core/java/android/content/pm/PackageParser.java;l=5947?q=CertCapabilities
-                if (prefs.getBoolean("prefs_key_system_framework_core_patch_digest_creak", true)) {
+                if (prefs.isDigestCreak()) {
                     if ((Integer) param.args[1] != 4) {
                         param.setResult(true);
                     }
@@ -46,7 +46,7 @@ public class CorePatchForT extends CorePatchForS {
                 // Don't handle PERMISSION (grant SIGNATURE permissions to pkgs with this cert)
                 // Or applications will have all privileged permissions
                 // https://cs.android.com/android/platform/superproject/+/master:frameworks/base/core/java/android/content/pm/PackageParser.java;l=5947?q=CertCapabilities
-                if (prefs.getBoolean("prefs_key_system_framework_core_patch_auth_creak", true)) {
+                if (prefs.isAuthCreak()) {
                     if ((Integer) param.args[1] != 4) {
                         param.setResult(true);
                     }
@@ -59,7 +59,7 @@ public class CorePatchForT extends CorePatchForS {
             "com.android.server.pm.parsing.pkg.ParsedPackage", int.class, new XC_MethodHook() {
                 @Override
                 protected void afterHookedMethod(MethodHookParam param) {
-                    if (prefs.getBoolean("prefs_key_system_framework_core_patch_digest_creak", true) && prefs.getBoolean("prefs_key_system_framework_core_patch_use_pre_signature", false)) {
+                    if (prefs.isDigestCreak() && prefs.isUsePreSignature()) {
                         //If we decide to crack this then at least make sure they are same apks, avoid another one that tries to impersonate.
                         if (param.getResult().equals(false)) {
                             String pPname = (String) XposedHelpers.callMethod(param.args[1], "getPackageName");
@@ -78,7 +78,7 @@ public class CorePatchForT extends CorePatchForS {
             XposedBridge.hookMethod(assertMinSignatureSchemeIsValid, new XC_MethodHook() {
                 @Override
                 protected void afterHookedMethod(MethodHookParam param) {
-                    if (prefs.getBoolean("prefs_key_system_framework_core_patch_auth_creak", true)) {
+                    if (prefs.isAuthCreak()) {
                         param.setResult(null);
                     }
                 }
@@ -90,7 +90,7 @@ public class CorePatchForT extends CorePatchForS {
             XposedBridge.hookAllConstructors(strictJarVerifier, new XC_MethodHook() {
                 @Override
                 protected void afterHookedMethod(MethodHookParam param) {
-                    if (prefs.getBoolean("prefs_key_system_framework_core_patch_auth_creak", true)) {
+                    if (prefs.isAuthCreak()) {
                         XposedHelpers.setBooleanField(param.thisObject, "signatureSchemeRollbackProtectionsEnforced", false);
                     }
                 }
@@ -30,7 +30,7 @@ public class CorePatchForU extends CorePatchForT {
             "checkDowngrade",
             "com.android.server.pm.pkg.AndroidPackage",
             "android.content.pm.PackageInfoLite",
-            new ReturnConstant(prefs, "prefs_key_system_framework_core_patch_downgr", null));
+            new ReturnConstant(prefs, CorePatchPrefs.KEY_DOWNGRADE, null));
 
 
         findAndHookMethod("com.android.server.pm.InstallPackageHelper", loadPackageParam.classLoader,
@@ -38,7 +38,7 @@ public class CorePatchForU extends CorePatchForT {
             "com.android.server.pm.parsing.pkg.ParsedPackage", int.class, new XC_MethodHook() {
                 @Override
                 protected void afterHookedMethod(MethodHookParam param) {
-                    if (prefs.getBoolean("prefs_key_system_framework_core_patch_digest_creak", true) && prefs.getBoolean("prefs_key_system_framework_core_patch_use_pre_signature", false)) {
+                    if (prefs.isDigestCreak() && prefs.isUsePreSignature()) {
                         //If we decide to crack this then at least make sure they are same apks, avoid another one that tries to impersonate.
                         if (param.getResult().equals(false)) {
                             String pPname = (String) XposedHelpers.callMethod(param.args[1], "getPackageName");
@@ -56,7 +56,7 @@ public class CorePatchForU extends CorePatchForT {
             new XC_MethodHook() {
                 @Override
                 protected void afterHookedMethod(MethodHookParam param) {
-                    if (prefs.getBoolean("prefs_key_system_framework_core_patch_auth_creak", true)) {
+                    if (prefs.isAuthCreak()) {
                         param.setResult(null);
                     }
                 }
@@ -0,0 +1,149 @@
+package com.sevtinge.cemiuiler.module.hook.systemframework.corepatch;
+
+import static com.sevtinge.cemiuiler.module.app.SystemFrameworkForCorePatch.TAG;
+
+import android.os.FileObserver;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.Nullable;
+
+import com.sevtinge.cemiuiler.utils.Helpers;
+import com.sevtinge.cemiuiler.utils.PrefsUtils;
+
+import java.io.File;
+
+import de.robv.android.xposed.XSharedPreferences;
+import de.robv.android.xposed.XposedBridge;
+
+/**
+ * CorePatch 使用的设置快照
+ * <p>
+ * 被 Hook 的 MessageDigest.isEqual / StrictJarVerifier 等方法调用极其频繁，
+ * 不能在每次调用时 reload XSharedPreferences，这里改为监听设置文件变化后整体替换快照，
+ * 读取时只需访问一次 volatile 字段
+ * <p>
+ * FileObserver 可能因 SELinux 或目录不可访问而静默失效，读取时另外每隔 CHECK_INTERVAL
+ * 检查一次文件修改时间作为兜底
+ */
+public class CorePatchPrefs {
+
+    public static final String KEY_DOWNGRADE = "prefs_key_system_framework_core_patch_downgr";
+    public static final String KEY_AUTH_CREAK = "prefs_key_system_framework_core_patch_auth_creak";
+    public static final String KEY_DIGEST_CREAK = "prefs_key_system_framework_core_patch_digest_creak";
+    public static final String KEY_USE_PRE_SIGNATURE = "prefs_key_system_framework_core_patch_use_pre_signature";
+    public static final String KEY_ENHANCED_MODE = "prefs_key_system_framework_core_patch_enhanced_mode";
+
+    private static final String[] KEYS = {
+        KEY_DOWNGRADE, KEY_AUTH_CREAK, KEY_DIGEST_CREAK, KEY_USE_PRE_SIGNATURE, KEY_ENHANCED_MODE
+    };
+    private static final boolean[] DEFAULTS = {
+        true, true, true, false, false
+    };
+
+    private static final int DOWNGRADE = 0;
+    private static final int AUTH_CREAK = 1;
+    private static final int DIGEST_CREAK = 2;
+    private static final int USE_PRE_SIGNATURE = 3;
+    private static final int ENHANCED_MODE = 4;
+
+    private static final long CHECK_INTERVAL = 2000;
+
+    private static CorePatchPrefs sInstance;
+
+    private final XSharedPreferences mPrefs;
+    private FileObserver mObserver;
+    // 发布后不再修改，只整体替换
+    private volatile boolean[] mValues;
+    private volatile long mNextCheck;
+
+    public static synchronized CorePatchPrefs getInstance() {
+        if (sInstance == null) sInstance = new CorePatchPrefs();
+        return sInstance;
+    }
+
+    private CorePatchPrefs() {
+        mPrefs = new XSharedPreferences(Helpers.mAppModulePkg, PrefsUtils.mPrefsName);
+        mValues = load();
+        startObserving();
+    }
+
+    private boolean[] load() {
+        boolean[] values = new boolean[KEYS.length];
+        for (int i = 0; i < KEYS.length; i++) {
+            values[i] = mPrefs.getBoolean(KEYS[i], DEFAULTS[i]);
+        }
+        return values;
+    }
+
+    private synchronized void reload() {
+        mPrefs.reload();
+        mValues = load();
+    }
+
+    private boolean[] values() {
+        long now = SystemClock.uptimeMillis();
+        if (now >= mNextCheck) {
+            mNextCheck = now + CHECK_INTERVAL;
+            if (mPrefs.hasFileChanged()) reload();
+        }
+        return mValues;
+    }
+
+    private void startObserving() {
+        try {
+            File file = mPrefs.getFile();
+            File dir = file.getParentFile();
+            if (dir == null) return;
+            String name = file.getName();
+            mObserver = new FileObserver(dir, FileObserver.CLOSE_WRITE | FileObserver.MOVED_TO) {
+                @Override
+                public void onEvent(int event, @Nullable String path) {
+                    if (name.equals(path)) reload();
+                }
+            };
+            mObserver.startWatching();
+        } catch (Throwable t) {
+            XposedBridge.log("[E" + TAG + ": " + Log.getStackTraceString(t));
+        }
+    }
+
+    /**
+     * @return KEYS 中的下标，未知的 key 返回 -1
+     */
+    static int indexOf(String key) {
+        for (int i = 0; i < KEYS.length; i++) {
+            if (KEYS[i].equals(key)) return i;
+        }
+        return -1;
+    }
+
+    boolean get(int index) {
+        return values()[index];
+    }
+
+    public boolean getBoolean(String key, boolean defValue) {
+        int index = indexOf(key);
+        return index < 0 ? defValue : values()[index];
+    }
+
+    public boolean isDowngrade() {
+        return values()[DOWNGRADE];
+    }
+
+    public boolean isAuthCreak() {
+        return values()[AUTH_CREAK];
+    }
+
+    public boolean isDigestCreak() {
+        return values()[DIGEST_CREAK];
+    }
+
+    public boolean isUsePreSignature() {
+        return values()[USE_PRE_SIGNATURE];
+    }
+
+    public boolean isEnhancedMode() {
+        return values()[ENHANCED_MODE];
+    }
+}
@@ -1,24 +1,22 @@
 package com.sevtinge.cemiuiler.module.hook.systemframework.corepatch;
 
 import de.robv.android.xposed.XC_MethodHook;
-import de.robv.android.xposed.XSharedPreferences;
 
 public class ReturnConstant extends XC_MethodHook {
-    private final XSharedPreferences prefs;
-    private final String prefsKey;
+    private final CorePatchPrefs prefs;
+    private final int prefsIndex;
     private final Object value;
 
-    public ReturnConstant(XSharedPreferences prefs, String prefsKey, Object value) {
+    public ReturnConstant(CorePatchPrefs prefs, String prefsKey, Object value) {
         this.prefs = prefs;
-        this.prefsKey = prefsKey;
+        this.prefsIndex = CorePatchPrefs.indexOf(prefsKey);
         this.value = value;
     }
 
     @Override
     protected void beforeHookedMethod(MethodHookParam param) throws Throwable {
         super.beforeHookedMethod(param);
-        prefs.reload();
-        if (prefs.getBoolean(prefsKey, true)) {
+        if (prefsIndex < 0 || prefs.get(prefsIndex)) {
             param.setResult(value);
         }
     }
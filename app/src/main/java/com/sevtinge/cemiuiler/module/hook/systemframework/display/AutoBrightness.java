@@ -1,16 +1,14 @@
 package com.sevtinge.cemiuiler.module.hook.systemframework.display;
 
-import static com.sevtinge.cemiuiler.utils.log.AndroidLogUtils.LogD;
-
 import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.res.Resources;
-import android.net.Uri;
 import android.os.Handler;
 
 import com.sevtinge.cemiuiler.module.base.BaseHook;
 import com.sevtinge.cemiuiler.utils.Helpers;
 import com.sevtinge.cemiuiler.utils.MathUtils;
+import com.sevtinge.cemiuiler.utils.PrefsUtils;
 
 import de.robv.android.xposed.XposedHelpers;
 
@@ -87,25 +85,8 @@ public class AutoBrightness extends BaseHook {
             protected void after(final MethodHookParam param) throws Throwable {
                 Context mContext = (Context) XposedHelpers.getObjectField(param.thisObject, "mContext");
                 Handler mHandler = (Handler) XposedHelpers.getObjectField(param.thisObject, "mHandler");
-                new Helpers.SharedPrefObserver(mContext, mHandler) {
-                    @Override
-                    public void onChange(Uri uri) {
-                        try {
-                            String type = uri.getPathSegments().get(1);
-                            String key = uri.getPathSegments().get(2);
-                            switch (type) {
-                                case "integer" -> {
-                                    int defVal = "pref_key_system_control_center_min_brightness".equals(key) ? 25 : 75;
-                                    mPrefsMap.put(key, Helpers.getSharedIntPref(mContext, key, defVal));
-                                }
-                                case "boolean" ->
-                                    mPrefsMap.put(key, Helpers.getSharedBoolPref(mContext, key, false));
-                            }
-                        } catch (Throwable t) {
-                            LogD(TAG, "onChange", t);
-                        }
-                    }
-                };
+                // 只为启动设置项同步，不需要回调，因此不持有引用
+                new PrefsUtils.SharedPrefsDeltaObserver(mContext, mHandler);
             }
         });
     }
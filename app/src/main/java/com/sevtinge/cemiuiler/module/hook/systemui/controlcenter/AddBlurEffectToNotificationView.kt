@@ -6,13 +6,15 @@ import android.view.View
 import android.view.ViewGroup
 import com.github.kyuubiran.ezxhelper.EzXHelper.appContext
 import com.sevtinge.cemiuiler.module.base.BaseHook
+import com.sevtinge.cemiuiler.utils.FieldAccessor
 import com.sevtinge.cemiuiler.utils.HookUtils
-import com.sevtinge.cemiuiler.utils.callStaticMethod
+import com.sevtinge.cemiuiler.utils.MethodAccessor
 import com.sevtinge.cemiuiler.utils.devicesdk.isAndroidS
 import com.sevtinge.cemiuiler.utils.devicesdk.isAndroidT
 import com.sevtinge.cemiuiler.utils.devicesdk.isAndroidU
 import com.sevtinge.cemiuiler.utils.devicesdk.isMoreAndroidVersion
-import com.sevtinge.cemiuiler.utils.getObjectField
+import com.sevtinge.cemiuiler.utils.getBooleanField
+import com.sevtinge.cemiuiler.utils.getFloatField
 import com.sevtinge.cemiuiler.utils.hookAfterMethod
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils
 import com.sevtinge.cemiuiler.utils.replaceMethod
@@ -31,16 +33,37 @@ object AddBlurEffectToNotificationView : BaseHook() {
         mPrefsMap.getBoolean("n_enable_fix")
     }
 
+    // 以下字段与方法在每一帧或每一条通知上都会访问，只解析一次
+    // AmbientState
+    private val overExpansionField = FieldAccessor("mOverExpansion")
+    private val appearFractionField = FieldAccessor("mAppearFraction")
+    private val ncSwitchingField = FieldAccessor("isNCSwitching")
+    private val swipingUpField = FieldAccessor("mIsSwipingUp")
+    private val flingingField = FieldAccessor("mIsFlinging")
+    private val appearingField = FieldAccessor("mAppearing")
+
+    // ExpandableNotificationRow / NotificationBackgroundView
+    private val backgroundNormalField = FieldAccessor("mBackgroundNormal")
+    private val drawableAlphaField = FieldAccessor("mDrawableAlpha")
+    private val setDrawableAlphaMethod = MethodAccessor("setDrawableAlpha", Integer.TYPE)
+    private val headsUpMethod = MethodAccessor("headsUp")
+    private val getContentViewMethod = MethodAccessor("getContentView")
+    private val getAttachedChildrenMethod = MethodAccessor("getAttachedChildren")
+
+    private val getScreenHeightMethod by lazy {
+        XposedHelpers.findMethodBestMatch(
+            findClass("com.android.systemui.fsgesture.AppQuickSwitchActivity"), "getScreenHeight", appContext
+        )
+    }
+    private val isScreenLandscapeMethod by lazy {
+        MethodAccessor.of(findClass("com.android.systemui.statusbar.notification.NotificationUtil"), "isScreenLandscape")
+    }
+
     fun setDrawableAlpha(thiz: Any?, alpha: Int) {
         if (isAndroidU()) {
-            XposedHelpers.setObjectField(thiz, "mDrawableAlpha", alpha)
+            drawableAlphaField.setInt(thiz, alpha)
         } else {
-            XposedHelpers.callMethod(
-                thiz,
-                "setDrawableAlpha",
-                arrayOf<Class<*>>(Integer.TYPE),
-                alpha
-            )
+            setDrawableAlphaMethod.invoke(thiz, alpha)
         }
     }
 
@@ -108,17 +131,13 @@ object AddBlurEffectToNotificationView : BaseHook() {
             // 换个方式修改通知上划极限值
             try {
                 "com.android.systemui.statusbar.notification.stack.AmbientState".replaceMethod("getOverExpansion") {
-                    val getScreenHeight =
-                        findClass("com.android.systemui.fsgesture.AppQuickSwitchActivity")
-                            .callStaticMethod("getScreenHeight", appContext) as Int
-                    val mOverExpansion = it.thisObject.getObjectField("mOverExpansion") as Float
-                    val isNCSwitching = it.thisObject.getObjectField("isNCSwitching") as Boolean
-                    val isSwipingUp = it.thisObject.getObjectField("mIsSwipingUp") as Boolean
-                    val isFlinging = it.thisObject.getObjectField("mIsFlinging") as Boolean
-                    val isAppearing = it.thisObject.getObjectField("mAppearing") as Boolean
-                    val isScreenLandscape =
-                        findClass("com.android.systemui.statusbar.notification.NotificationUtil")
-                            .callStaticMethod("isScreenLandscape") as Boolean
+                    val getScreenHeight = getScreenHeightMethod.invoke(null, appContext) as Int
+                    val mOverExpansion = it.thisObject.getFloatField(overExpansionField)
+                    val isNCSwitching = it.thisObject.getBooleanField(ncSwitchingField)
+                    val isSwipingUp = it.thisObject.getBooleanField(swipingUpField)
+                    val isFlinging = it.thisObject.getBooleanField(flingingField)
+                    val isAppearing = it.thisObject.getBooleanField(appearingField)
+                    val isScreenLandscape = isScreenLandscapeMethod.invoke(null) as Boolean
 
                     if (isAppearing && (isSwipingUp || isFlinging) && !isNCSwitching) {
                         if (hasActiveMediaOrRecommendation) {
@@ -142,14 +161,12 @@ object AddBlurEffectToNotificationView : BaseHook() {
 
             try {
                 "com.android.systemui.statusbar.notification.stack.AmbientState".replaceMethod("getAppearFraction") {
-                    val isNCSwitching = it.thisObject.getObjectField("isNCSwitching") as Boolean
-                    val isSwipingUp = it.thisObject.getObjectField("mIsSwipingUp") as Boolean
-                    val isFlinging = it.thisObject.getObjectField("mIsFlinging") as Boolean
-                    val mAppearFraction = it.thisObject.getObjectField("mAppearFraction") as Float
-                    val isAppearing = it.thisObject.getObjectField("mAppearing") as Boolean
-                    val isScreenLandscape =
-                        findClass("com.android.systemui.statusbar.notification.NotificationUtil")
-                            .callStaticMethod("isScreenLandscape") as Boolean
+                    val isNCSwitching = it.thisObject.getBooleanField(ncSwitchingField)
+                    val isSwipingUp = it.thisObject.getBooleanField(swipingUpField)
+                    val isFlinging = it.thisObject.getBooleanField(flingingField)
+                    val mAppearFraction = it.thisObject.getFloatField(appearFractionField)
+                    val isAppearing = it.thisObject.getBooleanField(appearingField)
+                    val isScreenLandscape = isScreenLandscapeMethod.invoke(null) as Boolean
 
                     if (isAppearing && (isSwipingUp || isFlinging) && !isNCSwitching && hasActiveMediaOrRecommendation && isScreenLandscape) {
                         return@replaceMethod mAppearFraction * 6.0f
@@ -169,19 +186,15 @@ object AddBlurEffectToNotificationView : BaseHook() {
             object : XC_MethodHook() {
                 override fun afterHookedMethod(param: MethodHookParam) {
                     val notificationBackgroundView = param.thisObject
-                    val mDrawableAlphaField =
-                        notificationBackgroundViewClass.getDeclaredField("mDrawableAlpha")
-                    mDrawableAlphaField.isAccessible = true
-                    val isHandsUp =
-                        XposedHelpers.callMethod(notificationBackgroundView, "headsUp") as Boolean
+                    val isHandsUp = headsUpMethod.invoke(notificationBackgroundView) as Boolean
                     if (isHandsUp) {
-                        mDrawableAlphaField.set(notificationBackgroundView, blurBackgroundAlpha)
+                        drawableAlphaField.setInt(notificationBackgroundView, blurBackgroundAlpha)
                         setDrawableAlpha(
                             notificationBackgroundView,
                             blurBackgroundAlpha
                         )
                     } else {
-                        mDrawableAlphaField.set(notificationBackgroundView, defaultBackgroundAlpha)
+                        drawableAlphaField.setInt(notificationBackgroundView, defaultBackgroundAlpha)
                         setDrawableAlpha(
                             notificationBackgroundView,
                             defaultBackgroundAlpha
@@ -678,7 +691,7 @@ object AddBlurEffectToNotificationView : BaseHook() {
     fun hideBlurEffectForNotificationRow(notificationRow: View) {
         if (notificationRow.javaClass.name.contains("ZenModeView")) {
             val zenModeContentContainer =
-                XposedHelpers.callMethod(notificationRow, "getContentView") ?: return
+                getContentViewMethod.invoke(notificationRow) ?: return
             zenModeContentContainer as ViewGroup
             val zenModeContent =
                 zenModeContentContainer.getChildAt(0) ?: return
@@ -691,7 +704,7 @@ object AddBlurEffectToNotificationView : BaseHook() {
             }
         } else {
             val mBackgroundNormal =
-                HookUtils.getValueByField(notificationRow, "mBackgroundNormal")
+                backgroundNormalField.getOrNull(notificationRow)
                     ?: return
             mBackgroundNormal as View
             if (HookUtils.isBlurDrawable(mBackgroundNormal.background)) {
@@ -706,7 +719,7 @@ object AddBlurEffectToNotificationView : BaseHook() {
 
             runCatching {
                 val childList =
-                    XposedHelpers.callMethod(notificationRow, "getAttachedChildren") ?: return
+                    getAttachedChildrenMethod.invoke(notificationRow) ?: return
                 childList as List<*>
                 if (childList.size > 0) {
                     childList.forEach { child ->
@@ -725,14 +738,14 @@ object AddBlurEffectToNotificationView : BaseHook() {
         }
         if (notificationRow.javaClass.name.contains("ZenModeView")) {
             val zenModeContentContainer =
-                XposedHelpers.callMethod(notificationRow, "getContentView") ?: return
+                getContentViewMethod.invoke(notificationRow) ?: return
             zenModeContentContainer as ViewGroup
             if (HookUtils.isBlurDrawable(zenModeContentContainer.background)) {
                 XposedHelpers.callMethod(zenModeContentContainer.background, "setAlpha", alpha)
             }
         } else {
             val mBackgroundNormal =
-                HookUtils.getValueByField(notificationRow, "mBackgroundNormal")
+                backgroundNormalField.getOrNull(notificationRow)
                     ?: return
             mBackgroundNormal as View
             if (HookUtils.isBlurDrawable(mBackgroundNormal.background)) {
@@ -740,7 +753,7 @@ object AddBlurEffectToNotificationView : BaseHook() {
             }
             runCatching {
                 val childList =
-                    XposedHelpers.callMethod(notificationRow, "getAttachedChildren") ?: return
+                    getAttachedChildrenMethod.invoke(notificationRow) ?: return
                 childList as List<*>
                 if (childList.size > 0) {
                     childList.forEach { child ->
@@ -756,7 +769,7 @@ object AddBlurEffectToNotificationView : BaseHook() {
     fun showBlurEffectForNotificationRow(notificationRow: View) {
         if (notificationRow.javaClass.name.contains("ZenModeView")) {
             val zenModeContentContainer =
-                XposedHelpers.callMethod(notificationRow, "getContentView") ?: return
+                getContentViewMethod.invoke(notificationRow) ?: return
             zenModeContentContainer as ViewGroup
             val zenModeContent =
                 zenModeContentContainer.getChildAt(0) ?: return
@@ -770,7 +783,7 @@ object AddBlurEffectToNotificationView : BaseHook() {
             }
         } else {
             val mBackgroundNormal =
-                HookUtils.getValueByField(notificationRow, "mBackgroundNormal") ?: return
+                backgroundNormalField.getOrNull(notificationRow) ?: return
             mBackgroundNormal as View
             if (!HookUtils.isBlurDrawable(mBackgroundNormal.background)) {
                 mBackgroundNormal.background =
@@ -784,7 +797,7 @@ object AddBlurEffectToNotificationView : BaseHook() {
             }
             runCatching {
                 val childList =
-                    XposedHelpers.callMethod(notificationRow, "getAttachedChildren") ?: return
+                    getAttachedChildrenMethod.invoke(notificationRow) ?: return
                 childList as List<*>
                 if (childList.size > 0) {
                     childList.forEach { child ->
@@ -12,7 +12,15 @@ import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.github.kyuubiran.ezxhelper.finders.MethodFinder.`-Static`.methodFinder
 import com.sevtinge.cemiuiler.R
 import com.sevtinge.cemiuiler.module.base.BaseHook
+import com.sevtinge.cemiuiler.utils.FieldAccessor
 import com.sevtinge.cemiuiler.utils.Helpers
+import com.sevtinge.cemiuiler.utils.MethodAccessor
+import com.sevtinge.cemiuiler.utils.callMethod
+import com.sevtinge.cemiuiler.utils.getBooleanField
+import com.sevtinge.cemiuiler.utils.getIntField
+import com.sevtinge.cemiuiler.utils.getObjectField
+import com.sevtinge.cemiuiler.utils.getObjectFieldAs
+import com.sevtinge.cemiuiler.utils.setIntField
 import com.sevtinge.cemiuiler.utils.devicesdk.isAndroidT
 import com.sevtinge.cemiuiler.utils.devicesdk.isAndroidU
 import de.robv.android.xposed.XposedHelpers
@@ -29,6 +37,24 @@ object CCGrid : BaseHook() {
     }
     private var scaledTileWidthDim = -1f
 
+    // QSPager
+    private val columnsField = FieldAccessor("columns")
+    private val collapseField = FieldAccessor("collapse")
+    private val pagesField = FieldAccessor("pages")
+    private val recordsField = FieldAccessor("records")
+    private val headerField = FieldAccessor("header")
+    private val rowsField = FieldAccessor("rows")
+    private val pageIndicatorField = FieldAccessor("pageIndicator")
+    private val adapterField = FieldAccessor("adapter")
+    private val removeTilesMethod = MethodAccessor("removeTiles")
+    private val isEmptyMethod = MethodAccessor("isEmpty")
+    private val setNumPagesMethod = MethodAccessor("setNumPages", Int::class.javaPrimitiveType)
+
+    // StandardTileView / ExpandableIconView
+    private val labelField = FieldAccessor("label")
+    private val labelContainerField = FieldAccessor("labelContainer")
+    private val getPluginContextMethod = MethodAccessor("getPluginContext")
+
     @SuppressLint("DiscouragedApi")
     override fun init() {
         if (cols > 4) {
@@ -145,11 +171,7 @@ object CCGrid : BaseHook() {
                 AttributeSet::class.java,
                 object : MethodHook() {
                     override fun after(param: MethodHookParam) {
-                        XposedHelpers.setObjectField(
-                            param.thisObject,
-                            "columns",
-                            cols
-                        )
+                        param.thisObject.setIntField(columnsField, cols)
                     }
                 })
             if (!label) {
@@ -158,20 +180,14 @@ object CCGrid : BaseHook() {
                     Boolean::class.javaPrimitiveType,
                     object : MethodHook() {
                         override fun after(param: MethodHookParam) {
-                            val label = XposedHelpers.getObjectField(
-                                param.thisObject,
-                                "label"
-                            )
+                            val label = param.thisObject.getObjectField(labelField)
                             if (label != null) {
                                 val lb = label as TextView
                                 lb.maxLines = 1
                                 lb.isSingleLine = true
                                 lb.ellipsize = TextUtils.TruncateAt.MARQUEE
                                 lb.marqueeRepeatLimit = 0
-                                val labelContainer = XposedHelpers.getObjectField(
-                                    param.thisObject,
-                                    "labelContainer"
-                                ) as View
+                                val labelContainer = param.thisObject.getObjectFieldAs<View>(labelContainerField)
                                 labelContainer.setPadding(4, 0, 4, 0)
                             }
                         }
@@ -185,34 +201,20 @@ object CCGrid : BaseHook() {
                 "distributeTiles",
                 object : MethodHook() {
                     override fun after(param: MethodHookParam) {
-                        val collapse = XposedHelpers.getObjectField(
-                            param.thisObject,
-                            "collapse"
-                        ) as Boolean
+                        val pager = param.thisObject
+                        val collapse = pager.getBooleanField(collapseField)
                         if (collapse) {
-                            val pages = XposedHelpers.getObjectField(
-                                param.thisObject,
-                                "pages"
-                            ) as ArrayList<*>
+                            val pages = pager.getObjectFieldAs<ArrayList<*>>(pagesField)
                             for (tileLayoutImpl in pages) {
-                                XposedHelpers.callMethod(
-                                    tileLayoutImpl,
-                                    "removeTiles"
-                                )
+                                tileLayoutImpl!!.callMethod(removeTilesMethod)
                             }
                             val pageTiles = ArrayList<Any>()
                             var currentRow = 2
-                            val records = XposedHelpers.getObjectField(
-                                param.thisObject,
-                                "records"
-                            ) as ArrayList<*>
+                            val records = pager.getObjectFieldAs<ArrayList<*>>(recordsField)
                             val it2: Iterator<*> = records.iterator()
                             var i3 = 0
                             var pageNow = 0
-                            val bigHeader = XposedHelpers.getObjectField(
-                                param.thisObject,
-                                "header"
-                            )
+                            val bigHeader = pager.getObjectField(headerField)
                             while (it2.hasNext()) {
                                 val tileRecord = it2.next()!!
                                 pageTiles.add(tileRecord)
@@ -229,16 +231,9 @@ object CCGrid : BaseHook() {
                                         if (pageNow == 0) bigHeader else null
                                     )
                                     pageTiles.clear()
-                                    val totalRows = XposedHelpers.getObjectField(
-                                        param.thisObject,
-                                        "rows"
-                                    ) as Int
+                                    val totalRows = pager.getIntField(rowsField)
                                     if (currentRow > totalRows) {
-                                        XposedHelpers.setObjectField(
-                                            param.thisObject,
-                                            "rows",
-                                            currentRow
-                                        )
+                                        pager.setIntField(rowsField, currentRow)
                                     }
                                     if (it2.hasNext()) {
                                         pageNow++
@@ -249,29 +244,14 @@ object CCGrid : BaseHook() {
                             val it3 = pages.iterator()
                             while (it3.hasNext()) {
                                 val next2 = it3.next()
-                                val isEmpty = XposedHelpers.callMethod(
-                                    next2,
-                                    "isEmpty"
-                                ) as Boolean
+                                val isEmpty = next2!!.callMethod(isEmptyMethod) as Boolean
                                 if (isEmpty) {
                                     it3.remove()
                                 }
                             }
-                            val pageIndicator = XposedHelpers.getObjectField(
-                                param.thisObject,
-                                "pageIndicator"
-                            )
-                            if (pageIndicator != null) {
-                                XposedHelpers.callMethod(
-                                    pageIndicator,
-                                    "setNumPages",
-                                    pages.size
-                                )
-                            }
-                            val adapter = XposedHelpers.getObjectField(
-                                param.thisObject,
-                                "adapter"
-                            )
+                            val pageIndicator = pager.getObjectField(pageIndicatorField)
+                            pageIndicator?.callMethod(setNumPagesMethod, pages.size)
+                            val adapter = pager.getObjectField(adapterField)
                             XposedHelpers.callMethod(
                                 param.thisObject,
                                 "setAdapter",
@@ -325,13 +305,8 @@ object CCGrid : BaseHook() {
         Helpers.hookAllMethods(mQSController, "init", object : MethodHook() {
             override fun before(param: MethodHookParam) {
                 if (param.args.size != 1) return
-                val mLabelContainer = XposedHelpers.getObjectField(
-                    param.thisObject,
-                    "labelContainer"
-                ) as View
-                if (mLabelContainer != null) {
-                    mLabelContainer.visibility = View.GONE
-                }
+                val mLabelContainer = param.thisObject.getObjectField(labelContainerField) as View?
+                mLabelContainer?.visibility = View.GONE
             }
         })
     }
@@ -343,10 +318,7 @@ object CCGrid : BaseHook() {
             Float::class.javaPrimitiveType,
             object : MethodHook() {
                 override fun before(param: MethodHookParam) {
-                    val mContext = XposedHelpers.callMethod(
-                        param.thisObject,
-                        "getPluginContext"
-                    ) as Context
+                    val mContext = param.thisObject.callMethod(getPluginContextMethod) as Context
                     var radius = 18f
                     if (scaledTileWidthDim > 0) {
                         radius *= scaledTileWidthDim / 65
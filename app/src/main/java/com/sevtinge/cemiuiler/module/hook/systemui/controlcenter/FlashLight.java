@@ -13,14 +13,13 @@ import android.util.ArrayMap;
 
 import androidx.annotation.Nullable;
 
+import com.sevtinge.cemiuiler.utils.HardwareSampler;
 import com.sevtinge.cemiuiler.utils.MathUtils;
 import com.sevtinge.cemiuiler.utils.ShellUtils;
 import com.sevtinge.cemiuiler.utils.TileUtils;
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 
@@ -264,35 +263,15 @@ public class FlashLight extends TileUtils {
     }
 
     public int readFile() {
-        String line;
-        BufferedReader reader = null;
-        StringBuilder builder = null;
         File file = new File(maxFile);
         if (file.exists()) {
-            try {
-                reader = new BufferedReader(new FileReader(maxFile));
-                builder = new StringBuilder();
-                while ((line = reader.readLine()) != null) {
-                    builder.append(line);
-                }
-            } catch (IOException e) {
-                XposedLogUtils.logE(TAG, "Error to read: " + maxFile, e);
-            } finally {
-                try {
-                    if (reader != null) {
-                        reader.close();
-                    }
-                } catch (IOException e) {
-                    XposedLogUtils.logE(TAG, "Close reader error: ", e);
-                }
-            }
+            HardwareSampler sampler = HardwareSampler.getInstance();
+            long value = sampler.readNow(sampler.registerNode(maxFile), -1);
+            if (value >= 0) return (int) value;
+            XposedLogUtils.logE(TAG, "Error to read: " + maxFile);
         } else {
             XposedLogUtils.logE(TAG, "Not Found FlashLight File: " + maxFile);
         }
-
-        if (builder != null) {
-            return Integer.parseInt(builder.toString());
-        }
         return -1;
     }
 
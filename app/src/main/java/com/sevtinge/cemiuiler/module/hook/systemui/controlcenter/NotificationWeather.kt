@@ -22,6 +22,8 @@ import com.sevtinge.cemiuiler.view.WeatherView
 
 
 object NotificationWeather : BaseHook() {
+    override fun getRequiredClasses() = arrayOf("com.android.systemui.qs.MiuiNotificationHeaderView")
+
     @SuppressLint("DiscouragedApi")
     override fun init() {
         var mWeatherView: TextView? = null
@@ -19,6 +19,8 @@ object NotificationWeatherNew : BaseHook() {
     lateinit var weather: WeatherData
     var clockId: Int = -2
 
+    override fun getRequiredClasses() = arrayOf("com.android.systemui.controlcenter.phone.widget.ControlCenterDateView")
+
     @SuppressLint("DiscouragedApi", "ClickableViewAccessibility")
     override fun init() {
         val mControlCenterDateViewClass =
@@ -14,6 +14,7 @@ import com.sevtinge.cemiuiler.utils.setObjectField
 import com.sevtinge.cemiuiler.view.WeatherView
 
 object NotificationWeatherOld : BaseHook() {
+    override fun getRequiredClasses() = arrayOf("com.android.systemui.qs.MiuiQSHeaderView")
 
     @SuppressLint("DiscouragedApi")
     override fun init() {
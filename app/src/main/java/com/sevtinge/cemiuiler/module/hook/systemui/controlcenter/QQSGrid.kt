@@ -10,6 +10,8 @@ import com.github.kyuubiran.ezxhelper.finders.MethodFinder.`-Static`.methodFinde
 import com.sevtinge.cemiuiler.module.base.BaseHook
 
 class QQSGrid : BaseHook() {
+    override fun getRequiredClasses() = arrayOf("com.android.systemui.qs.MiuiQuickQSPanel")
+
     override fun init() {
         val cols = mPrefsMap.getInt("system_control_center_old_qs_grid_columns", 5);
         val colsHorizontal = mPrefsMap.getInt("system_control_center_old_qs_grid_columns_horizontal", 6);
@@ -13,6 +13,8 @@ import com.sevtinge.cemiuiler.module.base.BaseHook
 import de.robv.android.xposed.XposedHelpers
 
 class QSGrid : BaseHook() {
+    override fun getRequiredClasses() = arrayOf("com.android.systemui.qs.MiuiTileLayout")
+
     override fun init() {
         val cols = mPrefsMap.getInt("system_control_center_old_qs_columns", 4)
         val colsHorizontal = mPrefsMap.getInt("system_control_center_old_qs_columns_horizontal", 5)
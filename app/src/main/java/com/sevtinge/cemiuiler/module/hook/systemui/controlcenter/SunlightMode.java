@@ -16,15 +16,14 @@ import android.util.ArrayMap;
 import androidx.annotation.Nullable;
 
 import com.sevtinge.cemiuiler.R;
+import com.sevtinge.cemiuiler.utils.HardwareSampler;
 import com.sevtinge.cemiuiler.utils.ShellUtils;
 import com.sevtinge.cemiuiler.utils.TileUtils;
 import com.sevtinge.cemiuiler.utils.log.AndroidLogUtils;
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.Objects;
@@ -369,10 +368,7 @@ public class SunlightMode extends TileUtils {
     }
 
     public static String readAndWrit(String writ, boolean need) {
-        String line;
-        BufferedReader reader = null;
         BufferedWriter writer = null;
-        StringBuilder builder = null;
         /*try {
             // 800毫秒获得丝滑转场效果，太好笑了，记录一下
             Thread.sleep(need ? 800 : 400);
@@ -395,28 +391,14 @@ public class SunlightMode extends TileUtils {
                 }
             }
         }
-        try {
-            reader = new BufferedReader(new FileReader(path));
-            builder = new StringBuilder();
-            while ((line = reader.readLine()) != null) {
-                builder.append(line);
-            }
-        } catch (IOException e) {
-            AndroidLogUtils.LogE("SunlightMode", "error to read: " + path + " ", e);
-        } finally {
-            try {
-                if (reader != null) {
-                    reader.close();
-                }
-            } catch (IOException e) {
-                AndroidLogUtils.LogE("SunlightMode", "close reader error: ", e);
-            }
-        }
-        if (builder != null) {
-            // logE("get string: " + builder);
-            if (need) pathSunlight = Integer.parseInt(builder.toString());
-            return builder.toString();
+        HardwareSampler sampler = HardwareSampler.getInstance();
+        long value = sampler.readNow(sampler.registerNode(path), -1);
+        if (value >= 0) {
+            // logE("get string: " + value);
+            if (need) pathSunlight = (int) value;
+            return String.valueOf(value);
         }
+        AndroidLogUtils.LogE("SunlightMode", "error to read: " + path + " ", null);
         return null;
     }
 
@@ -9,7 +9,6 @@ import android.graphics.Typeface;
 import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
-import android.os.PowerManager;
 import android.util.TypedValue;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -17,24 +16,40 @@ import android.view.ViewGroup;
 import android.widget.LinearLayout;
 import android.widget.TextView;
 
-import androidx.annotation.NonNull;
-
 import com.sevtinge.cemiuiler.R;
 import com.sevtinge.cemiuiler.module.base.BaseHook;
+import com.sevtinge.cemiuiler.utils.HardwareSampler;
 import com.sevtinge.cemiuiler.utils.Helpers;
+import com.sevtinge.cemiuiler.utils.PrefKey;
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.RandomAccessFile;
+import java.io.File;
+import java.text.DecimalFormatSymbols;
 import java.util.ArrayList;
-import java.util.Locale;
 import java.util.Objects;
-import java.util.Properties;
 
 import de.robv.android.xposed.XposedHelpers;
 
 public class DisplayHardwareDetail extends BaseHook {
+    // 后台刷新循环中每次都会读取的设置项，预先解析避免每次拼接与查找字符串 key
+    static final PrefKey BATTERY_ONLY_CHARGING = PrefKey.bool("system_ui_statusbar_battery_only_changing_show");
+    static final PrefKey BATTERY_ABS_CURRENT = PrefKey.bool("system_ui_statusbar_battery_electric_current");
+    static final PrefKey BATTERY_SHOW = PrefKey.stringAsInt("system_ui_statusbar_battery_show", 1);
+    static final PrefKey BATTERY_HIDE_UNIT = PrefKey.stringAsInt("system_ui_statusbar_battery_disable", 0);
+    static final PrefKey BATTERY_SINGLE_ROW = PrefKey.bool("system_ui_statusbar_battery_line_show");
+    static final PrefKey BATTERY_OPPOSITE = PrefKey.bool("system_ui_statusbar_battery_opposite");
+    static final PrefKey BATTERY_UPDATE_SPACING = PrefKey.integer("system_ui_statusbar_battery_update_spacing", 2);
+    static final PrefKey TEMP_FIX_CPU_GET = PrefKey.string("system_ui_statusbar_temp_fix_cpu_get", "0");
+    static final PrefKey TEMP_DECIMAL_PLACES = PrefKey.bool("system_ui_statusbar_temp_decimal_places");
+    static final PrefKey TEMP_SHOW = PrefKey.stringAsInt("system_ui_statusbar_temp_show", 1);
+    static final PrefKey TEMP_HIDE_UNIT = PrefKey.bool("system_ui_statusbar_temp_disable");
+    static final PrefKey TEMP_SINGLE_ROW = PrefKey.bool("system_ui_statusbar_temp_line_show");
+    static final PrefKey TEMP_OPPOSITE = PrefKey.bool("system_ui_statusbar_temp_opposite");
+    static final PrefKey TEMP_UPDATE_SPACING = PrefKey.integer("system_ui_statusbar_temp_update_spacing", 2);
+
+    static final String BATTERY_UEVENT = "/sys/class/power_supply/battery/uevent";
+    static final char DECIMAL_SEPARATOR = DecimalFormatSymbols.getInstance().getDecimalSeparator();
+
     boolean showDeviceTemp;
     boolean showBatteryDetail;
     boolean isTempAtRight;
@@ -225,9 +240,8 @@ public class DisplayHardwareDetail extends BaseHook {
             }
         });
 
+        if (!showBatteryDetail && !showDeviceTemp) return;
         Helpers.hookAllConstructors("com.android.systemui.statusbar.policy.NetworkSpeedController", lpparam.classLoader, new Helpers.MethodHook() {
-            Handler mBgHandler;
-
             @Override
             protected void after(MethodHookParam param) throws Throwable {
                 Context mContext = (Context) param.args[0];
@@ -245,171 +259,140 @@ public class DisplayHardwareDetail extends BaseHook {
                         }
                     }
                 };
-                mBgHandler = new Handler((Looper) param.args[1]) {
-                    @SuppressLint("DefaultLocale")
-                    public void handleMessage(@NonNull Message message) {
-                        String subKey = "";
-                        if (message.what == 200021) {
-                            String batteryInfo = "";
-                            String deviceInfo = "";
-                            boolean showBatteryInfo = showBatteryDetail;
-                            if (showBatteryInfo && mPrefsMap.getBoolean("system_ui_statusbar_battery_only_changing_show") && mFinalChargeUtils != null) {
-                                Object batteryStatus = Helpers.getStaticObjectFieldSilently(mFinalChargeUtils, "sBatteryStatus");
-                                if (batteryStatus == null) {
-                                    showBatteryInfo = false;
-                                } else {
-                                    showBatteryInfo = (boolean) XposedHelpers.callMethod(batteryStatus, "isCharging");
-                                }
-                            }
-                            if (showBatteryInfo || showDeviceTemp) {
-                                Properties props = null;
-                                String cpuProps = null;
-                                PowerManager powerMgr = (PowerManager) mContext.getSystemService(Context.POWER_SERVICE);
-                                boolean isScreenOn = powerMgr.isInteractive();
-                                if (isScreenOn) {
-                                    FileInputStream fis = null;
-                                    RandomAccessFile cpuReader = null;
-                                    try {
-                                        fis = new FileInputStream("/sys/class/power_supply/battery/uevent");
-                                        props = new Properties();
-                                        props.load(fis);
-                                        if (showDeviceTemp) {
-                                            cpuReader = new RandomAccessFile("/sys/devices/virtual/thermal/thermal_zone0/temp", "r");
-                                            if (!Objects.equals(mPrefsMap.getString("system_ui_statusbar_temp_fix_cpu_get", "0"), "")) {
-                                                try {
-                                                    cpuReader = new RandomAccessFile("/sys/devices/virtual/thermal/thermal_zone" + mPrefsMap.getString("system_ui_statusbar_temp_fix_cpu_get", "0") + "/temp", "r");
-                                                } catch (FileNotFoundException e) {
-                                                    XposedLogUtils.logI("get /sys/devices/virtual/thermal/thermal_zone*/temp (" + mPrefsMap.getString("system_ui_statusbar_temp_fix_cpu_get", "0") + ") failed: " + e);
-                                                }
-                                            }
-                                            cpuProps = cpuReader.readLine();
-                                        }
-                                    } catch (Throwable ignored) {
-                                    } finally {
-                                        try {
-                                            if (fis != null) {
-                                                fis.close();
-                                            }
-                                            if (cpuReader != null) {
-                                                cpuReader.close();
-                                            }
-                                        } catch (Throwable ignored) {
-                                        }
-                                    }
-                                }
-                                if (showBatteryInfo && props != null) {
-                                    String currVal;
-                                    int rawCurr = 0;
-                                    try {
-                                        rawCurr = -1 * Math.round(Integer.parseInt(props.getProperty("POWER_SUPPLY_CURRENT_NOW")) / 1000f);// 概率fc
-                                    } catch (NumberFormatException e) {
-                                        XposedLogUtils.logI("get POWER_SUPPLY_CURRENT_NOW failed: " + e);
-                                    }
-                                    String preferred = "mA";
-                                    if (mPrefsMap.getBoolean("system_ui_statusbar_battery_electric_current")) { // 电流始终显示正值
-                                        rawCurr = Math.abs(rawCurr);
-                                    }
-                                    if (Math.abs(rawCurr) > 999) {
-                                        currVal = String.format("%.2f", rawCurr / 1000f);
-                                        preferred = "A";
-                                    } else {
-                                        currVal = "" + rawCurr;
-                                    }
-                                    int opt = mPrefsMap.getStringAsInt("system_ui_statusbar_battery_show", 1); // 电池显示内容
-                                    int hideUnit = mPrefsMap.getStringAsInt("system_ui_statusbar_battery_disable", 0);
-                                    String powerUnit = (hideUnit == 1 || hideUnit == 2) ? "" : "W";
-                                    String currUnit = (hideUnit == 1 || hideUnit == 3) ? "" : preferred;
-                                    if (opt == 1) {
-                                        float voltVal = 0f;
-                                        String powerNow;
-                                        try {
-                                            powerNow = props.getProperty("POWER_SUPPLY_VOLTAGE_NOW");
-                                        } catch (Exception e) {
-                                            throw new RuntimeException(e);
-                                        }
-                                        if (powerNow != null)
-                                            voltVal = Integer.parseInt(powerNow) / 1000f / 1000f;
-                                        String simpleWatt = String.format(Locale.getDefault(), "%.2f", Math.abs(voltVal * rawCurr) / 1000);
-                                        String splitChar = mPrefsMap.getBoolean("system_ui_statusbar_battery_line_show")
-                                            ? " " : "\n";
-                                        batteryInfo = simpleWatt + powerUnit + splitChar + currVal + currUnit;
-                                        if (mPrefsMap.getBoolean("system_ui_statusbar_battery_opposite")) {
-                                            batteryInfo = currVal + currUnit + splitChar + simpleWatt + powerUnit;
-                                        }
-                                    } else if (opt == 2) {
-                                        float voltVal = 0f;
-                                        String powerNow;
-                                        try {
-                                            powerNow = props.getProperty("POWER_SUPPLY_VOLTAGE_NOW");
-                                        } catch (Exception e) {
-                                            throw new RuntimeException(e);
-                                        }
-                                        if (powerNow != null)
-                                            voltVal = Integer.parseInt(powerNow) / 1000f / 1000f;
-                                        String simpleWatt = String.format(Locale.getDefault(), "%.2f", Math.abs(voltVal * rawCurr) / 1000);
-                                        batteryInfo = simpleWatt + powerUnit;
-                                    } else {
-                                        batteryInfo = currVal + currUnit;
-                                    }
-                                }
-                                if (showDeviceTemp && props != null && cpuProps != null) {
-                                    int batteryTempVal = 0;
-                                    String powerTempNow;
-                                    try {
-                                        powerTempNow = props.getProperty("POWER_SUPPLY_TEMP");
-                                    } catch (Exception e) {
-                                        throw new RuntimeException(e);
-                                    }
-                                    if (powerTempNow != null)
-                                        batteryTempVal = Integer.parseInt(powerTempNow);
-                                    int cpuTempVal = Integer.parseInt(cpuProps);
-                                    boolean DecimalPlacesOr = mPrefsMap.getBoolean("system_ui_statusbar_temp_decimal_places");
-                                    String DecimalPlaces = DecimalPlacesOr ? "%.0f" : "%.1f";
-                                    String simpleBatteryTemp = String.format(Locale.getDefault(), DecimalPlaces, batteryTempVal / 10f);
-                                    String simpleCpuTemp = String.format(Locale.getDefault(), DecimalPlaces, cpuTempVal / 1000f);
-                                    int opt = mPrefsMap.getStringAsInt("system_ui_statusbar_temp_show", 1);
-                                    boolean hideUnit = mPrefsMap.getBoolean("system_ui_statusbar_temp_disable");
-                                    String tempUnit = hideUnit ? "" : "℃";
-                                    if (opt == 1) {
-                                        String splitChar = mPrefsMap.getBoolean("system_ui_statusbar_temp_line_show")
-                                            ? " " : "\n";
-                                        deviceInfo = simpleBatteryTemp + tempUnit + splitChar + simpleCpuTemp + tempUnit;
-                                        if (mPrefsMap.getBoolean("system_ui_statusbar_temp_opposite")) {
-                                            deviceInfo = simpleCpuTemp + tempUnit + splitChar + simpleBatteryTemp + tempUnit;
-                                        }
-                                    } else if (opt == 2) {
-                                        deviceInfo = simpleBatteryTemp + tempUnit;
-                                    } else {
-                                        deviceInfo = simpleCpuTemp + tempUnit;
-                                    }
-                                }
-                            }
-                            if (showBatteryDetail) {
-                                TextIconInfo tii = new TextIconInfo();
-                                tii.iconShow = showBatteryInfo;
-                                tii.iconText = batteryInfo;
-                                tii.iconType = 91;
-                                subKey = "battery";
-                                mHandler.obtainMessage(100021, tii).sendToTarget();
-                            }
-                            if (showDeviceTemp) {
-                                TextIconInfo tii = new TextIconInfo();
-                                tii.iconShow = showDeviceTemp;
-                                tii.iconText = deviceInfo;
-                                tii.iconType = 92;
-                                subKey = "temp";
-                                mHandler.obtainMessage(100021, tii).sendToTarget();
+                HardwareSampler sampler = HardwareSampler.getInstance();
+                int currentId = sampler.registerUevent(BATTERY_UEVENT, "POWER_SUPPLY_CURRENT_NOW");
+                int voltageId = sampler.registerUevent(BATTERY_UEVENT, "POWER_SUPPLY_VOLTAGE_NOW");
+                int batteryTempId = sampler.registerUevent(BATTERY_UEVENT, "POWER_SUPPLY_TEMP");
+                int cpuTempId = sampler.registerNode(getCpuTempPath());
+                int[] probes = showDeviceTemp ? new int[]{currentId, voltageId, batteryTempId, cpuTempId} : new int[]{currentId, voltageId};
+                PrefKey updateSpacing = showDeviceTemp ? TEMP_UPDATE_SPACING : BATTERY_UPDATE_SPACING;
+                StringBuilder sb = new StringBuilder(32);
+
+                sampler.subscribe(mContext, s -> {
+                    String batteryInfo = "";
+                    String deviceInfo = "";
+                    boolean showBatteryInfo = showBatteryDetail;
+                    if (showBatteryInfo && mPrefsMap.getBoolean(BATTERY_ONLY_CHARGING) && mFinalChargeUtils != null) {
+                        Object batteryStatus = Helpers.getStaticObjectFieldSilently(mFinalChargeUtils, "sBatteryStatus");
+                        if (batteryStatus == null) {
+                            showBatteryInfo = false;
+                        } else {
+                            showBatteryInfo = (boolean) XposedHelpers.callMethod(batteryStatus, "isCharging");
+                        }
+                    }
+                    if (showBatteryInfo && s.hasValue(currentId)) {
+                        int rawCurr = -1 * Math.round(s.getValue(currentId) / 1000f);
+                        if (mPrefsMap.getBoolean(BATTERY_ABS_CURRENT)) { // 电流始终显示正值
+                            rawCurr = Math.abs(rawCurr);
+                        }
+                        float voltVal = s.hasValue(voltageId) ? s.getValue(voltageId) / 1000f / 1000f : 0f;
+                        int opt = mPrefsMap.getInt(BATTERY_SHOW); // 电池显示内容
+                        int hideUnit = mPrefsMap.getInt(BATTERY_HIDE_UNIT);
+                        boolean showPowerUnit = !(hideUnit == 1 || hideUnit == 2);
+                        boolean showCurrUnit = !(hideUnit == 1 || hideUnit == 3);
+                        sb.setLength(0);
+                        if (opt == 1) {
+                            char splitChar = mPrefsMap.getBoolean(BATTERY_SINGLE_ROW) ? ' ' : '\n';
+                            if (mPrefsMap.getBoolean(BATTERY_OPPOSITE)) {
+                                appendCurrent(sb, rawCurr, showCurrUnit);
+                                sb.append(splitChar);
+                                appendPower(sb, voltVal, rawCurr, showPowerUnit);
+                            } else {
+                                appendPower(sb, voltVal, rawCurr, showPowerUnit);
+                                sb.append(splitChar);
+                                appendCurrent(sb, rawCurr, showCurrUnit);
                             }
+                        } else if (opt == 2) {
+                            appendPower(sb, voltVal, rawCurr, showPowerUnit);
+                        } else {
+                            appendCurrent(sb, rawCurr, showCurrUnit);
                         }
-                        mBgHandler.removeMessages(200021);
-                        mBgHandler.sendEmptyMessageDelayed(200021, mPrefsMap.getInt("system_ui_statusbar_" + subKey + "_update_spacing", 2) * 1000L);
+                        batteryInfo = sb.toString();
                     }
-                };
-                mBgHandler.sendEmptyMessage(200021);
+                    if (showDeviceTemp && s.hasValue(cpuTempId)) {
+                        float batteryTempVal = s.hasValue(batteryTempId) ? s.getValue(batteryTempId) / 10f : 0f;
+                        float cpuTempVal = s.getValue(cpuTempId) / 1000f;
+                        int decimals = mPrefsMap.getBoolean(TEMP_DECIMAL_PLACES) ? 0 : 1;
+                        int opt = mPrefsMap.getInt(TEMP_SHOW);
+                        String tempUnit = mPrefsMap.getBoolean(TEMP_HIDE_UNIT) ? "" : "℃";
+                        sb.setLength(0);
+                        if (opt == 1) {
+                            char splitChar = mPrefsMap.getBoolean(TEMP_SINGLE_ROW) ? ' ' : '\n';
+                            boolean opposite = mPrefsMap.getBoolean(TEMP_OPPOSITE);
+                            appendFixed(sb, opposite ? cpuTempVal : batteryTempVal, decimals);
+                            sb.append(tempUnit).append(splitChar);
+                            appendFixed(sb, opposite ? batteryTempVal : cpuTempVal, decimals);
+                            sb.append(tempUnit);
+                        } else if (opt == 2) {
+                            appendFixed(sb, batteryTempVal, decimals);
+                            sb.append(tempUnit);
+                        } else {
+                            appendFixed(sb, cpuTempVal, decimals);
+                            sb.append(tempUnit);
+                        }
+                        deviceInfo = sb.toString();
+                    }
+                    if (showBatteryDetail) {
+                        TextIconInfo tii = new TextIconInfo();
+                        tii.iconShow = showBatteryInfo;
+                        tii.iconText = batteryInfo;
+                        tii.iconType = 91;
+                        mHandler.obtainMessage(100021, tii).sendToTarget();
+                    }
+                    if (showDeviceTemp) {
+                        TextIconInfo tii = new TextIconInfo();
+                        tii.iconShow = showDeviceTemp;
+                        tii.iconText = deviceInfo;
+                        tii.iconType = 92;
+                        mHandler.obtainMessage(100021, tii).sendToTarget();
+                    }
+                }, mPrefsMap.getInt(updateSpacing) * 1000L, probes);
             }
         });
     }
 
+    private String getCpuTempPath() {
+        String zone = mPrefsMap.getString(TEMP_FIX_CPU_GET);
+        if (!Objects.equals(zone, "")) {
+            String path = "/sys/devices/virtual/thermal/thermal_zone" + zone + "/temp";
+            if (new File(path).exists()) return path;
+            XposedLogUtils.logI("get /sys/devices/virtual/thermal/thermal_zone*/temp (" + zone + ") failed");
+        }
+        return "/sys/devices/virtual/thermal/thermal_zone0/temp";
+    }
+
+    // 以下格式化方法直接写入复用的 StringBuilder，代替每次刷新调用 String.format
+    private static void appendPower(StringBuilder sb, float voltVal, int rawCurr, boolean showUnit) {
+        appendFixed(sb, Math.abs(voltVal * rawCurr) / 1000, 2);
+        if (showUnit) sb.append('W');
+    }
+
+    private static void appendCurrent(StringBuilder sb, int rawCurr, boolean showUnit) {
+        if (Math.abs(rawCurr) > 999) {
+            appendFixed(sb, rawCurr / 1000f, 2);
+            if (showUnit) sb.append('A');
+        } else {
+            sb.append(rawCurr);
+            if (showUnit) sb.append("mA");
+        }
+    }
+
+    private static void appendFixed(StringBuilder sb, float value, int decimals) {
+        if (value < 0) {
+            sb.append('-');
+            value = -value;
+        }
+        int scale = decimals == 0 ? 1 : decimals == 1 ? 10 : 100;
+        long scaled = Math.round(value * scale);
+        sb.append(scaled / scale);
+        if (decimals > 0) {
+            long fraction = scaled % scale;
+            sb.append(DECIMAL_SEPARATOR);
+            if (decimals == 2 && fraction < 10) sb.append('0');
+            sb.append(fraction);
+        }
+    }
+
     @SuppressLint("DiscouragedApi")
     private TextView createBatteryDetailView(Context mContext, LinearLayout.LayoutParams lp, TextIcon ti) {
         Resources res = mContext.getResources();
@@ -8,18 +8,37 @@ import android.util.TypedValue;
 import android.view.Gravity;
 import android.view.View;
 import android.widget.FrameLayout;
+import android.widget.ImageView;
 import android.widget.LinearLayout;
 
 import com.sevtinge.cemiuiler.module.base.BaseHook;
+import com.sevtinge.cemiuiler.utils.FieldAccessor;
 import com.sevtinge.cemiuiler.utils.Helpers;
 
-import java.util.HashMap;
 import java.util.List;
 
 import de.robv.android.xposed.XposedHelpers;
 
 public class DualRowSignalHook extends BaseHook {
 
+    // MobileIconState
+    private static final FieldAccessor mVisible = new FieldAccessor("visible");
+    private static final FieldAccessor mAirplane = new FieldAccessor("airplane");
+    private static final FieldAccessor mStrengthId = new FieldAccessor("strengthId");
+    private static final FieldAccessor mDataConnected = new FieldAccessor("dataConnected");
+    private static final FieldAccessor mFiveGDrawableId = new FieldAccessor("fiveGDrawableId");
+    private static final FieldAccessor[] mSyncFields = {
+        new FieldAccessor("showName"), new FieldAccessor("activityIn"), new FieldAccessor("activityOut")
+    };
+
+    // StatusBarMobileView
+    private static final FieldAccessor mState = new FieldAccessor("mState");
+    private static final FieldAccessor mLight = new FieldAccessor("mLight");
+    private static final FieldAccessor mUseTint = new FieldAccessor("mUseTint");
+    private static final FieldAccessor mMobile = new FieldAccessor("mMobile");
+    private static final FieldAccessor mSmallHd = new FieldAccessor("mSmallHd");
+    private static final FieldAccessor mSmallRoaming = new FieldAccessor("mSmallRoaming");
+
     @Override
     public void init() {
         boolean mobileTypeSingle = mPrefsMap.getBoolean("system_ui_statusbar_mobile_type_enable"); // 移动网络类型单独显示
@@ -29,7 +48,8 @@ public class DualRowSignalHook extends BaseHook {
             mResHook.setDensityReplacement("com.android.systemui", "dimen", "status_bar_mobile_type_middle_to_strength_start", -0.4f);
         }
 
-        HashMap<String, Integer> dualSignalResMap = new HashMap<String, Integer>();
+        // [卡槽][信号等级][颜色模式]，颜色模式依次为 colorModeList 中的值
+        int[][][] dualSignalRes = new int[2][6][3];
         String[] colorModeList = {"", "dark", "tint"};
 //        String[] iconStyles = {"", "thick", "theme"};
         String selectedIconStyle = mPrefsMap.getString("system_ui_status_mobile_network_icon_style", ""); // 图标样式
@@ -46,11 +66,12 @@ public class DualRowSignalHook extends BaseHook {
                     Resources modRes = Helpers.getModuleRes(mContext);
                     for (int slot = 1; slot <= 2; slot++) {
                         for (int lvl = 0; lvl <= 5; lvl++) {
-                            for (String colorMode : colorModeList) {
+                            for (int mode = 0; mode < colorModeList.length; mode++) {
+                                String colorMode = colorModeList[mode];
                                 if (!selectedIconStyle.equals("theme") || !colorMode.equals("tint")) {
                                     String dualIconResName = "statusbar_signal_" + slot + "_" + lvl + (!colorMode.equals("") ? ("_" + colorMode) : "") + (!selectedIconStyle.equals("") ? ("_" + selectedIconStyle) : "");
                                     int iconResId = modRes.getIdentifier(dualIconResName, "drawable", Helpers.mAppModulePkg);
-                                    dualSignalResMap.put(dualIconResName, mResHook.addResource(dualIconResName, iconResId));
+                                    dualSignalRes[slot - 1][lvl][mode] = mResHook.addResource(dualIconResName, iconResId);
                                 }
                             }
                         }
@@ -85,24 +106,23 @@ public class DualRowSignalHook extends BaseHook {
                 if (iconStates.size() == 2) {
                     Object mainIconState = iconStates.get(0);
                     Object subIconState = iconStates.get(1);
-                    boolean subDataConnected = (boolean) XposedHelpers.getObjectField(subIconState, "dataConnected");
-                    XposedHelpers.setObjectField(subIconState, "visible", false);
-                    int mainSignalResId = (int) XposedHelpers.getObjectField(mainIconState, "strengthId");
-                    int subSignalResId = (int) XposedHelpers.getObjectField(subIconState, "strengthId");
+                    boolean subDataConnected = mDataConnected.getBoolean(subIconState);
+                    mVisible.setBoolean(subIconState, false);
+                    int mainSignalResId = mStrengthId.getInt(mainIconState);
+                    int subSignalResId = mStrengthId.getInt(subIconState);
                     int mainLevel = signalResToLevelMap.get(mainSignalResId);
                     int subLevel = signalResToLevelMap.get(subSignalResId);
                     int level;
                     if (subDataConnected) {
                         level = subLevel * 10 + mainLevel;
-                        String[] syncFields = {"showName", "activityIn", "activityOut"};
-                        for (String field : syncFields) {
-                            XposedHelpers.setObjectField(mainIconState, field, XposedHelpers.getObjectField(subIconState, field));
+                        for (FieldAccessor field : mSyncFields) {
+                            field.set(mainIconState, field.get(subIconState));
                         }
-                        XposedHelpers.setObjectField(mainIconState, "dataConnected", true);
+                        mDataConnected.setBoolean(mainIconState, true);
                     } else {
                         level = mainLevel * 10 + subLevel;
                     }
-                    XposedHelpers.setObjectField(mainIconState, "strengthId", level);
+                    mStrengthId.setInt(mainIconState, level);
                     param.args[1] = iconStates;
                 }
             }
@@ -112,14 +132,14 @@ public class DualRowSignalHook extends BaseHook {
             @Override
             protected void before(final MethodHookParam param) throws Throwable {
                 Object mobileIconState = param.args[0];
-                boolean visible = (boolean) XposedHelpers.getObjectField(mobileIconState, "visible");
-                boolean airplane = (boolean) XposedHelpers.getObjectField(mobileIconState, "airplane");
-                int level = (int) XposedHelpers.getObjectField(mobileIconState, "strengthId");
+                boolean visible = mVisible.getBoolean(mobileIconState);
+                boolean airplane = mAirplane.getBoolean(mobileIconState);
+                int level = mStrengthId.getInt(mobileIconState);
                 if (!visible || airplane || level == 0 || level > 100) {
                     XposedHelpers.setAdditionalInstanceField(param.thisObject, "subStrengthId", -1);
                 } else {
                     XposedHelpers.setAdditionalInstanceField(param.thisObject, "subStrengthId", level % 10);
-                    XposedHelpers.setObjectField(mobileIconState, "fiveGDrawableId", 0);
+                    mFiveGDrawableId.setInt(mobileIconState, 0);
                 }
             }
         };
@@ -128,10 +148,8 @@ public class DualRowSignalHook extends BaseHook {
             protected void after(final MethodHookParam param) throws Throwable {
                 int subStrengthId = (int) XposedHelpers.getAdditionalInstanceField(param.thisObject, "subStrengthId");
                 if (subStrengthId < 0) return;
-                Object mSmallHd = XposedHelpers.getObjectField(param.thisObject, "mSmallHd");
-                XposedHelpers.callMethod(mSmallHd, "setVisibility", 8);
-                Object mSmallRoaming = XposedHelpers.getObjectField(param.thisObject, "mSmallRoaming");
-                XposedHelpers.callMethod(mSmallRoaming, "setVisibility", 0);
+                ((View) mSmallHd.get(param.thisObject)).setVisibility(View.GONE);
+                ((View) mSmallRoaming.get(param.thisObject)).setVisibility(View.VISIBLE);
             }
         };
         Helpers.hookAllMethods("com.android.systemui.statusbar.StatusBarMobileView", lpparam.classLoader, "applyMobileState", beforeUpdate);
@@ -143,30 +161,18 @@ public class DualRowSignalHook extends BaseHook {
                 int subStrengthId = (int) XposedHelpers.getAdditionalInstanceField(param.thisObject, "subStrengthId");
                 if (subStrengthId < 0) return;
                 if (subStrengthId == 6) subStrengthId = 0;
-                Object mobileIconState = XposedHelpers.getObjectField(param.thisObject, "mState");
-                int level1 = (int) XposedHelpers.getObjectField(mobileIconState, "strengthId");
+                Object mobileIconState = mState.get(param.thisObject);
+                int level1 = mStrengthId.getInt(mobileIconState);
                 level1 = level1 / 10;
                 if (level1 == 6) level1 = 0;
-                boolean mLight = (boolean) XposedHelpers.getObjectField(param.thisObject, "mLight");
-                boolean mUseTint = (boolean) XposedHelpers.getObjectField(param.thisObject, "mUseTint");
-                Object mSmallRoaming = XposedHelpers.getObjectField(param.thisObject, "mSmallRoaming");
-                Object mMobile = XposedHelpers.getObjectField(param.thisObject, "mMobile");
-                String colorMode = "";
-                if (mUseTint && !selectedIconStyle.equals("theme")) {
-                    colorMode = "_tint";
-                } else if (!mLight) {
-                    colorMode = "_dark";
-                }
-                String iconStyle = "";
-                if (!selectedIconStyle.equals("")) {
-                    iconStyle = "_" + selectedIconStyle;
+                int colorMode = 0;
+                if (mUseTint.getBoolean(param.thisObject) && !selectedIconStyle.equals("theme")) {
+                    colorMode = 2;
+                } else if (!mLight.getBoolean(param.thisObject)) {
+                    colorMode = 1;
                 }
-                String sim1IconId = "statusbar_signal_1_" + level1 + colorMode + iconStyle;
-                String sim2IconId = "statusbar_signal_2_" + subStrengthId + colorMode + iconStyle;
-                int sim1ResId = dualSignalResMap.get(sim1IconId);
-                int sim2ResId = dualSignalResMap.get(sim2IconId);
-                XposedHelpers.callMethod(mMobile, "setImageResource", sim1ResId);
-                XposedHelpers.callMethod(mSmallRoaming, "setImageResource", sim2ResId);
+                ((ImageView) mMobile.get(param.thisObject)).setImageResource(dualSignalRes[0][level1][colorMode]);
+                ((ImageView) mSmallRoaming.get(param.thisObject)).setImageResource(dualSignalRes[1][subStrengthId][colorMode]);
             }
         };
         Helpers.findAndHookMethod("com.android.systemui.statusbar.StatusBarMobileView", lpparam.classLoader, "applyDarknessInternal", resetImageDrawable);
@@ -0,0 +1,88 @@
+package com.sevtinge.cemiuiler.module.hook.systemui.statusbar.clock
+
+import android.content.BroadcastReceiver
+import android.content.Context
+import android.content.Intent
+import android.content.IntentFilter
+import android.os.Handler
+import android.os.Looper
+import android.widget.TextView
+import com.sevtinge.cemiuiler.utils.log.XposedLogUtils
+import java.lang.ref.WeakReference
+import java.lang.reflect.Method
+
+/**
+ * 所有需要按秒刷新的时钟共用的调度器
+ *
+ * 在 SystemUI 主线程上按整秒对齐触发，只刷新可见的时钟，息屏时停止
+ */
+object ClockTicker {
+    private const val TAG = "ClockTicker"
+
+    private class Clock(view: TextView, val updateTime: Method) {
+        val view = WeakReference(view)
+    }
+
+    private val handler = Handler(Looper.getMainLooper())
+    private val clocks = ArrayList<Clock>()
+    private var isScreenOn = true
+    private var isReceiverRegistered = false
+
+    private val tick = Runnable {
+        dispatch()
+        schedule()
+    }
+
+    fun register(view: TextView) {
+        handler.post {
+            try {
+                val updateTime = view.javaClass.getDeclaredMethod("updateTime").apply { isAccessible = true }
+                clocks.add(Clock(view, updateTime))
+                registerScreenReceiver(view.context)
+                schedule()
+            } catch (t: Throwable) {
+                XposedLogUtils.logE(TAG, t)
+            }
+        }
+    }
+
+    private fun registerScreenReceiver(context: Context) {
+        if (isReceiverRegistered) return
+        isReceiverRegistered = true
+        val filter = IntentFilter().apply {
+            addAction(Intent.ACTION_SCREEN_ON)
+            addAction(Intent.ACTION_SCREEN_OFF)
+        }
+        context.applicationContext.registerReceiver(object : BroadcastReceiver() {
+            override fun onReceive(context: Context, intent: Intent) {
+                isScreenOn = intent.action == Intent.ACTION_SCREEN_ON
+                if (isScreenOn) dispatch()
+                schedule()
+            }
+        }, filter, null, handler)
+    }
+
+    private fun dispatch() {
+        val iterator = clocks.iterator()
+        while (iterator.hasNext()) {
+            val clock = iterator.next()
+            val view = clock.view.get()
+            if (view == null) {
+                iterator.remove()
+                continue
+            }
+            if (!view.isShown) continue
+            try {
+                clock.updateTime.invoke(view)
+            } catch (t: Throwable) {
+                XposedLogUtils.logE(TAG, t)
+            }
+        }
+    }
+
+    private fun schedule() {
+        handler.removeCallbacks(tick)
+        if (!isScreenOn || clocks.isEmpty()) return
+        handler.postDelayed(tick, 1000 - System.currentTimeMillis() % 1000)
+    }
+}
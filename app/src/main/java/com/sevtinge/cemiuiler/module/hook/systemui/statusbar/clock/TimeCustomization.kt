@@ -2,7 +2,6 @@ package com.sevtinge.cemiuiler.module.hook.systemui.statusbar.clock
 
 import android.annotation.SuppressLint
 import android.content.Context
-import android.os.Handler
 import android.provider.Settings
 import android.util.TypedValue
 import android.widget.TextView
@@ -15,12 +14,11 @@ import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.callMethod
 import com.sevtinge.cemiuiler.utils.devicesdk.getAndroidVersion
 import com.sevtinge.cemiuiler.utils.getObjectField
-import java.lang.reflect.Method
 import java.text.SimpleDateFormat
 import java.util.Calendar
 import java.util.Date
-import java.util.Timer
-import java.util.TimerTask
+import java.util.Locale
+import java.util.TimeZone
 
 object TimeCustomization : BaseHook() {
     // 预设模式
@@ -41,14 +39,30 @@ object TimeCustomization : BaseHook() {
     private val getGeekClockSize = mPrefsMap.getInt("system_ui_statusbar_clock_size_geek", 0)
     private val getGeekFormat = mPrefsMap.getString("system_ui_statusbar_clock_editor", "HH:mm:ss")
 
+    private val DOUBLE_HOURS = arrayOf("子时", "丑时", "寅时", "卯时", "辰时", "巳时", "午时", "未时", "申时", "酉时", "戌时", "亥时")
+
     private val mClockClass = when {
         getAndroidVersion() >= 31 -> loadClass("com.android.systemui.statusbar.views.MiuiClock")
         else -> loadClass("com.android.systemui.statusbar.policy.MiuiClock")
     }
 
-    private lateinit var nowTime: Date
+    private val isGeekSecond = getGeekFormat?.contains('s') == true
+
+    private val nowTime = Date()
+    private val calendar = Calendar.getInstance()
     private var str = ""
 
+    // 缓存编译好的格式与上一次的结果，只在主线程使用
+    private var dateFormat: SimpleDateFormat? = null
+    private var dateFormatZh = false
+    private var timeFormat: SimpleDateFormat? = null
+    private var timeFormat24 = false
+    private var periodFormat: SimpleDateFormat? = null
+    private var formatLocale: Locale? = null
+    private var lastMinute = Long.MIN_VALUE
+    private var cachedKey = Long.MIN_VALUE
+    private var cachedText = ""
+
     @SuppressLint("SetTextI18n")
     override fun init() {
         when (getMode) {
@@ -78,20 +92,8 @@ object TimeCustomization : BaseHook() {
                                     textV.setTextSize(TypedValue.COMPLEX_UNIT_DIP, clockSize)
                                 }
                             }
-                            val d: Method = textV.javaClass.getDeclaredMethod("updateTime")
-                            val r = Runnable {
-                                d.isAccessible = true
-                                d.invoke(textV)
-                            }
-
-                            class T : TimerTask() {
-                                override fun run() {
-                                    Handler(textV.context.mainLooper).post(r)
-                                }
-                            }
-                            Timer().scheduleAtFixedRate(
-                                T(), 1000 - System.currentTimeMillis() % 1000, 1000
-                            )
+                            // 显示秒时才需要按秒刷新，否则 MiuiClock 自身每分钟刷新即可
+                            if (isSecond) ClockTicker.register(textV)
                         } catch (_: Exception) {
                         }
                     }
@@ -108,8 +110,7 @@ object TimeCustomization : BaseHook() {
                                     c!!.contentResolver, Settings.System.TIME_12_24
                                 )
                                 val is24 = t == "24"
-                                nowTime = Calendar.getInstance().time
-                                textV.text = getDate(c!!) + str + getTime(c!!, is24)
+                                textV.text = getClockText(c!!, is24)
                             }
                         } catch (_: Exception) {
                         }
@@ -135,20 +136,7 @@ object TimeCustomization : BaseHook() {
                                 textV.setTextSize(TypedValue.COMPLEX_UNIT_DIP, clockSize)
                             }
 
-                            val d: Method = textV.javaClass.getDeclaredMethod("updateTime")
-                            val r = Runnable {
-                                d.isAccessible = true
-                                d.invoke(textV)
-                            }
-
-                            class T : TimerTask() {
-                                override fun run() {
-                                    Handler(textV.context.mainLooper).post(r)
-                                }
-                            }
-                            Timer().scheduleAtFixedRate(
-                                T(), 1000 - System.currentTimeMillis() % 1000, 1000
-                            )
+                            if (isGeekSecond) ClockTicker.register(textV)
                         } catch (_: Exception) {
                         }
                     }
@@ -180,10 +168,46 @@ object TimeCustomization : BaseHook() {
         }
     }
 
+    /**
+     * 时间文本只在分钟（显示秒时为秒）、12/24 小时制或语言变化时重新格式化
+     */
+    private fun getClockText(context: Context, is24: Boolean): String {
+        val locale = context.resources.configuration.locales.get(0)
+        if (locale != formatLocale) {
+            // 语言变化后星期、上下午等文本需要重新生成格式
+            formatLocale = locale
+            dateFormat = null
+            timeFormat = null
+            periodFormat = null
+            cachedKey = Long.MIN_VALUE
+        }
+        val isZh = locale.language.endsWith("zh")
+        val now = System.currentTimeMillis()
+        val minute = now / 60000
+        if (minute != lastMinute) {
+            // 每分钟同步一次时区，避免缓存的格式仍使用旧时区
+            lastMinute = minute
+            val timeZone = TimeZone.getDefault()
+            calendar.timeZone = timeZone
+            dateFormat?.timeZone = timeZone
+            timeFormat?.timeZone = timeZone
+            periodFormat?.timeZone = timeZone
+        }
+        val unit = if (isSecond) now / 1000 else minute
+        val key = unit * 4 + (if (is24) 2 else 0) + (if (isZh) 1 else 0)
+        if (key != cachedKey) {
+            nowTime.time = now
+            calendar.timeInMillis = now
+            cachedText = getDate(isZh) + str + getTime(isZh, is24)
+            cachedKey = key
+        }
+        return cachedText
+    }
+
     @SuppressLint("SimpleDateFormat")
-    private fun getDate(context: Context): String {
+    private fun getDate(isZh: Boolean): String {
+        if (dateFormat != null && dateFormatZh == isZh) return dateFormat!!.format(nowTime)
         var datePattern = ""
-        val isZh = isZh(context)
 
         if (isYear) {
             if (isZh) {
@@ -215,17 +239,20 @@ object TimeCustomization : BaseHook() {
                 if (!isHideSpace) datePattern = "$datePattern "
             }
         }
-        datePattern = SimpleDateFormat(datePattern).format(nowTime)
-        return datePattern
+        dateFormat = SimpleDateFormat(datePattern)
+        dateFormatZh = isZh
+        return dateFormat!!.format(nowTime)
     }
 
     @SuppressLint("SimpleDateFormat")
-    private fun getTime(context: Context, t: Boolean): String {
-        var timePattern = ""
-        val isZh = isZh(context)
-        timePattern += if (t) "HH:mm" else "h:mm"
-        if (isSecond) timePattern += ":ss"
-        timePattern = SimpleDateFormat(timePattern).format(nowTime)
+    private fun getTime(isZh: Boolean, t: Boolean): String {
+        if (timeFormat == null || timeFormat24 != t) {
+            var pattern = if (t) "HH:mm" else "h:mm"
+            if (isSecond) pattern += ":ss"
+            timeFormat = SimpleDateFormat(pattern)
+            timeFormat24 = t
+        }
+        var timePattern = timeFormat!!.format(nowTime)
         if (isZh) timePattern = getPeriod(isZh) + timePattern else timePattern += getPeriod(isZh)
         timePattern = getDoubleHour() + timePattern
         return timePattern
@@ -236,33 +263,34 @@ object TimeCustomization : BaseHook() {
         var period = ""
         if (isPeriod) {
             if (isZh) {
-                when (SimpleDateFormat("HH").format(nowTime)) {
-                    "00", "01", "02", "03", "04", "05" -> {
+                when (calendar.get(Calendar.HOUR_OF_DAY)) {
+                    in 0..5 -> {
                         period = "凌晨"
                     }
 
-                    "06", "07", "08", "09", "10", "11" -> {
+                    in 6..11 -> {
                         period = "上午"
                     }
 
-                    "12" -> {
+                    12 -> {
                         period = "中午"
                     }
 
-                    "13", "14", "15", "16", "17" -> {
+                    in 13..17 -> {
                         period = "下午"
                     }
 
-                    "18" -> {
+                    18 -> {
                         period = "傍晚"
                     }
 
-                    "19", "20", "21", "22", "23" -> {
+                    in 19..23 -> {
                         period = "晚上"
                     }
                 }
             } else {
-                period = SimpleDateFormat("a").format(nowTime)
+                if (periodFormat == null) periodFormat = SimpleDateFormat("a")
+                period = periodFormat!!.format(nowTime)
                 if (!isHideSpace) {
                     period = " $period"
                 }
@@ -276,63 +304,12 @@ object TimeCustomization : BaseHook() {
     private fun getDoubleHour(): String {
         var doubleHour = ""
         if (isDoubleHour) {
-            when (SimpleDateFormat("HH").format(nowTime)) {
-                "23", "00" -> {
-                    doubleHour = "子时"
-                }
-
-                "01", "02" -> {
-                    doubleHour = "丑时"
-                }
-
-                "03", "04" -> {
-                    doubleHour = "寅时"
-                }
-
-                "05", "06" -> {
-                    doubleHour = "卯时"
-                }
-
-                "07", "08" -> {
-                    doubleHour = "辰时"
-                }
-
-                "09", "10" -> {
-                    doubleHour = "巳时"
-                }
-
-                "11", "12" -> {
-                    doubleHour = "午时"
-                }
-
-                "13", "14" -> {
-                    doubleHour = "未时"
-                }
-
-                "15", "16" -> {
-                    doubleHour = "申时"
-                }
-
-                "17", "18" -> {
-                    doubleHour = "酉时"
-                }
-
-                "19", "20" -> {
-                    doubleHour = "戌时"
-                }
-
-                "21", "22" -> {
-                    doubleHour = "亥时"
-                }
-            }
+            // 从子时（23 点）开始，每两个小时一个时辰
+            doubleHour = DOUBLE_HOURS[(calendar.get(Calendar.HOUR_OF_DAY) + 1) % 24 / 2]
             if (!isHideSpace) {
                 doubleHour += " "
             }
         }
         return doubleHour
     }
-
-    private fun isZh(context: Context): Boolean {
-        return context.resources.configuration.locales.get(0).language.endsWith("zh")
-    }
 }
@@ -1,20 +1,19 @@
 package com.sevtinge.cemiuiler.module.hook.systemui.statusbar.network
 
 import android.content.Context
-import android.net.ConnectivityManager
-import android.net.NetworkCapabilities
-import android.net.TrafficStats
-import android.util.Pair
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.github.kyuubiran.ezxhelper.finders.MethodFinder.`-Static`.methodFinder
 import com.sevtinge.cemiuiler.R
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.Helpers
+import com.sevtinge.cemiuiler.utils.PrefKey
 import com.sevtinge.cemiuiler.utils.devicesdk.getAndroidVersion
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils
 import de.robv.android.xposed.XposedHelpers
-import java.net.NetworkInterface
+import java.text.DecimalFormatSymbols
+import java.util.Locale
 import kotlin.math.pow
+import kotlin.math.roundToInt
 import kotlin.math.roundToLong
 
 object NetworkSpeed : BaseHook() {
@@ -28,6 +27,10 @@ object NetworkSpeed : BaseHook() {
     private var txArrow = ""
     private var rxArrow = ""
 
+    // 每次刷新网速都会读取的设置项
+    private val hideSecUnitKey = PrefKey.bool("system_ui_statusbar_network_speed_sec_unit")
+    private val fakeDualRowKey = PrefKey.bool("system_ui_statusbar_network_speed_fakedualrow")
+
     //  隐藏慢速
     private val hideLow by lazy {
         mPrefsMap.getBoolean("system_ui_statusbar_network_speed_hide")
@@ -57,50 +60,53 @@ object NetworkSpeed : BaseHook() {
         mPrefsMap.getString("system_ui_statusbar_network_speed_icon", "2").toInt()
     }
 
-    private fun getTrafficBytes(): Pair<Long, Long> {
-        var tx = -1L
-        var rx = -1L
-        try {
-            val list = NetworkInterface.getNetworkInterfaces()
-            while (list.hasMoreElements()) {
-                val iFace = list.nextElement()
-                if (iFace.isUp && !iFace.isVirtual && !iFace.isLoopback && !iFace.isPointToPoint && "" != iFace.name) {
-                    tx +=
-                        XposedHelpers.callStaticMethod(TrafficStats::class.java, "getTxBytes", iFace.name) as Long
-                    rx +=
-                        XposedHelpers.callStaticMethod(TrafficStats::class.java, "getRxBytes", iFace.name) as Long
-                }
-            }
-        } catch (t: Throwable) {
-            XposedLogUtils.logE(TAG, t)
-            tx = TrafficStats.getTotalTxBytes()
-            rx = TrafficStats.getTotalRxBytes()
-        }
-        return Pair(tx, rx)
-    }
+    // 复用的格式化缓冲区与单位字符串，避免每次刷新都查询资源和 String.format
+    // 单位字符串与小数点随语言变化，按 Locale 缓存，语言切换后重新读取
+    private val speedBuilder = StringBuilder(32)
+    private var unitsLocale: Locale? = null
+    private var unitSuffix: String? = null
+    private var speedUnits: String? = null
+    private var decimalSeparator = '.'
 
     //  网速计算与隐藏相关
-    private fun humanReadableByteCount(ctx: Context, bytes: Long): String {
-        return try {
-            val modRes = Helpers.getModuleRes(ctx)
-            val hideSecUnit = mPrefsMap.getBoolean("system_ui_statusbar_network_speed_sec_unit")
-            var unitSuffix = modRes.getString(R.string.system_ui_statusbar_network_speed_Bs)
-            if (hideSecUnit) unitSuffix = ""
+    private fun appendByteCount(sb: StringBuilder, ctx: Context, bytes: Long) {
+        try {
+            val locale = ctx.resources.configuration.locales[0]
+            if (speedUnits == null || locale != unitsLocale) {
+                val modRes = Helpers.getModuleRes(ctx)
+                unitSuffix = modRes.getString(R.string.system_ui_statusbar_network_speed_Bs)
+                speedUnits = modRes.getString(R.string.system_ui_statusbar_network_speed_speedunits)
+                decimalSeparator = DecimalFormatSymbols.getInstance(locale).decimalSeparator
+                unitsLocale = locale
+            }
             var f = bytes / 1024.0f
             var expIndex = 0
             if (f > 999.0f) {
                 expIndex = 1
                 f /= 1024.0f
             }
-            val pre = modRes.getString(R.string.system_ui_statusbar_network_speed_speedunits)[expIndex]
-            if (mPrefsMap.getBoolean("system_ui_statusbar_network_speed_fakedualrow")) {
-                (if (f < 100.0f) String.format("%.1f", f) else String.format("%.0f", f)) + "\n" + String.format("%s$unitSuffix", pre)
+            if (f < 100.0f) {
+                val tenths = (f * 10).roundToInt()
+                sb.append(tenths / 10).append(decimalSeparator).append(tenths % 10)
             } else {
-                (if (f < 100.0f) String.format("%.1f", f) else String.format("%.0f", f)) + String.format("%s$unitSuffix", pre)
+                sb.append(f.roundToInt())
             }
+            if (mPrefsMap.getBoolean(fakeDualRowKey)) sb.append('\n')
+            sb.append(speedUnits!![expIndex])
+            if (!mPrefsMap.getBoolean(hideSecUnitKey)) sb.append(unitSuffix)
         } catch (t: Throwable) {
             XposedLogUtils.logE(TAG, t)
-            ""
+        }
+    }
+
+    private fun appendDirection(sb: StringBuilder, ctx: Context, speed: Long, arrow: String) {
+        if (hideLow && !allHideLow && speed < lowLevel) return
+        if (swapPlaces) {
+            sb.append(arrow)
+            appendByteCount(sb, ctx, speed)
+        } else {
+            appendByteCount(sb, ctx, speed)
+            sb.append(arrow)
         }
     }
 
@@ -122,9 +128,9 @@ object NetworkSpeed : BaseHook() {
                 name == "getTotalByte"
             }.createHook {
                 after {
-                    val bytes = getTrafficBytes()
-                    txBytesTotal = bytes.first
-                    rxBytesTotal = bytes.second
+                    NetworkSpeedSampler.sample()
+                    txBytesTotal = NetworkSpeedSampler.txBytes
+                    rxBytesTotal = NetworkSpeedSampler.rxBytes
                     measureTime = System.nanoTime()
                 }
             }
@@ -133,29 +139,16 @@ object NetworkSpeed : BaseHook() {
                 name == "updateNetworkSpeed"
             }.createHook {
                 before {
-                    var isConnected = false
                     val mContext =
                         XposedHelpers.getObjectField(it.thisObject, "mContext") as Context
-                    val mConnectivityManager =
-                        mContext.getSystemService(Context.CONNECTIVITY_SERVICE) as ConnectivityManager
-                    val nw = mConnectivityManager.activeNetwork
-                    if (nw != null) {
-                        val capabilities = mConnectivityManager.getNetworkCapabilities(nw)
-                        if (capabilities != null && (!(!
-                            capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI) &&
-                                !capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR)))
-                        ) {
-                            isConnected = true
-                        }
-                    }
-                    if (isConnected) {
+                    if (NetworkSpeedSampler.isConnected(mContext)) {
                         val nanoTime = System.nanoTime()
                         var newTime = nanoTime - measureTime
                         measureTime = nanoTime
                         if (newTime == 0L) newTime = (4 * 10.0.pow(9.0)).roundToLong()
-                        val bytes = getTrafficBytes()
-                        val newTxBytes = bytes.first
-                        val newRxBytes = bytes.second
+                        NetworkSpeedSampler.sample()
+                        val newTxBytes = NetworkSpeedSampler.txBytes
+                        val newRxBytes = NetworkSpeedSampler.rxBytes
                         newTxBytesFixed = newTxBytes - txBytesTotal
                         newRxBytesFixed = newRxBytes - rxBytesTotal
                         if (newTxBytesFixed < 0 || txBytesTotal == 0L) newTxBytesFixed = 0
@@ -204,32 +197,6 @@ object NetworkSpeed : BaseHook() {
                         }
                     }
 
-                    // 计算上行网速
-                    val tx =
-                        if (hideLow && !allHideLow && txSpeed < lowLevel)
-                            ""
-                        else {
-                            if (swapPlaces)
-                                "$txArrow${humanReadableByteCount(it.args[0] as Context, txSpeed)}"
-                            else
-                                "${humanReadableByteCount(it.args[0] as Context, txSpeed)}$txArrow"
-                        }
-                    // 计算下行网速
-                    val rx =
-                        if (hideLow && !allHideLow && rxSpeed < lowLevel)
-                            ""
-                        else {
-                            if (swapPlaces)
-                                "$rxArrow${humanReadableByteCount(it.args[0] as Context, rxSpeed)}"
-                            else
-                                "${humanReadableByteCount(it.args[0] as Context, rxSpeed)}$rxArrow"
-                        }
-                    // 计算总网速
-                    val ax =
-                        humanReadableByteCount(
-                            it.args[0] as Context,
-                            newTxBytesFixed + newRxBytesFixed
-                        )
                     // 存储是否隐藏慢速的条件的结果
                     val isLowSpeed = hideLow && (txSpeed + rxSpeed) < lowLevel
                     val isAllLowSpeed =
@@ -238,20 +205,25 @@ object NetworkSpeed : BaseHook() {
                     when {
                         // 如果显示上下行网速并且不开值和单位双排显示，返回上下行网速的字符串
                         doubleUpDown && !fakeDualRow -> {
-                            if (isLowSpeed && !isAllLowSpeed) {
-                                it.result = ""
-                            } else if (isAllLowSpeed) {
+                            if (isLowSpeed || isAllLowSpeed) {
                                 it.result = ""
-                            } else {
-                                it.result = "$tx\n$rx"
+                            } else synchronized(speedBuilder) {
+                                val ctx = it.args[0] as Context
+                                speedBuilder.setLength(0)
+                                appendDirection(speedBuilder, ctx, txSpeed, txArrow)
+                                speedBuilder.append('\n')
+                                appendDirection(speedBuilder, ctx, rxSpeed, rxArrow)
+                                it.result = speedBuilder.toString()
                             }
                         }
                         // 如果开启值和单位双排显示，返回总网速的字符串
                         fakeDualRow -> {
                             if (isLowSpeed) {
                                 it.result = ""
-                            } else {
-                                it.result = ax
+                            } else synchronized(speedBuilder) {
+                                speedBuilder.setLength(0)
+                                appendByteCount(speedBuilder, it.args[0] as Context, newTxBytesFixed + newRxBytesFixed)
+                                it.result = speedBuilder.toString()
                             }
                         }
                         // 其他情况，对隐藏慢速判定，返回空字符串，其余不返回
@@ -0,0 +1,205 @@
+package com.sevtinge.cemiuiler.module.hook.systemui.statusbar.network
+
+import android.content.Context
+import android.net.ConnectivityManager
+import android.net.LinkProperties
+import android.net.Network
+import android.net.NetworkCapabilities
+import android.net.TrafficStats
+import com.sevtinge.cemiuiler.utils.log.XposedLogUtils
+import java.io.RandomAccessFile
+import java.lang.reflect.Method
+import java.net.NetworkInterface
+
+/**
+ * 网速采样器
+ *
+ * 复用缓冲区解析 /proc/net/dev，参与统计的网卡列表只在网络变化时重新计算；
+ * /proc/net/dev 不可读时退回到缓存的 TrafficStats 方法句柄
+ */
+object NetworkSpeedSampler {
+    private const val TAG = "NetworkSpeedSampler"
+    private const val PROC_NET_DEV = "/proc/net/dev"
+
+    var txBytes = 0L
+        private set
+    var rxBytes = 0L
+        private set
+
+    @Volatile
+    private var isConnected = false
+
+    @Volatile
+    private var isNetworkCallbackRegistered = false
+
+    @Volatile
+    private var isIfaceDirty = true
+    private var ifaceNames: Array<String> = emptyArray()
+    private var ifaceBytes: Array<ByteArray> = emptyArray()
+
+    private var procReader: RandomAccessFile? = null
+    private var isProcAvailable = true
+    private var buffer = ByteArray(4096)
+
+    private val getTxBytes: Method? by lazy {
+        runCatching { TrafficStats::class.java.getDeclaredMethod("getTxBytes", String::class.java) }.getOrNull()
+    }
+    private val getRxBytes: Method? by lazy {
+        runCatching { TrafficStats::class.java.getDeclaredMethod("getRxBytes", String::class.java) }.getOrNull()
+    }
+
+    private val networkCallback = object : ConnectivityManager.NetworkCallback() {
+        override fun onCapabilitiesChanged(network: Network, capabilities: NetworkCapabilities) {
+            isConnected = capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI) ||
+                capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR)
+            isIfaceDirty = true
+        }
+
+        override fun onLinkPropertiesChanged(network: Network, linkProperties: LinkProperties) {
+            isIfaceDirty = true
+        }
+
+        override fun onLost(network: Network) {
+            isConnected = false
+            isIfaceDirty = true
+        }
+    }
+
+    /**
+     * 当前默认网络是否为 Wi-Fi 或移动数据，由 NetworkCallback 维护，不再每次刷新都查询 ConnectivityManager
+     */
+    fun isConnected(context: Context): Boolean {
+        if (!isNetworkCallbackRegistered) register(context)
+        return isConnected
+    }
+
+    @Synchronized
+    private fun register(context: Context) {
+        if (isNetworkCallbackRegistered) return
+        val connectivityManager = context.getSystemService(Context.CONNECTIVITY_SERVICE) as ConnectivityManager
+        connectivityManager.activeNetwork?.let { network ->
+            connectivityManager.getNetworkCapabilities(network)?.let { networkCallback.onCapabilitiesChanged(network, it) }
+        }
+        try {
+            connectivityManager.registerDefaultNetworkCallback(networkCallback)
+            isNetworkCallbackRegistered = true
+        } catch (t: Throwable) {
+            XposedLogUtils.logE(TAG, t)
+        }
+    }
+
+    /**
+     * 采样当前总流量，结果保存在 txBytes / rxBytes
+     */
+    @Synchronized
+    fun sample() {
+        if (isIfaceDirty) updateIfaces()
+        if (isProcAvailable && readProcNetDev()) return
+        try {
+            val txMethod = getTxBytes!!
+            val rxMethod = getRxBytes!!
+            var tx = 0L
+            var rx = 0L
+            for (name in ifaceNames) {
+                tx += txMethod.invoke(null, name) as Long
+                rx += rxMethod.invoke(null, name) as Long
+            }
+            txBytes = tx
+            rxBytes = rx
+        } catch (t: Throwable) {
+            XposedLogUtils.logE(TAG, t)
+            txBytes = TrafficStats.getTotalTxBytes()
+            rxBytes = TrafficStats.getTotalRxBytes()
+        }
+    }
+
+    private fun updateIfaces() {
+        isIfaceDirty = false
+        val names = ArrayList<String>()
+        try {
+            val list = NetworkInterface.getNetworkInterfaces()
+            while (list.hasMoreElements()) {
+                val iFace = list.nextElement()
+                if (iFace.isUp && !iFace.isVirtual && !iFace.isLoopback && !iFace.isPointToPoint && "" != iFace.name) {
+                    names.add(iFace.name)
+                }
+            }
+        } catch (t: Throwable) {
+            XposedLogUtils.logE(TAG, t)
+        }
+        ifaceNames = names.toTypedArray()
+        ifaceBytes = Array(names.size) { names[it].toByteArray() }
+    }
+
+    private fun readProcNetDev(): Boolean {
+        try {
+            val reader = procReader ?: RandomAccessFile(PROC_NET_DEV, "r").also { procReader = it }
+            reader.seek(0)
+            var length = 0
+            while (true) {
+                if (length == buffer.size) buffer = buffer.copyOf(buffer.size * 2)
+                val read = reader.read(buffer, length, buffer.size - length)
+                if (read <= 0) break
+                length += read
+            }
+            parse(length)
+            return true
+        } catch (t: Throwable) {
+            XposedLogUtils.logE(TAG, "read $PROC_NET_DEV failed: $t")
+            isProcAvailable = false
+            runCatching { procReader?.close() }
+            procReader = null
+            return false
+        }
+    }
+
+    // 格式：iface: rx_bytes rx_packets ... (8 项) tx_bytes tx_packets ... (8 项)
+    private fun parse(length: Int) {
+        var tx = 0L
+        var rx = 0L
+        var pos = 0
+        var line = 0
+        while (pos < length) {
+            val lineEnd = indexOf('\n'.code.toByte(), pos, length)
+            if (line++ >= 2) {
+                var nameStart = pos
+                while (nameStart < lineEnd && buffer[nameStart] == ' '.code.toByte()) nameStart++
+                val colon = indexOf(':'.code.toByte(), nameStart, lineEnd)
+                if (colon < lineEnd && isTrackedIface(nameStart, colon)) {
+                    var fieldPos = colon + 1
+                    var field = 0
+                    while (field <= 8 && fieldPos < lineEnd) {
+                        while (fieldPos < lineEnd && buffer[fieldPos] == ' '.code.toByte()) fieldPos++
+                        var value = 0L
+                        while (fieldPos < lineEnd && buffer[fieldPos] in '0'.code.toByte()..'9'.code.toByte()) {
+                            value = value * 10 + (buffer[fieldPos] - '0'.code.toByte())
+                            fieldPos++
+                        }
+                        if (field == 0) rx += value else if (field == 8) tx += value
+                        field++
+                    }
+                }
+            }
+            pos = lineEnd + 1
+        }
+        txBytes = tx
+        rxBytes = rx
+    }
+
+    private fun isTrackedIface(start: Int, end: Int): Boolean {
+        val len = end - start
+        for (name in ifaceBytes) {
+            if (name.size != len) continue
+            var i = 0
+            while (i < len && name[i] == buffer[start + i]) i++
+            if (i == len) return true
+        }
+        return false
+    }
+
+    private fun indexOf(b: Byte, from: Int, to: Int): Int {
+        var i = from
+        while (i < to && buffer[i] != b) i++
+        return i
+    }
+}
@@ -10,7 +10,7 @@ import com.github.kyuubiran.ezxhelper.finders.MethodFinder.`-Static`.methodFinde
 import com.sevtinge.cemiuiler.module.base.BaseXposedInit.mPrefsMap
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
 import com.sevtinge.cemiuiler.utils.DexKit.closeDexKit
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodCached
 import com.sevtinge.cemiuiler.utils.DexKit.initDexKit
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils
 import com.sevtinge.cemiuiler.utils.setObjectField
@@ -61,17 +61,17 @@ class ThemeCrackNew {
         }
 
         try {
-            dexKitBridge.findMethod {
+            findMethodCached("ThemeCrackNew_drm", lpparam.classLoader) {
                 matcher {
                     addUsingStringsEquals("theme", "ThemeManagerTag", "/system", "check rights isLegal:")
                 }
-            }.firstOrNull()?.getMethodInstance(lpparam.classLoader)?.createHook {
+            }?.createHook {
                 after {
                     it.result = DrmManager.DrmResult.DRM_SUCCESS
                 }
             }
 
-            dexKitBridge.findMethod {
+            findMethodCached("ThemeCrackNew_largeIcons", lpparam.classLoader) {
                 matcher {
                     addUsingStringsEquals(
                         "apply failed",
@@ -81,7 +81,7 @@ class ThemeCrackNew {
                         "relativePackageList is empty"
                     )
                 }
-            }.firstOrNull()?.getMethodInstance(lpparam.classLoader)?.createHook {
+            }?.createHook {
                 before {
                     val resource = it.thisObject.javaClass.fieldFinder().filterByType(loadClass("com.android.thememanager.basemodule.resource.model.Resource", lpparam.classLoader)).first()
                     val productId = it.thisObject.objectHelper().getObjectOrNull(resource.name)!!.objectHelper().invokeMethodBestMatch("getProductId").toString()
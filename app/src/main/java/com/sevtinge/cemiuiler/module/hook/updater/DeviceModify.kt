@@ -2,7 +2,7 @@ package com.sevtinge.cemiuiler.module.hook.updater
 
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 import com.sevtinge.cemiuiler.utils.hookBeforeMethod
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils
 
@@ -27,15 +27,15 @@ object DeviceModify : BaseHook() {
         } catch (e: Throwable) {
             XposedLogUtils.logE(TAG, "[DeviceModify(Updater)]: DeviceModify (Updater) miuix.core.util.SystemProperties hook failed", e)
         }
-        dexKitBridge.findMethod {
+        findMethodsCached("DeviceModify", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals("android.os.SystemProperties", "get", "get e")
             }
-        }.forEach { methodData ->
-            methodData.getMethodInstance(lpparam.classLoader).hookBeforeMethod {
+        }.forEach { method ->
+            method.hookBeforeMethod {
                 if (it.args[0] == "ro.product.mod_device") it.result = deviceName
             }
-            XposedLogUtils.logI("(Updater) dexkit method is $methodData")
+            XposedLogUtils.logI("(Updater) dexkit method is $method")
         }
 
         /*try {
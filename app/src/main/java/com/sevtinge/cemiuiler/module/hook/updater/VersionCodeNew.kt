@@ -6,30 +6,30 @@ import com.github.kyuubiran.ezxhelper.EzXHelper
 import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHook
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 import de.robv.android.xposed.XposedHelpers
 
 object VersionCodeNew : BaseHook() {
     private val mBigMethod by lazy {
-        dexKitBridge.findMethod {
+        findMethodsCached("VersionCodeNew", EzXHelper.classLoader) {
             matcher {
                 addUsingStringsEquals("ro.miui.ui.version.name")
             }
-        }.map { it.getMethodInstance(EzXHelper.classLoader) }.first()
+        }.first()
     }
     private val mOSMethod by lazy {
-        dexKitBridge.findMethod {
+        findMethodsCached("VersionCodeNew_2", EzXHelper.classLoader) {
             matcher {
                 addUsingStringsEquals("ro.mi.os.version.incremental", "version:")
             }
-        }.map { it.getMethodInstance(EzXHelper.classLoader) }.first()
+        }.first()
     }
     private val mOSCode by lazy {
-        dexKitBridge.findMethod {
+        findMethodsCached("VersionCodeNew_3", EzXHelper.classLoader) {
             matcher {
                 addUsingStringsEquals("ro.mi.os.version.name", "OS")
             }
-        }.map { it.getMethodInstance(EzXHelper.classLoader) }.first()
+        }.first()
     }
 
     private val mOldVersionCode =
@@ -8,7 +8,7 @@ import com.github.kyuubiran.ezxhelper.HookFactory.`-Static`.createHooks
 import com.github.kyuubiran.ezxhelper.finders.MethodFinder.`-Static`.methodFinder
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodCached
 
 object UnlockSuperClipboard : BaseHook() {
     // by StarVoyager
@@ -68,21 +68,21 @@ object UnlockSuperClipboard : BaseHook() {
 
     private fun dexKitSuperClipboard() {
         val ro by lazy {
-            dexKitBridge.findMethod {
+            findMethodCached("UnlockSuperClipboard_ro", safeClassLoader) {
                 matcher {
                     addUsingStringsEquals("ro.miui.support_super_clipboard")
                     returnType = "boolean"
                 }
-            }.firstOrNull()?.getMethodInstance(safeClassLoader)
+            }
         }
 
         val sys by lazy {
-            dexKitBridge.findMethod {
+            findMethodCached("UnlockSuperClipboard_sys", safeClassLoader) {
                 matcher {
                     addUsingStringsEquals("persist.sys.support_super_clipboard")
                     returnType = "boolean"
                 }
-            }.firstOrNull()?.getMethodInstance(safeClassLoader)
+            }
         }
 
         setOf(ro, sys).filterNotNull().createHooks {
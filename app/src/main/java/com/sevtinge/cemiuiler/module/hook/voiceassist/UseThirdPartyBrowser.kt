@@ -2,7 +2,7 @@ package com.sevtinge.cemiuiler.module.hook.voiceassist
 
 import com.sevtinge.cemiuiler.module.base.BaseHook
 import com.sevtinge.cemiuiler.utils.DexKit.addUsingStringsEquals
-import com.sevtinge.cemiuiler.utils.DexKit.dexKitBridge
+import com.sevtinge.cemiuiler.utils.DexKit.findMethodsCached
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils
 import de.robv.android.xposed.XC_MethodHook
 import de.robv.android.xposed.XposedBridge
@@ -11,15 +11,13 @@ import java.lang.reflect.Method
 object UseThirdPartyBrowser : BaseHook() {
     private var browserActivityWithIntent: Method? = null
     override fun init() {
-        dexKitBridge.findMethod {
+        browserActivityWithIntent = findMethodsCached("BrowserActivityWithIntent", lpparam.classLoader) {
             matcher {
                 addUsingStringsEquals(
                     "IntentUtils", "permission click No Application can handle your intent"
                 )
             }
-        }.forEach {
-            browserActivityWithIntent = it.getMethodInstance(lpparam.classLoader)
-        }
+        }.lastOrNull()
 
         // XposedBridge.log("Hook到小爱同学进程！");
         /*try {
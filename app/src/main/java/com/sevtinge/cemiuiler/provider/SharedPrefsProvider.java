@@ -9,7 +9,9 @@ import android.content.res.AssetFileDescriptor;
 import android.database.Cursor;
 import android.database.MatrixCursor;
 import android.net.Uri;
+import android.os.Bundle;
 import android.os.ParcelFileDescriptor;
+import android.os.SystemClock;
 import android.util.Log;
 
 import com.sevtinge.cemiuiler.utils.Helpers;
@@ -17,8 +19,14 @@ import com.sevtinge.cemiuiler.utils.PrefsUtils;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public class SharedPrefsProvider extends ContentProvider {
@@ -26,8 +34,51 @@ public class SharedPrefsProvider extends ContentProvider {
     public static final String AUTHORITY = "com.sevtinge.cemiuiler.provider.sharedprefs";
     private static final UriMatcher uriMatcher = new UriMatcher(UriMatcher.NO_MATCH);
 
+    /*
+     * 批量变更通道：call(METHOD_GET_CHANGES, 版本号) 一次返回该版本之后所有变化的设置项
+     */
+    public static final String METHOD_GET_CHANGES = "get_changes";
+    public static final String EXTRA_EPOCH = "epoch";
+    public static final String EXTRA_VERSION = "version";
+    public static final String EXTRA_FULL = "full";
+    public static final String EXTRA_REMOVED = "removed";
+    public static final String EXTRA_VALUES = "values";
+
+    private static final int MAX_CHANGE_LOG_SIZE = 256;
+
+    /*
+     * Hook 耗时记录：call(METHOD_PUT_TRACE, null, {EXTRA_TRACE: json}) 写入 files/traces/调用方包名.json
+     * provider 没有权限保护，文件名只取自 getCallingPackage()，单个文件大小与文件数量都有上限
+     */
+    public static final String METHOD_PUT_TRACE = "put_trace";
+    public static final String EXTRA_TRACE = "trace";
+    public static final String TRACE_DIR = "traces";
+
+    private static final int MAX_TRACE_LENGTH = 512 * 1024;
+    private static final int MAX_TRACE_FILES = 32;
+
+    // 进程重启后版本号会重新计数，客户端通过 epoch 判断是否需要全量同步
+    private final long mEpoch = SystemClock.elapsedRealtimeNanos();
+    private long mVersion = 0;
+    private long mOldestVersion = 0;
+    private final LinkedHashMap<String, Long> mChangeLog = new LinkedHashMap<>();
+
     SharedPreferences prefs;
 
+    private final SharedPreferences.OnSharedPreferenceChangeListener mChangeListener = (sharedPreferences, key) -> {
+        if (key == null) return;
+        synchronized (mChangeLog) {
+            mVersion++;
+            mChangeLog.remove(key);
+            mChangeLog.put(key, mVersion);
+            if (mChangeLog.size() > MAX_CHANGE_LOG_SIZE) {
+                Iterator<Map.Entry<String, Long>> iterator = mChangeLog.entrySet().iterator();
+                mOldestVersion = iterator.next().getValue();
+                iterator.remove();
+            }
+        }
+    };
+
     static {
         uriMatcher.addURI(AUTHORITY, "string/*/", 0);
         uriMatcher.addURI(AUTHORITY, "string/*/*", 1);
@@ -42,6 +93,7 @@ public class SharedPrefsProvider extends ContentProvider {
     public boolean onCreate() {
         try {
             prefs = PrefsUtils.getSharedPrefs(getContext(), true);
+            prefs.registerOnSharedPreferenceChangeListener(mChangeListener);
             return true;
         } catch (Throwable throwable) {
             return false;
@@ -80,6 +132,86 @@ public class SharedPrefsProvider extends ContentProvider {
         return null;
     }
 
+    @Override
+    public Bundle call(String method, String arg, Bundle extras) {
+        if (METHOD_PUT_TRACE.equals(method)) {
+            putTrace(getCallingPackage(), extras);
+            return null;
+        }
+        if (!METHOD_GET_CHANGES.equals(method) || prefs == null) return null;
+        long since = 0;
+        try {
+            if (arg != null) since = Long.parseLong(arg);
+        } catch (NumberFormatException ignored) {
+        }
+        boolean sameEpoch = extras != null && extras.getLong(EXTRA_EPOCH) == mEpoch;
+
+        Map<String, ?> all = prefs.getAll();
+        Bundle values = new Bundle();
+        ArrayList<String> removed = new ArrayList<>();
+        boolean full;
+        long version;
+        synchronized (mChangeLog) {
+            version = mVersion;
+            full = !sameEpoch || since < mOldestVersion || since > mVersion;
+            if (full) {
+                for (Map.Entry<String, ?> entry : all.entrySet()) putValue(values, entry.getKey(), entry.getValue());
+            } else {
+                for (Map.Entry<String, Long> entry : mChangeLog.entrySet()) {
+                    if (entry.getValue() <= since) continue;
+                    String key = entry.getKey();
+                    Object value = all.get(key);
+                    if (value == null) removed.add(key);
+                    else putValue(values, key, value);
+                }
+            }
+        }
+
+        Bundle result = new Bundle();
+        result.putLong(EXTRA_EPOCH, mEpoch);
+        result.putLong(EXTRA_VERSION, version);
+        result.putBoolean(EXTRA_FULL, full);
+        result.putStringArrayList(EXTRA_REMOVED, removed);
+        result.putBundle(EXTRA_VALUES, values);
+        return result;
+    }
+
+    private synchronized void putTrace(String packageName, Bundle extras) {
+        if (getContext() == null || prefs == null || packageName == null || extras == null) return;
+        if (!packageName.matches("[A-Za-z0-9._]+")) return;
+        if (!prefs.getBoolean("prefs_key_settings_hook_profiler", false)) return;
+        String trace = extras.getString(EXTRA_TRACE);
+        if (trace == null || trace.length() > MAX_TRACE_LENGTH) return;
+
+        File dir = new File(Helpers.getProtectedContext(getContext()).getFilesDir(), TRACE_DIR);
+        if (!dir.exists() && !dir.mkdirs()) return;
+        File file = new File(dir, packageName + ".json");
+        if (!file.exists()) trimTraces(dir);
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(trace);
+        } catch (Throwable t) {
+            Log.e("SharedPrefsProvider", "put trace failed: " + packageName, t);
+        }
+    }
+
+    // 新增文件前删除最旧的记录，保证目录中不超过 MAX_TRACE_FILES 个文件
+    private static void trimTraces(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null || files.length < MAX_TRACE_FILES) return;
+        Arrays.sort(files, (f1, f2) -> Long.compare(f1.lastModified(), f2.lastModified()));
+        for (int i = 0; i <= files.length - MAX_TRACE_FILES; i++) files[i].delete();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void putValue(Bundle bundle, String key, Object value) {
+        if (value instanceof String) bundle.putString(key, (String) value);
+        else if (value instanceof Integer) bundle.putInt(key, (Integer) value);
+        else if (value instanceof Boolean) bundle.putBoolean(key, (Boolean) value);
+        else if (value instanceof Long) bundle.putLong(key, (Long) value);
+        else if (value instanceof Float) bundle.putFloat(key, (Float) value);
+        else if (value instanceof Set<?>) bundle.putStringArrayList(key, new ArrayList<>((Set<String>) value));
+    }
+
     @Override
     public AssetFileDescriptor openAssetFile(Uri uri, String mode) throws FileNotFoundException {
         if (getContext() == null) return null;
@@ -1,17 +1,41 @@
 package com.sevtinge.cemiuiler.ui.fragment;
 
 import android.app.Activity;
+import android.content.BroadcastReceiver;
 import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
 import android.content.pm.PackageManager;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
 import android.widget.Toast;
 
 import com.sevtinge.cemiuiler.R;
+import com.sevtinge.cemiuiler.module.base.CallbackStats;
+import com.sevtinge.cemiuiler.provider.SharedPrefsProvider;
 import com.sevtinge.cemiuiler.ui.HideAppActivity;
 import com.sevtinge.cemiuiler.ui.fragment.base.SettingsPreferenceFragment;
 import com.sevtinge.cemiuiler.utils.BackupUtils;
 import com.sevtinge.cemiuiler.utils.DialogHelper;
+import com.sevtinge.cemiuiler.utils.Helpers;
 import com.sevtinge.cemiuiler.utils.PrefsUtils;
 
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import moralnorm.appcompat.app.AlertDialog;
 import moralnorm.appcompat.app.AppCompatActivity;
 import moralnorm.preference.DropDownPreference;
 import moralnorm.preference.MultiSelectListPreference;
@@ -101,6 +125,16 @@ public class ModuleSettingsFragment extends SettingsPreferenceFragment
             });
             return true;
         });
+
+        findPreference("prefs_key_settings_hook_trace").setOnPreferenceClickListener(preference -> {
+            showHookTraces(getActivity());
+            return true;
+        });
+
+        findPreference("prefs_key_settings_callback_stats_dump").setOnPreferenceClickListener(preference -> {
+            dumpCallbackStats(getActivity());
+            return true;
+        });
     }
 
     @Override
@@ -115,6 +149,134 @@ public class ModuleSettingsFragment extends SettingsPreferenceFragment
         mIconModeValue.setVisible(mode != 0);
     }
 
+    private static File[] getTraceFiles(Activity activity) {
+        File dir = new File(Helpers.getProtectedContext(activity).getFilesDir(), SharedPrefsProvider.TRACE_DIR);
+        File[] files = dir.listFiles((file, name) -> name.endsWith(".json"));
+        if (files != null) Arrays.sort(files);
+        return files;
+    }
+
+    private void showHookTraces(Activity activity) {
+        File[] files = getTraceFiles(activity);
+        if (files == null || files.length == 0) {
+            Toast.makeText(activity, R.string.settings_hook_trace_empty, Toast.LENGTH_SHORT).show();
+            return;
+        }
+        StringBuilder message = new StringBuilder();
+        for (File file : files) {
+            try {
+                appendTraceSummary(message, file);
+            } catch (Throwable t) {
+                Log.e("ModuleSettings", "read trace failed: " + file, t);
+            }
+        }
+        new AlertDialog.Builder(activity)
+            .setTitle(R.string.settings_hook_trace)
+            .setMessage(message.toString().trim())
+            .setPositiveButton(R.string.settings_hook_trace_export, (dialog, which) -> exportHookTraces(activity, files))
+            .setNegativeButton(android.R.string.cancel, (dialog, which) -> dialog.dismiss())
+            .show();
+    }
+
+    /**
+     * 每个应用一段：总耗时、Hook 数量，以及最慢的三个 Hook
+     */
+    private static void appendTraceSummary(StringBuilder message, File file) throws Exception {
+        String json = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        JSONArray events = new JSONObject(json).getJSONArray("traceEvents");
+        long total = 0;
+        int hooks = 0;
+        List<JSONObject> hookEvents = new ArrayList<>();
+        for (int i = 0; i < events.length(); i++) {
+            JSONObject event = events.getJSONObject(i);
+            String category = event.optString("cat");
+            if ("module".equals(category) || "prefs".equals(category)) total += event.optLong("dur");
+            if ("hook".equals(category)) {
+                hookEvents.add(event);
+                JSONObject args = event.optJSONObject("args");
+                if (args != null) hooks += args.optInt("hooks");
+            }
+        }
+        hookEvents.sort((e1, e2) -> Long.compare(e2.optLong("dur"), e1.optLong("dur")));
+
+        String name = file.getName();
+        message.append(name, 0, name.length() - ".json".length()).append('\n')
+            .append(String.format(Locale.ROOT, "  %.1f ms, %d hooks\n", total / 1000f, hooks));
+        for (int i = 0; i < Math.min(3, hookEvents.size()); i++) {
+            JSONObject event = hookEvents.get(i);
+            message.append(String.format(Locale.ROOT, "  %s %.1f ms\n",
+                event.optString("name"), event.optLong("dur") / 1000f));
+        }
+        message.append('\n');
+    }
+
+    private static void exportHookTraces(Activity activity, File[] files) {
+        File dir = activity.getExternalFilesDir(SharedPrefsProvider.TRACE_DIR);
+        try {
+            if (dir == null) throw new IllegalStateException("external storage unavailable");
+            for (File file : files) {
+                Files.copy(file.toPath(), new File(dir, file.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Toast.makeText(activity, activity.getString(R.string.settings_hook_trace_exported, dir.getPath()), Toast.LENGTH_LONG).show();
+        } catch (Throwable t) {
+            Log.e("ModuleSettings", "export traces failed", t);
+            Toast.makeText(activity, R.string.settings_hook_trace_export_failed, Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    /**
+     * 向作用域进程发送 ACTION_DUMP，收集两秒内的回复后按累计耗时排序显示
+     */
+    private void dumpCallbackStats(Activity activity) {
+        StringBuilder message = new StringBuilder();
+        BroadcastReceiver receiver = new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                appendCallbackStats(message, intent);
+            }
+        };
+        IntentFilter filter = new IntentFilter(CallbackStats.ACTION_RESULT);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            activity.registerReceiver(receiver, filter, Context.RECEIVER_EXPORTED);
+        } else {
+            activity.registerReceiver(receiver, filter);
+        }
+        activity.sendBroadcast(new Intent(CallbackStats.ACTION_DUMP));
+
+        new Handler(Looper.getMainLooper()).postDelayed(() -> {
+            activity.unregisterReceiver(receiver);
+            if (activity.isFinishing()) return;
+            if (message.length() == 0) {
+                Toast.makeText(activity, R.string.settings_callback_stats_empty, Toast.LENGTH_SHORT).show();
+                return;
+            }
+            DialogHelper.showPositiveButtonDialog(activity, getString(R.string.settings_callback_stats_dump),
+                message.toString().trim(), null);
+        }, 2000);
+    }
+
+    private static void appendCallbackStats(StringBuilder message, Intent intent) {
+        String[] names = intent.getStringArrayExtra(CallbackStats.EXTRA_NAMES);
+        long[] invocations = intent.getLongArrayExtra(CallbackStats.EXTRA_INVOCATIONS);
+        long[] nanos = intent.getLongArrayExtra(CallbackStats.EXTRA_NANOS);
+        long[] p99 = intent.getLongArrayExtra(CallbackStats.EXTRA_P99);
+        boolean[] overBudget = intent.getBooleanArrayExtra(CallbackStats.EXTRA_OVER_BUDGET);
+        if (names == null || invocations == null || nanos == null || p99 == null || overBudget == null) return;
+
+        Integer[] order = new Integer[names.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (i1, i2) -> Long.compare(nanos[i2], nanos[i1]));
+
+        message.append(intent.getStringExtra(CallbackStats.EXTRA_PACKAGE)).append('\n');
+        for (int i = 0; i < Math.min(10, order.length); i++) {
+            int index = order[i];
+            String name = names[index].substring(names[index].lastIndexOf('.') + 1);
+            message.append(String.format(Locale.ROOT, "%s %s\n    %.1f ms / %d, p99 %.1f us\n",
+                overBudget[index] ? "*" : " ", name, nanos[index] / 1000000f, invocations[index], p99[index] / 1000f));
+        }
+        message.append('\n');
+    }
+
     public void backupSettings(Activity activity) {
         BackupUtils.backup(activity);
     }
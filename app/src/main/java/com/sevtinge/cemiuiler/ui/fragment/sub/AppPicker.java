@@ -5,9 +5,11 @@ import android.content.Intent;
 import android.content.pm.ApplicationInfo;
 import android.content.pm.PackageManager;
 import android.content.pm.ResolveInfo;
+import android.graphics.Bitmap;
 import android.net.Uri;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -23,10 +25,12 @@ import com.sevtinge.cemiuiler.callback.IAppSelectCallback;
 import com.sevtinge.cemiuiler.data.AppData;
 import com.sevtinge.cemiuiler.data.adapter.AppDataAdapter;
 import com.sevtinge.cemiuiler.provider.SharedPrefsProvider;
+import com.sevtinge.cemiuiler.utils.AppInfoCache;
 import com.sevtinge.cemiuiler.utils.BitmapUtils;
 import com.sevtinge.cemiuiler.utils.PrefsUtils;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
@@ -41,9 +45,11 @@ public class AppPicker extends Fragment {
     private RecyclerView mAppListRv;
     private AppDataAdapter mAppListAdapter;
     private List<AppData> appDataList;
-    public Handler mHandler;
+    public Handler mHandler = new Handler(Looper.getMainLooper());
+    private AppInfoCache mAppInfoCache;
     private Set<String> selectedApps;
     private IAppSelectCallback mAppSelectCallback;
+    private boolean isSelecting = false;
     public void setAppSelectCallback(IAppSelectCallback callback) {
         mAppSelectCallback = callback;
     }
@@ -75,16 +81,17 @@ public class AppPicker extends Fragment {
         mAppListRv = mRootView.findViewById(R.id.app_list_rv);
         mAppListRv.setLayoutManager(new LinearLayoutManager(getContext()));
         mAppListAdapter = new AppDataAdapter(getActivity(), key, appSelector ? 1 : 0);
-        mHandler = new Handler();
 
         mAppListAdapter.setOnItemClickListener((view, position, appData, isCheck) -> {
             if (appSelector) {
-                mAppSelectCallback.sendMsgToActivity(BitmapUtils.Bitmap2Bytes(appData.icon),
-                    appData.label,
-                    appData.packageName,
-                    appData.versionName + "(" + appData.versionCode + ")",
-                    appData.activityName);
-                requireActivity().finish();
+                if (isSelecting) return;
+                isSelecting = true;
+                // 图标可能还在后台加载，等待同一次加载完成，不在主线程中解码
+                if (appData.icon == null && mAppInfoCache != null) {
+                    mAppInfoCache.loadIcon(appData, this::selectApp);
+                } else {
+                    selectApp(appData);
+                }
             } else {
                 CheckBox checkBox = view.findViewById(android.R.id.checkbox);
 //                String key = "prefs_key_system_framework_clean_share_apps";
@@ -101,20 +108,44 @@ public class AppPicker extends Fragment {
         });
     }
 
+    private void selectApp(AppData appData) {
+        Bitmap icon = appData.icon;
+        new Thread(() -> {
+            // 图标加载失败时传空数组，与 BitmapUtils.Bytes2Bimap 的约定一致
+            byte[] iconBytes = icon == null ? new byte[0] : BitmapUtils.Bitmap2Bytes(icon);
+            mHandler.post(() -> {
+                if (!isAdded()) return;
+                mAppSelectCallback.sendMsgToActivity(iconBytes,
+                    appData.label,
+                    appData.packageName,
+                    appData.versionName + "(" + appData.versionCode + ")",
+                    appData.activityName);
+                requireActivity().finish();
+            });
+        }).start();
+    }
+
     private void initData() {
         new Thread(new Runnable() {
             @Override
             public void run() {
-                appDataList = getAppInfo(getContext());
+                Context context = getContext();
+                if (context == null) return;
+                AppInfoCache appInfoCache = new AppInfoCache(context);
+                List<AppData> appInfo = getAppInfo(context, appInfoCache);
                 mHandler.post(new Runnable() {
                     @Override
                     public void run() {
+                        mAppInfoCache = appInfoCache;
+                        appDataList = appInfo;
+                        mAppListAdapter.setAppInfoCache(appInfoCache);
                         mAppListRv.setAdapter(mAppListAdapter);
                         mAppListAdapter.setData(appDataList);
                         mAmProgress.setVisibility(View.INVISIBLE);
                         mAppListRv.setVisibility(View.VISIBLE);
                     }
                 });
+                appInfoCache.save();
             }
         }).start();
     }
@@ -137,7 +168,7 @@ public class AppPicker extends Fragment {
     }
 
 
-    public void getOpenWithApps(Context context, List<AppData> appInfoList) {
+    public void getOpenWithApps(Context context, AppInfoCache appInfoCache, List<AppData> appInfoList) {
         PackageManager pm = context.getPackageManager();
 
         Intent mainIntent = new Intent();
@@ -169,23 +200,18 @@ public class AppPicker extends Fragment {
         packs.addAll(packs4);
 
         AppData app;
+        Set<String> packageNames = new HashSet<>();
         for (ResolveInfo pack : packs)
             try {
-                boolean exists = false;
-                for (AppData openWithApp : appInfoList) {
-                    if (openWithApp.packageName.equals(pack.activityInfo.applicationInfo.packageName)) {
-                        exists = true;
-                        break;
-                    }
-                }
-                if (exists) {
+                ApplicationInfo applicationInfo = pack.activityInfo.applicationInfo;
+                if (!packageNames.add(applicationInfo.packageName)) {
                     continue;
                 }
                 app = new AppData();
-                app.icon = BitmapUtils.drawableToBitmap(pack.activityInfo.applicationInfo.loadIcon(pm));
-                app.packageName = pack.activityInfo.applicationInfo.packageName;
-                app.enabled = pack.activityInfo.applicationInfo.enabled;
-                app.label = pack.activityInfo.applicationInfo.loadLabel(pm).toString();
+                app.packageName = applicationInfo.packageName;
+                app.enabled = applicationInfo.enabled;
+                app.lastUpdateTime = appInfoCache.getUpdateTime(app.packageName);
+                app.label = appInfoCache.getLabel(app, () -> applicationInfo.loadLabel(pm));
                 appInfoList.add(app);
             } catch (Throwable e) {
                 e.printStackTrace();
@@ -193,17 +219,20 @@ public class AppPicker extends Fragment {
     }
 
 
-    public List<AppData> getAppInfo(Context context) {
+    /**
+     * 只读取名称与包名，图标由 AppDataAdapter 绑定时通过 AppInfoCache 并行加载
+     */
+    public List<AppData> getAppInfo(Context context, AppInfoCache appInfoCache) {
         List<AppData> appDataList = new ArrayList<>();
         if (appSelector) {
-            getAppSelector(context, appDataList);
+            getAppSelector(context, appInfoCache, appDataList);
         } else {
-            getOpenWithApps(context, appDataList);
+            getOpenWithApps(context, appInfoCache, appDataList);
         }
         return appDataList;
     }
 
-    public void getAppSelector(Context context, List<AppData> appInfoList) {
+    public void getAppSelector(Context context, AppInfoCache appInfoCache, List<AppData> appInfoList) {
         PackageManager packageManager = context.getPackageManager();
         Intent mainIntent = new Intent(Intent.ACTION_MAIN, null);
         mainIntent.addCategory(Intent.CATEGORY_LAUNCHER);
@@ -212,11 +241,11 @@ public class AppPicker extends Fragment {
         AppData appData;
         for (ResolveInfo resolveInfo : resolveInfos) {
             appData = new AppData();
-            appData.icon = BitmapUtils.drawableToBitmap(resolveInfo.loadIcon(packageManager));
-            appData.label = resolveInfo.loadLabel(packageManager).toString();
             appData.packageName = resolveInfo.activityInfo.packageName;
             appData.activityName = resolveInfo.activityInfo.name;
             appData.enabled = resolveInfo.activityInfo.enabled;
+            appData.lastUpdateTime = appInfoCache.getUpdateTime(appData.packageName);
+            appData.label = appInfoCache.getLabel(appData, () -> resolveInfo.loadLabel(packageManager));
             appInfoList.add(appData);
         }
     }
@@ -0,0 +1,222 @@
+package com.sevtinge.cemiuiler.utils;
+
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.sevtinge.cemiuiler.data.AppData;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * 应用列表的名称与图标缓存
+ * <p>
+ * 名称按 (包名, Activity, lastUpdateTime) 持久化，语言变化后整体失效；
+ * 图标在固定大小的线程池中并行加载，先查 Helpers.memoryCache，再查磁盘缓存，最后才从 PackageManager 读取
+ */
+public class AppInfoCache {
+
+    private static final String TAG = "AppInfoCache";
+    private static final String LABEL_FILE = "app_labels";
+    private static final String ICON_DIR = "app_icons";
+    private static final char SEPARATOR = '\t';
+
+    private static final ExecutorService sIconExecutor =
+        Executors.newFixedThreadPool(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())));
+    private static final Handler sMainHandler = new Handler(Looper.getMainLooper());
+
+    public interface IconCallback {
+        void onIconLoaded(AppData appData);
+    }
+
+    private static final class Label {
+        final long updateTime;
+        final String label;
+
+        Label(long updateTime, String label) {
+            this.updateTime = updateTime;
+            this.label = label;
+        }
+    }
+
+    private final PackageManager mPackageManager;
+    private final File mLabelFile;
+    private final File mIconDir;
+    private final String mLocale;
+    private final HashMap<String, Long> mUpdateTimes = new HashMap<>();
+    private final HashMap<String, Label> mLabels = new HashMap<>();
+    // 正在加载的图标及等待的回调，只在主线程中访问
+    private final HashMap<String, List<IconCallback>> mPendingIcons = new HashMap<>();
+    private boolean isLabelsDirty = false;
+
+    /**
+     * 读取缓存文件，需在后台线程中创建
+     */
+    public AppInfoCache(Context context) {
+        mPackageManager = context.getPackageManager();
+        mLabelFile = new File(context.getCacheDir(), LABEL_FILE);
+        mIconDir = new File(context.getCacheDir(), ICON_DIR);
+        mLocale = context.getResources().getConfiguration().getLocales().toLanguageTags();
+
+        List<PackageInfo> packages = mPackageManager.getInstalledPackages(PackageManager.MATCH_DISABLED_COMPONENTS);
+        for (PackageInfo info : packages) mUpdateTimes.put(info.packageName, info.lastUpdateTime);
+        loadLabels();
+    }
+
+    public long getUpdateTime(String packageName) {
+        Long time = mUpdateTimes.get(packageName);
+        return time == null ? 0 : time;
+    }
+
+    /**
+     * 名称未变化时直接返回缓存，否则调用 loader 读取
+     */
+    public String getLabel(AppData appData, Supplier<CharSequence> loader) {
+        String key = getKey(appData);
+        Label label = mLabels.get(key);
+        if (label != null && label.updateTime == appData.lastUpdateTime) return label.label;
+        String value = loader.get().toString();
+        mLabels.put(key, new Label(appData.lastUpdateTime, value));
+        isLabelsDirty = true;
+        return value;
+    }
+
+    /**
+     * 写回名称缓存，并清理已卸载或已更新应用的图标
+     */
+    public void save() {
+        if (isLabelsDirty) {
+            try (BufferedWriter writer = new BufferedWriter(new FileWriter(mLabelFile))) {
+                writer.write(mLocale);
+                for (HashMap.Entry<String, Label> entry : mLabels.entrySet()) {
+                    String key = entry.getKey();
+                    int index = key.indexOf('/');
+                    String packageName = index < 0 ? key : key.substring(0, index);
+                    String label = entry.getValue().label;
+                    if (entry.getValue().updateTime != getUpdateTime(packageName)) continue;
+                    if (label.indexOf('\n') >= 0 || label.indexOf(SEPARATOR) >= 0) continue;
+                    writer.newLine();
+                    writer.write(key + SEPARATOR + entry.getValue().updateTime + SEPARATOR + label);
+                }
+                isLabelsDirty = false;
+            } catch (Throwable t) {
+                Log.e(TAG, "save labels failed", t);
+            }
+        }
+
+        File[] files = mIconDir.listFiles();
+        if (files == null) return;
+        for (File file : files) {
+            String[] parts = file.getName().split("@");
+            if (parts.length != 3 || !parts[2].equals(getUpdateTime(parts[0]) + ".png")) {
+                file.delete();
+            }
+        }
+    }
+
+    public Bitmap getCachedIcon(AppData appData) {
+        return Helpers.memoryCache.get(getIconName(appData));
+    }
+
+    /**
+     * 在主线程中调用，图标在线程池中加载，完成后在主线程中设置 appData.icon 并回调
+     */
+    public void loadIcon(AppData appData, IconCallback callback) {
+        String name = getIconName(appData);
+        List<IconCallback> callbacks = mPendingIcons.get(name);
+        if (callbacks != null) {
+            callbacks.add(callback);
+            return;
+        }
+        callbacks = new ArrayList<>(1);
+        callbacks.add(callback);
+        mPendingIcons.put(name, callbacks);
+        sIconExecutor.execute(() -> {
+            Bitmap icon = loadIconSync(appData);
+            sMainHandler.post(() -> {
+                appData.icon = icon;
+                List<IconCallback> pending = mPendingIcons.remove(name);
+                if (pending == null) return;
+                for (IconCallback pendingCallback : pending) pendingCallback.onIconLoaded(appData);
+            });
+        });
+    }
+
+    public Bitmap loadIconSync(AppData appData) {
+        String name = getIconName(appData);
+        Bitmap icon = Helpers.memoryCache.get(name);
+        if (icon != null) return icon;
+
+        File file = new File(mIconDir, name);
+        if (file.exists()) icon = BitmapFactory.decodeFile(file.getPath());
+        if (icon == null) {
+            try {
+                Drawable drawable = appData.activityName != null ?
+                    mPackageManager.getActivityIcon(new ComponentName(appData.packageName, appData.activityName)) :
+                    mPackageManager.getApplicationIcon(appData.packageName);
+                icon = BitmapUtils.drawableToBitmap(drawable);
+            } catch (Throwable t) {
+                Log.e(TAG, "load icon failed: " + name, t);
+                return null;
+            }
+            mIconDir.mkdirs();
+            try (FileOutputStream out = new FileOutputStream(file)) {
+                icon.compress(Bitmap.CompressFormat.PNG, 100, out);
+            } catch (Throwable t) {
+                Log.e(TAG, "save icon failed: " + name, t);
+            }
+        }
+        Helpers.memoryCache.put(name, icon);
+        return icon;
+    }
+
+    private void loadLabels() {
+        if (!mLabelFile.exists()) return;
+        try (BufferedReader reader = new BufferedReader(new FileReader(mLabelFile))) {
+            if (!mLocale.equals(reader.readLine())) {
+                isLabelsDirty = true;
+                return;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int first = line.indexOf(SEPARATOR);
+                int second = line.indexOf(SEPARATOR, first + 1);
+                if (first <= 0 || second <= first) continue;
+                mLabels.put(line.substring(0, first),
+                    new Label(Long.parseLong(line.substring(first + 1, second)), line.substring(second + 1)));
+            }
+        } catch (Throwable t) {
+            Log.e(TAG, "load labels failed", t);
+            mLabels.clear();
+        }
+    }
+
+    private static String getKey(AppData appData) {
+        return appData.activityName == null ? appData.packageName : appData.packageName + "/" + appData.activityName;
+    }
+
+    // 包名@Activity@lastUpdateTime.png，save() 依据包名与时间清理过期文件
+    private static String getIconName(AppData appData) {
+        return String.format(Locale.ROOT, "%s@%s@%d.png", appData.packageName,
+            appData.activityName == null ? "" : appData.activityName, appData.lastUpdateTime);
+    }
+}
@@ -1,10 +1,17 @@
 package com.sevtinge.cemiuiler.utils
 
+import com.sevtinge.cemiuiler.module.base.HookProfiler
 import de.robv.android.xposed.callbacks.XC_LoadPackage.LoadPackageParam
 import org.luckypray.dexkit.DexKitBridge
+import org.luckypray.dexkit.query.FindClass
+import org.luckypray.dexkit.query.FindField
+import org.luckypray.dexkit.query.FindMethod
 import org.luckypray.dexkit.query.enums.StringMatchType
 import org.luckypray.dexkit.query.matchers.ClassMatcher
 import org.luckypray.dexkit.query.matchers.MethodMatcher
+import org.luckypray.dexkit.result.MethodData
+import java.lang.reflect.Field
+import java.lang.reflect.Method
 
 /**
  * DexKit 工具
@@ -12,10 +19,14 @@ import org.luckypray.dexkit.query.matchers.MethodMatcher
 object DexKit {
     private lateinit var hostDir: String
     private var isInitialized = false
+    private val batchQueries = LinkedHashMap<String, List<String>>()
+    private val batchResults = HashMap<String, List<MethodData>>()
     val dexKitBridge: DexKitBridge by lazy {
+        val start = HookProfiler.begin()
         System.loadLibrary("dexkit")
         DexKitBridge.create(hostDir)!!.also {
             isInitialized = true
+            HookProfiler.end("DexKitBridge.create", HookProfiler.CAT_DEXKIT, start)
         }
     }
 
@@ -24,15 +35,112 @@ object DexKit {
      */
     fun initDexKit(loadPackageParam: LoadPackageParam) {
         hostDir = loadPackageParam.appInfo.sourceDir
+        batchQueries.clear()
+        batchResults.clear()
+        DexKitCache.init(loadPackageParam)
     }
 
     /**
      * 关闭 DexKit bridge
      */
     fun closeDexKit() {
+        DexKitCache.save()
         if (isInitialized) dexKitBridge.close()
     }
 
+    /**
+     * 带持久化缓存的方法查找，宿主未更新时不会触发 DexKit 扫描
+     *
+     * @param key 在同一宿主内唯一的查询标识
+     * @param filter 转换为 Method 前过滤查找结果，例如排除构造方法
+     */
+    fun findMethodsCached(
+        key: String,
+        classLoader: ClassLoader,
+        filter: ((MethodData) -> Boolean)? = null,
+        init: FindMethod.() -> Unit
+    ): List<Method> {
+        return DexKitCache.getMethods(key, classLoader) {
+            val result = dexKitBridge.findMethod(init)
+            (if (filter == null) result else result.filter(filter)).map { it.getMethodInstance(classLoader) }
+        }
+    }
+
+    /**
+     * 登记一组按字符串 (Equals) 查找方法的查询，由 BaseModule 在 CloseHostDir 前统一批量执行
+     *
+     * @param key 在同一宿主内唯一的查询标识
+     */
+    fun registerMethodUsingStrings(key: String, vararg strings: String) {
+        batchQueries[key] = strings.toList()
+    }
+
+    /**
+     * 一次扫描执行所有已登记且未命中缓存的查询
+     */
+    fun runBatchQueries() {
+        val pending = batchQueries.filterKeys { !DexKitCache.contains(it) && !batchResults.containsKey(it) }
+        if (pending.isEmpty()) return
+        dexKitBridge.batchFindMethodUsingStrings {
+            groups(pending, StringMatchType.Equals)
+        }.forEach { (key, result) ->
+            batchResults[key] = result
+        }
+    }
+
+    /**
+     * 获取 registerMethodUsingStrings 登记的查询结果，未批量执行时退回单独查询
+     */
+    fun findMethodsUsingStrings(key: String, classLoader: ClassLoader): List<Method> {
+        val strings = batchQueries[key] ?: throw IllegalStateException("DexKit query $key is not registered")
+        return DexKitCache.getMethods(key, classLoader) {
+            (batchResults.remove(key) ?: dexKitBridge.findMethod {
+                matcher {
+                    addUsingStringsEquals(*strings.toTypedArray())
+                }
+            }).map { it.getMethodInstance(classLoader) }
+        }
+    }
+
+    fun findMethodCached(
+        key: String,
+        classLoader: ClassLoader,
+        filter: ((MethodData) -> Boolean)? = null,
+        init: FindMethod.() -> Unit
+    ): Method? {
+        return findMethodsCached(key, classLoader, filter, init).firstOrNull()
+    }
+
+    /**
+     * 带持久化缓存的类查找
+     *
+     * @param key 在同一宿主内唯一的查询标识
+     */
+    fun findClassesCached(key: String, classLoader: ClassLoader, init: FindClass.() -> Unit): List<Class<*>> {
+        return DexKitCache.getClasses(key, classLoader) {
+            dexKitBridge.findClass(init).map { it.getInstance(classLoader) }
+        }
+    }
+
+    fun findClassCached(key: String, classLoader: ClassLoader, init: FindClass.() -> Unit): Class<*>? {
+        return findClassesCached(key, classLoader, init).firstOrNull()
+    }
+
+    /**
+     * 带持久化缓存的字段查找
+     *
+     * @param key 在同一宿主内唯一的查询标识
+     */
+    fun findFieldsCached(key: String, classLoader: ClassLoader, init: FindField.() -> Unit): List<Field> {
+        return DexKitCache.getFields(key, classLoader) {
+            dexKitBridge.findField(init).map { it.getFieldInstance(classLoader) }
+        }
+    }
+
+    fun findFieldCached(key: String, classLoader: ClassLoader, init: FindField.() -> Unit): Field? {
+        return findFieldsCached(key, classLoader, init).firstOrNull()
+    }
+
     /**
      * DexKit 封装查找方式
      */
@@ -0,0 +1,186 @@
+package com.sevtinge.cemiuiler.utils
+
+import android.os.Process
+import com.sevtinge.cemiuiler.BuildConfig
+import com.sevtinge.cemiuiler.utils.log.AndroidLogUtils.LogD
+import de.robv.android.xposed.XposedHelpers
+import de.robv.android.xposed.callbacks.XC_LoadPackage.LoadPackageParam
+import java.io.File
+import java.lang.reflect.Field
+import java.lang.reflect.Method
+import java.util.concurrent.ConcurrentHashMap
+import kotlin.random.Random
+
+/**
+ * DexKit 查找结果的持久化缓存
+ *
+ * 以宿主包名、versionCode、apk 大小与修改时间以及模块版本作为指纹，
+ * 指纹不变时直接从缓存还原 Method / Field / Class，不再加载 DexKit 扫描 apk
+ */
+object DexKitCache {
+    private const val TAG = "DexKitCache"
+    private const val CACHE_FILE_NAME = "cemiuiler_dexkit.cache"
+
+    // 缓存格式变化时递增，旧格式的缓存随指纹不一致被丢弃
+    private const val FORMAT_VERSION = 2
+
+    // 不能使用 ';'，数组类型的 Class.getName() 形如 [Ljava.lang.String;
+    private const val ENTRY_SEPARATOR = '|'
+    private const val MEMBER_SEPARATOR = '#'
+    private const val PARAM_SEPARATOR = ','
+
+    private var cacheFile: File? = null
+    private var fingerprint = ""
+    private val entries = ConcurrentHashMap<String, String>()
+
+    @Volatile
+    private var isDirty = false
+
+    private val primitiveTypes = mapOf(
+        "boolean" to Boolean::class.javaPrimitiveType,
+        "byte" to Byte::class.javaPrimitiveType,
+        "char" to Char::class.javaPrimitiveType,
+        "short" to Short::class.javaPrimitiveType,
+        "int" to Int::class.javaPrimitiveType,
+        "long" to Long::class.javaPrimitiveType,
+        "float" to Float::class.javaPrimitiveType,
+        "double" to Double::class.javaPrimitiveType,
+        "void" to Void.TYPE
+    )
+
+    /**
+     * 读取宿主对应的缓存文件，指纹不一致时丢弃旧缓存
+     */
+    fun init(loadPackageParam: LoadPackageParam) {
+        entries.clear()
+        isDirty = false
+        val appInfo = loadPackageParam.appInfo
+        val apk = File(appInfo.sourceDir)
+        val versionCode = runCatching { XposedHelpers.getIntField(appInfo, "versionCode") }.getOrDefault(-1)
+        fingerprint = "$FORMAT_VERSION|${loadPackageParam.packageName}|$versionCode|${apk.length()}|${apk.lastModified()}|${BuildConfig.VERSION_CODE}"
+        cacheFile = File(appInfo.dataDir, "cache/$CACHE_FILE_NAME")
+
+        try {
+            val file = cacheFile!!
+            if (!file.exists()) return
+            val lines = file.readLines()
+            if (lines.isEmpty() || lines[0] != fingerprint) {
+                isDirty = true
+                return
+            }
+            for (i in 1 until lines.size) {
+                val index = lines[i].indexOf('=')
+                if (index > 0) entries[lines[i].substring(0, index)] = lines[i].substring(index + 1)
+            }
+        } catch (t: Throwable) {
+            LogD(TAG, "load cache failed", t)
+        }
+    }
+
+    /**
+     * 将本次新增的查找结果写回缓存文件
+     */
+    fun save() {
+        val file = cacheFile ?: return
+        if (!isDirty) return
+        // 同一宿主的多个进程可能同时写入，临时文件名需各不相同
+        val tmp = File("${file.path}.${Process.myPid()}.${Random.nextInt().toUInt()}.tmp")
+        try {
+            file.parentFile?.mkdirs()
+            tmp.bufferedWriter().use { writer ->
+                writer.write(fingerprint)
+                for ((key, value) in entries) {
+                    writer.newLine()
+                    writer.write(key)
+                    writer.write("=")
+                    writer.write(value)
+                }
+            }
+            if (!tmp.renameTo(file)) throw IllegalStateException("rename ${tmp.name} failed")
+            isDirty = false
+        } catch (t: Throwable) {
+            tmp.delete()
+            LogD(TAG, "save cache failed", t)
+        }
+    }
+
+    fun contains(key: String): Boolean = entries.containsKey(key)
+
+    fun getMethods(key: String, classLoader: ClassLoader, finder: () -> List<Method>): List<Method> {
+        entries[key]?.let { value ->
+            val methods = runCatching { decodeMethods(value, classLoader) }.getOrNull()
+            if (methods != null) return methods
+            removeStale(key)
+        }
+        val methods = finder()
+        // 空结果不缓存，可能是宿主暂时缺少对应代码或查询条件有误，下次启动重新查找
+        if (methods.isEmpty()) return methods
+        entries[key] = methods.joinToString(ENTRY_SEPARATOR.toString()) { encodeMethod(it) }
+        isDirty = true
+        return methods
+    }
+
+    fun getClasses(key: String, classLoader: ClassLoader, finder: () -> List<Class<*>>): List<Class<*>> {
+        entries[key]?.let { value ->
+            val classes = runCatching { decodeClasses(value, classLoader) }.getOrNull()
+            if (classes != null) return classes
+            removeStale(key)
+        }
+        val classes = finder()
+        if (classes.isEmpty()) return classes
+        entries[key] = classes.joinToString(ENTRY_SEPARATOR.toString()) { it.name }
+        isDirty = true
+        return classes
+    }
+
+    fun getFields(key: String, classLoader: ClassLoader, finder: () -> List<Field>): List<Field> {
+        entries[key]?.let { value ->
+            val fields = runCatching { decodeFields(value, classLoader) }.getOrNull()
+            if (fields != null) return fields
+            removeStale(key)
+        }
+        val fields = finder()
+        if (fields.isEmpty()) return fields
+        entries[key] = fields.joinToString(ENTRY_SEPARATOR.toString()) { it.declaringClass.name + MEMBER_SEPARATOR + it.name }
+        isDirty = true
+        return fields
+    }
+
+    // 无法还原的旧结果需要移除，否则新结果为空时会一直留在缓存中
+    private fun removeStale(key: String) {
+        entries.remove(key)
+        isDirty = true
+    }
+
+    private fun encodeMethod(method: Method): String {
+        return method.declaringClass.name + MEMBER_SEPARATOR + method.name + MEMBER_SEPARATOR +
+            method.parameterTypes.joinToString(PARAM_SEPARATOR.toString()) { it.name }
+    }
+
+    private fun decodeMethods(value: String, classLoader: ClassLoader): List<Method> {
+        if (value.isEmpty()) return emptyList()
+        return value.split(ENTRY_SEPARATOR).map { entry ->
+            val parts = entry.split(MEMBER_SEPARATOR)
+            val params = if (parts[2].isEmpty()) emptyArray() else
+                parts[2].split(PARAM_SEPARATOR).map { loadType(it, classLoader) }.toTypedArray()
+            loadType(parts[0], classLoader).getDeclaredMethod(parts[1], *params).apply { isAccessible = true }
+        }
+    }
+
+    private fun decodeFields(value: String, classLoader: ClassLoader): List<Field> {
+        if (value.isEmpty()) return emptyList()
+        return value.split(ENTRY_SEPARATOR).map { entry ->
+            val parts = entry.split(MEMBER_SEPARATOR)
+            loadType(parts[0], classLoader).getDeclaredField(parts[1]).apply { isAccessible = true }
+        }
+    }
+
+    private fun decodeClasses(value: String, classLoader: ClassLoader): List<Class<*>> {
+        if (value.isEmpty()) return emptyList()
+        return value.split(ENTRY_SEPARATOR).map { loadType(it, classLoader) }
+    }
+
+    private fun loadType(name: String, classLoader: ClassLoader): Class<*> {
+        return primitiveTypes[name] ?: Class.forName(name, false, classLoader)
+    }
+}
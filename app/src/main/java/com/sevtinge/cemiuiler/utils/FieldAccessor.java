@@ -0,0 +1,137 @@
+package com.sevtinge.cemiuiler.utils;
+
+import java.lang.reflect.Field;
+
+import de.robv.android.xposed.XposedHelpers;
+
+/**
+ * 按名称访问字段，第一次使用时查找并缓存 Field
+ * <p>
+ * 与 XposedHelpers.getObjectField 相比，之后的调用不再拼接字符串查缓存，基本类型的读写也不需要装箱。
+ * 对象的类与缓存的 Field 不匹配时重新查找，因此同一个实例可以用于不同的子类。
+ * 在频繁调用的回调中以成员变量持有：
+ * <pre>
+ * private static final FieldAccessor mStrengthId = new FieldAccessor("strengthId");
+ * int level = mStrengthId.getInt(state);
+ * </pre>
+ */
+public final class FieldAccessor {
+
+    private final String mName;
+    private volatile Field mField;
+    // 上一次查找失败的类，getOrNull 不再重复查找
+    private volatile Class<?> mMissingClass;
+
+    public FieldAccessor(String name) {
+        mName = name;
+    }
+
+    public static FieldAccessor of(Class<?> clazz, String name) {
+        FieldAccessor accessor = new FieldAccessor(name);
+        accessor.mField = XposedHelpers.findField(clazz, name);
+        return accessor;
+    }
+
+    private Field resolve(Object obj) {
+        Field field = mField;
+        if (field != null && field.getDeclaringClass().isInstance(obj)) return field;
+        field = XposedHelpers.findField(obj.getClass(), mName);
+        mField = field;
+        return field;
+    }
+
+    /**
+     * @return 字段不存在时为 null
+     */
+    public Object getOrNull(Object obj) {
+        if (obj == null || obj.getClass() == mMissingClass) return null;
+        try {
+            return resolve(obj).get(obj);
+        } catch (NoSuchFieldError e) {
+            mMissingClass = obj.getClass();
+            return null;
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    public Object get(Object obj) {
+        try {
+            return resolve(obj).get(obj);
+        } catch (IllegalAccessException e) {
+            throw new IllegalAccessError(e.getMessage());
+        }
+    }
+
+    public int getInt(Object obj) {
+        try {
+            return resolve(obj).getInt(obj);
+        } catch (IllegalAccessException e) {
+            throw new IllegalAccessError(e.getMessage());
+        }
+    }
+
+    public long getLong(Object obj) {
+        try {
+            return resolve(obj).getLong(obj);
+        } catch (IllegalAccessException e) {
+            throw new IllegalAccessError(e.getMessage());
+        }
+    }
+
+    public float getFloat(Object obj) {
+        try {
+            return resolve(obj).getFloat(obj);
+        } catch (IllegalAccessException e) {
+            throw new IllegalAccessError(e.getMessage());
+        }
+    }
+
+    public boolean getBoolean(Object obj) {
+        try {
+            return resolve(obj).getBoolean(obj);
+        } catch (IllegalAccessException e) {
+            throw new IllegalAccessError(e.getMessage());
+        }
+    }
+
+    public void set(Object obj, Object value) {
+        try {
+            resolve(obj).set(obj, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalAccessError(e.getMessage());
+        }
+    }
+
+    public void setInt(Object obj, int value) {
+        try {
+            resolve(obj).setInt(obj, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalAccessError(e.getMessage());
+        }
+    }
+
+    public void setLong(Object obj, long value) {
+        try {
+            resolve(obj).setLong(obj, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalAccessError(e.getMessage());
+        }
+    }
+
+    public void setFloat(Object obj, float value) {
+        try {
+            resolve(obj).setFloat(obj, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalAccessError(e.getMessage());
+        }
+    }
+
+    public void setBoolean(Object obj, boolean value) {
+        try {
+            resolve(obj).setBoolean(obj, value);
+        } catch (IllegalAccessException e) {
+            throw new IllegalAccessError(e.getMessage());
+        }
+    }
+}
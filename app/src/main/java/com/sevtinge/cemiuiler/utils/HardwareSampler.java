@@ -0,0 +1,316 @@
+package com.sevtinge.cemiuiler.utils;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.PowerManager;
+import android.os.SystemClock;
+
+import com.sevtinge.cemiuiler.utils.log.XposedLogUtils;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * SystemUI 内共享的 sysfs 采样器
+ * <p>
+ * 节点文件保持打开，每次从偏移 0 读入复用的缓冲区并直接解析数字，不创建字符串；
+ * 相同节点只读取一次，所有订阅者共用同一个后台线程。息屏时暂停，数值长时间不变时降低频率
+ */
+public final class HardwareSampler {
+
+    private static final String TAG = "HardwareSampler";
+
+    private static final int BUFFER_SIZE = 4096;
+    // 连续多少次采样数值不变后降低频率，以及最多降低到的倍数
+    private static final int STABLE_THRESHOLD = 3;
+    private static final int MAX_SLOWDOWN = 4;
+
+    private static volatile HardwareSampler sInstance;
+
+    public interface Listener {
+        /**
+         * 在采样线程中回调，通过 getValue / hasValue 读取本次结果
+         */
+        void onSample(HardwareSampler sampler);
+    }
+
+    private static final class Node {
+        final String path;
+        FileChannel channel;
+        final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        int length = -1;
+        long readTick = -1;
+
+        Node(String path) {
+            this.path = path;
+        }
+
+        boolean read() {
+            try {
+                if (channel == null) channel = new RandomAccessFile(path, "r").getChannel();
+                buffer.clear();
+                // 按文件偏移读取时 read 已经推进了缓冲区位置，文件偏移单独记录；超出缓冲区的部分不再读取
+                long offset = 0;
+                int read;
+                while (buffer.hasRemaining() && (read = channel.read(buffer, offset)) > 0) {
+                    offset += read;
+                }
+                length = buffer.position();
+                return true;
+            } catch (IOException | RuntimeException e) {
+                length = -1;
+                close();
+                return false;
+            }
+        }
+
+        void close() {
+            if (channel == null) return;
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+            }
+            channel = null;
+        }
+    }
+
+    private static final class Probe {
+        final Node node;
+        // uevent 格式节点中的 key，例如 POWER_SUPPLY_TEMP=，为空时整个文件是一个数字
+        final byte[] key;
+        long value;
+        boolean valid;
+
+        Probe(Node node, byte[] key) {
+            this.node = node;
+            this.key = key;
+        }
+    }
+
+    private static final class Subscriber {
+        final Listener listener;
+        final int[] probes;
+        final long interval;
+        long nextTime;
+        int stableCount;
+
+        Subscriber(Listener listener, int[] probes, long interval) {
+            this.listener = listener;
+            this.probes = probes;
+            this.interval = interval;
+        }
+    }
+
+    private final HashMap<String, Node> mNodes = new HashMap<>();
+    private final HashMap<String, Integer> mProbeIds = new HashMap<>();
+    private final ArrayList<Probe> mProbes = new ArrayList<>();
+    private final CopyOnWriteArrayList<Subscriber> mSubscribers = new CopyOnWriteArrayList<>();
+
+    private final Handler mHandler;
+    private final Runnable mTick = this::tick;
+    private long mTickCount = 0;
+    private volatile boolean isScreenOn = true;
+    private boolean isReceiverRegistered = false;
+
+    private HardwareSampler() {
+        HandlerThread thread = new HandlerThread(TAG);
+        thread.start();
+        mHandler = new Handler(thread.getLooper());
+    }
+
+    public static HardwareSampler getInstance() {
+        if (sInstance == null) {
+            synchronized (HardwareSampler.class) {
+                if (sInstance == null) sInstance = new HardwareSampler();
+            }
+        }
+        return sInstance;
+    }
+
+    /**
+     * 注册只包含一个数字的节点，例如 /sys/class/thermal/thermal_zone0/temp
+     *
+     * @return 用于读取结果的 id，相同路径返回相同 id
+     */
+    public int registerNode(String path) {
+        return registerProbe(path, null);
+    }
+
+    /**
+     * 注册 uevent 格式节点中的一项，例如 (/sys/class/power_supply/battery/uevent, POWER_SUPPLY_TEMP)
+     */
+    public int registerUevent(String path, String key) {
+        return registerProbe(path, key);
+    }
+
+    private synchronized int registerProbe(String path, String key) {
+        String id = key == null ? path : path + "#" + key;
+        Integer probeId = mProbeIds.get(id);
+        if (probeId != null) return probeId;
+        Node node = mNodes.get(path);
+        if (node == null) {
+            node = new Node(path);
+            mNodes.put(path, node);
+        }
+        mProbes.add(new Probe(node, key == null ? null : (key + "=").getBytes(StandardCharsets.US_ASCII)));
+        probeId = mProbes.size() - 1;
+        mProbeIds.put(id, probeId);
+        return probeId;
+    }
+
+    public boolean hasValue(int id) {
+        return mProbes.get(id).valid;
+    }
+
+    public long getValue(int id) {
+        return mProbes.get(id).value;
+    }
+
+    /**
+     * 立即读取一次，供按需读取的 Hook 使用，失败时返回 defValue
+     */
+    public synchronized long readNow(int id, long defValue) {
+        Probe probe = mProbes.get(id);
+        probe.node.readTick = -1;
+        sampleProbe(probe, mTickCount);
+        return probe.valid ? probe.value : defValue;
+    }
+
+    /**
+     * 订阅一组节点，按 interval 毫秒周期回调
+     */
+    public void subscribe(Context context, Listener listener, long interval, int... probes) {
+        registerScreenReceiver(context);
+        Subscriber subscriber = new Subscriber(listener, probes, interval);
+        mSubscribers.add(subscriber);
+        mHandler.post(() -> {
+            subscriber.nextTime = 0;
+            reschedule();
+        });
+    }
+
+    public void unsubscribe(Listener listener) {
+        for (Subscriber subscriber : mSubscribers) {
+            if (subscriber.listener == listener) mSubscribers.remove(subscriber);
+        }
+    }
+
+    private synchronized void registerScreenReceiver(Context context) {
+        if (isReceiverRegistered) return;
+        isReceiverRegistered = true;
+        PowerManager powerManager = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        isScreenOn = powerManager == null || powerManager.isInteractive();
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_SCREEN_ON);
+        filter.addAction(Intent.ACTION_SCREEN_OFF);
+        context.registerReceiver(new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                isScreenOn = Intent.ACTION_SCREEN_ON.equals(intent.getAction());
+                if (isScreenOn) {
+                    // 亮屏后立即刷新一次，并恢复正常频率
+                    for (Subscriber subscriber : mSubscribers) {
+                        subscriber.nextTime = 0;
+                        subscriber.stableCount = 0;
+                    }
+                    reschedule();
+                } else {
+                    mHandler.removeCallbacks(mTick);
+                }
+            }
+        }, filter, null, mHandler);
+    }
+
+    private void tick() {
+        long now = SystemClock.uptimeMillis();
+        long tick;
+        synchronized (this) {
+            tick = ++mTickCount;
+        }
+        for (Subscriber subscriber : mSubscribers) {
+            if (subscriber.nextTime > now) continue;
+            boolean changed = false;
+            synchronized (this) {
+                for (int id : subscriber.probes) {
+                    Probe probe = mProbes.get(id);
+                    long old = probe.value;
+                    boolean oldValid = probe.valid;
+                    sampleProbe(probe, tick);
+                    if (probe.value != old || probe.valid != oldValid) changed = true;
+                }
+            }
+            subscriber.stableCount = changed ? 0 : subscriber.stableCount + 1;
+            int slowdown = Math.min(MAX_SLOWDOWN, 1 + subscriber.stableCount / STABLE_THRESHOLD);
+            subscriber.nextTime = now + subscriber.interval * slowdown;
+            try {
+                subscriber.listener.onSample(this);
+            } catch (Throwable t) {
+                XposedLogUtils.logE(TAG, t);
+            }
+        }
+        reschedule();
+    }
+
+    private void reschedule() {
+        mHandler.removeCallbacks(mTick);
+        if (!isScreenOn || mSubscribers.isEmpty()) return;
+        long next = Long.MAX_VALUE;
+        for (Subscriber subscriber : mSubscribers) next = Math.min(next, subscriber.nextTime);
+        mHandler.postAtTime(mTick, Math.max(next, SystemClock.uptimeMillis()));
+    }
+
+    private void sampleProbe(Probe probe, long tick) {
+        Node node = probe.node;
+        if (node.readTick != tick) {
+            node.read();
+            node.readTick = tick;
+        }
+        if (node.length < 0) {
+            probe.valid = false;
+            return;
+        }
+        byte[] data = node.buffer.array();
+        int start = probe.key == null ? 0 : findKey(data, node.length, probe.key);
+        if (start < 0) {
+            probe.valid = false;
+            return;
+        }
+        parseLong(probe, data, start, node.length);
+    }
+
+    private static int findKey(byte[] data, int length, byte[] key) {
+        int lineStart = 0;
+        while (lineStart < length) {
+            int i = 0;
+            while (i < key.length && lineStart + i < length && data[lineStart + i] == key[i]) i++;
+            if (i == key.length) return lineStart + i;
+            while (lineStart < length && data[lineStart] != '\n') lineStart++;
+            lineStart++;
+        }
+        return -1;
+    }
+
+    private static void parseLong(Probe probe, byte[] data, int pos, int length) {
+        while (pos < length && (data[pos] == ' ' || data[pos] == '\t')) pos++;
+        boolean negative = pos < length && data[pos] == '-';
+        if (negative) pos++;
+        int digitsStart = pos;
+        long value = 0;
+        while (pos < length && data[pos] >= '0' && data[pos] <= '9') {
+            value = value * 10 + (data[pos] - '0');
+            pos++;
+        }
+        probe.valid = pos > digitsStart;
+        if (probe.valid) probe.value = negative ? -value : value;
+    }
+}
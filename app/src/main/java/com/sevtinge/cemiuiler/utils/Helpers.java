@@ -27,6 +27,7 @@ import android.widget.TextView;
 
 import com.sevtinge.cemiuiler.BuildConfig;
 import com.sevtinge.cemiuiler.module.base.BaseHook;
+import com.sevtinge.cemiuiler.module.base.CallbackStats;
 import com.sevtinge.cemiuiler.provider.SharedPrefsProvider;
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils;
 
@@ -48,7 +49,8 @@ public class Helpers {
     private static final String TAG = "Helpers";
 
     @SuppressLint("StaticFieldLeak")
-    public static Context mModuleContext = null;
+    // getModuleRes 在快路径上不加锁读取，需要 volatile 保证看到完整创建的 Context
+    public static volatile Context mModuleContext = null;
     public static boolean isModuleActive = false;
     public static int XposedVersion = 0;
 
@@ -201,15 +203,19 @@ public class Helpers {
     }
 
     public static synchronized Context getModuleContext(Context context, Configuration config) throws Throwable {
-        if (mModuleContext == null)
-            mModuleContext = context.createPackageContext(mAppModulePkg, Context.CONTEXT_IGNORE_SECURITY).createDeviceProtectedStorageContext();
-        return config == null ? mModuleContext : mModuleContext.createConfigurationContext(config);
+        Context moduleContext = mModuleContext;
+        if (moduleContext == null) {
+            moduleContext = context.createPackageContext(mAppModulePkg, Context.CONTEXT_IGNORE_SECURITY).createDeviceProtectedStorageContext();
+            mModuleContext = moduleContext;
+        }
+        return config == null ? moduleContext : moduleContext.createConfigurationContext(config);
     }
 
-    public static synchronized Resources getModuleRes(Context context) throws Throwable {
+    public static Resources getModuleRes(Context context) throws Throwable {
         Configuration config = context.getResources().getConfiguration();
-        Context moduleContext = getModuleContext(context);
-        return (config == null ? moduleContext.getResources() : moduleContext.createConfigurationContext(config).getResources());
+        Context moduleContext = mModuleContext;
+        if (moduleContext == null) moduleContext = getModuleContext(context);
+        return (config == null ? moduleContext.getResources() : ModuleResCache.get(moduleContext, config));
     }
 
     public static ActivityOptions makeFreeformActivityOptions(Context context, String str) {
@@ -572,6 +578,10 @@ public class Helpers {
 
     public static class MethodHook extends XC_MethodHook {
 
+        private static final int UNREGISTERED = -2;
+        // CallbackStats 的统计编号，第一次采样时分配；同时注册时 register 返回相同编号
+        private volatile int mBeforeSlot = UNREGISTERED;
+        private volatile int mAfterSlot = UNREGISTERED;
 
         protected void before(MethodHookParam param) throws Throwable {
         }
@@ -589,20 +599,32 @@ public class Helpers {
 
         @Override
         public final void beforeHookedMethod(MethodHookParam param) throws Throwable {
+            long start = CallbackStats.begin();
             try {
                 this.before(param);
             } catch (Throwable t) {
                 LogD("beforeHook", t);
             }
+            if (start != 0) {
+                int slot = mBeforeSlot;
+                if (slot == UNREGISTERED) mBeforeSlot = slot = CallbackStats.register(getClass().getName() + "#before");
+                CallbackStats.end(slot, start);
+            }
         }
 
         @Override
         public final void afterHookedMethod(MethodHookParam param) throws Throwable {
+            long start = CallbackStats.begin();
             try {
                 this.after(param);
             } catch (Throwable t) {
                 LogD("afterHook", t);
             }
+            if (start != 0) {
+                int slot = mAfterSlot;
+                if (slot == UNREGISTERED) mAfterSlot = slot = CallbackStats.register(getClass().getName() + "#after");
+                CallbackStats.end(slot, start);
+            }
         }
     }
 
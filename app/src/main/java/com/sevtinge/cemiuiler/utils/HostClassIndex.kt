@@ -0,0 +1,143 @@
+package com.sevtinge.cemiuiler.utils
+
+import android.os.Build
+import com.sevtinge.cemiuiler.utils.log.AndroidLogUtils.LogD
+import dalvik.system.DexFile
+import de.robv.android.xposed.XposedHelpers
+import de.robv.android.xposed.callbacks.XC_LoadPackage.LoadPackageParam
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+
+/**
+ * 宿主类名索引
+ *
+ * 第一次查询时从宿主 dex 的类名列表建立，按宿主 versionCode、apk 大小与修改时间以及系统指纹持久化。
+ * 只记录宿主独有的包（不与 BOOTCLASSPATH 共用的包），对这些包中的类可以不加载、不抛异常地判断是否存在；
+ * 其余包、其他 ClassLoader 或索引不可用时一律返回未知，由调用方照常查找
+ */
+object HostClassIndex {
+    private const val TAG = "HostClassIndex"
+    private const val CACHE_FILE_NAME = "cemiuiler_classes.cache"
+    private const val FORMAT_VERSION = 1
+
+    private var loadPackageParam: LoadPackageParam? = null
+    private var isLoaded = false
+    private var packages: HashSet<String>? = null
+    // 类名的 64 位哈希，已排序；哈希碰撞只会让不存在的类被当作存在，仍会照常查找
+    private var classHashes = LongArray(0)
+
+    /**
+     * 记录宿主信息，同一进程加载多个包时只索引第一个
+     */
+    fun init(lpparam: LoadPackageParam) {
+        if (loadPackageParam == null) loadPackageParam = lpparam
+    }
+
+    /**
+     * @return 确定 className 不在 classLoader 中时为 true
+     */
+    @Synchronized
+    fun isAbsent(className: String, classLoader: ClassLoader?): Boolean {
+        val lpparam = loadPackageParam ?: return false
+        if (classLoader == null || classLoader !== lpparam.classLoader) return false
+        if (!isLoaded) {
+            isLoaded = true
+            load(lpparam)
+        }
+        val packages = packages ?: return false
+        val index = className.lastIndexOf('.')
+        if (index <= 0 || !packages.contains(className.substring(0, index))) return false
+        return classHashes.binarySearch(hash(className)) < 0
+    }
+
+    private fun load(lpparam: LoadPackageParam) {
+        val appInfo = lpparam.appInfo ?: return
+        val apk = File(appInfo.sourceDir ?: return)
+        val versionCode = runCatching { XposedHelpers.getIntField(appInfo, "versionCode") }.getOrDefault(-1)
+        val fingerprint = "$FORMAT_VERSION|${lpparam.packageName}|$versionCode|${apk.length()}|${apk.lastModified()}|${Build.FINGERPRINT}"
+        val file = appInfo.dataDir?.let { File(it, "cache/$CACHE_FILE_NAME") }
+
+        if (file != null && file.exists()) {
+            try {
+                DataInputStream(file.inputStream().buffered()).use { input ->
+                    if (input.readUTF() == fingerprint) {
+                        val set = HashSet<String>()
+                        repeat(input.readInt()) { set.add(input.readUTF()) }
+                        classHashes = LongArray(input.readInt()) { input.readLong() }
+                        packages = set
+                        return
+                    }
+                }
+            } catch (t: Throwable) {
+                LogD(TAG, "load index failed", t)
+            }
+        }
+
+        try {
+            build(lpparam.classLoader)
+        } catch (t: Throwable) {
+            LogD(TAG, "build index failed", t)
+            packages = null
+            return
+        }
+        if (file == null) return
+        try {
+            file.parentFile?.mkdirs()
+            val tmp = File(file.path + ".tmp")
+            DataOutputStream(tmp.outputStream().buffered()).use { output ->
+                output.writeUTF(fingerprint)
+                output.writeInt(packages!!.size)
+                for (name in packages!!) output.writeUTF(name)
+                output.writeInt(classHashes.size)
+                for (value in classHashes) output.writeLong(value)
+            }
+            tmp.renameTo(file)
+        } catch (t: Throwable) {
+            LogD(TAG, "save index failed", t)
+        }
+    }
+
+    private fun build(classLoader: ClassLoader) {
+        val classes = classLoader.allClassesList()
+        if (classes.isEmpty()) throw IllegalStateException("empty class list")
+
+        val bootPackages = HashSet<String>()
+        System.getenv("BOOTCLASSPATH")?.split(':')?.forEach { path ->
+            runCatching {
+                @Suppress("DEPRECATION")
+                val dexFile = DexFile(path)
+                for (name in dexFile.entries()) bootPackages.add(packageOf(name))
+                dexFile.close()
+            }.onFailure { LogD(TAG, "read $path failed", it) }
+        }
+        // 无法区分共用包时不建立索引
+        if (bootPackages.isEmpty()) throw IllegalStateException("empty boot class list")
+
+        val set = HashSet<String>()
+        val hashes = ArrayList<Long>(classes.size)
+        for (name in classes) {
+            val pkg = packageOf(name)
+            if (pkg.isEmpty() || bootPackages.contains(pkg)) continue
+            set.add(pkg)
+            hashes.add(hash(name))
+        }
+        classHashes = hashes.toLongArray().apply { sort() }
+        packages = set
+    }
+
+    private fun packageOf(className: String): String {
+        val index = className.lastIndexOf('.')
+        return if (index <= 0) "" else className.substring(0, index)
+    }
+
+    // FNV-1a
+    private fun hash(value: String): Long {
+        var hash = -0x340d631b7bdddcdbL
+        for (c in value) {
+            hash = hash xor c.code.toLong()
+            hash *= 0x100000001b3L
+        }
+        return hash
+    }
+}
@@ -265,6 +265,30 @@ fun Any.getBooleanFieldOrNull(field: String?) = runCatchingOrNull {
     getBooleanField(this, field)
 }
 
+// FieldAccessor / MethodAccessor 版本，用于频繁调用的回调
+fun Any.getObjectField(field: FieldAccessor): Any? = field.get(this)
+
+@Suppress("UNCHECKED_CAST")
+fun <T> Any.getObjectFieldAs(field: FieldAccessor) = field.get(this) as T
+
+fun Any.getIntField(field: FieldAccessor) = field.getInt(this)
+
+fun Any.getFloatField(field: FieldAccessor) = field.getFloat(this)
+
+fun Any.getBooleanField(field: FieldAccessor) = field.getBoolean(this)
+
+fun Any.setObjectField(field: FieldAccessor, value: Any?) = field.set(this, value)
+
+fun Any.setIntField(field: FieldAccessor, value: Int) = field.setInt(this, value)
+
+fun Any.setFloatField(field: FieldAccessor, value: Float) = field.setFloat(this, value)
+
+fun Any.setBooleanField(field: FieldAccessor, value: Boolean) = field.setBoolean(this, value)
+
+fun Any.callMethod(method: MethodAccessor): Any? = method.invoke(this)
+
+fun Any.callMethod(method: MethodAccessor, vararg args: Any?): Any? = method.invoke(this, *args)
+
 fun Any.callMethod(methodName: String?, vararg args: Any?): Any? = callMethod(this, methodName, *args)
 
 fun Any.callMethodOrNull(methodName: String?, vararg args: Any?): Any? = runCatchingOrNull {
@@ -0,0 +1,69 @@
+package com.sevtinge.cemiuiler.utils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import de.robv.android.xposed.XposedHelpers;
+
+/**
+ * 按名称与参数类型调用方法，第一次使用时查找并缓存 Method
+ * <p>
+ * 与 XposedHelpers.callMethod 相比，之后的调用不再根据参数推断重载、拼接字符串查缓存。
+ * 对象的类与缓存的 Method 不匹配时重新查找（包括父类中声明的方法）
+ */
+public final class MethodAccessor {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final String mName;
+    private final Class<?>[] mParameterTypes;
+    private volatile Method mMethod;
+
+    public MethodAccessor(String name, Class<?>... parameterTypes) {
+        mName = name;
+        mParameterTypes = parameterTypes;
+    }
+
+    /**
+     * 用于静态方法，立即查找
+     */
+    public static MethodAccessor of(Class<?> clazz, String name, Class<?>... parameterTypes) {
+        MethodAccessor accessor = new MethodAccessor(name, parameterTypes);
+        accessor.mMethod = accessor.find(clazz);
+        return accessor;
+    }
+
+    private Method find(Class<?> clazz) {
+        for (Class<?> c = clazz; c != null; c = c.getSuperclass()) {
+            try {
+                Method method = c.getDeclaredMethod(mName, mParameterTypes);
+                method.setAccessible(true);
+                return method;
+            } catch (NoSuchMethodException ignored) {
+            }
+        }
+        throw new NoSuchMethodError(clazz.getName() + "#" + mName);
+    }
+
+    private Method resolve(Object obj) {
+        Method method = mMethod;
+        if (method != null && (obj == null || method.getDeclaringClass().isInstance(obj))) return method;
+        method = find(obj.getClass());
+        mMethod = method;
+        return method;
+    }
+
+    public Object invoke(Object obj) {
+        return invoke(obj, NO_ARGS);
+    }
+
+    public Object invoke(Object obj, Object... args) {
+        try {
+            return resolve(obj).invoke(obj, args);
+        } catch (IllegalAccessException e) {
+            throw new IllegalAccessError(e.getMessage());
+        } catch (InvocationTargetException e) {
+            throw new XposedHelpers.InvocationTargetError(e.getCause());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.sevtinge.cemiuiler.utils;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.os.LocaleList;
+
+/**
+ * 模块 Resources 缓存
+ * <p>
+ * 按影响资源选择的配置项（densityDpi、深色模式、语言、字体缩放、方向）缓存 createConfigurationContext 的结果，
+ * 配置不变时直接复用，不再每次创建新的 ContextImpl 与 AssetManager。查找过程无锁，
+ * 并发未命中时最多重复创建一次，只保留最近使用的几种配置
+ */
+public final class ModuleResCache {
+
+    // 例如浅色 / 深色、横屏 / 竖屏切换，保留少量即可
+    private static final int MAX_ENTRIES = 4;
+
+    private static final class Entry {
+        final int densityDpi;
+        final int nightMode;
+        final int orientation;
+        final float fontScale;
+        final LocaleList locales;
+        final Resources resources;
+
+        Entry(Configuration config, Resources resources) {
+            densityDpi = config.densityDpi;
+            nightMode = config.uiMode & Configuration.UI_MODE_NIGHT_MASK;
+            orientation = config.orientation;
+            fontScale = config.fontScale;
+            locales = config.getLocales();
+            this.resources = resources;
+        }
+
+        boolean matches(Configuration config) {
+            return densityDpi == config.densityDpi
+                && nightMode == (config.uiMode & Configuration.UI_MODE_NIGHT_MASK)
+                && orientation == config.orientation
+                && fontScale == config.fontScale
+                && locales.equals(config.getLocales());
+        }
+    }
+
+    private static volatile Entry[] sEntries = new Entry[0];
+
+    private ModuleResCache() {
+    }
+
+    public static Resources get(Context moduleContext, Configuration config) {
+        Entry[] entries = sEntries;
+        for (Entry entry : entries) {
+            if (entry.matches(config)) return entry.resources;
+        }
+
+        Entry created = new Entry(config, moduleContext.createConfigurationContext(config).getResources());
+        // 新配置放在最前，超出数量时丢弃最久的一项
+        Entry[] updated = new Entry[Math.min(entries.length + 1, MAX_ENTRIES)];
+        updated[0] = created;
+        System.arraycopy(entries, 0, updated, 1, updated.length - 1);
+        sEntries = updated;
+        return created.resources;
+    }
+
+    public static void clear() {
+        sEntries = new Entry[0];
+    }
+}
@@ -0,0 +1,53 @@
+package com.sevtinge.cemiuiler.utils;
+
+/**
+ * 预先解析的设置项句柄，在 Hook 初始化时创建一次，之后通过 PrefsMap 按 slot 读取
+ * <pre>
+ * private static final PrefKey SPACING = PrefKey.integer("system_ui_statusbar_battery_update_spacing", 2);
+ * mPrefsMap.getInt(SPACING);
+ * </pre>
+ */
+public final class PrefKey {
+
+    static final int TYPE_BOOLEAN = 1;
+    static final int TYPE_INT = 2;
+    static final int TYPE_STRING = 3;
+    static final int TYPE_STRING_AS_INT = 4;
+
+    final String key;
+    final int type;
+    final boolean defBoolean;
+    final int defInt;
+    final String defString;
+
+    PrefsMap<?, ?> owner;
+    int slot = -1;
+
+    private PrefKey(String key, int type, boolean defBoolean, int defInt, String defString) {
+        this.key = key;
+        this.type = type;
+        this.defBoolean = defBoolean;
+        this.defInt = defInt;
+        this.defString = defString;
+    }
+
+    public static PrefKey bool(String key) {
+        return new PrefKey(key, TYPE_BOOLEAN, false, 0, null);
+    }
+
+    public static PrefKey integer(String key, int defValue) {
+        return new PrefKey(key, TYPE_INT, false, defValue, null);
+    }
+
+    public static PrefKey string(String key, String defValue) {
+        return new PrefKey(key, TYPE_STRING, false, 0, defValue);
+    }
+
+    public static PrefKey stringAsInt(String key, int defValue) {
+        return new PrefKey(key, TYPE_STRING_AS_INT, false, defValue, null);
+    }
+
+    public String getKey() {
+        return key;
+    }
+}
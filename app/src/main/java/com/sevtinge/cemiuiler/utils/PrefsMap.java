@@ -1,39 +1,260 @@
 package com.sevtinge.cemiuiler.utils;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class PrefsMap<K, V> extends HashMap<K, V> {
+/**
+ * 模块设置
+ * <p>
+ * 设置同步线程与各 Hook 所在线程同时读写，底层使用 ConcurrentHashMap；写入方法互斥，
+ * 值为 null 时视为删除该项
+ */
+public class PrefsMap<K, V> extends ConcurrentHashMap<K, V> {
+
+    private static final String PREFIX = "prefs_key_";
+
+    private static final int TYPE_NONE = 0;
+    private static final int TYPE_BOOLEAN = 1;
+    private static final int TYPE_INT = 2;
+    private static final int TYPE_STRING = 3;
+    private static final int TYPE_OTHER = 4;
+
+    /*
+     * 不带 prefs_key_ 前缀的 key -> slot，slot 一经分配不再变化，PrefKey 解析一次后即可长期使用
+     */
+    private final ConcurrentHashMap<String, Integer> mSlots = new ConcurrentHashMap<>();
+    private volatile Snapshot mSnapshot = new Snapshot(0);
+
+    /*
+     * 编译后的只读快照，写入时复制一份并只更新变化的 slot，发布后不再修改
+     */
+    private static final class Snapshot {
+        final byte[] types;
+        final long[] bools;
+        final int[] ints;
+        final long[] parsedInts;
+        final int[] stringInts;
+        final Object[] objects;
+
+        Snapshot(int size) {
+            types = new byte[size];
+            bools = new long[(size + 63) >> 6];
+            ints = new int[size];
+            parsedInts = new long[(size + 63) >> 6];
+            stringInts = new int[size];
+            objects = new Object[size];
+        }
+
+        Snapshot copy(int size) {
+            Snapshot copy = new Snapshot(size);
+            System.arraycopy(types, 0, copy.types, 0, Math.min(types.length, size));
+            System.arraycopy(bools, 0, copy.bools, 0, Math.min(bools.length, copy.bools.length));
+            System.arraycopy(ints, 0, copy.ints, 0, Math.min(ints.length, size));
+            System.arraycopy(parsedInts, 0, copy.parsedInts, 0, Math.min(parsedInts.length, copy.parsedInts.length));
+            System.arraycopy(stringInts, 0, copy.stringInts, 0, Math.min(stringInts.length, size));
+            System.arraycopy(objects, 0, copy.objects, 0, Math.min(objects.length, size));
+            return copy;
+        }
+
+        void set(int slot, Object value) {
+            long mask = 1L << slot;
+            types[slot] = TYPE_NONE;
+            bools[slot >> 6] &= ~mask;
+            parsedInts[slot >> 6] &= ~mask;
+            ints[slot] = 0;
+            stringInts[slot] = 0;
+            objects[slot] = null;
+            if (value instanceof Boolean) {
+                types[slot] = TYPE_BOOLEAN;
+                if ((Boolean) value) bools[slot >> 6] |= mask;
+            } else if (value instanceof Integer) {
+                types[slot] = TYPE_INT;
+                ints[slot] = (Integer) value;
+            } else if (value instanceof String) {
+                types[slot] = TYPE_STRING;
+                objects[slot] = value;
+                try {
+                    stringInts[slot] = Integer.parseInt((String) value);
+                    parsedInts[slot >> 6] |= mask;
+                } catch (NumberFormatException ignore) {
+                }
+            } else if (value != null) {
+                types[slot] = TYPE_OTHER;
+                objects[slot] = value;
+            }
+        }
+    }
 
     public Object getObject(String key, Object defValue) {
         return get(key) == null ? defValue : get(key);
     }
 
     public int getInt(String key, int defValue) {
-        key = "prefs_key_" + key;
+        Snapshot snapshot = getSnapshot();
+        int slot = slotOf(key, snapshot);
+        if (slot < 0) return defValue;
+        if (snapshot.types[slot] == TYPE_INT) return snapshot.ints[slot];
+        key = PREFIX + key;
         return get(key) == null ? defValue : (Integer) get(key);
     }
 
     public String getString(String key, String defValue) {
-        key = "prefs_key_" + key;
+        Snapshot snapshot = getSnapshot();
+        int slot = slotOf(key, snapshot);
+        if (slot < 0) return defValue;
+        if (snapshot.types[slot] == TYPE_STRING) return (String) snapshot.objects[slot];
+        key = PREFIX + key;
         return get(key) == null ? defValue : (String) get(key);
     }
 
     public int getStringAsInt(String key, int defValue) {
-        key = "prefs_key_" + key;
+        Snapshot snapshot = getSnapshot();
+        int slot = slotOf(key, snapshot);
+        if (slot < 0) return defValue;
+        if (isSet(snapshot.parsedInts, slot)) return snapshot.stringInts[slot];
+        key = PREFIX + key;
         return get(key) == null ? defValue : Integer.parseInt((String) get(key));
     }
 
     @SuppressWarnings("unchecked")
     public Set<String> getStringSet(String key) {
-        key = "prefs_key_" + key;
+        key = PREFIX + key;
         return get(key) == null ? new LinkedHashSet<>() : (Set<String>) get(key);
     }
 
     public boolean getBoolean(String key) {
-        key = "prefs_key_" + key;
+        Snapshot snapshot = getSnapshot();
+        int slot = slotOf(key, snapshot);
+        if (slot < 0) return false;
+        if (snapshot.types[slot] == TYPE_BOOLEAN) return isSet(snapshot.bools, slot);
+        key = PREFIX + key;
         return get(key) == null ? false : (Boolean) get(key);
     }
 
+    /**
+     * 通过预先解析的 PrefKey 读取，只有一次数组访问，不分配对象
+     */
+    public boolean getBoolean(PrefKey prefKey) {
+        Snapshot snapshot = getSnapshot();
+        int slot = resolve(prefKey);
+        if (slot >= snapshot.types.length || snapshot.types[slot] != TYPE_BOOLEAN) return prefKey.defBoolean;
+        return isSet(snapshot.bools, slot);
+    }
+
+    public int getInt(PrefKey prefKey) {
+        Snapshot snapshot = getSnapshot();
+        int slot = resolve(prefKey);
+        if (slot >= snapshot.types.length) return prefKey.defInt;
+        if (prefKey.type == PrefKey.TYPE_STRING_AS_INT) {
+            return isSet(snapshot.parsedInts, slot) ? snapshot.stringInts[slot] : prefKey.defInt;
+        }
+        return snapshot.types[slot] == TYPE_INT ? snapshot.ints[slot] : prefKey.defInt;
+    }
+
+    public String getString(PrefKey prefKey) {
+        Snapshot snapshot = getSnapshot();
+        int slot = resolve(prefKey);
+        if (slot >= snapshot.types.length || snapshot.types[slot] != TYPE_STRING) return prefKey.defString;
+        return (String) snapshot.objects[slot];
+    }
+
+    private int resolve(PrefKey prefKey) {
+        int slot = prefKey.slot;
+        if (slot < 0 || prefKey.owner != this) {
+            slot = obtainSlot(prefKey.key);
+            prefKey.owner = this;
+            prefKey.slot = slot;
+        }
+        return slot;
+    }
+
+    private int obtainSlot(String key) {
+        Integer slot = mSlots.get(key);
+        if (slot != null) return slot;
+        synchronized (mSlots) {
+            slot = mSlots.get(key);
+            if (slot == null) {
+                slot = mSlots.size();
+                mSlots.put(key, slot);
+            }
+            return slot;
+        }
+    }
+
+    private int slotOf(String key, Snapshot snapshot) {
+        Integer slot = mSlots.get(key);
+        return slot == null || slot >= snapshot.types.length || snapshot.types[slot] == TYPE_NONE ? -1 : slot;
+    }
+
+    private static boolean isSet(long[] bits, int slot) {
+        return (bits[slot >> 6] & (1L << slot)) != 0;
+    }
+
+    private Snapshot getSnapshot() {
+        return mSnapshot;
+    }
+
+    /**
+     * 在已持有写入锁时调用，把给定 key 的当前值写入快照副本后整体发布
+     */
+    private void publish(Collection<?> keys) {
+        Snapshot snapshot = null;
+        for (Object k : keys) {
+            if (!(k instanceof String) || !((String) k).startsWith(PREFIX)) continue;
+            int slot = obtainSlot(((String) k).substring(PREFIX.length()));
+            if (snapshot == null || slot >= snapshot.types.length) {
+                snapshot = (snapshot == null ? mSnapshot : snapshot).copy(mSlots.size());
+            }
+            snapshot.set(slot, super.get(k));
+        }
+        if (snapshot != null) mSnapshot = snapshot;
+    }
+
+    @Override
+    public synchronized V put(K key, V value) {
+        V old = value == null ? super.remove(key) : super.put(key, value);
+        publish(Collections.singletonList(key));
+        return old;
+    }
+
+    @Override
+    public synchronized void putAll(Map<? extends K, ? extends V> m) {
+        for (Map.Entry<? extends K, ? extends V> entry : m.entrySet()) {
+            if (entry.getValue() == null) super.remove(entry.getKey());
+            else super.put(entry.getKey(), entry.getValue());
+        }
+        publish(m.keySet());
+    }
+
+    /**
+     * 一次写入同步得到的修改与删除，快照只复制并发布一次
+     */
+    public synchronized void update(Map<? extends K, ? extends V> changed, Collection<?> removed) {
+        for (Object key : removed) super.remove(key);
+        for (Map.Entry<? extends K, ? extends V> entry : changed.entrySet()) {
+            if (entry.getValue() == null) super.remove(entry.getKey());
+            else super.put(entry.getKey(), entry.getValue());
+        }
+        ArrayList<Object> keys = new ArrayList<>(removed);
+        keys.addAll(changed.keySet());
+        publish(keys);
+    }
+
+    @Override
+    public synchronized V remove(Object key) {
+        V old = super.remove(key);
+        publish(Collections.singletonList(key));
+        return old;
+    }
+
+    @Override
+    public synchronized void clear() {
+        super.clear();
+        mSnapshot = new Snapshot(mSlots.size());
+    }
 }
@@ -6,16 +6,26 @@ import android.content.SharedPreferences;
 import android.database.ContentObserver;
 import android.database.Cursor;
 import android.net.Uri;
+import android.os.Bundle;
 import android.os.Handler;
+import android.os.HandlerThread;
 
 import com.sevtinge.cemiuiler.XposedInit;
 import com.sevtinge.cemiuiler.provider.SharedPrefsProvider;
 import com.sevtinge.cemiuiler.utils.log.XposedLogUtils;
 
 import java.io.File;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import de.robv.android.xposed.XposedBridge;
 
@@ -192,6 +202,123 @@ public class PrefsUtils {
     }
 
 
+    private static long mSyncEpoch = 0;
+    private static long mSyncVersion = 0;
+
+    /**
+     * 通过 SharedPrefsProvider 的批量通道拉取上次同步之后变化的设置项，一次 IPC 写入 mPrefsMap
+     *
+     * @return 本次变化的 key，失败时返回空集合
+     */
+    public static synchronized Set<String> syncSharedPrefs(Context context) {
+        Set<String> changed = new HashSet<>();
+        try {
+            Bundle extras = new Bundle();
+            extras.putLong(SharedPrefsProvider.EXTRA_EPOCH, mSyncEpoch);
+            Bundle result = context.getContentResolver().call(anyPrefsToUri(), SharedPrefsProvider.METHOD_GET_CHANGES, String.valueOf(mSyncVersion), extras);
+            if (result == null) {
+                XposedLogUtils.logI("ContentResolver", "syncSharedPrefs fail: null");
+                return changed;
+            }
+
+            Bundle values = result.getBundle(SharedPrefsProvider.EXTRA_VALUES);
+            ArrayList<String> removed = result.getStringArrayList(SharedPrefsProvider.EXTRA_REMOVED);
+            Map<String, Object> delta = new HashMap<>();
+            if (values != null) {
+                for (String key : values.keySet()) {
+                    Object value = values.get(key);
+                    if (value instanceof ArrayList<?>) value = new HashSet<>((ArrayList<?>) value);
+                    delta.put(key, value);
+                }
+            }
+
+            PrefsMap<String, Object> prefsMap = XposedInit.mPrefsMap;
+            Set<String> removedKeys = new HashSet<>();
+            if (result.getBoolean(SharedPrefsProvider.EXTRA_FULL)) {
+                // 全量同步时清理已被重置的设置项
+                for (String key : prefsMap.keySet()) {
+                    if ((key.startsWith("prefs_key_") || key.startsWith("pref_key_")) && !delta.containsKey(key)) {
+                        removedKeys.add(key);
+                    }
+                }
+            }
+            if (removed != null) removedKeys.addAll(removed);
+
+            // 只报告值确实变化的项，首次全量同步时与启动时读入的值相同的项不算变化
+            for (String key : removedKeys) {
+                if (prefsMap.containsKey(key)) changed.add(key);
+            }
+            for (Map.Entry<String, Object> entry : delta.entrySet()) {
+                if (!Objects.equals(prefsMap.get(entry.getKey()), entry.getValue())) changed.add(entry.getKey());
+            }
+            prefsMap.update(delta, removedKeys);
+
+            mSyncEpoch = result.getLong(SharedPrefsProvider.EXTRA_EPOCH);
+            mSyncVersion = result.getLong(SharedPrefsProvider.EXTRA_VERSION);
+        } catch (Throwable t) {
+            XposedBridge.log(t);
+        }
+        return changed;
+    }
+
+    /**
+     * 监听任意设置项变化，合并短时间内的多次通知后通过 syncSharedPrefs 批量更新 mPrefsMap，
+     * 再以变化的 key 集合回调 onChange(Set)；同一进程内只注册一个 ContentObserver
+     * <p>
+     * 同步在分发器自己的线程上进行，onChange 在各自传入的 Handler 上回调。
+     * 分发器只弱引用观察者，注册方需要自己持有引用，不再需要时调用 unregister
+     */
+    public static class SharedPrefsDeltaObserver {
+
+        private static final long SYNC_DELAY = 100;
+        private static final List<WeakReference<SharedPrefsDeltaObserver>> mObservers = new CopyOnWriteArrayList<>();
+        private static ContentObserver mDispatcher = null;
+
+        private final Handler mHandler;
+        private final WeakReference<SharedPrefsDeltaObserver> mRef = new WeakReference<>(this);
+
+        public SharedPrefsDeltaObserver(Context context, Handler handler) {
+            mHandler = handler;
+            mObservers.add(mRef);
+            registerDispatcher(context);
+        }
+
+        public void unregister() {
+            mObservers.remove(mRef);
+        }
+
+        private static synchronized void registerDispatcher(Context context) {
+            if (mDispatcher != null) return;
+            Context appContext = context.getApplicationContext() != null ? context.getApplicationContext() : context;
+            HandlerThread thread = new HandlerThread("SharedPrefsDeltaObserver");
+            thread.start();
+            Handler handler = new Handler(thread.getLooper());
+            Runnable sync = () -> {
+                Set<String> changed = syncSharedPrefs(appContext);
+                if (changed.isEmpty()) return;
+                for (WeakReference<SharedPrefsDeltaObserver> ref : mObservers) {
+                    SharedPrefsDeltaObserver observer = ref.get();
+                    if (observer == null) {
+                        mObservers.remove(ref);
+                        continue;
+                    }
+                    observer.mHandler.post(() -> observer.onChange(changed));
+                }
+            };
+            mDispatcher = new ContentObserver(handler) {
+                @Override
+                public void onChange(boolean selfChange, Uri uri) {
+                    handler.removeCallbacks(sync);
+                    handler.postDelayed(sync, SYNC_DELAY);
+                }
+            };
+            appContext.getContentResolver().registerContentObserver(anyPrefsToUri(), true, mDispatcher);
+        }
+
+        public void onChange(Set<String> keys) {
+        }
+    }
+
     public static class SharedPrefsObserver extends ContentObserver {
 
         enum PrefType {
@@ -3,10 +3,14 @@ package com.sevtinge.cemiuiler.utils;
 import static com.sevtinge.cemiuiler.utils.log.AndroidLogUtils.LogD;
 
 import android.content.Context;
+import android.content.res.AssetManager;
 import android.content.res.Resources;
 import android.util.Pair;
+import android.util.SparseArray;
 import android.util.SparseIntArray;
 
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 
 import de.robv.android.xposed.XposedBridge;
@@ -21,9 +25,66 @@ public class ResourcesHook {
         OBJECT
     }
 
-    private final SparseIntArray fakes = new SparseIntArray();
+    // 写时复制，发布后不再修改，读取无需加锁
+    private volatile SparseIntArray fakes = new SparseIntArray();
     private final ConcurrentHashMap<String, Pair<ReplacementType, Object>> replacements = new ConcurrentHashMap<>();
 
+    /*
+     * 按 AssetManager 缓存 resId -> 替换项 的解析结果，同一个 AssetManager 下 resId 与资源名一一对应
+     * 未命中的 resId 记为 NO_REPLACEMENT，之后再次查询只需一次 SparseArray 查找，不再拼接字符串
+     * 一个进程里的 AssetManager 只有寥寥几个，索引放在写时复制的数组里按引用比较，查询不分配对象
+     */
+    private static final Object NO_REPLACEMENT = new Object();
+    private volatile ReplacementIndex[] replacementIndex = new ReplacementIndex[0];
+    // 替换项变化时递增，旧的索引随之作废
+    private volatile int indexGeneration = 0;
+    // 绝大多数查询来自同一个 AssetManager，先比较上一次的索引
+    private volatile ReplacementIndex lastIndex;
+
+    /*
+     * 已发布的 entries 只读，查询不加锁；新解析的结果先放进 pending，
+     * 积累到已发布数量的一定比例后再合并发布，预热阶段的复制总量与条目数成线性关系
+     */
+    private static final class ReplacementIndex {
+        final WeakReference<AssetManager> assets;
+        final int generation;
+        volatile SparseArray<Object> entries = new SparseArray<>();
+        private final SparseArray<Object> pending = new SparseArray<>();
+        private int pendingReads;
+
+        ReplacementIndex(AssetManager assets, int generation) {
+            this.assets = new WeakReference<>(assets);
+            this.generation = generation;
+        }
+
+        Object get(int resId) {
+            Object value = entries.get(resId);
+            if (value != null) return value;
+            synchronized (this) {
+                value = pending.get(resId);
+                if (value != null && ++pendingReads >= mergeThreshold()) merge();
+                return value;
+            }
+        }
+
+        synchronized void put(int resId, Object value) {
+            pending.put(resId, value);
+            if (pending.size() + pendingReads >= mergeThreshold()) merge();
+        }
+
+        private int mergeThreshold() {
+            return 8 + entries.size() / 4;
+        }
+
+        private void merge() {
+            SparseArray<Object> copy = entries.clone();
+            for (int i = 0; i < pending.size(); i++) copy.put(pending.keyAt(i), pending.valueAt(i));
+            entries = copy;
+            pending.clear();
+            pendingReads = 0;
+        }
+    }
+
     public static int getFakeResId(String resourceName) {
         return 0x7e00f000 | (resourceName.hashCode() & 0x00ffffff);
     }
@@ -31,12 +92,18 @@ public class ResourcesHook {
     private final Helpers.MethodHook mReplaceHook = new Helpers.MethodHook() {
         @Override
         protected void before(MethodHookParam param) {
+            int resId = (int) param.args[0];
+            boolean isFake = fakes.indexOfKey(resId) >= 0;
+            Resources res = (Resources) param.thisObject;
+            Pair<ReplacementType, Object> replacement = isFake ? null : getReplacement(res, resId);
+            if (!isFake && replacement == null) return;
+
             Context mContext = Helpers.findContext();
             if (mContext == null) return;
             String method = param.method.getName();
-            Object value = getFakeResource(mContext, method, param.args);
+            Object value = isFake ? getFakeResource(mContext, method, param.args) : null;
             if (value == null) {
-                value = getResourceReplacement(mContext, (Resources) param.thisObject, method, param.args);
+                value = getResourceReplacement(mContext, res, replacement, method, param.args);
                 if (value == null) return;
                 if ("getDimensionPixelOffset".equals(method) || "getDimensionPixelSize".equals(method)) {
                     if (value instanceof Float) value = ((Float) value).intValue();
@@ -72,7 +139,11 @@ public class ResourcesHook {
         try {
             applyHooks();
             int fakeResId = getFakeResId(resName);
-            fakes.put(fakeResId, resId);
+            synchronized (this) {
+                SparseIntArray copy = fakes.clone();
+                copy.put(fakeResId, resId);
+                fakes = copy;
+            }
             return fakeResId;
         } catch (Throwable t) {
             XposedBridge.log(t);
@@ -105,6 +176,7 @@ public class ResourcesHook {
         try {
             applyHooks();
             replacements.put(pkg + ":" + type + "/" + name, new Pair<>(ReplacementType.ID, replacementResId));
+            invalidateReplacementIndex();
         } catch (Throwable t) {
             XposedBridge.log(t);
         }
@@ -114,6 +186,7 @@ public class ResourcesHook {
         try {
             applyHooks();
             replacements.put(pkg + ":" + type + "/" + name, new Pair<>(ReplacementType.DENSITY, replacementResValue));
+            invalidateReplacementIndex();
         } catch (Throwable t) {
             XposedBridge.log(t);
         }
@@ -123,42 +196,91 @@ public class ResourcesHook {
         try {
             applyHooks();
             replacements.put(pkg + ":" + type + "/" + name, new Pair<>(ReplacementType.OBJECT, replacementResValue));
+            invalidateReplacementIndex();
         } catch (Throwable t) {
             XposedBridge.log(t);
         }
     }
 
-    private Object getResourceReplacement(Context context, Resources res, String method, Object[] args) {
-        if (context == null) return null;
+    private synchronized void invalidateReplacementIndex() {
+        indexGeneration++;
+        lastIndex = null;
+        replacementIndex = new ReplacementIndex[0];
+    }
 
+    @SuppressWarnings("unchecked")
+    private Pair<ReplacementType, Object> getReplacement(Resources res, int resId) {
+        if (replacements.isEmpty()) return null;
+        ReplacementIndex index = getReplacementIndex(res.getAssets());
+        Object cached = index.get(resId);
+        if (cached == null) {
+            cached = resolveReplacement(res, resId);
+            index.put(resId, cached);
+        }
+        return cached == NO_REPLACEMENT ? null : (Pair<ReplacementType, Object>) cached;
+    }
+
+    private ReplacementIndex getReplacementIndex(AssetManager assets) {
+        int generation = indexGeneration;
+        ReplacementIndex index = lastIndex;
+        if (index != null && index.generation == generation && index.assets.get() == assets) return index;
+
+        index = findReplacementIndex(replacementIndex, assets, generation);
+        if (index == null) index = addReplacementIndex(assets, generation);
+        lastIndex = index;
+        return index;
+    }
+
+    private static ReplacementIndex findReplacementIndex(ReplacementIndex[] indexes, AssetManager assets, int generation) {
+        for (ReplacementIndex index : indexes) {
+            if (index.generation == generation && index.assets.get() == assets) return index;
+        }
+        return null;
+    }
+
+    private synchronized ReplacementIndex addReplacementIndex(AssetManager assets, int generation) {
+        ReplacementIndex[] indexes = replacementIndex;
+        ReplacementIndex index = findReplacementIndex(indexes, assets, generation);
+        if (index != null) return index;
+        // 新建索引时顺带清理已回收或已作废的 AssetManager
+        ReplacementIndex[] copy = new ReplacementIndex[indexes.length + 1];
+        int size = 0;
+        for (ReplacementIndex old : indexes) {
+            if (old.generation == indexGeneration && old.assets.get() != null) copy[size++] = old;
+        }
+        index = new ReplacementIndex(assets, generation);
+        copy[size++] = index;
+        replacementIndex = size == copy.length ? copy : Arrays.copyOf(copy, size);
+        return index;
+    }
+
+    private Object resolveReplacement(Resources res, int resId) {
         String pkgName = null;
         String resType = null;
         String resName = null;
         try {
-            pkgName = res.getResourcePackageName((int) args[0]);
-            resType = res.getResourceTypeName((int) args[0]);
-            resName = res.getResourceEntryName((int) args[0]);
+            pkgName = res.getResourcePackageName(resId);
+            resType = res.getResourceTypeName(resId);
+            resName = res.getResourceEntryName(resId);
         } catch (Throwable ignore) {
         }
-        if (pkgName == null || resType == null || resName == null) return null;
+        if (pkgName == null || resType == null || resName == null) return NO_REPLACEMENT;
+
+        Pair<ReplacementType, Object> replacement = replacements.get(pkgName + ":" + resType + "/" + resName);
+        if (replacement == null) replacement = replacements.get("*:" + resType + "/" + resName);
+        return replacement == null ? NO_REPLACEMENT : replacement;
+    }
+
+    private Object getResourceReplacement(Context context, Resources res, Pair<ReplacementType, Object> replacement, String method, Object[] args) {
+        if (context == null || replacement == null) return null;
 
         try {
             Object value;
-            String resFullName = pkgName + ":" + resType + "/" + resName;
-            String resAnyPkgName = "*:" + resType + "/" + resName;
-
             Integer modResId = null;
-            Pair<ReplacementType, Object> replacement = null;
-            if (replacements.containsKey(resFullName))
-                replacement = replacements.get(resFullName);
-            else if (replacements.containsKey(resAnyPkgName))
-                replacement = replacements.get(resAnyPkgName);
-
-            if (replacement != null)
-                if (replacement.first == ReplacementType.OBJECT) return replacement.second;
-                else if (replacement.first == ReplacementType.DENSITY) {
-                    return (Float) replacement.second * res.getDisplayMetrics().density;
-                } else if (replacement.first == ReplacementType.ID) modResId = (Integer) replacement.second;
+            if (replacement.first == ReplacementType.OBJECT) return replacement.second;
+            else if (replacement.first == ReplacementType.DENSITY) {
+                return (Float) replacement.second * res.getDisplayMetrics().density;
+            } else if (replacement.first == ReplacementType.ID) modResId = (Integer) replacement.second;
             if (modResId == null) return null;
 
             Resources modRes = Helpers.getModuleRes(context);
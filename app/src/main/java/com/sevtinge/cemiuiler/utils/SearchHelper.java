@@ -4,18 +4,15 @@ import static com.sevtinge.cemiuiler.utils.api.VoyagerApisKt.isPad;
 
 import android.content.Context;
 import android.content.res.Resources;
-import android.content.res.XmlResourceParser;
 import android.graphics.Color;
 import android.text.TextUtils;
 
 import com.sevtinge.cemiuiler.R;
 import com.sevtinge.cemiuiler.data.ModData;
-
-import org.xmlpull.v1.XmlPullParser;
+import com.sevtinge.cemiuiler.data.SearchIndex;
 
 import java.util.ArrayList;
 import java.util.HashSet;
-import java.util.Objects;
 import java.util.Set;
 
 public class SearchHelper {
@@ -23,6 +20,8 @@ public class SearchHelper {
     public static final int MARK_COLOR_VIBRANT = Color.rgb(255, 0, 0);
     public static final String NEW_MODS_SEARCH_QUERY = "\uD83C\uDD95";
     public static ArrayList<ModData> allModsList = new ArrayList<>();
+    // allModsList 开始或完成重建时递增，搜索索引据此判断是否需要重建
+    public static volatile int allModsVersion = 0;
 
     public static final HashSet<String> NEW_MODS = new HashSet<>(
         Set.of(
@@ -39,8 +38,10 @@ public class SearchHelper {
         } else if (allModsList.size() > 0) {
             return;
         }
+        allModsVersion++;
+        Resources res = context.getResources();
         // 系统框架页面相关
-        parsePrefXml(context, R.xml.framework_freeform,
+        addPrefScreen(res, R.xml.framework_freeform,
             R.string.system_framework,
             R.string.floating_window,
             R.string.floating_window,
@@ -48,7 +49,7 @@ public class SearchHelper {
             R.string.floating_window,
             "com.sevtinge.cemiuiler.ui.fragment.framework.FreeFormSettings");
 
-        parsePrefXml(context, R.xml.framework_volume,
+        addPrefScreen(res, R.xml.framework_volume,
             R.string.system_framework,
             R.string.system_framework_volume_title,
             R.string.system_framework_volume_title,
@@ -56,7 +57,7 @@ public class SearchHelper {
             R.string.system_framework_volume_title,
             "com.sevtinge.cemiuiler.ui.fragment.framework.VolumeSettings");
 
-        parsePrefXml(context, R.xml.framework_phone,
+        addPrefScreen(res, R.xml.framework_phone,
             R.string.system_framework,
             R.string.system_framework_phone_title,
             R.string.system_framework_phone_title,
@@ -64,7 +65,7 @@ public class SearchHelper {
             R.string.system_framework_phone_title,
             "com.sevtinge.cemiuiler.ui.fragment.framework.NetworkSettings");
 
-        parsePrefXml(context, R.xml.framework_display,
+        addPrefScreen(res, R.xml.framework_display,
             R.string.system_framework,
             R.string.system_framework_display_title,
             R.string.system_framework_display_title,
@@ -72,7 +73,7 @@ public class SearchHelper {
             R.string.system_framework_display_title,
             "com.sevtinge.cemiuiler.ui.fragment.framework.DisplaySettings");
 
-        parsePrefXml(context, R.xml.framework_other,
+        addPrefScreen(res, R.xml.framework_other,
             R.string.system_framework,
             R.string.system_framework_other_title,
             R.string.system_framework_other_title,
@@ -81,7 +82,7 @@ public class SearchHelper {
             "com.sevtinge.cemiuiler.ui.fragment.framework.OtherSettings");
 
         // 系统界面页面相关
-        parsePrefXml(context, R.xml.system_ui_lock_screen,
+        addPrefScreen(res, R.xml.system_ui_lock_screen,
             R.string.system_ui,
             R.string.system_ui_lockscreen_title,
             R.string.system_ui_lockscreen_title,
@@ -89,7 +90,7 @@ public class SearchHelper {
             R.string.system_ui_lockscreen_title,
             "com.sevtinge.cemiuiler.ui.fragment.systemui.LockScreenSettings");
 
-        parsePrefXml(context, R.xml.system_ui_status_bar,
+        addPrefScreen(res, R.xml.system_ui_status_bar,
             R.string.system_ui,
             R.string.system_ui_statusbar_title,
             R.string.system_ui_statusbar_title,
@@ -97,7 +98,7 @@ public class SearchHelper {
             R.string.system_ui_statusbar_title,
             "com.sevtinge.cemiuiler.ui.fragment.systemui.StatusBarSettings");
 
-        parsePrefXml(context, R.xml.system_ui_status_bar_icon_manage,
+        addPrefScreen(res, R.xml.system_ui_status_bar_icon_manage,
             R.string.system_ui,
             R.string.system_ui_statusbar_title,
             R.string.system_ui_statusbar_iconmanage_title,
@@ -105,7 +106,7 @@ public class SearchHelper {
             R.string.system_ui_statusbar_iconmanage_title,
             "com.sevtinge.cemiuiler.ui.fragment.systemui.statusbar.IconManageSettings");
 
-        parsePrefXml(context, R.xml.system_ui_status_bar_mobile_network_type,
+        addPrefScreen(res, R.xml.system_ui_status_bar_mobile_network_type,
             R.string.system_ui,
             R.string.system_ui_statusbar_title,
             R.string.system_ui_statusbar_iconmanage_title,
@@ -113,7 +114,7 @@ public class SearchHelper {
             R.string.system_ui_status_bar_mobile_type_single_title,
             "com.sevtinge.cemiuiler.ui.fragment.systemui.statusbar.MobileNetworkTypeSettings");
 
-        parsePrefXml(context, R.xml.system_ui_status_bar_doubleline_network,
+        addPrefScreen(res, R.xml.system_ui_status_bar_doubleline_network,
             R.string.system_ui,
             R.string.system_ui_statusbar_title,
             R.string.system_ui_statusbar_iconmanage_title,
@@ -121,7 +122,7 @@ public class SearchHelper {
             R.string.system_ui_statusbar_iconmanage_mobile_network_title,
             "com.sevtinge.cemiuiler.ui.fragment.systemui.statusbar.DoubleLineNetworkSettings");
 
-        parsePrefXml(context, R.xml.system_ui_status_bar_battery_styles,
+        addPrefScreen(res, R.xml.system_ui_status_bar_battery_styles,
             R.string.system_ui,
             R.string.system_ui_statusbar_title,
             R.string.system_ui_statusbar_iconmanage_title,
@@ -129,7 +130,7 @@ public class SearchHelper {
             R.string.system_ui_status_bar_battery_style_title,
             "com.sevtinge.cemiuiler.ui.fragment.systemui.statusbar.BatteryStyleSettings");
 
-        parsePrefXml(context, R.xml.system_ui_status_bar_network_speed_indicator,
+        addPrefScreen(res, R.xml.system_ui_status_bar_network_speed_indicator,
             R.string.system_ui,
             R.string.system_ui_statusbar_title,
             R.string.system_ui_statusbar_network_speed_indicator_title,
@@ -137,7 +138,7 @@ public class SearchHelper {
             R.string.system_ui_statusbar_network_speed_indicator_title,
             "com.sevtinge.cemiuiler.ui.fragment.systemui.statusbar.NetworkSpeedIndicatorSettings");
 
-        parsePrefXml(context, R.xml.system_ui_status_bar_clock_indicator,
+        addPrefScreen(res, R.xml.system_ui_status_bar_clock_indicator,
             R.string.system_ui,
             R.string.system_ui_statusbar_title,
             R.string.system_ui_statusbar_clock_title,
@@ -145,7 +146,7 @@ public class SearchHelper {
             R.string.system_ui_statusbar_clock_title,
             "com.sevtinge.cemiuiler.ui.fragment.systemui.statusbar.ClockIndicatorSettings");
 
-        parsePrefXml(context, R.xml.system_ui_status_bar_hardware_detail_indicator,
+        addPrefScreen(res, R.xml.system_ui_status_bar_hardware_detail_indicator,
             R.string.system_ui,
             R.string.system_ui_statusbar_title,
             R.string.system_ui_statusbar_device_title,
@@ -153,7 +154,7 @@ public class SearchHelper {
             R.string.system_ui_statusbar_device_title,
             "com.sevtinge.cemiuiler.ui.fragment.systemui.statusbar.BatteryDetailIndicatorSettings");
 
-        parsePrefXml(context, R.xml.system_ui_navigation,
+        addPrefScreen(res, R.xml.system_ui_navigation,
             R.string.system_ui,
             R.string.system_ui_navigation_title,
             R.string.system_ui_navigation_title,
@@ -161,7 +162,7 @@ public class SearchHelper {
             R.string.system_ui_navigation_title,
             "com.sevtinge.cemiuiler.ui.fragment.systemui.NavigationSettings");
 
-        parsePrefXml(context, R.xml.system_ui_control_center,
+        addPrefScreen(res, R.xml.system_ui_control_center,
             R.string.system_ui,
             R.string.system_ui_controlcenter_title,
             R.string.system_ui_controlcenter_title,
@@ -169,7 +170,7 @@ public class SearchHelper {
             R.string.system_ui_controlcenter_title,
             "com.sevtinge.cemiuiler.ui.fragment.systemui.ControlCenterSettings");
 
-        parsePrefXml(context, R.xml.system_ui_other,
+        addPrefScreen(res, R.xml.system_ui_other,
             R.string.system_ui,
             R.string.system_ui_other_title,
             R.string.system_ui_other_title,
@@ -178,7 +179,7 @@ public class SearchHelper {
             "com.sevtinge.cemiuiler.ui.fragment.systemui.SystemUIOtherSettings");
 
         // 系统桌面相关
-        parsePrefXml(context, R.xml.home_gesture,
+        addPrefScreen(res, R.xml.home_gesture,
             R.string.home,
             R.string.home_gesture,
             R.string.home_gesture,
@@ -186,7 +187,7 @@ public class SearchHelper {
             R.string.home_gesture,
             "com.sevtinge.cemiuiler.ui.fragment.home.HomeGestureSettings");
 
-        parsePrefXml(context, R.xml.home_layout,
+        addPrefScreen(res, R.xml.home_layout,
             R.string.home,
             R.string.home_layout,
             R.string.home_layout,
@@ -194,7 +195,7 @@ public class SearchHelper {
             R.string.home_layout,
             "com.sevtinge.cemiuiler.ui.fragment.home.HomeLayoutSettings");
 
-        parsePrefXml(context, R.xml.home_folder,
+        addPrefScreen(res, R.xml.home_folder,
             R.string.home,
             R.string.home_folder,
             R.string.home_folder,
@@ -202,7 +203,7 @@ public class SearchHelper {
             R.string.home_folder,
             "com.sevtinge.cemiuiler.ui.fragment.home.HomeFolderSettings");
 
-        parsePrefXml(context, R.xml.home_drawer,
+        addPrefScreen(res, R.xml.home_drawer,
             R.string.home,
             R.string.home_drawer,
             R.string.home_drawer,
@@ -210,7 +211,7 @@ public class SearchHelper {
             R.string.home_drawer,
             "com.sevtinge.cemiuiler.ui.fragment.home.HomeDrawerSettings");
 
-        parsePrefXml(context, R.xml.home_title,
+        addPrefScreen(res, R.xml.home_title,
             R.string.home,
             R.string.home_title,
             R.string.home_title,
@@ -218,7 +219,7 @@ public class SearchHelper {
             R.string.home_title,
             "com.sevtinge.cemiuiler.ui.fragment.home.HomeTitleSettings");
 
-        parsePrefXml(context, R.xml.home_title_anim,
+        addPrefScreen(res, R.xml.home_title_anim,
             R.string.home,
             R.string.home_title,
             R.string.home_title_custom_anim_param,
@@ -226,7 +227,7 @@ public class SearchHelper {
             R.string.home_title_custom_anim_param,
             "com.sevtinge.cemiuiler.ui.fragment.home.HomeTitleAnimSettings");
 
-        parsePrefXml(context, R.xml.home_title_anim_1,
+        addPrefScreen(res, R.xml.home_title_anim_1,
             R.string.home,
             R.string.home_title,
             R.string.home_title_custom_anim_param,
@@ -234,7 +235,7 @@ public class SearchHelper {
             R.string.home_title_custom_anim_param_1_title,
             "com.sevtinge.cemiuiler.ui.fragment.home.anim.HomeTitleAnim1Settings");
 
-        parsePrefXml(context, R.xml.home_title_anim_2,
+        addPrefScreen(res, R.xml.home_title_anim_2,
             R.string.home,
             R.string.home_title,
             R.string.home_title_custom_anim_param,
@@ -242,7 +243,7 @@ public class SearchHelper {
             R.string.home_title_custom_anim_param_2_title,
             "com.sevtinge.cemiuiler.ui.fragment.home.anim.HomeTitleAnim2Settings");
 
-        parsePrefXml(context, R.xml.home_title_anim_3,
+        addPrefScreen(res, R.xml.home_title_anim_3,
             R.string.home,
             R.string.home_title,
             R.string.home_title_custom_anim_param,
@@ -250,7 +251,7 @@ public class SearchHelper {
             R.string.home_title_custom_anim_param_3_title,
             "com.sevtinge.cemiuiler.ui.fragment.home.anim.HomeTitleAnim3Settings");
 
-        parsePrefXml(context, R.xml.home_title_anim_4,
+        addPrefScreen(res, R.xml.home_title_anim_4,
             R.string.home,
             R.string.home_title,
             R.string.home_title_custom_anim_param,
@@ -258,7 +259,7 @@ public class SearchHelper {
             R.string.home_title_custom_anim_param_4_title,
             "com.sevtinge.cemiuiler.ui.fragment.home.anim.HomeTitleAnim4Settings");
 
-        parsePrefXml(context, R.xml.home_title_anim_5,
+        addPrefScreen(res, R.xml.home_title_anim_5,
             R.string.home,
             R.string.home_title,
             R.string.home_title_custom_anim_param,
@@ -266,7 +267,7 @@ public class SearchHelper {
             R.string.home_title_custom_anim_param_5_title,
             "com.sevtinge.cemiuiler.ui.fragment.home.anim.HomeTitleAnim5Settings");
 
-        parsePrefXml(context, R.xml.home_title_anim_6,
+        addPrefScreen(res, R.xml.home_title_anim_6,
             R.string.home,
             R.string.home_title,
             R.string.home_title_custom_anim_param,
@@ -274,7 +275,7 @@ public class SearchHelper {
             R.string.home_title_custom_anim_param_6_title,
             "com.sevtinge.cemiuiler.ui.fragment.home.anim.HomeTitleAnimSettings");
 
-        parsePrefXml(context, R.xml.home_title_anim_7,
+        addPrefScreen(res, R.xml.home_title_anim_7,
             R.string.home,
             R.string.home_title,
             R.string.home_title_custom_anim_param,
@@ -282,7 +283,7 @@ public class SearchHelper {
             R.string.home_title_custom_anim_param_7_title,
             "com.sevtinge.cemiuiler.ui.fragment.home.anim.HomeTitleAnim7Settings");
 
-        parsePrefXml(context, R.xml.home_title_anim_8,
+        addPrefScreen(res, R.xml.home_title_anim_8,
             R.string.home,
             R.string.home_title,
             R.string.home_title_custom_anim_param,
@@ -290,7 +291,7 @@ public class SearchHelper {
             R.string.home_title_custom_anim_param_8_title,
             "com.sevtinge.cemiuiler.ui.fragment.home.anim.HomeTitleAnim8Settings");
 
-        parsePrefXml(context, R.xml.home_recent,
+        addPrefScreen(res, R.xml.home_recent,
             R.string.home,
             R.string.home_recent,
             R.string.home_recent,
@@ -298,7 +299,7 @@ public class SearchHelper {
             R.string.home_recent,
             "com.sevtinge.cemiuiler.ui.fragment.home.HomeRecentSettings");
 
-        parsePrefXml(context, R.xml.home_widget,
+        addPrefScreen(res, R.xml.home_widget,
             R.string.home,
             R.string.home_widget,
             R.string.home_widget,
@@ -306,7 +307,7 @@ public class SearchHelper {
             R.string.home_widget,
             "com.sevtinge.cemiuiler.ui.fragment.home.HomeWidgetSettings");
 
-        parsePrefXml(context, R.xml.home_dock,
+        addPrefScreen(res, R.xml.home_dock,
             R.string.home,
             R.string.home_dock,
             R.string.home_dock,
@@ -314,7 +315,7 @@ public class SearchHelper {
             R.string.home_dock,
             "com.sevtinge.cemiuiler.ui.fragment.home.HomeDockSettings");
 
-        parsePrefXml(context, R.xml.home_other,
+        addPrefScreen(res, R.xml.home_other,
             R.string.home,
             R.string.home_other,
             R.string.home_other,
@@ -323,7 +324,7 @@ public class SearchHelper {
             "com.sevtinge.cemiuiler.ui.fragment.home.HomeOtherSettings");
 
         // 设置相关
-        parsePrefXml(context, R.xml.system_settings,
+        addPrefScreen(res, R.xml.system_settings,
             R.string.system_settings,
             R.string.system_settings,
             R.string.system_settings,
@@ -332,7 +333,7 @@ public class SearchHelper {
             "com.sevtinge.cemiuiler.ui.fragment.SystemSettingsFragment");
 
         // 其他杂项
-        parsePrefXml(context, R.xml.browser,
+        addPrefScreen(res, R.xml.browser,
             R.string.browser,
             R.string.browser,
             R.string.browser,
@@ -340,7 +341,7 @@ public class SearchHelper {
             R.string.browser,
             "com.sevtinge.cemiuiler.ui.fragment.BrowserFragment");
 
-        parsePrefXml(context, R.xml.camera,
+        addPrefScreen(res, R.xml.camera,
             R.string.camera,
             R.string.camera,
             R.string.camera,
@@ -348,7 +349,7 @@ public class SearchHelper {
             R.string.camera,
             "com.sevtinge.cemiuiler.ui.fragment.CameraFragment");
 
-        parsePrefXml(context, R.xml.clock,
+        addPrefScreen(res, R.xml.clock,
             R.string.clock,
             R.string.clock,
             R.string.clock,
@@ -356,7 +357,7 @@ public class SearchHelper {
             R.string.clock,
             "com.sevtinge.cemiuiler.ui.fragment.ClockFragment");
 
-        parsePrefXml(context, R.xml.fileexplorer,
+        addPrefScreen(res, R.xml.fileexplorer,
             R.string.fileexplorer,
             R.string.fileexplorer,
             R.string.fileexplorer,
@@ -364,7 +365,7 @@ public class SearchHelper {
             R.string.fileexplorer,
             "com.sevtinge.cemiuiler.ui.fragment.FileExplorerFragment");
 
-        parsePrefXml(context, R.xml.incallui,
+        addPrefScreen(res, R.xml.incallui,
             R.string.incallui,
             R.string.incallui,
             R.string.incallui,
@@ -372,7 +373,7 @@ public class SearchHelper {
             R.string.incallui,
             "com.sevtinge.cemiuiler.ui.fragment.InCallUiFragment");
 
-        parsePrefXml(context, R.xml.mms,
+        addPrefScreen(res, R.xml.mms,
             R.string.mms,
             R.string.mms,
             R.string.mms,
@@ -380,7 +381,7 @@ public class SearchHelper {
             R.string.mms,
             "com.sevtinge.cemiuiler.ui.fragment.MmsFragment");
 
-        parsePrefXml(context, R.xml.nfc,
+        addPrefScreen(res, R.xml.nfc,
             R.string.nfc,
             R.string.nfc,
             R.string.nfc,
@@ -388,7 +389,7 @@ public class SearchHelper {
             R.string.nfc,
             "com.sevtinge.cemiuiler.ui.fragment.NfcFragment");
 
-        parsePrefXml(context, R.xml.phone,
+        addPrefScreen(res, R.xml.phone,
             R.string.phone,
             R.string.phone,
             R.string.phone,
@@ -396,7 +397,7 @@ public class SearchHelper {
             R.string.phone,
             "com.sevtinge.cemiuiler.ui.fragment.PhoneFragment");
 
-        parsePrefXml(context, R.xml.downloads,
+        addPrefScreen(res, R.xml.downloads,
             R.string.downloads,
             R.string.downloads,
             R.string.downloads,
@@ -404,7 +405,7 @@ public class SearchHelper {
             R.string.downloads,
             "com.sevtinge.cemiuiler.ui.fragment.DownloadsFragment");
 
-        parsePrefXml(context, R.xml.updater,
+        addPrefScreen(res, R.xml.updater,
             R.string.updater,
             R.string.updater,
             R.string.updater,
@@ -412,7 +413,7 @@ public class SearchHelper {
             R.string.updater,
             "com.sevtinge.cemiuiler.ui.fragment.UpdaterFragment");
 
-        parsePrefXml(context, R.xml.lbe_security,
+        addPrefScreen(res, R.xml.lbe_security,
             R.string.lbe,
             R.string.lbe,
             R.string.lbe,
@@ -420,7 +421,7 @@ public class SearchHelper {
             R.string.lbe,
             "com.sevtinge.cemiuiler.ui.fragment.LbeFragment");
 
-        parsePrefXml(context, R.xml.milink,
+        addPrefScreen(res, R.xml.milink,
             R.string.milink,
             R.string.milink,
             R.string.milink,
@@ -428,7 +429,7 @@ public class SearchHelper {
             R.string.milink,
             "com.sevtinge.cemiuiler.ui.fragment.MiLinkFragment");
 
-        parsePrefXml(context, R.xml.aod,
+        addPrefScreen(res, R.xml.aod,
             R.string.aod,
             R.string.aod,
             R.string.aod,
@@ -436,7 +437,7 @@ public class SearchHelper {
             R.string.aod,
             "com.sevtinge.cemiuiler.ui.fragment.AodFragment");
 
-        parsePrefXml(context, R.xml.content_extension,
+        addPrefScreen(res, R.xml.content_extension,
             R.string.content_extension,
             R.string.content_extension,
             R.string.content_extension,
@@ -444,7 +445,7 @@ public class SearchHelper {
             R.string.content_extension,
             "com.sevtinge.cemiuiler.ui.fragment.ContentExtensionFragment");
 
-        parsePrefXml(context, R.xml.gallery,
+        addPrefScreen(res, R.xml.gallery,
             R.string.gallery,
             R.string.gallery,
             R.string.gallery,
@@ -452,7 +453,7 @@ public class SearchHelper {
             R.string.gallery,
             "com.sevtinge.cemiuiler.ui.fragment.GalleryFragment");
 
-        parsePrefXml(context, R.xml.guard_provider,
+        addPrefScreen(res, R.xml.guard_provider,
             R.string.guard_provider,
             R.string.guard_provider,
             R.string.guard_provider,
@@ -460,7 +461,7 @@ public class SearchHelper {
             R.string.guard_provider,
             "com.sevtinge.cemiuiler.ui.fragment.GuardProviderFragment");
 
-        parsePrefXml(context, R.xml.mediaeditor,
+        addPrefScreen(res, R.xml.mediaeditor,
             R.string.mediaeditor,
             R.string.mediaeditor,
             R.string.mediaeditor,
@@ -468,7 +469,7 @@ public class SearchHelper {
             R.string.mediaeditor,
             "com.sevtinge.cemiuiler.ui.fragment.MediaEditorFragment");
 
-        parsePrefXml(context, R.xml.mishare,
+        addPrefScreen(res, R.xml.mishare,
             R.string.mishare,
             R.string.mishare,
             R.string.mishare,
@@ -476,7 +477,7 @@ public class SearchHelper {
             R.string.mishare,
             "com.sevtinge.cemiuiler.ui.fragment.MiShareFragment");
 
-        parsePrefXml(context, R.xml.miwallpaper,
+        addPrefScreen(res, R.xml.miwallpaper,
             R.string.miwallpaper,
             R.string.miwallpaper,
             R.string.miwallpaper,
@@ -484,7 +485,7 @@ public class SearchHelper {
             R.string.miwallpaper,
             "com.sevtinge.cemiuiler.ui.fragment.MiWallpaperFragment");
 
-        parsePrefXml(context, R.xml.package_installer,
+        addPrefScreen(res, R.xml.package_installer,
             R.string.package_installer,
             R.string.package_installer,
             R.string.package_installer,
@@ -492,7 +493,7 @@ public class SearchHelper {
             R.string.package_installer,
             "com.sevtinge.cemiuiler.ui.fragment.MiuiPackageInstallerFragment");
 
-        parsePrefXml(context, R.xml.music,
+        addPrefScreen(res, R.xml.music,
             R.string.music,
             R.string.music,
             R.string.music,
@@ -500,7 +501,7 @@ public class SearchHelper {
             R.string.music,
             "com.sevtinge.cemiuiler.ui.fragment.MusicFragment");
 
-        parsePrefXml(context, R.xml.powerkeeper,
+        addPrefScreen(res, R.xml.powerkeeper,
             R.string.powerkeeper,
             R.string.powerkeeper,
             R.string.powerkeeper,
@@ -508,7 +509,7 @@ public class SearchHelper {
             R.string.powerkeeper,
             "com.sevtinge.cemiuiler.ui.fragment.PowerKeeperFragment");
 
-        parsePrefXml(context, R.xml.screenrecorder,
+        addPrefScreen(res, R.xml.screenrecorder,
             R.string.screenrecorder,
             R.string.screenrecorder,
             R.string.screenrecorder,
@@ -516,7 +517,7 @@ public class SearchHelper {
             R.string.screenrecorder,
             "com.sevtinge.cemiuiler.ui.fragment.ScreenRecorderFragment");
 
-        parsePrefXml(context, R.xml.screenshot,
+        addPrefScreen(res, R.xml.screenshot,
             R.string.screenshot,
             R.string.screenshot,
             R.string.screenshot,
@@ -524,7 +525,7 @@ public class SearchHelper {
             R.string.screenshot,
             "com.sevtinge.cemiuiler.ui.fragment.ScreenShotFragment");
 
-        parsePrefXml(context, R.xml.security_center,
+        addPrefScreen(res, R.xml.security_center,
             !isPad() ? R.string.security_center : R.string.security_center_pad,
             !isPad() ? R.string.security_center : R.string.security_center_pad,
             !isPad() ? R.string.security_center : R.string.security_center_pad,
@@ -532,7 +533,7 @@ public class SearchHelper {
             !isPad() ? R.string.security_center : R.string.security_center_pad,
             "com.sevtinge.cemiuiler.ui.fragment.SecurityCenterFragment");
 
-        parsePrefXml(context, R.xml.tsmclient,
+        addPrefScreen(res, R.xml.tsmclient,
             R.string.tsmclient,
             R.string.tsmclient,
             R.string.tsmclient,
@@ -540,7 +541,7 @@ public class SearchHelper {
             R.string.tsmclient,
             "com.sevtinge.cemiuiler.ui.fragment.TsmClientFragment");
 
-        parsePrefXml(context, R.xml.weather,
+        addPrefScreen(res, R.xml.weather,
             R.string.weather,
             R.string.weather,
             R.string.weather,
@@ -548,7 +549,7 @@ public class SearchHelper {
             R.string.weather,
             "com.sevtinge.cemiuiler.ui.fragment.WeatherFragment");
 
-        parsePrefXml(context, R.xml.aiasst,
+        addPrefScreen(res, R.xml.aiasst,
             R.string.aiasst,
             R.string.aiasst,
             R.string.aiasst,
@@ -556,7 +557,7 @@ public class SearchHelper {
             R.string.aiasst,
             "com.sevtinge.cemiuiler.ui.fragment.AiAsstFragment");
 
-        parsePrefXml(context, R.xml.tsmclient,
+        addPrefScreen(res, R.xml.tsmclient,
             R.string.tsmclient,
             R.string.tsmclient,
             R.string.tsmclient,
@@ -564,7 +565,7 @@ public class SearchHelper {
             R.string.tsmclient,
             "com.sevtinge.cemiuiler.ui.fragment.TsmClientFragment");
 
-        parsePrefXml(context, R.xml.barrage,
+        addPrefScreen(res, R.xml.barrage,
             R.string.barrage,
             R.string.barrage,
             R.string.barrage,
@@ -572,7 +573,7 @@ public class SearchHelper {
             R.string.barrage,
             "com.sevtinge.cemiuiler.ui.fragment.BarrageFragment");
 
-        parsePrefXml(context, R.xml.joyose,
+        addPrefScreen(res, R.xml.joyose,
             R.string.joyose,
             R.string.joyose,
             R.string.joyose,
@@ -580,7 +581,7 @@ public class SearchHelper {
             R.string.joyose,
             "com.sevtinge.cemiuiler.ui.fragment.JoyoseFragment");
 
-        parsePrefXml(context, R.xml.market,
+        addPrefScreen(res, R.xml.market,
             R.string.market,
             R.string.market,
             R.string.market,
@@ -588,7 +589,7 @@ public class SearchHelper {
             R.string.market,
             "com.sevtinge.cemiuiler.ui.fragment.MarketFragment");
 
-        parsePrefXml(context, R.xml.mirror,
+        addPrefScreen(res, R.xml.mirror,
             R.string.mirror,
             R.string.mirror,
             R.string.mirror,
@@ -596,7 +597,7 @@ public class SearchHelper {
             R.string.mirror,
             "com.sevtinge.cemiuiler.ui.fragment.MirrorFragment");
 
-        parsePrefXml(context, R.xml.mtb,
+        addPrefScreen(res, R.xml.mtb,
             R.string.mtb,
             R.string.mtb,
             R.string.mtb,
@@ -604,7 +605,7 @@ public class SearchHelper {
             R.string.mtb,
             "com.sevtinge.cemiuiler.ui.fragment.MtbFragment");
 
-        parsePrefXml(context, R.xml.scanner,
+        addPrefScreen(res, R.xml.scanner,
             R.string.scanner,
             R.string.scanner,
             R.string.scanner,
@@ -612,7 +613,7 @@ public class SearchHelper {
             R.string.scanner,
             "com.sevtinge.cemiuiler.ui.fragment.ScannerFragment");
 
-        parsePrefXml(context, R.xml.creation,
+        addPrefScreen(res, R.xml.creation,
             R.string.creation,
             R.string.creation,
             R.string.creation,
@@ -620,7 +621,7 @@ public class SearchHelper {
             R.string.creation,
             "com.sevtinge.cemiuiler.ui.fragment.CreationFragment");
 
-        parsePrefXml(context, R.xml.various,
+        addPrefScreen(res, R.xml.various,
             R.string.various,
             R.string.various,
             R.string.various,
@@ -628,7 +629,7 @@ public class SearchHelper {
             R.string.various,
             "com.sevtinge.cemiuiler.ui.fragment.VariousFragment");
 
-        parsePrefXml(context, R.xml.various_aosp,
+        addPrefScreen(res, R.xml.various_aosp,
             R.string.various,
             R.string.various,
             R.string.various_open_aosp_something_title,
@@ -637,7 +638,7 @@ public class SearchHelper {
             "com.sevtinge.cemiuiler.ui.fragment.various.AOSPSettings");
 
         if (isPad()) {
-            parsePrefXml(context, R.xml.various_mipad,
+            addPrefScreen(res, R.xml.various_mipad,
                 R.string.various,
                 R.string.various_mipad_title,
                 R.string.various_mipad_title,
@@ -647,7 +648,7 @@ public class SearchHelper {
         }
 
         // 实验性
-        parsePrefXml(context, R.xml.theme_manager,
+        addPrefScreen(res, R.xml.theme_manager,
             R.string.theme_manager,
             R.string.theme_manager,
             R.string.theme_manager,
@@ -655,65 +656,59 @@ public class SearchHelper {
             R.string.theme_manager,
             "com.sevtinge.cemiuiler.ui.fragment.ThemeManagerFragment");
 
-        parsePrefXml(context, R.xml.personal_assistant,
+        addPrefScreen(res, R.xml.personal_assistant,
             R.string.personal_assistant,
             R.string.personal_assistant,
             R.string.personal_assistant,
             R.string.personal_assistant,
             R.string.personal_assistant,
             "com.sevtinge.cemiuiler.ui.fragment.PersonalAssistantFragment");
+        allModsVersion++;
     }
 
-    private static void parsePrefXml(Context context, int xmlResId, int catResId, int catSub1ResId, int catSub2ResId, int catSub3ResId, int catSub4ResId, String catPrefsFragment) {
-        Resources res = context.getResources();
-        try (XmlResourceParser xml = res.getXml(xmlResId)) {
-            int order = 0;
-            int eventType = xml.getEventType();
-            while (eventType != XmlPullParser.END_DOCUMENT) {
-                if (eventType == XmlPullParser.START_TAG && !xml.getName().equals("PreferenceCategory")) {
-                    try {
-                        ModData modData = new ModData();
-                        modData.title = getModTitle(res, xml.getAttributeValue(ANDROID_NS, "title"));
-                        if (Objects.equals(modData.title, res.getString(R.string.theme_manager_crack)) || Objects.equals(modData.title, res.getString(R.string.personal_assistant_widget_crack)))
-                            modData.title = "";
-                        if (!TextUtils.isEmpty(modData.title)) {
-                            if (!res.getString(catSub3ResId).equals(res.getString(catSub4ResId))) {
-                                modData.breadcrumbs = res.getString(catResId) + "/" + res.getString(catSub1ResId) + "/" + res.getString(catSub2ResId) + "/" + res.getString(catSub3ResId) + "/" + res.getString(catSub4ResId);
-                            } else if (!res.getString(catSub2ResId).equals(res.getString(catSub3ResId))) {
-                                modData.breadcrumbs = res.getString(catResId) + "/" + res.getString(catSub1ResId) + "/" + res.getString(catSub2ResId) + "/" + res.getString(catSub3ResId);
-                            } else if (!res.getString(catSub1ResId).equals(res.getString(catSub2ResId))) {
-                                modData.breadcrumbs = res.getString(catResId) + "/" + res.getString(catSub1ResId) + "/" + res.getString(catSub2ResId);
-                            } else if (!res.getString(catResId).equals(res.getString(catSub1ResId))) {
-                                modData.breadcrumbs = res.getString(catResId) + "/" + res.getString(catSub1ResId);
-                            } else {
-                                modData.breadcrumbs = res.getString(catResId);
-                            }
-                            modData.key = xml.getAttributeValue(ANDROID_NS, "key");
-                            modData.order = order;
-                            modData.catTitleResId = catSub4ResId;
-                            modData.fragment = catPrefsFragment;
-                            allModsList.add(modData);
-                        }
-                        order++;
-                    } catch (Throwable t) {
-                        t.printStackTrace();
-                    }
+    private static void addPrefScreen(Resources res, int xmlResId, int catResId, int catSub1ResId, int catSub2ResId, int catSub3ResId, int catSub4ResId, String catPrefsFragment) {
+        SearchIndex.Screen screen = SearchIndex.get(xmlResId);
+        if (screen == null) return;
+        String breadcrumbs = null;
+        for (int i = 0; i < screen.titles.length; i++) {
+            int titleResId = screen.titles[i];
+            if (titleResId == R.string.theme_manager_crack || titleResId == R.string.personal_assistant_widget_crack) continue;
+            try {
+                String title = res.getString(titleResId);
+                if (TextUtils.isEmpty(title)) continue;
+                if (breadcrumbs == null) {
+                    breadcrumbs = getBreadcrumbs(res, catResId, catSub1ResId, catSub2ResId, catSub3ResId, catSub4ResId);
                 }
-                eventType = xml.next();
+                ModData modData = new ModData();
+                modData.title = title;
+                modData.breadcrumbs = breadcrumbs;
+                modData.key = screen.keys[i];
+                modData.order = screen.orders[i];
+                modData.catTitleResId = catSub4ResId;
+                modData.fragment = catPrefsFragment;
+                allModsList.add(modData);
+            } catch (Throwable t) {
+                t.printStackTrace();
             }
-        } catch (Throwable t) {
-            t.printStackTrace();
         }
     }
 
-    private static String getModTitle(Resources res, String title) {
-        if (title == null) {
-            return null;
-        }
-        int titleResId = Integer.parseInt(title.substring(1));
-        if (titleResId <= 0) {
-            return null;
+    private static String getBreadcrumbs(Resources res, int catResId, int catSub1ResId, int catSub2ResId, int catSub3ResId, int catSub4ResId) {
+        String cat = res.getString(catResId);
+        String catSub1 = res.getString(catSub1ResId);
+        String catSub2 = res.getString(catSub2ResId);
+        String catSub3 = res.getString(catSub3ResId);
+        String catSub4 = res.getString(catSub4ResId);
+        if (!catSub3.equals(catSub4)) {
+            return cat + "/" + catSub1 + "/" + catSub2 + "/" + catSub3 + "/" + catSub4;
+        } else if (!catSub2.equals(catSub3)) {
+            return cat + "/" + catSub1 + "/" + catSub2 + "/" + catSub3;
+        } else if (!catSub1.equals(catSub2)) {
+            return cat + "/" + catSub1 + "/" + catSub2;
+        } else if (!cat.equals(catSub1)) {
+            return cat + "/" + catSub1;
+        } else {
+            return cat;
         }
-        return res.getString(titleResId);
     }
 }
@@ -8,21 +8,26 @@ import android.content.res.Resources;
 public class XposedUtils {
 
     @SuppressLint("StaticFieldLeak")
-    public static Context mModuleContext = null;
+    // getModuleRes 在快路径上不加锁读取，需要 volatile 保证看到完整创建的 Context
+    public static volatile Context mModuleContext = null;
 
     public static synchronized Context getModuleContext(Context context) throws Throwable {
         return getModuleContext(context, null);
     }
 
     public static synchronized Context getModuleContext(Context context, Configuration config) throws Throwable {
-        if (mModuleContext == null)
-            mModuleContext = context.createPackageContext(Helpers.mAppModulePkg, Context.CONTEXT_IGNORE_SECURITY).createDeviceProtectedStorageContext();
-        return config == null ? mModuleContext : mModuleContext.createConfigurationContext(config);
+        Context moduleContext = mModuleContext;
+        if (moduleContext == null) {
+            moduleContext = context.createPackageContext(Helpers.mAppModulePkg, Context.CONTEXT_IGNORE_SECURITY).createDeviceProtectedStorageContext();
+            mModuleContext = moduleContext;
+        }
+        return config == null ? moduleContext : moduleContext.createConfigurationContext(config);
     }
 
-    public static synchronized Resources getModuleRes(Context context) throws Throwable {
+    public static Resources getModuleRes(Context context) throws Throwable {
         Configuration config = context.getResources().getConfiguration();
-        Context moduleContext = getModuleContext(context);
-        return (config == null ? moduleContext.getResources() : moduleContext.createConfigurationContext(config).getResources());
+        Context moduleContext = mModuleContext;
+        if (moduleContext == null) moduleContext = getModuleContext(context);
+        return (config == null ? moduleContext.getResources() : ModuleResCache.get(moduleContext, config));
     }
 }
@@ -11,12 +11,14 @@ import android.graphics.Color;
 import android.graphics.LinearGradient;
 import android.graphics.Matrix;
 import android.graphics.Paint;
+import android.graphics.Rect;
 import android.graphics.Shader;
 import android.graphics.drawable.ShapeDrawable;
 import android.graphics.drawable.shapes.RectShape;
 import android.graphics.drawable.shapes.RoundRectShape;
-import android.net.Uri;
+import android.graphics.drawable.shapes.Shape;
 import android.os.Handler;
+import android.os.HandlerThread;
 import android.util.AttributeSet;
 import android.view.Gravity;
 import android.view.View;
@@ -24,8 +26,12 @@ import android.view.ViewGroup;
 import android.widget.FrameLayout;
 import android.widget.ImageView;
 
+import com.sevtinge.cemiuiler.XposedInit;
+import com.sevtinge.cemiuiler.utils.PrefsMap;
 import com.sevtinge.cemiuiler.utils.PrefsUtils;
 
+import java.util.Set;
+
 import de.robv.android.xposed.XposedHelpers;
 
 public class BatteryIndicatorView extends ImageView {
@@ -59,6 +65,14 @@ public class BatteryIndicatorView extends ImageView {
     private boolean mLimited = false;
     private int mTintColor = Color.argb(153, 0, 0, 0);
     private Object mStatusBar = null;
+    private Shape mShape = new RectShape();
+    private RainbowShaderFactory mShaderFactory = null;
+    private volatile Parameters mPendingParameters = null;
+    private PrefsUtils.SharedPrefsDeltaObserver mPrefsObserver = null;
+
+    private static final String PREFS_KEY_PREFIX = "prefs_key_system_ui_status_bar_battery_indicator";
+    private static final ArgbEvaluator sArgbEvaluator = new ArgbEvaluator();
+    private static Handler sWorkerHandler = null;
 
     enum ColorMode {
         DISCRETE, GRADUAL, RAINBOW
@@ -87,16 +101,24 @@ public class BatteryIndicatorView extends ImageView {
         } catch (Throwable t) {
         }
 
-        updateParameters();
-        new PrefsUtils.SharedPrefsObserver(getContext(), new Handler(getContext().getMainLooper())) {
+        applyParameters(Parameters.load(mLowLevelSystem));
+        // 同步在分发器线程，读取在 worker 线程，只把结果交给主线程
+        if (mPrefsObserver != null) mPrefsObserver.unregister();
+        mPrefsObserver = new PrefsUtils.SharedPrefsDeltaObserver(getContext(), getWorkerHandler()) {
             @Override
-            public void onChange(Uri uri) {
-                try {
-                    String key = uri.getPathSegments().get(2);
-                    if (!mTesting) {
-                        updateParameters();
-                        update();
+            public void onChange(Set<String> keys) {
+                boolean isChanged = false;
+                for (String key : keys) {
+                    if (key.startsWith(PREFS_KEY_PREFIX)) {
+                        isChanged = true;
+                        break;
                     }
+                }
+                if (!isChanged) return;
+                try {
+                    mPendingParameters = Parameters.load(mLowLevelSystem);
+                    removeCallbacks(mApplyPendingParameters);
+                    post(mApplyPendingParameters);
                 } catch (Throwable t) {
                 }
             }
@@ -110,6 +132,25 @@ public class BatteryIndicatorView extends ImageView {
         }, new IntentFilter("moralnorm.module.BatteryIndicatorTest"));
     }
 
+    private static synchronized Handler getWorkerHandler() {
+        if (sWorkerHandler == null) {
+            HandlerThread thread = new HandlerThread("BatteryIndicator");
+            thread.start();
+            sWorkerHandler = new Handler(thread.getLooper());
+        }
+        return sWorkerHandler;
+    }
+
+    private final Runnable mApplyPendingParameters = () -> {
+        // 测试动画结束后再应用
+        if (mTesting) return;
+        Parameters parameters = mPendingParameters;
+        if (parameters == null) return;
+        mPendingParameters = null;
+        applyParameters(parameters);
+        update();
+    };
+
     Runnable step = new Runnable() {
         @Override
         public void run() {
@@ -121,7 +162,7 @@ public class BatteryIndicatorView extends ImageView {
                 removeCallbacks(step);
                 mTesting = false;
                 postDelayed(() -> {
-                    updateParameters();
+                    mApplyPendingParameters.run();
                     update();
                 }, 1000);
             }
@@ -209,22 +250,66 @@ public class BatteryIndicatorView extends ImageView {
         this.mDisplayWidth = getMeasuredWidth();
     }
 
-    protected void updateParameters() {
-        mColorMode = ColorMode.values()[Integer.parseInt(PrefsUtils.getSharedStringPrefs(getContext(), "prefs_key_system_ui_status_bar_battery_indicator_color", "0"))];
-        mFullColor = PrefsUtils.getSharedIntPrefs(getContext(), "prefs_key_system_ui_status_bar_battery_indicator_color_full_power", Color.GREEN);
-        mLowColor = PrefsUtils.getSharedIntPrefs(getContext(), "prefs_key_system_ui_status_bar_battery_indicator_color_low_power", Color.RED);
-        mPowerSaveColor = PrefsUtils.getSharedIntPrefs(getContext(), "prefs_key_system_ui_status_bar_battery_indicator_color_power_saving", Color.rgb(245, 166, 35));
-        mChargingColor = PrefsUtils.getSharedIntPrefs(getContext(), "prefs_key_system_ui_status_bar_battery_indicator_color_power_charging", Color.YELLOW);
-        mLowLevel = PrefsUtils.getSharedIntPrefs(getContext(), "prefs_key_system_ui_status_bar_battery_indicator_low_level", mLowLevelSystem);
-        mHeight = PrefsUtils.getSharedIntPrefs(getContext(), "prefs_key_system_ui_status_bar_battery_indicator_height", 5);
-        mGlow = PrefsUtils.getSharedIntPrefs(getContext(), "prefs_key_system_ui_status_bar_battery_indicator_glow", 0);
-        mRounded = PrefsUtils.getSharedBoolPrefs(getContext(), "prefs_key_system_ui_status_bar_battery_indicator_rounded", false);
-        mBottom = Integer.parseInt(PrefsUtils.getSharedStringPrefs(getContext(), "prefs_key_system_ui_status_bar_battery_indicator_align", "0")) == 1;
-        mCentered = PrefsUtils.getSharedBoolPrefs(getContext(), "prefs_key_system_ui_status_bar_battery_indicator_centered", false);
-        mLimited = PrefsUtils.getSharedBoolPrefs(getContext(), "prefs_key_system_ui_status_bar_battery_indicator_limitvis", false);
-        mTransparency = PrefsUtils.getSharedIntPrefs(getContext(), "prefs_key_system_ui_status_bar_battery_indicator_alpha", 0);
-        mPadding = PrefsUtils.getSharedIntPrefs(getContext(), "prefs_key_system_ui_status_bar_battery_indicator_padding", 0);
-        mVisibility = PrefsUtils.getSharedBoolPrefs(getContext(), "prefs_key_system_ui_status_bar_battery_indicator_enable", false) ? View.VISIBLE : View.GONE;
+    /**
+     * 电量条的全部设置项，在后台线程从 mPrefsMap 一次读出
+     */
+    private static final class Parameters {
+        ColorMode colorMode;
+        int fullColor;
+        int lowColor;
+        int powerSaveColor;
+        int chargingColor;
+        int lowLevel;
+        int height;
+        int glow;
+        boolean rounded;
+        boolean bottom;
+        boolean centered;
+        boolean limited;
+        int transparency;
+        int padding;
+        int visibility;
+
+        static Parameters load(int lowLevelSystem) {
+            String prefix = "system_ui_status_bar_battery_indicator";
+            PrefsMap<String, Object> prefs = XposedInit.mPrefsMap;
+            Parameters parameters = new Parameters();
+            parameters.colorMode = ColorMode.values()[prefs.getStringAsInt(prefix + "_color", 0)];
+            parameters.fullColor = prefs.getInt(prefix + "_color_full_power", Color.GREEN);
+            parameters.lowColor = prefs.getInt(prefix + "_color_low_power", Color.RED);
+            parameters.powerSaveColor = prefs.getInt(prefix + "_color_power_saving", Color.rgb(245, 166, 35));
+            parameters.chargingColor = prefs.getInt(prefix + "_color_power_charging", Color.YELLOW);
+            parameters.lowLevel = prefs.getInt(prefix + "_low_level", lowLevelSystem);
+            parameters.height = prefs.getInt(prefix + "_height", 5);
+            parameters.glow = prefs.getInt(prefix + "_glow", 0);
+            parameters.rounded = prefs.getBoolean(prefix + "_rounded");
+            parameters.bottom = prefs.getStringAsInt(prefix + "_align", 0) == 1;
+            parameters.centered = prefs.getBoolean(prefix + "_centered");
+            parameters.limited = prefs.getBoolean(prefix + "_limitvis");
+            parameters.transparency = prefs.getInt(prefix + "_alpha", 0);
+            parameters.padding = prefs.getInt(prefix + "_padding", 0);
+            parameters.visibility = prefs.getBoolean(prefix + "_enable") ? View.VISIBLE : View.GONE;
+            return parameters;
+        }
+    }
+
+    private void applyParameters(Parameters parameters) {
+        mColorMode = parameters.colorMode;
+        mFullColor = parameters.fullColor;
+        mLowColor = parameters.lowColor;
+        mPowerSaveColor = parameters.powerSaveColor;
+        mChargingColor = parameters.chargingColor;
+        mLowLevel = parameters.lowLevel;
+        mHeight = parameters.height;
+        mGlow = parameters.glow;
+        mRounded = parameters.rounded;
+        mBottom = parameters.bottom;
+        mCentered = parameters.centered;
+        mLimited = parameters.limited;
+        mTransparency = parameters.transparency;
+        mPadding = parameters.padding;
+        mVisibility = parameters.visibility;
+        mShape = mRounded ? new RoundRectShape(new float[]{mHeight, mHeight, mHeight, mHeight, mHeight, mHeight, mHeight, mHeight}, null, null) : new RectShape();
         FrameLayout.LayoutParams lp = (FrameLayout.LayoutParams) getLayoutParams();
         lp.width = ViewGroup.LayoutParams.MATCH_PARENT;
         lp.height = ViewGroup.LayoutParams.WRAP_CONTENT;
@@ -236,12 +321,58 @@ public class BatteryIndicatorView extends ImageView {
         }
         this.setVisibility(mVisibility);
         this.setScaleType(mCentered ? ScaleType.CENTER : ScaleType.MATRIX);
-        Matrix matrix = new Matrix();
-        matrix.setTranslate(0, 0);
-        matrix.setScale(1, 1);
         this.setImageMatrix(new Matrix());
     }
 
+    /**
+     * 彩虹渐变，按渐变长度与是否居中复用；宽高不变时复用上一次的 Shader
+     */
+    private static final class RainbowShaderFactory extends ShapeDrawable.ShaderFactory {
+        private static final int STEPS = 15;
+        private static final float[] POSITIONS = new float[STEPS];
+        private static final int[] COLORS = buildColors(false);
+        private static final int[] CENTERED_COLORS = buildColors(true);
+
+        static {
+            for (int i = 0; i < STEPS; i++) POSITIONS[i] = i / (float) (STEPS - 1);
+        }
+
+        final int length;
+        final boolean centered;
+        private int mWidth = -1;
+        private int mHeight = -1;
+        private Shader mShader;
+
+        RainbowShaderFactory(int length, boolean centered) {
+            this.length = length;
+            this.centered = centered;
+        }
+
+        private static int[] buildColors(boolean centered) {
+            float jump = 300f / (float) STEPS;
+            int[] rainbow = new int[STEPS];
+            for (int i = 0; i < STEPS; i++) {
+                float c = (centered ? 240 : 0) + jump * i;
+                if (c > 360) c -= 360;
+                rainbow[i] = Color.HSVToColor(255, new float[]{c, 1.0f, 1.0f});
+            }
+            return rainbow;
+        }
+
+        @Override
+        public Shader resize(int width, int height) {
+            // 不居中时起点固定，与宽度无关
+            if (mShader != null && mHeight == height && (!centered || mWidth == width)) return mShader;
+            mWidth = width;
+            mHeight = height;
+            if (centered)
+                mShader = new LinearGradient(width / 2f - length / 2f, height / 2f, length, height / 2f, CENTERED_COLORS, POSITIONS, Shader.TileMode.CLAMP);
+            else
+                mShader = new LinearGradient(0, height / 2f, length, height / 2f, COLORS, POSITIONS, Shader.TileMode.CLAMP);
+            return mShader;
+        }
+    }
+
     @SuppressLint({"InternalInsetResource", "DiscouragedApi"})
     protected void updateDrawable() {
         try {
@@ -255,9 +386,7 @@ public class BatteryIndicatorView extends ImageView {
                 color = this.mLowColor;
 
             ShapeDrawable shape = (ShapeDrawable) getDrawable();
-            shape.setShaderFactory(null);
             Paint paint = shape.getPaint();
-            paint.setShader(null);
 
             if (color == Color.TRANSPARENT && mStatusBar != null)
                 try {
@@ -277,30 +406,11 @@ public class BatteryIndicatorView extends ImageView {
             int mDisplayPadding = Math.round(mPadding / 100f * this.mDisplayWidth);
 
             if (mColorMode == ColorMode.GRADUAL) {
-                color = level <= this.mLowLevel || (!this.mTesting && (this.mIsBeingCharged || this.mIsPowerSave || this.mIsExtremePowerSave)) ? color : (int) new ArgbEvaluator().evaluate(1f - (level - this.mLowLevel) / (100f - this.mLowLevel), color, mLowColor);
-            } else if (mColorMode == ColorMode.RAINBOW) {
-                int steps = 15;
-                float jump = 300f / (float) steps;
-                float[] pos = new float[steps];
-                int[] rainbow = new int[steps];
-                for (int i = 0; i < steps; i++) {
-                    pos[i] = i / (float) (steps - 1);
-                    float c = (mCentered ? 240 : 0) + jump * i;
-                    if (c > 360) c -= 360;
-                    rainbow[i] = Color.HSVToColor(255, new float[]{c, 1.0f, 1.0f});
-                }
-                shape.setShaderFactory(new ShapeDrawable.ShaderFactory() {
-                    @Override
-                    public Shader resize(int width, int height) {
-                        if (mCentered)
-                            return new LinearGradient(width / 2f - (mDisplayWidth - mDisplayPadding * 2) / 2f, height / 2f, (mDisplayWidth - mDisplayPadding * 2), height / 2f, rainbow, pos, Shader.TileMode.CLAMP);
-                        else
-                            return new LinearGradient(0, height / 2f, (mDisplayWidth - mDisplayPadding * 2), height / 2f, rainbow, pos, Shader.TileMode.CLAMP);
-                    }
-                });
+                color = level <= this.mLowLevel || (!this.mTesting && (this.mIsBeingCharged || this.mIsPowerSave || this.mIsExtremePowerSave)) ? color : (int) sArgbEvaluator.evaluate(1f - (level - this.mLowLevel) / (100f - this.mLowLevel), color, mLowColor);
             }
+            updateShader(shape, mColorMode == ColorMode.RAINBOW ? this.mDisplayWidth - mDisplayPadding * 2 : -1);
             paint.setColor(color);
-            shape.setShape(mRounded ? new RoundRectShape(new float[]{mHeight, mHeight, mHeight, mHeight, mHeight, mHeight, mHeight, mHeight}, null, null) : new RectShape());
+            if (shape.getShape() != mShape) shape.setShape(mShape);
 
             int mWidth = Math.round((this.mDisplayWidth - mDisplayPadding * 2) * level / 100f);
             float mDensity = getResources().getDisplayMetrics().density;
@@ -334,4 +444,22 @@ public class BatteryIndicatorView extends ImageView {
         }
     }
 
+    /**
+     * @param length 彩虹渐变的长度，-1 时不使用渐变
+     */
+    private void updateShader(ShapeDrawable shape, int length) {
+        if (length < 0) {
+            if (mShaderFactory == null) return;
+            mShaderFactory = null;
+            shape.setShaderFactory(null);
+            shape.getPaint().setShader(null);
+            return;
+        }
+        if (mShaderFactory != null && mShaderFactory.length == length && mShaderFactory.centered == mCentered) return;
+        mShaderFactory = new RainbowShaderFactory(length, mCentered);
+        shape.setShaderFactory(mShaderFactory);
+        Rect bounds = shape.getBounds();
+        shape.getPaint().setShader(mShaderFactory.resize(bounds.width(), bounds.height()));
+    }
+
 }